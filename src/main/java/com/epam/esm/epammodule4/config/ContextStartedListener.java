@@ -2,11 +2,13 @@ package com.epam.esm.epammodule4.config;
 
 import com.epam.esm.epammodule4.util.GenerateInitialDataImpl;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationListener;
 import org.springframework.context.event.ContextStartedEvent;
 import org.springframework.stereotype.Component;
 
+@Slf4j
 @Component
 @RequiredArgsConstructor
 class ContextStartedListener implements ApplicationListener<ContextStartedEvent> {
@@ -16,8 +18,20 @@ class ContextStartedListener implements ApplicationListener<ContextStartedEvent>
     @Value("${app.initial-data.records}")
     private Integer numberOfRecords;
 
+    @Value("${app.initial-data.async}")
+    private boolean async;
+
     @Override
     public void onApplicationEvent(ContextStartedEvent event) {
-        generateInitialData.generate(numberOfRecords);
+        if (!async) {
+            generateInitialData.generate(numberOfRecords);
+            return;
+        }
+
+        generateInitialData.generateAsync(numberOfRecords).whenComplete((result, error) -> {
+            if (error != null) {
+                log.error("Generating initial data failed; start again to resume", error);
+            }
+        });
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,80 @@
+package com.epam.esm.epammodule4.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.boot.model.relational.QualifiedName;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.enhanced.DatabaseStructure;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Moves every id sequence past the ids already stored in its tables.
+ * <p>
+ * The entities used to take identity columns, so on an existing database {@code ddl-auto: update} creates
+ * their sequences starting at 1, below the stored ids. A pooled sequence hands out the block ending at its
+ * value, {@code (value - increment, value]}, so one is restarted at {@code max(id) + increment} whenever its
+ * next block would reach a stored id. This runs once the schema is updated and before the application
+ * writes anything. It costs one block per sequence on every start. The old identity sequences and column
+ * defaults are left in place but are no longer used.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+class IdSequenceAligner {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    void alignSequences() {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        Dialect dialect = sessionFactory.getJdbcServices().getDialect();
+
+        Map<String, Integer> increments = new HashMap<>();
+        Map<String, Long> maxIds = new HashMap<>();
+
+        sessionFactory.getMetamodel().entityPersisters().values().forEach(persister -> {
+            if (persister.getIdentifierGenerator() instanceof SequenceStyleGenerator generator
+                    && generator.getDatabaseStructure().isPhysicalSequence()
+                    && persister instanceof AbstractEntityPersister entityPersister) {
+                DatabaseStructure sequence = generator.getDatabaseStructure();
+                String sequenceName = render(sequence.getPhysicalName(), dialect);
+                Long maxId = jdbcTemplate.queryForObject("SELECT MAX(%s) FROM %s".formatted(
+                        entityPersister.getIdentifierColumnNames()[0], entityPersister.getTableName()), Long.class);
+
+                increments.put(sequenceName, sequence.getIncrementSize());
+                maxIds.merge(sequenceName, Objects.requireNonNullElse(maxId, 0L), Math::max);
+            }
+        });
+
+        maxIds.forEach((sequence, maxId) -> {
+            int increment = increments.get(sequence);
+            Long next = jdbcTemplate.queryForObject(dialect.getSequenceNextValString(sequence), Long.class);
+
+            if (maxId > 0 && next - increment < maxId) {
+                jdbcTemplate.execute("ALTER SEQUENCE %s RESTART WITH %d".formatted(sequence, maxId + increment));
+                log.info("Restarted sequence {} past the stored id {}", sequence, maxId);
+            }
+        });
+    }
+
+    /**
+     * The sequence name as SQL refers to it, each part quoted only when the dialect requires it.
+     */
+    private static String render(QualifiedName name, Dialect dialect) {
+        return Stream.of(name.getCatalogName(), name.getSchemaName(), name.getObjectName())
+                .filter(Objects::nonNull)
+                .map(identifier -> identifier.render(dialect))
+                .collect(Collectors.joining("."));
+    }
+}
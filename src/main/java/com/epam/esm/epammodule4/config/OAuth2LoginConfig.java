@@ -0,0 +1,94 @@
+package com.epam.esm.epammodule4.config;
+
+import com.epam.esm.epammodule4.security.JwksCache;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.client.oidc.authentication.OidcIdTokenDecoderFactory;
+import org.springframework.security.oauth2.client.oidc.authentication.OidcIdTokenValidator;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.core.converter.ClaimTypeConverter;
+import org.springframework.security.oauth2.jwt.JwtDecoderFactory;
+import org.springframework.security.oauth2.jwt.JwtTimestampValidator;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.util.StringUtils;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Configuration
+@ConditionalOnProperty(name = "app.use-oauth2", havingValue = "true")
+public class OAuth2LoginConfig {
+
+    private static final String SUPPORTED_ALGORITHMS_METADATA = "id_token_signing_alg_values_supported";
+
+    @Bean
+    public JwksCache jwksCache(@Value("${app.oauth2.jwk-set-uri}") String jwkSetUri,
+                               @Value("${app.oauth2.jwks-file:}") String jwksFile) {
+        return new JwksCache(jwkSetUri, jwksFile);
+    }
+
+    /**
+     * Verifies ID tokens against {@link JwksCache} instead of fetching the JWK set remotely,
+     * with the same validation and claim conversion as {@link OidcIdTokenDecoderFactory}.
+     * <p>
+     * The accepted algorithms are {@code app.oauth2.id-token-algorithms}, or when that is empty those the
+     * provider advertises in its metadata, RS256 when it advertises none. Only asymmetric algorithms can be
+     * verified against a JWK set, so others are rejected in the configuration and ignored in the metadata.
+     */
+    @Bean
+    public JwtDecoderFactory<ClientRegistration> idTokenDecoderFactory(
+            JwksCache jwksCache,
+            @Value("${app.oauth2.id-token-algorithms}") List<String> algorithms) {
+        Set<JWSAlgorithm> configured = parseAlgorithms(algorithms, true);
+
+        return clientRegistration -> {
+            DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+            jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(
+                    configured.isEmpty() ? advertisedAlgorithms(clientRegistration) : configured, jwksCache));
+
+            NimbusJwtDecoder jwtDecoder = new NimbusJwtDecoder(jwtProcessor);
+            jwtDecoder.setJwtValidator(new DelegatingOAuth2TokenValidator<>(
+                    new JwtTimestampValidator(), new OidcIdTokenValidator(clientRegistration)));
+            jwtDecoder.setClaimSetConverter(
+                    new ClaimTypeConverter(OidcIdTokenDecoderFactory.createDefaultClaimTypeConverters()));
+
+            return jwtDecoder;
+        };
+    }
+
+    private static Set<JWSAlgorithm> advertisedAlgorithms(ClientRegistration clientRegistration) {
+        Object advertised = clientRegistration.getProviderDetails().getConfigurationMetadata()
+                .get(SUPPORTED_ALGORITHMS_METADATA);
+        Set<JWSAlgorithm> algorithms = advertised instanceof Collection<?> values
+                ? parseAlgorithms(values.stream().map(String::valueOf).toList(), false)
+                : Set.of();
+
+        return algorithms.isEmpty() ? Set.of(JWSAlgorithm.RS256) : algorithms;
+    }
+
+    private static Set<JWSAlgorithm> parseAlgorithms(List<String> names, boolean strict) {
+        Set<JWSAlgorithm> algorithms = names.stream()
+                .filter(StringUtils::hasText)
+                .map(name -> JWSAlgorithm.parse(name.trim()))
+                .collect(Collectors.toSet());
+
+        Set<JWSAlgorithm> unsupported = algorithms.stream()
+                .filter(algorithm -> !JWSAlgorithm.Family.SIGNATURE.contains(algorithm))
+                .collect(Collectors.toSet());
+        if (strict && !unsupported.isEmpty()) {
+            throw new IllegalArgumentException("ID tokens cannot be verified with " + unsupported);
+        }
+
+        algorithms.removeAll(unsupported);
+        return algorithms;
+    }
+}
@@ -1,10 +1,12 @@
 package com.epam.esm.epammodule4.config;
 
+import com.epam.esm.epammodule4.repository.KeysetJpaRepository;
 import org.modelmapper.ModelMapper;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.auditing.DateTimeProvider;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 
 import java.time.Clock;
 import java.time.Instant;
@@ -12,6 +14,10 @@ import java.util.Optional;
 
 @Configuration
 @EnableJpaAuditing(dateTimeProviderRef = "utcDateTimeProvider")
+@EnableJpaRepositories(
+        basePackageClasses = KeysetJpaRepository.class,
+        repositoryBaseClass = KeysetJpaRepository.class
+)
 public class PersistenceConfig {
 
     @Bean
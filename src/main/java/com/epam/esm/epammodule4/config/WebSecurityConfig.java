@@ -1,12 +1,17 @@
 package com.epam.esm.epammodule4.config;
 
+import com.epam.esm.epammodule4.security.BoundedPasswordEncoder;
+import com.epam.esm.epammodule4.security.OAuth2LoginSuccessHandler;
 import com.epam.esm.epammodule4.security.OAuth2UserService;
 import com.epam.esm.epammodule4.security.jwt.AuthEntryPointJwt;
 import com.epam.esm.epammodule4.security.jwt.AuthTokenFilter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
@@ -14,9 +19,8 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.method.configuration.EnableGlobalMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.client.oidc.userinfo.OidcUserService;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -35,8 +39,23 @@ public class WebSecurityConfig {
     @Value("${app.use-oauth2}")
     private boolean useOauth2;
 
+    @Value("${app.bcrypt.strength}")
+    private int bcryptStrength;
+
+    @Value("${app.bcrypt.threads}")
+    private int bcryptThreads;
+
+    @Value("${app.bcrypt.queue-capacity}")
+    private int bcryptQueueCapacity;
+
     @Resource
     private UserDetailsService userDetailsService;
+
+    @Resource
+    private UserDetailsPasswordService userDetailsPasswordService;
+
+    @Resource
+    private OAuth2LoginSuccessHandler oAuth2LoginSuccessHandler;
     AuthEntryPointJwt unauthorizedHandler;
 
     @Bean
@@ -44,12 +63,25 @@ public class WebSecurityConfig {
         return new AuthTokenFilter();
     }
 
+    /**
+     * The filter runs inside the security filter chains only; without this Boot would also
+     * register it for every request at the servlet container level.
+     */
+    @Bean
+    public FilterRegistrationBean<AuthTokenFilter> authenticationJwtTokenFilterRegistration(AuthTokenFilter filter) {
+        FilterRegistrationBean<AuthTokenFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+
+        return registration;
+    }
+
     @Bean
     public DaoAuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
 
         authProvider.setUserDetailsService(userDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setUserDetailsPasswordService(userDetailsPasswordService);
 
         return authProvider;
     }
@@ -60,11 +92,36 @@ public class WebSecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder() {
+        return new BoundedPasswordEncoder(bcryptStrength, bcryptThreads, bcryptQueueCapacity);
+    }
+
+    /**
+     * Anonymous catalog reads: no token parsing, no security context, no authorization rules.
+     * Every other request falls through to {@link #filterChain}.
+     */
+    @Bean
+    @Order(1)
+    @ConditionalOnProperty(name = "app.security.catalog-fast-lane", havingValue = "true", matchIfMissing = true)
+    public SecurityFilterChain catalogFilterChain(HttpSecurity http) throws Exception {
+        CorsConfiguration corsConfiguration = corsConfiguration();
+
+        http.requestMatchers(matchers -> matchers
+                        .antMatchers(HttpMethod.GET, "/tags", "/tags/*", "/certificates", "/certificates/*", "/suggest"))
+                .csrf().disable()
+                .cors().configurationSource(request -> corsConfiguration).and()
+                .securityContext().disable()
+                .sessionManagement().disable()
+                .requestCache().disable()
+                .anonymous().disable()
+                .servletApi().disable()
+                .logout().disable();
+
+        return http.build();
     }
 
     @Bean
+    @Order(2)
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http.csrf().disable()
                 .exceptionHandling().authenticationEntryPoint(unauthorizedHandler).and()
@@ -88,6 +145,8 @@ public class WebSecurityConfig {
                 .antMatchers(HttpMethod.POST, "/certificates").hasRole("ADMIN")
                 .antMatchers(HttpMethod.DELETE, "/certificates/*").hasRole("ADMIN")
 
+                .antMatchers(HttpMethod.GET, "/suggest").permitAll()
+
                 .antMatchers(HttpMethod.GET, "/orders").hasRole("ADMIN")
                 .antMatchers(HttpMethod.GET, "/orders/*/user", "/orders/user", "/orders/cost").authenticated()
                 .antMatchers(HttpMethod.PATCH, "/orders").hasRole("ADMIN")
@@ -96,6 +155,7 @@ public class WebSecurityConfig {
 
         if (useOauth2) {
             http.oauth2Login()
+                    .successHandler(oAuth2LoginSuccessHandler)
                     .userInfoEndpoint()
                     .oidcUserService(oauthUserService());
         }
@@ -110,7 +170,13 @@ public class WebSecurityConfig {
 
     @Bean
     CorsConfigurationSource corsConfigurationSource() {
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration("/**", corsConfiguration());
 
+        return source;
+    }
+
+    private CorsConfiguration corsConfiguration() {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOrigins(Arrays.asList("http://localhost:3000", "http://localhost:4200"));
         configuration.addAllowedHeader("*");
@@ -125,10 +191,7 @@ public class WebSecurityConfig {
         ));
         configuration.addExposedHeader("Authorization");
 
-        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
-        source.registerCorsConfiguration("/**", configuration);
-
-        return source;
+        return configuration;
     }
 
     @Bean
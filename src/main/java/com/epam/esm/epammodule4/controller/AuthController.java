@@ -1,7 +1,6 @@
 package com.epam.esm.epammodule4.controller;
 
 import com.epam.esm.epammodule4.exception.EmailAlreadyInUseException;
-import com.epam.esm.epammodule4.exception.TokenRefreshException;
 import com.epam.esm.epammodule4.exception.UsernameAlreadyTakenException;
 import com.epam.esm.epammodule4.model.dto.request.CreateUserRequest;
 import com.epam.esm.epammodule4.model.dto.request.LoginRequest;
@@ -12,6 +11,8 @@ import com.epam.esm.epammodule4.model.dto.response.MessageResponse;
 import com.epam.esm.epammodule4.model.dto.response.TokenRefreshResponse;
 import com.epam.esm.epammodule4.model.entity.RefreshToken;
 import com.epam.esm.epammodule4.security.jwt.JwtUtils;
+import com.epam.esm.epammodule4.security.jwt.TokenRevocationList;
+import com.epam.esm.epammodule4.security.jwt.VerifiedToken;
 import com.epam.esm.epammodule4.service.UserService;
 import com.epam.esm.epammodule4.service.implementation.RefreshTokenService;
 import com.epam.esm.epammodule4.service.implementation.UserDetailsImpl;
@@ -37,6 +38,7 @@ public class AuthController {
     private final UserService userService;
     private final RefreshTokenService refreshTokenService;
     private final JwtUtils jwtUtils;
+    private final TokenRevocationList tokenRevocationList;
     private final ModelMapper modelMapper;
 
     @PostMapping("/login")
@@ -81,21 +83,23 @@ public class AuthController {
 
     @PostMapping("/refreshtoken")
     public TokenRefreshResponse refreshtoken(@Valid @RequestBody TokenRefreshRequest request) {
-        String requestRefreshToken = request.getRefreshToken();
-
-        return refreshTokenService.findByToken(requestRefreshToken)
-                .map(refreshTokenService::verifyExpiration)
-                .map(RefreshToken::getUser)
-                .map(user -> {
-                    String token = jwtUtils.generateTokenFromUser(user);
-                    return new TokenRefreshResponse(token, requestRefreshToken);
-                })
-                .orElseThrow(() -> new TokenRefreshException(requestRefreshToken,
-                        "Refresh token is not in database!"));
+        RefreshToken refreshToken = refreshTokenService.rotate(request.getRefreshToken());
+        String token = jwtUtils.generateTokenFromUser(refreshToken.getUser());
+
+        return new TokenRefreshResponse(token, refreshToken.getToken());
     }
 
     @PostMapping("/logout")
     public MessageResponse logout() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        if (authentication != null && authentication.getPrincipal() instanceof UserDetailsImpl userDetails) {
+            if (authentication.getCredentials() instanceof VerifiedToken accessToken) {
+                tokenRevocationList.revoke(accessToken.getId(), accessToken.getExpiration());
+            }
+            refreshTokenService.deleteByUserId(userDetails.getId());
+        }
+
         SecurityContextHolder.clearContext();
 
         return new MessageResponse("Logout successfully!");
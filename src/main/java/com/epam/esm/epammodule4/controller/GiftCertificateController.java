@@ -1,20 +1,21 @@
 package com.epam.esm.epammodule4.controller;
 
+import com.epam.esm.epammodule4.model.CertificateFacets;
+import com.epam.esm.epammodule4.model.TotalCount;
 import com.epam.esm.epammodule4.model.dto.*;
 import com.epam.esm.epammodule4.model.dto.request.CreateGiftCertificateRequest;
 import com.epam.esm.epammodule4.model.dto.request.SearchGiftCertificateRequest;
 import com.epam.esm.epammodule4.model.dto.request.UpdateGiftCertificateRequest;
+import com.epam.esm.epammodule4.model.dto.response.CertificateSearchResponse;
 import com.epam.esm.epammodule4.model.entity.GiftCertificate;
 import com.epam.esm.epammodule4.service.GiftCertificateService;
 import com.epam.esm.epammodule4.service.mapper.GiftCertificateMapper;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
@@ -37,8 +38,16 @@ public class GiftCertificateController {
     }
 
     @GetMapping
-    public Page<GiftCertificateDto> getAllCertificates(Pageable pageable) {
-        Page<GiftCertificate> foundCertificates = certificateService.findAll(pageable);
+    public Slice<GiftCertificateDto> getAllCertificates(@RequestParam(defaultValue = "EXACT") TotalCount total,
+                                                        Pageable pageable) {
+        Slice<GiftCertificate> foundCertificates = certificateService.findAll(pageable, total);
+
+        return foundCertificates.map(certificateMapper::toDto);
+    }
+
+    @GetMapping(params = "cursor")
+    public CursorPage<GiftCertificateDto> getAllCertificates(@RequestParam String cursor, Pageable pageable) {
+        CursorPage<GiftCertificate> foundCertificates = certificateService.findAll(cursor, pageable);
 
         return foundCertificates.map(certificateMapper::toDto);
     }
@@ -71,17 +80,23 @@ public class GiftCertificateController {
     }
 
     @GetMapping(value = "/search")
-    public Page<GiftCertificateDto> searchCertificatesWithSearchParams(
-            @RequestParam(required = false) String name,
-            @RequestParam(required = false) String description,
-            @RequestParam(required = false) List<String> tags,
+    public Slice<GiftCertificateDto> searchCertificatesWithSearchParams(
+            @ModelAttribute SearchGiftCertificateRequest searchRequest,
             Pageable pageable) {
+        Slice<GiftCertificate> foundCertificates = certificateService
+                .findCertificateWithSearchParams(pageable, searchRequest);
 
-        SearchGiftCertificateRequest searchRequest = new SearchGiftCertificateRequest(name, description, tags);
+        return foundCertificates.map(certificateMapper::toDto);
+    }
 
-        Page<GiftCertificate> foundCertificates = certificateService
+    @GetMapping(value = "/search", params = "facets=true")
+    public CertificateSearchResponse searchCertificatesWithFacets(
+            @ModelAttribute SearchGiftCertificateRequest searchRequest,
+            Pageable pageable) {
+        Slice<GiftCertificate> foundCertificates = certificateService
                 .findCertificateWithSearchParams(pageable, searchRequest);
+        CertificateFacets facets = certificateService.findFacets(searchRequest);
 
-        return foundCertificates.map(certificateMapper::toDto);
+        return new CertificateSearchResponse(foundCertificates.map(certificateMapper::toDto), facets);
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,6 @@
 package com.epam.esm.epammodule4.controller;
 
+import com.epam.esm.epammodule4.model.TotalCount;
 import com.epam.esm.epammodule4.model.dto.*;
 import com.epam.esm.epammodule4.model.dto.request.CreateOrderRequest;
 import com.epam.esm.epammodule4.model.dto.request.UpdateOrderRequest;
@@ -9,8 +10,8 @@ import com.epam.esm.epammodule4.service.OrderService;
 import com.epam.esm.epammodule4.service.UserService;
 import com.epam.esm.epammodule4.service.mapper.OrderMapper;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -38,10 +39,13 @@ public class OrderController {
     }
 
     @GetMapping
-    public Page<OrderDto> getAllOrders(Pageable pageable) {
-        Page<Order> foundOrders = orderService.findAll(pageable);
+    public Slice<OrderDto> getAllOrders(@RequestParam(defaultValue = "EXACT") TotalCount total, Pageable pageable) {
+        return orderService.findAllAsDto(pageable, total);
+    }
 
-        return foundOrders.map(orderMapper::toDto);
+    @GetMapping(params = "cursor")
+    public CursorPage<OrderDto> getAllOrders(@RequestParam String cursor, Pageable pageable) {
+        return orderService.findAllAsDto(cursor, pageable);
     }
 
     @PostMapping
@@ -87,12 +91,20 @@ public class OrderController {
     }
 
     @GetMapping(value = "/user")
-    public Page<OrderDto> getAllOrdersForUser(@RequestParam Long userId, Pageable pageable) {
+    public Slice<OrderDto> getAllOrdersForUser(@RequestParam Long userId,
+                                               @RequestParam(defaultValue = "EXACT") TotalCount total,
+                                               Pageable pageable) {
         userService.checkIdOfCurrentUser(userId);
 
-        Page<Order> foundOrders = orderService.findAllByUserId(userId, pageable);
+        return orderService.findAllAsDtoByUserId(userId, pageable, total);
+    }
+
+    @GetMapping(value = "/user", params = "cursor")
+    public CursorPage<OrderDto> getAllOrdersForUser(@RequestParam Long userId, @RequestParam String cursor,
+                                                    Pageable pageable) {
+        userService.checkIdOfCurrentUser(userId);
 
-        return foundOrders.map(orderMapper::toDto);
+        return orderService.findAllAsDtoByUserId(userId, cursor, pageable);
     }
 
     @GetMapping(value = "/cost")
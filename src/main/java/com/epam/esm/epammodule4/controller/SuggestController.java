@@ -0,0 +1,25 @@
+package com.epam.esm.epammodule4.controller;
+
+import com.epam.esm.epammodule4.model.dto.response.SuggestionResponse;
+import com.epam.esm.epammodule4.service.SuggestService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/suggest")
+public class SuggestController {
+
+    private final SuggestService suggestService;
+
+    @GetMapping
+    public SuggestionResponse suggest(@RequestParam(defaultValue = "") String prefix,
+                                      @RequestParam(defaultValue = "10") int limit) {
+        return new SuggestionResponse(
+                suggestService.suggestTagNames(prefix, limit),
+                suggestService.suggestCertificateNames(prefix, limit));
+    }
+}
@@ -1,5 +1,7 @@
 package com.epam.esm.epammodule4.controller;
 
+import com.epam.esm.epammodule4.model.TotalCount;
+import com.epam.esm.epammodule4.model.dto.CursorPage;
 import com.epam.esm.epammodule4.model.dto.TagDto;
 import com.epam.esm.epammodule4.model.dto.request.CreateTagRequest;
 import com.epam.esm.epammodule4.model.dto.request.UpdateTagRequest;
@@ -7,8 +9,8 @@ import com.epam.esm.epammodule4.model.entity.Tag;
 import com.epam.esm.epammodule4.service.TagService;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 
@@ -33,8 +35,15 @@ public class TagController {
     }
 
     @GetMapping
-    public Page<TagDto> getTags(Pageable pageable) {
-        Page<Tag> foundTags = tagService.findAll(pageable);
+    public Slice<TagDto> getTags(@RequestParam(defaultValue = "EXACT") TotalCount total, Pageable pageable) {
+        Slice<Tag> foundTags = tagService.findAll(pageable, total);
+
+        return foundTags.map(tag -> modelMapper.map(tag, TagDto.class));
+    }
+
+    @GetMapping(params = "cursor")
+    public CursorPage<TagDto> getTags(@RequestParam String cursor, Pageable pageable) {
+        CursorPage<Tag> foundTags = tagService.findAll(cursor, pageable);
 
         return foundTags.map(tag -> modelMapper.map(tag, TagDto.class));
     }
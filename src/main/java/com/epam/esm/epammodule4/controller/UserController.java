@@ -1,5 +1,7 @@
 package com.epam.esm.epammodule4.controller;
 
+import com.epam.esm.epammodule4.model.TotalCount;
+import com.epam.esm.epammodule4.model.dto.CursorPage;
 import com.epam.esm.epammodule4.model.dto.UserDto;
 import com.epam.esm.epammodule4.model.dto.request.CreateUserRequest;
 import com.epam.esm.epammodule4.model.dto.request.UpdateUserRequest;
@@ -7,8 +9,8 @@ import com.epam.esm.epammodule4.model.entity.User;
 import com.epam.esm.epammodule4.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 
@@ -35,8 +37,15 @@ public class UserController {
     }
 
     @GetMapping
-    public Page<UserDto> getUsers(Pageable pageable) {
-        Page<User> foundUsers = userService.findAll(pageable);
+    public Slice<UserDto> getUsers(@RequestParam(defaultValue = "EXACT") TotalCount total, Pageable pageable) {
+        Slice<User> foundUsers = userService.findAll(pageable, total);
+
+        return foundUsers.map(user -> modelMapper.map(user, UserDto.class));
+    }
+
+    @GetMapping(params = "cursor")
+    public CursorPage<UserDto> getUsers(@RequestParam String cursor, Pageable pageable) {
+        CursorPage<User> foundUsers = userService.findAll(cursor, pageable);
 
         return foundUsers.map(user -> modelMapper.map(user, UserDto.class));
     }
@@ -2,13 +2,16 @@ package com.epam.esm.epammodule4.controller.advice;
 
 import com.epam.esm.epammodule4.exception.*;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
 
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.HttpStatus.CONFLICT;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
 
 @Slf4j
 @ControllerAdvice
@@ -109,4 +112,20 @@ public class ApplicationControllerAdvice {
 
         return ResponseEntity.status(CONFLICT).body(responseBody);
     }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidCursor(InvalidCursorException exception) {
+        log.warn("Invalid cursor: {}", exception.getMessage());
+        ErrorResponse responseBody = ErrorResponse.of(exception.getMessage(), 40001);
+
+        return ResponseEntity.status(BAD_REQUEST).body(responseBody);
+    }
+
+    @ExceptionHandler(PasswordHashingUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handlePasswordHashingUnavailable(PasswordHashingUnavailableException exception) {
+        log.warn("Password hashing rejected: {}", exception.getMessage());
+        ErrorResponse responseBody = ErrorResponse.of(exception.getMessage(), 50301);
+
+        return ResponseEntity.status(SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").body(responseBody);
+    }
 }
@@ -0,0 +1,8 @@
+package com.epam.esm.epammodule4.exception;
+
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
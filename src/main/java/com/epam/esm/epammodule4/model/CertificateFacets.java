@@ -0,0 +1,18 @@
+package com.epam.esm.epammodule4.model;
+
+import java.util.List;
+
+/**
+ * Aggregations over every certificate matching a search: how many carry each tag, and how many fall into
+ * each price and duration range. Ranges include {@code from} and exclude {@code to}; a {@code null} bound
+ * leaves the range open.
+ */
+public record CertificateFacets(long total, List<TagFacet> tags, List<RangeFacet> prices,
+                                List<RangeFacet> durations) {
+
+    public record TagFacet(Long id, String name, long count) {
+    }
+
+    public record RangeFacet(Number from, Number to, long count) {
+    }
+}
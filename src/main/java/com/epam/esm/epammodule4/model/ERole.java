@@ -1,7 +1,39 @@
 package com.epam.esm.epammodule4.model;
 
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Roles are also stored as a bitmask with bit {@code ordinal()} set per role, so new roles must only be
+ * appended.
+ */
 public enum ERole {
 
     ROLE_USER,
-    ROLE_ADMIN
+    ROLE_ADMIN;
+
+    public int bit() {
+        return 1 << ordinal();
+    }
+
+    public static int mask(Collection<ERole> roles) {
+        int mask = 0;
+
+        for (ERole role : roles) {
+            mask |= role.bit();
+        }
+        return mask;
+    }
+
+    public static Set<ERole> fromMask(int mask) {
+        Set<ERole> roles = EnumSet.noneOf(ERole.class);
+
+        for (ERole role : values()) {
+            if ((mask & role.bit()) != 0) {
+                roles.add(role);
+            }
+        }
+        return roles;
+    }
 }
@@ -0,0 +1,16 @@
+package com.epam.esm.epammodule4.model;
+
+import java.time.Instant;
+
+/**
+ * The columns of an order, its customer and its certificate that an order listing shows, selected in one
+ * row by a JPQL constructor expression. Tags are a collection and are loaded per page instead; roles are
+ * resolved from the role mask of the customer.
+ */
+public record OrderRow(Long id, Double price, Instant createDate, Instant lastUpdateDate,
+                       Long userId, String userEmail, String userName, String username, String userPassword,
+                       Integer userRoleMask,
+                       Long certificateId, String certificateName, String certificateDescription,
+                       Double certificatePrice, Integer certificateDuration,
+                       Instant certificateCreateDate, Instant certificateLastUpdateDate) {
+}
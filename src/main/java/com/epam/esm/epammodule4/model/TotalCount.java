@@ -0,0 +1,11 @@
+package com.epam.esm.epammodule4.model;
+
+/**
+ * How the total of a paged listing is computed: an exact {@code count(*)}, an estimate, or not at all.
+ */
+public enum TotalCount {
+
+    EXACT,
+    APPROXIMATE,
+    NONE
+}
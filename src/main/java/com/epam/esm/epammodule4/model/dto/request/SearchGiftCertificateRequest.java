@@ -1,14 +1,17 @@
 package com.epam.esm.epammodule4.model.dto.request;
 
+import com.epam.esm.epammodule4.model.TotalCount;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 
 import java.util.List;
 
 @Getter
-@Builder
+@Setter
+@Builder(toBuilder = true)
 @AllArgsConstructor
 @NoArgsConstructor
 public class SearchGiftCertificateRequest {
@@ -16,4 +19,14 @@ public class SearchGiftCertificateRequest {
     private String name;
     private String description;
     private List<String> tags;
+    private boolean matchAllTags;
+    private List<String> excludedTags;
+    private String text;
+    private Double minPrice;
+    private Double maxPrice;
+    private Integer minDuration;
+    private Integer maxDuration;
+    private Integer fuzziness;
+    @Builder.Default
+    private TotalCount total = TotalCount.EXACT;
 }
@@ -0,0 +1,19 @@
+package com.epam.esm.epammodule4.model.dto.response;
+
+import com.epam.esm.epammodule4.model.CertificateFacets;
+import com.epam.esm.epammodule4.model.dto.GiftCertificateDto;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.domain.Slice;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CertificateSearchResponse {
+
+    private Slice<GiftCertificateDto> results;
+    private CertificateFacets facets;
+}
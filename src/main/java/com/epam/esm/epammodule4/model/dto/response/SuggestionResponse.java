@@ -0,0 +1,18 @@
+package com.epam.esm.epammodule4.model.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestionResponse {
+
+    private List<String> tags;
+    private List<String> certificates;
+}
@@ -1,6 +1,7 @@
 package com.epam.esm.epammodule4.model.entity;
 
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 
 import javax.persistence.*;
 import java.util.List;
@@ -11,7 +12,10 @@ import java.util.List;
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "gift_certificate")
+@Table(name = "gift_certificate", indexes = {
+        @Index(name = "idx_gift_certificate_price", columnList = "price"),
+        @Index(name = "idx_gift_certificate_duration", columnList = "duration")
+})
 public class GiftCertificate extends AuditableEntity {
 
     public static final String ID = "id";
@@ -21,7 +25,8 @@ public class GiftCertificate extends AuditableEntity {
     public static final String DURATION = "duration";
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "gift_certificate_seq")
+    @SequenceGenerator(name = "gift_certificate_seq", sequenceName = "gift_certificate_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = NAME, nullable = false)
@@ -36,7 +41,12 @@ public class GiftCertificate extends AuditableEntity {
     @Column(name = DURATION)
     private Integer duration;
 
+    /**
+     * Loaded for up to 100 certificates of the persistence context at once, so mapping a page of certificates
+     * costs one extra query instead of one per row.
+     */
     @ManyToMany(cascade = CascadeType.MERGE)
+    @BatchSize(size = 100)
     @JoinTable(
             name = "certificate_tag",
             joinColumns = @JoinColumn(name = "cert_id"),
@@ -14,7 +14,8 @@ import javax.persistence.*;
 public class Order extends AuditableEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cert_order_seq")
+    @SequenceGenerator(name = "cert_order_seq", sequenceName = "cert_order_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "price")
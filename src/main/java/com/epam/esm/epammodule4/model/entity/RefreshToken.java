@@ -11,20 +11,34 @@ import java.time.Instant;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "refreshtoken")
+@Table(name = "refreshtoken", indexes = {
+        @Index(name = "idx_refreshtoken_family", columnList = "family"),
+        @Index(name = "idx_refreshtoken_customer", columnList = "customer_id")
+})
 public class RefreshToken {
     
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO)
     private long id;
 
-    @Column(nullable = false, unique = true)
+    /**
+     * Raw token value, handed to the client once and never stored.
+     */
+    @Transient
     private String token;
 
+    @Column(name = "token", nullable = false, unique = true)
+    private String tokenHash;
+
+    private String family;
+
+    @Column(nullable = false, columnDefinition = "boolean default false")
+    private boolean revoked;
+
     @Column(nullable = false)
     private Instant expiryDate;
 
-    @OneToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "customer_id", referencedColumnName = "id")
     private User user;
-}
\ No newline at end of file
+}
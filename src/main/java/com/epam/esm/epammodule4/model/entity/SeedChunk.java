@@ -0,0 +1,29 @@
+package com.epam.esm.epammodule4.model.entity;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.Instant;
+
+/**
+ * A chunk of generated initial data, stored in the transaction that wrote its rows, so that a run which
+ * stopped half-way can skip what it already wrote.
+ */
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "seed_chunk", indexes = @Index(name = "idx_seed_chunk_run", columnList = "run"))
+public class SeedChunk {
+
+    @Id
+    private String id;
+
+    @Column(nullable = false)
+    private String run;
+
+    private int rows;
+
+    private Instant completedAt;
+}
@@ -5,7 +5,9 @@ import javax.validation.constraints.Email;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.Size;
 
+import com.epam.esm.epammodule4.model.ERole;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 
 import java.util.Set;
 
@@ -19,7 +21,8 @@ import java.util.Set;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customer_seq")
+    @SequenceGenerator(name = "customer_seq", sequenceName = "customer_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true)
@@ -36,9 +39,37 @@ public class User {
     @Email
     private String email;
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    /**
+     * Loaded only when read; authentication uses {@link #roleMask} instead. Users of a page are completed
+     * in one batch.
+     */
+    @ManyToMany(fetch = FetchType.LAZY)
+    @BatchSize(size = 100)
     @JoinTable(name = "customer_role",
             joinColumns = @JoinColumn(name = "customer_id"),
             inverseJoinColumns = @JoinColumn(name = "role_id"))
     private Set<Role> roles;
+
+    /**
+     * The {@link ERole#mask(java.util.Collection) bitmask} of {@link #roles}, kept in step by
+     * {@link #setRoles(Set)} and set on insert. {@code null} for rows written before the column existed.
+     */
+    @Column(name = "role_mask")
+    private Integer roleMask;
+
+    public void setRoles(Set<Role> roles) {
+        this.roles = roles;
+        this.roleMask = maskOf(roles);
+    }
+
+    @PrePersist
+    void initRoleMask() {
+        if (roleMask == null) {
+            roleMask = maskOf(roles);
+        }
+    }
+
+    private static int maskOf(Set<Role> roles) {
+        return roles == null ? 0 : ERole.mask(roles.stream().map(Role::getName).toList());
+    }
 }
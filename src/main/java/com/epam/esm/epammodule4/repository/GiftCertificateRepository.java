@@ -1,9 +1,24 @@
 package com.epam.esm.epammodule4.repository;
 
 import com.epam.esm.epammodule4.model.entity.GiftCertificate;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface GiftCertificateRepository extends CrudRepository<GiftCertificate, Long> {
+
+    @Query("SELECT c.id FROM GiftCertificate c")
+    List<Long> findAllIds();
+
+    @Query("SELECT c.id, t.id FROM GiftCertificate c JOIN c.tags t")
+    List<Object[]> findAllTagLinks();
+
+    @Query("SELECT c.id, c.name FROM GiftCertificate c")
+    List<Object[]> findAllNames();
+
+    @Query("SELECT c.id, c.price, c.duration FROM GiftCertificate c")
+    List<Object[]> findAllPricesAndDurations();
 }
@@ -0,0 +1,17 @@
+package com.epam.esm.epammodule4.repository;
+
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+
+/**
+ * Ids of every entity matching a specification, fetched in one query without loading the entities,
+ * for aggregations done in memory.
+ */
+@NoRepositoryBean
+public interface IdRepository<T, ID> {
+
+    List<ID> findIds(@Nullable Specification<T> specification);
+}
@@ -0,0 +1,78 @@
+package com.epam.esm.epammodule4.repository;
+
+import com.epam.esm.epammodule4.model.dto.CursorPage;
+import com.epam.esm.epammodule4.repository.specification.KeysetSpecification;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+import org.springframework.lang.Nullable;
+
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+import java.util.List;
+
+import static java.util.Optional.ofNullable;
+
+/**
+ * Repository base class implementing {@link KeysetRepository}, {@link SliceRepository} and {@link IdRepository}
+ * for every repository of the application.
+ */
+public class KeysetJpaRepository<T, ID> extends SimpleJpaRepository<T, ID>
+        implements KeysetRepository<T>, SliceRepository<T>, IdRepository<T, ID> {
+
+    private final JpaEntityInformation<T, ?> entityInformation;
+    private final EntityManager entityManager;
+
+    public KeysetJpaRepository(JpaEntityInformation<T, ?> entityInformation, EntityManager entityManager) {
+        super(entityInformation, entityManager);
+        this.entityInformation = entityInformation;
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public CursorPage<T> findAll(@Nullable Specification<T> specification, String cursor, Pageable pageable) {
+        Sort sort = KeysetSpecification.resolveSort(cursor, pageable.getSort());
+        Specification<T> after = KeysetSpecification.after(cursor, sort, getDomainClass());
+
+        List<T> rows = getQuery(Specification.where(after).and(specification), sort)
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+
+        return CursorPage.of(rows, pageable.getPageSize(), last -> KeysetSpecification.cursorOf(last, sort));
+    }
+
+    @Override
+    public Slice<T> findSlice(@Nullable Specification<T> specification, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(getQuery(specification, pageable.getSort()).getResultList());
+        }
+
+        List<T> rows = getQuery(specification, pageable.getSort())
+                .setFirstResult(Math.toIntExact(pageable.getOffset()))
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<ID> findIds(@Nullable Specification<T> specification) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object> query = builder.createQuery();
+        Root<T> root = query.from(getDomainClass());
+
+        query.select(root.get(entityInformation.getRequiredIdAttribute().getName()));
+        if (specification != null) {
+            ofNullable(specification.toPredicate(root, query, builder)).ifPresent(query::where);
+        }
+        return (List<ID>) entityManager.createQuery(query).getResultList();
+    }
+}
@@ -0,0 +1,22 @@
+package com.epam.esm.epammodule4.repository;
+
+import com.epam.esm.epammodule4.model.dto.CursorPage;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.lang.Nullable;
+
+/**
+ * Keyset (seek) pagination for a repository. A page is located by the sort key values of the previous
+ * page's last row, carried in an opaque cursor, instead of an {@code OFFSET}, so deep pages cost the same
+ * as the first one and no count query is run. An empty cursor starts from the beginning.
+ */
+@NoRepositoryBean
+public interface KeysetRepository<T> {
+
+    CursorPage<T> findAll(@Nullable Specification<T> specification, String cursor, Pageable pageable);
+
+    default CursorPage<T> findAll(String cursor, Pageable pageable) {
+        return findAll(null, cursor, pageable);
+    }
+}
@@ -1,21 +1,70 @@
 package com.epam.esm.epammodule4.repository;
 
+import com.epam.esm.epammodule4.model.OrderRow;
 import com.epam.esm.epammodule4.model.entity.Order;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository
+        extends JpaRepository<Order, Long>, KeysetRepository<Order>, SliceRepository<Order>, OrderRowRepository {
+
+    String SELECT_ROWS = """
+            SELECT new com.epam.esm.epammodule4.model.OrderRow(
+                o.id, o.price, o.createDate, o.lastUpdateDate,
+                u.id, u.email, u.name, u.username, u.password, u.roleMask,
+                c.id, c.name, c.description, c.price, c.duration, c.createDate, c.lastUpdateDate)
+            FROM Order o JOIN o.user u JOIN o.giftCertificate c""";
 
     Page<Order> findAllByUserId(Long userId, Pageable pageable);
 
+    long countByUserId(Long userId);
+
     Optional<Order> findByIdAndUserId(Long orderId, Long userId);
 
     Optional<Order> findByGiftCertificateId(Long certId);
 
     Optional<Order> findFirstByUserIdOrderByPriceDesc(Long userId);
+
+    @Query("SELECT o.giftCertificate.id, COUNT(o) FROM Order o GROUP BY o.giftCertificate.id")
+    List<Object[]> countByCertificate();
+
+    /**
+     * Order listings as {@link OrderRow}s: one read-only row per order, no entities to load or dirty-check.
+     */
+    @Query(value = SELECT_ROWS, countQuery = "SELECT COUNT(o) FROM Order o")
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    Page<OrderRow> findAllRows(Pageable pageable);
+
+    @Query(SELECT_ROWS)
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    Slice<OrderRow> findRowSlice(Pageable pageable);
+
+    @Query(value = SELECT_ROWS + " WHERE u.id = :userId",
+            countQuery = "SELECT COUNT(o) FROM Order o WHERE o.user.id = :userId")
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    Page<OrderRow> findAllRowsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(SELECT_ROWS + " WHERE u.id = :userId")
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    Slice<OrderRow> findRowSliceByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * Returns {@code [certificate id, tag id, tag name]} for every tag of the given certificates.
+     */
+    @Query("SELECT c.id, t.id, t.name FROM GiftCertificate c JOIN c.tags t WHERE c.id IN :certificateIds")
+    List<Object[]> findTagsByCertificateIds(@Param("certificateIds") Collection<Long> certificateIds);
 }
@@ -0,0 +1,18 @@
+package com.epam.esm.epammodule4.repository;
+
+import com.epam.esm.epammodule4.model.OrderRow;
+import com.epam.esm.epammodule4.model.dto.CursorPage;
+import com.epam.esm.epammodule4.model.entity.Order;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.lang.Nullable;
+
+/**
+ * Keyset pagination of order listings as {@link OrderRow}s. Cursors are those of
+ * {@link KeysetRepository#findAll(Specification, String, Pageable)} on orders, so either listing continues
+ * the other.
+ */
+public interface OrderRowRepository {
+
+    CursorPage<OrderRow> findAllRows(@Nullable Specification<Order> specification, String cursor, Pageable pageable);
+}
@@ -0,0 +1,63 @@
+package com.epam.esm.epammodule4.repository;
+
+import com.epam.esm.epammodule4.model.OrderRow;
+import com.epam.esm.epammodule4.model.dto.CursorPage;
+import com.epam.esm.epammodule4.model.entity.GiftCertificate;
+import com.epam.esm.epammodule4.model.entity.Order;
+import com.epam.esm.epammodule4.model.entity.User;
+import com.epam.esm.epammodule4.repository.specification.KeysetSpecification;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.lang.Nullable;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Root;
+import java.util.List;
+
+import static java.util.Optional.ofNullable;
+
+/**
+ * Selects the columns of {@link OrderRepository#SELECT_ROWS} with the Criteria API, as the seek predicate
+ * depends on the sort of the cursor.
+ */
+public class OrderRowRepositoryImpl implements OrderRowRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public CursorPage<OrderRow> findAllRows(@Nullable Specification<Order> specification, String cursor,
+                                            Pageable pageable) {
+        Sort sort = KeysetSpecification.resolveSort(cursor, pageable.getSort());
+        Specification<Order> after = KeysetSpecification.after(cursor, sort, Order.class);
+
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<OrderRow> query = builder.createQuery(OrderRow.class);
+        Root<Order> order = query.from(Order.class);
+        Join<Order, User> user = order.join("user");
+        Join<Order, GiftCertificate> certificate = order.join("giftCertificate");
+
+        query.select(builder.construct(OrderRow.class,
+                order.get("id"), order.get("price"), order.get("createDate"), order.get("lastUpdateDate"),
+                user.get("id"), user.get("email"), user.get("name"), user.get("username"), user.get("password"),
+                user.get("roleMask"),
+                certificate.get("id"), certificate.get("name"), certificate.get("description"),
+                certificate.get("price"), certificate.get("duration"),
+                certificate.get("createDate"), certificate.get("lastUpdateDate")));
+        ofNullable(Specification.where(after).and(specification).toPredicate(order, query, builder))
+                .ifPresent(query::where);
+        query.orderBy(QueryUtils.toOrders(sort, order, builder));
+
+        List<OrderRow> rows = entityManager.createQuery(query)
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+
+        return CursorPage.of(rows, pageable.getPageSize(), last -> KeysetSpecification.cursorOfRow(last, sort));
+    }
+}
@@ -1,11 +1,22 @@
 package com.epam.esm.epammodule4.repository;
 
 import com.epam.esm.epammodule4.model.entity.GiftCertificate;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface PageableGiftCertificateRepository
-        extends JpaRepository<GiftCertificate, Long>, JpaSpecificationExecutor<GiftCertificate> {
+        extends JpaRepository<GiftCertificate, Long>, JpaSpecificationExecutor<GiftCertificate>,
+        KeysetRepository<GiftCertificate>, SliceRepository<GiftCertificate>,
+        IdRepository<GiftCertificate, Long> {
+
+    /**
+     * Returns the next batch of certificates after {@code lastId} in id order, limited by the size of
+     * {@code batch}. Seeking past the last id keeps every batch an index range scan, unlike an offset.
+     */
+    List<GiftCertificate> findByIdGreaterThanOrderByIdAsc(Long lastId, Pageable batch);
 }
@@ -5,5 +5,6 @@ import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface PageableUserRepository extends PagingAndSortingRepository<User, Long> {
+public interface PageableUserRepository
+        extends PagingAndSortingRepository<User, Long>, KeysetRepository<User>, SliceRepository<User> {
 }
@@ -0,0 +1,21 @@
+package com.epam.esm.epammodule4.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.lang.Nullable;
+
+/**
+ * Offset pagination without the count query: one row more than the page size is fetched to tell whether
+ * a next page exists.
+ */
+@NoRepositoryBean
+public interface SliceRepository<T> {
+
+    Slice<T> findSlice(@Nullable Specification<T> specification, Pageable pageable);
+
+    default Slice<T> findSlice(Pageable pageable) {
+        return findSlice(null, pageable);
+    }
+}
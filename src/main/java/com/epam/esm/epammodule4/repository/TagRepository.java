@@ -10,12 +10,15 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface TagRepository extends JpaRepository<Tag, Long> {
+public interface TagRepository extends JpaRepository<Tag, Long>, KeysetRepository<Tag>, SliceRepository<Tag> {
 
     Optional<Tag> findFirstByName(String name);
 
     List<Tag> findTagsByCertificatesId(Long id);
 
+    @Query("SELECT t.id, t.name FROM Tag t")
+    List<Object[]> findAllNames();
+
     @Query(
             value = "SELECT t.id, t.name FROM certificate_tag ct " +
                     "INNER JOIN gift_certificate c on ct.cert_id = c.id " +
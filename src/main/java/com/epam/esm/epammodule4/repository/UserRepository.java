@@ -2,8 +2,13 @@ package com.epam.esm.epammodule4.repository;
 
 import com.epam.esm.epammodule4.model.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -18,4 +23,19 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Boolean existsByUsername(String username);
 
     Boolean existsByEmail(String email);
+
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.username = :username")
+    int updatePasswordByUsername(@Param("username") String username, @Param("password") String password);
+
+    /**
+     * Returns {@code [user id, role name]} for every user without a role mask, with a {@code null} name
+     * for a user without roles.
+     */
+    @Query("SELECT u.id, r.name FROM User u LEFT JOIN u.roles r WHERE u.roleMask IS NULL")
+    List<Object[]> findRolesOfUsersWithoutRoleMask();
+
+    @Modifying
+    @Query("UPDATE User u SET u.roleMask = :roleMask WHERE u.id IN :ids")
+    int updateRoleMask(@Param("ids") Collection<Long> ids, @Param("roleMask") int roleMask);
 }
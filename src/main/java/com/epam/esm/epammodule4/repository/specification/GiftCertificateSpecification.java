@@ -10,12 +10,18 @@ import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.CollectionUtils;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 
 import static com.epam.esm.epammodule4.model.entity.GiftCertificate.DESCRIPTION;
+import static com.epam.esm.epammodule4.model.entity.GiftCertificate.DURATION;
+import static com.epam.esm.epammodule4.model.entity.GiftCertificate.ID;
 import static com.epam.esm.epammodule4.model.entity.GiftCertificate.NAME;
+import static com.epam.esm.epammodule4.model.entity.GiftCertificate.PRICE;
 import static java.util.Optional.ofNullable;
 
 @AllArgsConstructor
@@ -27,34 +33,63 @@ public class GiftCertificateSpecification implements Specification<GiftCertifica
 
     @Override
     public Predicate toPredicate(Root<GiftCertificate> root, CriteriaQuery<?> query, CriteriaBuilder builder) {
-        Predicate predicateNameDesc = null;
-        Predicate predicateTags = null;
-
-        if (ofNullable(searchRequest.getName()).isPresent()) {
-            predicateNameDesc = builder.or(
-                    builder.like(root.get(NAME), getStringLike(searchRequest.getName())),
-                    builder.like(root.get(DESCRIPTION), getStringLike(searchRequest.getName()))
-            );
+        List<Predicate> predicates = new ArrayList<>();
+
+        ofNullable(searchRequest.getName()).ifPresent(name -> predicates.add(builder.or(
+                builder.like(builder.lower(root.get(NAME)), getStringLike(name)),
+                builder.like(builder.lower(root.get(DESCRIPTION)), getStringLike(name))
+        )));
+
+        ofNullable(searchRequest.getDescription()).ifPresent(description -> predicates.add(
+                builder.like(builder.lower(root.get(DESCRIPTION)), getStringLike(description))));
+
+        addRange(predicates, builder, root.get(PRICE), searchRequest.getMinPrice(), searchRequest.getMaxPrice());
+        addRange(predicates, builder, root.get(DURATION),
+                searchRequest.getMinDuration(), searchRequest.getMaxDuration());
+
+        if (!CollectionUtils.isEmpty(searchRequest.getTags())) {
+            predicates.add(root.get(ID).in(
+                    certificatesWithTags(query, builder, searchRequest.getTags(), searchRequest.isMatchAllTags())));
         }
 
-        if (ofNullable(searchRequest.getTags()).isPresent()) {
-            Join<GiftCertificate, Tag> certificateTags = root.join("tags");
-            Expression<String> expression = certificateTags.get("name");
-            predicateTags = builder.and(expression.in(searchRequest.getTags()));
+        if (!CollectionUtils.isEmpty(searchRequest.getExcludedTags())) {
+            predicates.add(builder.not(root.get(ID).in(
+                    certificatesWithTags(query, builder, searchRequest.getExcludedTags(), false))));
         }
 
-        if (ofNullable(predicateNameDesc).isPresent() && (ofNullable(predicateTags).isPresent())) {
-            return builder.and(predicateNameDesc, predicateTags);
-        } else if (ofNullable(predicateNameDesc).isPresent() && (ofNullable(predicateTags).isEmpty())) {
-            return predicateNameDesc;
-        } else if (ofNullable(predicateNameDesc).isEmpty() && (ofNullable(predicateTags).isPresent())) {
-            return predicateTags;
+        return predicates.isEmpty() ? null : builder.and(predicates.toArray(Predicate[]::new));
+    }
+
+    /**
+     * Ids of certificates tagged with any of the names or, when {@code matchAll} is set, with all of them.
+     * A subquery rather than a join keeps a single row per certificate in the outer query.
+     */
+    private Subquery<Long> certificatesWithTags(CriteriaQuery<?> query, CriteriaBuilder builder,
+                                                List<String> tagNames, boolean matchAll) {
+        Subquery<Long> subquery = query.subquery(Long.class);
+        Root<GiftCertificate> certificate = subquery.from(GiftCertificate.class);
+        Join<GiftCertificate, Tag> certificateTags = certificate.join("tags");
+        Expression<String> tagName = certificateTags.get("name");
+
+        subquery.select(certificate.get(ID)).where(tagName.in(tagNames));
+
+        if (matchAll) {
+            subquery.groupBy(certificate.get(ID))
+                    .having(builder.equal(builder.countDistinct(tagName), (long) new HashSet<>(tagNames).size()));
         }
+        return subquery;
+    }
 
-        return null;
+    /**
+     * Inclusive bounds, either of which may be absent; plain comparisons keep the column index usable.
+     */
+    private static <Y extends Comparable<? super Y>> void addRange(List<Predicate> predicates, CriteriaBuilder builder,
+                                                                   Expression<Y> column, Y min, Y max) {
+        ofNullable(min).ifPresent(value -> predicates.add(builder.greaterThanOrEqualTo(column, value)));
+        ofNullable(max).ifPresent(value -> predicates.add(builder.lessThanOrEqualTo(column, value)));
     }
 
     private String getStringLike(String name) {
-        return "%%%s%%".formatted(name);
+        return "%%%s%%".formatted(name.toLowerCase(Locale.ROOT));
     }
 }
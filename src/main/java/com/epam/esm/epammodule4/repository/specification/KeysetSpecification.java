@@ -0,0 +1,203 @@
+package com.epam.esm.epammodule4.repository.specification;
+
+import com.epam.esm.epammodule4.exception.InvalidCursorException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.DirectFieldAccessor;
+import org.springframework.beans.PropertyAccessor;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.format.support.DefaultFormattingConversionService;
+import org.springframework.util.StringUtils;
+
+import javax.persistence.criteria.*;
+import java.beans.PropertyDescriptor;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Seek predicate of keyset pagination: selects the rows sorted after the last row of the previous page.
+ * <p>
+ * The continuation token is opaque to clients. It carries the sort and the sort key values of the last row,
+ * always ending with {@code id}, so the order is total and no row is skipped or repeated across pages.
+ * NULL sort keys are ordered last in both directions ({@code hibernate.order_by.default_null_ordering}).
+ */
+public class KeysetSpecification<T> implements Specification<T> {
+
+    public static final String ID = "id";
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final ConversionService CONVERSION_SERVICE = new DefaultFormattingConversionService();
+
+    private final List<Sort.Order> orders;
+    private final List<Object> lastValues;
+
+    private KeysetSpecification(List<Sort.Order> orders, List<Object> lastValues) {
+        this.orders = orders;
+        this.lastValues = lastValues;
+    }
+
+    /**
+     * Returns the sort of the page sequence: the sort of the cursor or, for a first page, the requested one,
+     * completed with {@code id} as the tie-breaker.
+     */
+    public static Sort resolveSort(String cursor, Sort requested) {
+        if (!StringUtils.hasText(cursor)) {
+            return withTieBreaker(requested);
+        }
+
+        Sort cursorSort = parseSort(decode(cursor).get(0));
+        if (requested.isSorted() && !withTieBreaker(requested).equals(cursorSort)) {
+            throw new InvalidCursorException("Cursor was issued for sort '%s'".formatted(cursorSort));
+        }
+        return cursorSort;
+    }
+
+    public static <T> KeysetSpecification<T> after(String cursor, Sort sort, Class<T> type) {
+        List<Sort.Order> orders = sort.toList();
+        orders.forEach(order -> propertyType(type, order.getProperty()));
+
+        if (!StringUtils.hasText(cursor)) {
+            return new KeysetSpecification<>(orders, null);
+        }
+
+        List<String> encoded = decode(cursor);
+        if (encoded.size() != orders.size() + 1) {
+            throw new InvalidCursorException("Cursor is malformed");
+        }
+
+        List<Object> values = new ArrayList<>(orders.size());
+        for (int i = 0; i < orders.size(); i++) {
+            String value = encoded.get(i + 1);
+            values.add(value == null ? null : convert(value, propertyType(type, orders.get(i).getProperty())));
+        }
+        return new KeysetSpecification<>(orders, values);
+    }
+
+    public static String cursorOf(Object entity, Sort sort) {
+        return cursorOf(new BeanWrapperImpl(entity), sort);
+    }
+
+    /**
+     * Same as {@link #cursorOf(Object, Sort)} for a projection without getters, such as a record, whose fields
+     * are named after the entity properties it was selected from.
+     */
+    public static String cursorOfRow(Object row, Sort sort) {
+        return cursorOf(new DirectFieldAccessor(row), sort);
+    }
+
+    private static String cursorOf(PropertyAccessor accessor, Sort sort) {
+        List<String> encoded = new ArrayList<>();
+
+        encoded.add(sort.toList().stream()
+                .map(order -> order.getProperty() + ":" + order.getDirection())
+                .reduce((left, right) -> left + "," + right)
+                .orElse(""));
+        sort.forEach(order -> {
+            Object value = accessor.getPropertyValue(order.getProperty());
+            encoded.add(value == null ? null : CONVERSION_SERVICE.convert(value, String.class));
+        });
+
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(OBJECT_MAPPER.writeValueAsBytes(encoded));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot encode cursor", e);
+        }
+    }
+
+    @Override
+    public Predicate toPredicate(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder builder) {
+        if (lastValues == null) {
+            return null;
+        }
+
+        List<Predicate> alternatives = new ArrayList<>();
+        List<Predicate> equalPrefix = new ArrayList<>();
+
+        for (int i = 0; i < orders.size(); i++) {
+            Path<Comparable<Object>> key = root.get(orders.get(i).getProperty());
+            Comparable<Object> value = comparable(lastValues.get(i));
+
+            if (value != null) {
+                Predicate after = orders.get(i).isAscending()
+                        ? builder.greaterThan(key, value)
+                        : builder.lessThan(key, value);
+                equalPrefix.add(builder.or(after, builder.isNull(key)));
+                alternatives.add(builder.and(equalPrefix.toArray(Predicate[]::new)));
+                equalPrefix.set(equalPrefix.size() - 1, builder.equal(key, value));
+            } else {
+                equalPrefix.add(builder.isNull(key));
+            }
+        }
+
+        return builder.or(alternatives.toArray(Predicate[]::new));
+    }
+
+    private static Sort withTieBreaker(Sort sort) {
+        if (sort.getOrderFor(ID) != null) {
+            return sort;
+        }
+
+        Sort.Direction direction = sort.stream().reduce((first, second) -> second)
+                .map(Sort.Order::getDirection)
+                .orElse(Sort.Direction.ASC);
+        return sort.and(Sort.by(direction, ID));
+    }
+
+    private static Sort parseSort(String encoded) {
+        List<Sort.Order> orders = new ArrayList<>();
+
+        for (String order : encoded.split(",")) {
+            String[] parts = order.split(":");
+            if (parts.length != 2) {
+                throw new InvalidCursorException("Cursor is malformed");
+            }
+            orders.add(new Sort.Order(Sort.Direction.fromOptionalString(parts[1])
+                    .orElseThrow(() -> new InvalidCursorException("Cursor is malformed")), parts[0]));
+        }
+        return Sort.by(orders);
+    }
+
+    private static List<String> decode(String cursor) {
+        try {
+            List<String> encoded = OBJECT_MAPPER.readValue(Base64.getUrlDecoder().decode(cursor),
+                    new TypeReference<List<String>>() {
+                    });
+            if (encoded.isEmpty() || encoded.get(0) == null) {
+                throw new InvalidCursorException("Cursor is malformed");
+            }
+            return encoded;
+        } catch (IllegalArgumentException | IOException e) {
+            throw new InvalidCursorException("Cursor is malformed");
+        }
+    }
+
+    private static Class<?> propertyType(Class<?> type, String property) {
+        PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(type, property);
+
+        if (descriptor == null || !Comparable.class.isAssignableFrom(descriptor.getPropertyType())
+                || !CONVERSION_SERVICE.canConvert(String.class, descriptor.getPropertyType())) {
+            throw new InvalidCursorException("Cannot page by '%s' with a cursor".formatted(property));
+        }
+        return descriptor.getPropertyType();
+    }
+
+    private static Object convert(String value, Class<?> type) {
+        try {
+            return CONVERSION_SERVICE.convert(value, type);
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException("Cursor is malformed");
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Comparable<Object> comparable(Object value) {
+        return (Comparable<Object>) value;
+    }
+}
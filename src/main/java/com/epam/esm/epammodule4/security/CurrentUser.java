@@ -0,0 +1,72 @@
+package com.epam.esm.epammodule4.security;
+
+import com.epam.esm.epammodule4.model.ERole;
+import com.epam.esm.epammodule4.model.entity.User;
+import com.epam.esm.epammodule4.repository.UserRepository;
+import com.epam.esm.epammodule4.service.implementation.UserDetailsImpl;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.oauth2.core.oidc.user.OidcUser;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+/**
+ * Id and admin flag of the caller, resolved once per request.
+ * A {@link UserDetailsImpl} principal already carries the id, so only other principals
+ * (OIDC users, foreign {@link UserDetails}) need one lookup.
+ */
+@Component
+@RequestScope
+@RequiredArgsConstructor
+public class CurrentUser {
+
+    private final UserRepository userRepository;
+
+    private Long id;
+    private boolean admin;
+    private boolean resolved;
+
+    public Long getId() {
+        resolve();
+        return id;
+    }
+
+    public boolean isAdmin() {
+        resolve();
+        return admin;
+    }
+
+    private void resolve() {
+        if (resolved) {
+            return;
+        }
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        if (authentication != null) {
+            admin = authentication.getAuthorities().stream()
+                    .anyMatch(authority -> ERole.ROLE_ADMIN.name().equals(authority.getAuthority()));
+            id = resolveId(authentication.getPrincipal());
+        }
+
+        resolved = true;
+    }
+
+    private Long resolveId(Object principal) {
+        if (principal instanceof UserDetailsImpl userDetails) {
+            return userDetails.getId();
+        }
+
+        if (principal instanceof OidcUser oidcUser) {
+            return userRepository.findByEmail(oidcUser.getEmail()).map(User::getId).orElse(null);
+        }
+
+        if (principal instanceof UserDetails userDetails) {
+            return userRepository.findByUsername(userDetails.getUsername()).map(User::getId).orElse(null);
+        }
+
+        return null;
+    }
+}
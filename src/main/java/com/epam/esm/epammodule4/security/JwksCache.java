@@ -0,0 +1,91 @@
+package com.epam.esm.epammodule4.security;
+
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.StringUtils;
+
+import javax.annotation.PostConstruct;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.text.ParseException;
+import java.util.List;
+
+/**
+ * Local copy of the identity provider's JWK set, refreshed in the background.
+ * <p>
+ * ID tokens are verified against the copy in memory. An unknown {@code kid} triggers at most one
+ * early refresh per {@link #MIN_REFRESH_INTERVAL_MS}, so key rotation is picked up without a remote
+ * fetch per login. When a seed file is configured the keys are loaded from it instead, e.g. in tests.
+ */
+@Slf4j
+public class JwksCache implements JWKSource<SecurityContext> {
+
+    private static final long MIN_REFRESH_INTERVAL_MS = 60_000;
+    private static final int CONNECT_TIMEOUT_MS = 2_000;
+    private static final int READ_TIMEOUT_MS = 2_000;
+    private static final int SIZE_LIMIT_BYTES = 64 * 1024;
+
+    private final String jwkSetUri;
+    private final String seedFile;
+    private volatile JWKSet jwkSet = new JWKSet();
+    private volatile long lastRefreshAttempt;
+
+    public JwksCache(String jwkSetUri, String seedFile) {
+        this.jwkSetUri = jwkSetUri;
+        this.seedFile = seedFile;
+    }
+
+    @PostConstruct
+    public void load() {
+        if (!StringUtils.hasText(seedFile)) {
+            refresh();
+            return;
+        }
+
+        try {
+            jwkSet = JWKSet.load(new File(seedFile));
+            log.info("Loaded {} JWKs from {}", jwkSet.getKeys().size(), seedFile);
+        } catch (IOException | ParseException e) {
+            log.warn("Cannot load JWKs from {}: {}", seedFile, e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.oauth2.jwks-refresh-ms}", initialDelayString = "${app.oauth2.jwks-refresh-ms}")
+    public void refresh() {
+        if (StringUtils.hasText(seedFile) || !StringUtils.hasText(jwkSetUri)) {
+            return;
+        }
+
+        lastRefreshAttempt = System.currentTimeMillis();
+
+        try {
+            jwkSet = JWKSet.load(new URL(jwkSetUri), CONNECT_TIMEOUT_MS, READ_TIMEOUT_MS, SIZE_LIMIT_BYTES);
+            log.debug("Refreshed {} JWKs from {}", jwkSet.getKeys().size(), jwkSetUri);
+        } catch (IOException | ParseException e) {
+            log.warn("Cannot refresh JWKs from {}, keeping {} cached keys: {}",
+                    jwkSetUri, jwkSet.getKeys().size(), e.getMessage());
+        }
+    }
+
+    @Override
+    public List<JWK> get(JWKSelector jwkSelector, SecurityContext context) {
+        List<JWK> keys = jwkSelector.select(jwkSet);
+
+        if (keys.isEmpty() && System.currentTimeMillis() - lastRefreshAttempt > MIN_REFRESH_INTERVAL_MS) {
+            refresh();
+            keys = jwkSelector.select(jwkSet);
+        }
+
+        return keys;
+    }
+
+    public int size() {
+        return jwkSet.getKeys().size();
+    }
+}
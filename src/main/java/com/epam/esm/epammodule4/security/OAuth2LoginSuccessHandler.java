@@ -0,0 +1,53 @@
+package com.epam.esm.epammodule4.security;
+
+import com.epam.esm.epammodule4.model.dto.response.JwtResponse;
+import com.epam.esm.epammodule4.model.entity.RefreshToken;
+import com.epam.esm.epammodule4.security.jwt.JwtUtils;
+import com.epam.esm.epammodule4.service.implementation.RefreshTokenService;
+import com.epam.esm.epammodule4.service.implementation.UserDetailsImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.core.oidc.user.OidcUser;
+import org.springframework.security.web.authentication.AuthenticationSuccessHandler;
+import org.springframework.stereotype.Component;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Answers a successful OIDC login with the same access and refresh tokens as {@code /auth/login},
+ * so later requests authenticate with the stateless JWT only.
+ */
+@Component
+@RequiredArgsConstructor
+public class OAuth2LoginSuccessHandler implements AuthenticationSuccessHandler {
+
+    private final OidcPrincipalCache oidcPrincipalCache;
+    private final JwtUtils jwtUtils;
+    private final RefreshTokenService refreshTokenService;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void onAuthenticationSuccess(HttpServletRequest request, HttpServletResponse response,
+                                        Authentication authentication) throws IOException {
+        OidcUser oidcUser = (OidcUser) authentication.getPrincipal();
+        UserDetailsImpl userDetails = oidcPrincipalCache.getPrincipal(oidcUser.getEmail());
+
+        String jwtToken = jwtUtils.generateJwtToken(userDetails);
+        RefreshToken refreshToken = refreshTokenService.createRefreshToken(userDetails.getId());
+
+        List<String> roles = userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new JwtResponse(jwtToken, refreshToken.getToken(),
+                userDetails.getId(), userDetails.getUsername(), userDetails.getEmail(), roles));
+    }
+}
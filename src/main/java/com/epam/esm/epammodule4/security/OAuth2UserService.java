@@ -1,39 +1,39 @@
 package com.epam.esm.epammodule4.security;
 
-import com.epam.esm.epammodule4.model.entity.User;
-import com.epam.esm.epammodule4.service.UserService;
+import com.epam.esm.epammodule4.service.implementation.UserDetailsImpl;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.oauth2.client.oidc.userinfo.OidcUserRequest;
 import org.springframework.security.oauth2.client.oidc.userinfo.OidcUserService;
 import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
+import org.springframework.security.oauth2.core.oidc.OidcIdToken;
 import org.springframework.security.oauth2.core.oidc.user.DefaultOidcUser;
 import org.springframework.security.oauth2.core.oidc.user.OidcUser;
 import org.springframework.stereotype.Service;
 
-import java.util.*;
-import java.util.stream.Collectors;
-
 @Service
 public class OAuth2UserService extends OidcUserService {
 
     @Autowired
-    private UserService userService;
+    private OidcPrincipalCache oidcPrincipalCache;
 
+    /**
+     * The verified ID token normally carries the e-mail, so the UserInfo endpoint is only
+     * called when it does not. The local user is resolved through {@link OidcPrincipalCache}.
+     */
     @Override
     public OidcUser loadUser(OidcUserRequest userRequest) throws OAuth2AuthenticationException {
-        OidcUser oidcUser = super.loadUser(userRequest);
-        Map<String, Object> attributes = oidcUser.getAttributes();
+        OidcIdToken idToken = userRequest.getIdToken();
 
-        String emailFromGoogle = (String) attributes.get("email");
-        User user = userService.findByEmail(emailFromGoogle);
+        if (idToken.getEmail() != null) {
+            UserDetailsImpl principal = oidcPrincipalCache.getPrincipal(idToken.getEmail());
 
-        List<GrantedAuthority> authorities = user.getRoles().stream()
-                .map(role -> new SimpleGrantedAuthority(role.getName().name()))
-                .collect(Collectors.toList());
+            return new DefaultOidcUser(principal.getAuthorities(), idToken, "sub");
+        }
+
+        OidcUser oidcUser = super.loadUser(userRequest);
+        String emailFromGoogle = (String) oidcUser.getAttributes().get("email");
+        UserDetailsImpl principal = oidcPrincipalCache.getPrincipal(emailFromGoogle);
 
-        oidcUser = new DefaultOidcUser(authorities, oidcUser.getIdToken(),"sub");
-        return oidcUser;
+        return new DefaultOidcUser(principal.getAuthorities(), idToken, oidcUser.getUserInfo(), "sub");
     }
-}
\ No newline at end of file
+}
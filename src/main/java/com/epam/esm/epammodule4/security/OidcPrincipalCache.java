@@ -0,0 +1,96 @@
+package com.epam.esm.epammodule4.security;
+
+import com.epam.esm.epammodule4.model.entity.User;
+import com.epam.esm.epammodule4.service.UserService;
+import com.epam.esm.epammodule4.service.event.UserChangedEvent;
+import com.epam.esm.epammodule4.service.implementation.UserDetailsImpl;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * Maps the e-mail of an OIDC login to the local principal. Entries are dropped
+ * whenever the user changes and otherwise live for {@code app.oauth2.principal-cache-ttl-ms}.
+ * At most {@code app.oauth2.principal-cache-max-entries} are kept: once full, expired entries are purged
+ * and then the least recently used ones evicted.
+ */
+@Slf4j
+@Component
+public class OidcPrincipalCache {
+
+    private final LinkedHashMap<String, CachedPrincipal> principals = new LinkedHashMap<>(16, 0.75f, true);
+    private final UserService userService;
+    private final long ttlMs;
+    private final int maxEntries;
+
+    public OidcPrincipalCache(@Lazy UserService userService,
+                              @Value("${app.oauth2.principal-cache-ttl-ms}") long ttlMs,
+                              @Value("${app.oauth2.principal-cache-max-entries}") int maxEntries) {
+        this.userService = userService;
+        this.ttlMs = ttlMs;
+        this.maxEntries = maxEntries;
+    }
+
+    public UserDetailsImpl getPrincipal(String email) {
+        long now = System.currentTimeMillis();
+        CachedPrincipal cached = get(email, now);
+
+        if (cached != null) {
+            return cached.principal();
+        }
+
+        User user = userService.findByEmail(email);
+        UserDetailsImpl built = UserDetailsImpl.build(user);
+        UserDetailsImpl principal = new UserDetailsImpl(
+                built.getId(), built.getUsername(), built.getEmail(), null, built.getAuthorities());
+
+        put(email, new CachedPrincipal(principal, now + ttlMs), now);
+        return principal;
+    }
+
+    @EventListener
+    public synchronized void onUserChanged(UserChangedEvent event) {
+        if (principals.values().removeIf(cached -> cached.principal().getId().equals(event.getUserId()))) {
+            log.debug("Dropped cached OIDC principal of user with id {}", event.getUserId());
+        }
+    }
+
+    public synchronized int size() {
+        return principals.size();
+    }
+
+    private synchronized CachedPrincipal get(String email, long now) {
+        CachedPrincipal cached = principals.get(email);
+
+        if (cached != null && cached.expiresAt() <= now) {
+            principals.remove(email);
+            return null;
+        }
+        return cached;
+    }
+
+    private synchronized void put(String email, CachedPrincipal cached, long now) {
+        if (maxEntries <= 0) {
+            return;
+        }
+
+        principals.put(email, cached);
+        if (principals.size() > maxEntries) {
+            principals.values().removeIf(entry -> entry.expiresAt() <= now);
+        }
+
+        Iterator<CachedPrincipal> eldest = principals.values().iterator();
+        while (principals.size() > maxEntries && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    private record CachedPrincipal(UserDetailsImpl principal, long expiresAt) {
+    }
+}
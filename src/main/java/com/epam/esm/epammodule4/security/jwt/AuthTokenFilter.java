@@ -2,6 +2,7 @@ package com.epam.esm.epammodule4.security.jwt;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -15,6 +16,8 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.Date;
+import java.util.Optional;
 
 import static java.util.Optional.*;
 
@@ -27,19 +30,30 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     @Autowired
     UserDetailsService userDetailsService;
 
+    @Autowired
+    CredentialsChangeRegistry credentialsChangeRegistry;
+
+    @Autowired
+    TokenRevocationList tokenRevocationList;
+
+    @Value("${app.jwtClaimsOnly}")
+    private boolean claimsOnly;
+
+    @Value("${app.jwtClaimsMaxAgeMs}")
+    private long claimsMaxAgeMs;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
 
         String jwtToken = parseJwt(request);
+        Optional<VerifiedToken> verifiedToken = verifyToken(jwtToken);
 
-        if (needTokenValidation(jwtToken)) {
-            String username = jwtUtils.getUserNameFromJwtToken(jwtToken);
-
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        if (verifiedToken.isPresent()) {
+            UserDetails userDetails = resolveUserDetails(verifiedToken.get());
 
             UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                    userDetails, null, userDetails.getAuthorities());
+                    userDetails, verifiedToken.get(), userDetails.getAuthorities());
 
             authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
@@ -49,6 +63,23 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private UserDetails resolveUserDetails(VerifiedToken token) {
+        if (claimsOnly && isFresh(token)) {
+            return jwtUtils.buildUserDetails(token);
+        }
+
+        return userDetailsService.loadUserByUsername(token.getUsername());
+    }
+
+    private boolean isFresh(VerifiedToken token) {
+        Date issuedAt = token.getIssuedAt();
+
+        return ofNullable(issuedAt).isPresent()
+                && ofNullable(token.getUserId()).isPresent()
+                && System.currentTimeMillis() - issuedAt.getTime() <= claimsMaxAgeMs
+                && !credentialsChangeRegistry.changedSince(token.getUserId(), issuedAt);
+    }
+
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
 
@@ -59,9 +90,13 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         return null;
     }
 
-    private boolean needTokenValidation(String token) {
-        return ofNullable(token).isPresent()
-                && jwtUtils.validateJwtToken(token)
-                && ofNullable(SecurityContextHolder.getContext().getAuthentication()).isEmpty();
+    private Optional<VerifiedToken> verifyToken(String token) {
+        if (ofNullable(token).isEmpty()
+                || ofNullable(SecurityContextHolder.getContext().getAuthentication()).isPresent()) {
+            return Optional.empty();
+        }
+
+        return jwtUtils.verifyJwtToken(token)
+                .filter(verifiedToken -> !tokenRevocationList.isRevoked(verifiedToken.getId()));
     }
 }
\ No newline at end of file
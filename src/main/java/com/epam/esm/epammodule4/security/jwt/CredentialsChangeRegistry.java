@@ -0,0 +1,48 @@
+package com.epam.esm.epammodule4.security.jwt;
+
+import com.epam.esm.epammodule4.service.event.UserChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers when the credentials (password or roles) of a user last changed.
+ * Tokens issued before that moment carry outdated claims and have to be resolved from the database.
+ */
+@Slf4j
+@Component
+public class CredentialsChangeRegistry {
+
+    private final Map<Long, Long> changedAt = new ConcurrentHashMap<>();
+
+    @Value("${app.jwtExpirationMs}")
+    private int jwtExpirationMs;
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.isCredentialsChanged()) {
+            markChanged(event.getUserId());
+        }
+    }
+
+    public void markChanged(Long userId) {
+        long now = System.currentTimeMillis();
+
+        changedAt.put(userId, now);
+        changedAt.values().removeIf(timestamp -> timestamp + jwtExpirationMs < now);
+
+        log.debug("Credentials of user with id {} changed, older tokens will be reloaded", userId);
+    }
+
+    public boolean changedSince(Long userId, Date issuedAt) {
+        Long timestamp = changedAt.get(userId);
+
+        // iat is truncated to seconds, so a token issued in the same second as the change is treated as stale
+        return timestamp != null && issuedAt.getTime() <= timestamp;
+    }
+}
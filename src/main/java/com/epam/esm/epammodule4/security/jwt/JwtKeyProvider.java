@@ -0,0 +1,186 @@
+package com.epam.esm.epammodule4.security.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.impl.TextCodec;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.security.*;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.*;
+
+/**
+ * Holds the signing key and all verification keys, built once at startup.
+ * <p>
+ * Supported algorithms are HS256, HS384, HS512 and ES256. Every issued token carries a {@code kid} header,
+ * so the active key can be rotated while tokens signed with a retired key
+ * ({@code app.jwtRetiredKeys} entries in the {@code kid:ALGORITHM:material} form) stay valid.
+ * For HMAC algorithms the material is the secret, for ES256 it is a Base64 X.509 public key.
+ * Tokens without a {@code kid} were issued before rotation support and are checked against the active key.
+ * A retired key can be dropped at runtime, e.g. when it leaked, which publishes a {@link JwtKeySetChangedEvent}.
+ */
+@Slf4j
+@Component
+public class JwtKeyProvider extends SigningKeyResolverAdapter {
+
+    private static final Set<SignatureAlgorithm> SUPPORTED_ALGORITHMS = EnumSet.of(
+            SignatureAlgorithm.HS256,
+            SignatureAlgorithm.HS384,
+            SignatureAlgorithm.HS512,
+            SignatureAlgorithm.ES256
+    );
+
+    @Getter
+    private final SignatureAlgorithm algorithm;
+    @Getter
+    private final String keyId;
+    @Getter
+    private final Key signingKey;
+    private final ApplicationEventPublisher eventPublisher;
+    private volatile Map<String, VerificationKey> verificationKeys;
+
+    public JwtKeyProvider(ApplicationEventPublisher eventPublisher,
+                          @Value("${app.jwtAlgorithm}") String algorithm,
+                          @Value("${app.jwtKeyId}") String keyId,
+                          @Value("${app.jwtSecret}") String secret,
+                          @Value("${app.jwtPrivateKey:}") String privateKey,
+                          @Value("${app.jwtPublicKey:}") String publicKey,
+                          @Value("${app.jwtRetiredKeys:}") List<String> retiredKeys) {
+        this.eventPublisher = eventPublisher;
+        this.algorithm = parseAlgorithm(algorithm);
+        this.keyId = keyId;
+
+        Map<String, VerificationKey> keys = new HashMap<>();
+        if (this.algorithm.isHmac()) {
+            this.signingKey = hmacKey(this.algorithm, secret);
+            keys.put(keyId, new VerificationKey(this.algorithm, signingKey));
+        } else {
+            KeyPair keyPair = ecKeyPair(privateKey, publicKey);
+            this.signingKey = keyPair.getPrivate();
+            keys.put(keyId, new VerificationKey(this.algorithm, keyPair.getPublic()));
+        }
+
+        retiredKeys.stream()
+                .filter(StringUtils::hasText)
+                .forEach(entry -> addRetiredKey(keys, entry));
+        this.verificationKeys = Map.copyOf(keys);
+
+        log.info("JWT tokens are signed with {} using key id '{}', {} verification keys loaded",
+                this.algorithm, keyId, verificationKeys.size());
+    }
+
+    @Override
+    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+        String tokenKeyId = Optional.ofNullable(header.getKeyId()).orElse(keyId);
+        VerificationKey verificationKey = verificationKeys.get(tokenKeyId);
+
+        if (verificationKey == null) {
+            throw new UnsupportedJwtException("Unknown JWT key id: " + tokenKeyId);
+        }
+
+        // the algorithm is pinned per key, otherwise a public key could be abused as an HMAC secret
+        if (!verificationKey.algorithm().getValue().equals(header.getAlgorithm())) {
+            throw new UnsupportedJwtException("JWT algorithm %s does not match key id %s"
+                    .formatted(header.getAlgorithm(), tokenKeyId));
+        }
+
+        return verificationKey.key();
+    }
+
+    public Set<String> getVerificationKeyIds() {
+        return verificationKeys.keySet();
+    }
+
+    /**
+     * Stops accepting tokens signed with a retired key. The active key cannot be removed, only rotated
+     * by a restart with another {@code app.jwtKeyId}.
+     */
+    public synchronized void removeRetiredKey(String retiredKeyId) {
+        if (keyId.equals(retiredKeyId)) {
+            throw new IllegalArgumentException("The active JWT key %s cannot be removed".formatted(retiredKeyId));
+        }
+
+        Map<String, VerificationKey> keys = new HashMap<>(verificationKeys);
+        if (keys.remove(retiredKeyId) != null) {
+            verificationKeys = Map.copyOf(keys);
+            log.info("Removed retired JWT key id '{}', {} verification keys left", retiredKeyId, keys.size());
+            eventPublisher.publishEvent(new JwtKeySetChangedEvent(retiredKeyId));
+        }
+    }
+
+    private static void addRetiredKey(Map<String, VerificationKey> keys, String entry) {
+        String[] parts = entry.trim().split(":", 3);
+
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Retired JWT key must have the kid:ALGORITHM:material form");
+        }
+
+        SignatureAlgorithm retiredAlgorithm = parseAlgorithm(parts[1]);
+        Key key = retiredAlgorithm.isHmac()
+                ? hmacKey(retiredAlgorithm, parts[2])
+                : decodePublicKey(parts[2]);
+
+        keys.putIfAbsent(parts[0], new VerificationKey(retiredAlgorithm, key));
+    }
+
+    private static SignatureAlgorithm parseAlgorithm(String name) {
+        SignatureAlgorithm signatureAlgorithm = SignatureAlgorithm.forName(name.trim());
+
+        if (!SUPPORTED_ALGORITHMS.contains(signatureAlgorithm)) {
+            throw new IllegalArgumentException("Unsupported JWT algorithm: " + name);
+        }
+
+        return signatureAlgorithm;
+    }
+
+    /**
+     * Derives the same key bytes as {@code signWith(algorithm, String)} did, so tokens issued
+     * before keys were precomputed remain valid.
+     */
+    private static Key hmacKey(SignatureAlgorithm algorithm, String secret) {
+        return new SecretKeySpec(TextCodec.BASE64.decode(secret), algorithm.getJcaName());
+    }
+
+    private static KeyPair ecKeyPair(String privateKey, String publicKey) {
+        try {
+            if (StringUtils.hasText(privateKey) && StringUtils.hasText(publicKey)) {
+                KeyFactory keyFactory = KeyFactory.getInstance("EC");
+                PrivateKey decodedPrivateKey = keyFactory.generatePrivate(
+                        new PKCS8EncodedKeySpec(Base64.getDecoder().decode(privateKey)));
+
+                return new KeyPair(decodePublicKey(publicKey), decodedPrivateKey);
+            }
+
+            log.warn("No EC key pair configured, generating one; issued tokens will not survive a restart");
+
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+            generator.initialize(new ECGenParameterSpec("secp256r1"));
+            return generator.generateKeyPair();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot build EC key pair for JWT signing", e);
+        }
+    }
+
+    private static PublicKey decodePublicKey(String publicKey) {
+        try {
+            return KeyFactory.getInstance("EC")
+                    .generatePublic(new X509EncodedKeySpec(Base64.getDecoder().decode(publicKey)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot decode EC public key for JWT verification", e);
+        }
+    }
+
+    private record VerificationKey(SignatureAlgorithm algorithm, Key key) {
+    }
+}
@@ -0,0 +1,16 @@
+package com.epam.esm.epammodule4.security.jwt;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published after a verification key has been removed, so tokens verified with it must not be trusted anymore.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class JwtKeySetChangedEvent {
+
+    private final String removedKeyId;
+}
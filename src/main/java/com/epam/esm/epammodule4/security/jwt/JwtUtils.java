@@ -5,19 +5,26 @@ import com.epam.esm.epammodule4.service.implementation.UserDetailsImpl;
 import io.jsonwebtoken.*;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 
 import javax.annotation.Resource;
 import java.util.*;
+import java.util.stream.Collectors;
+
+import static java.util.Optional.ofNullable;
 
 @Slf4j
 @Component
 public class JwtUtils {
 
-    @Value("${app.jwtSecret}")
-    private String jwtSecret;
+    private static final String ROLES_CLAIM = "roles";
+    private static final String EMAIL_CLAIM = "email";
+    private static final String USER_ID_CLAIM = "uid";
 
     @Value("${app.jwtExpirationMs}")
     private int jwtExpirationMs;
@@ -25,37 +32,78 @@ public class JwtUtils {
     @Resource
     private UserDetailsService userDetailsService;
 
+    @Resource
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Resource
+    private JwtKeyProvider jwtKeyProvider;
+
+    /**
+     * Issues a token for an already authenticated principal, without loading the user again.
+     * Each token gets a random {@code jti}, so it can be revoked without touching other sessions of the user.
+     */
     public String generateJwtToken(UserDetailsImpl userPrincipal) {
-        User user = User.builder().id(userPrincipal.getId()).name(userPrincipal.getUsername()).build();
-        return generateTokenFromUser(user);
-    }
+        List<String> roles = userPrincipal.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
 
-    public String generateTokenFromUser(User user) {
-        List<String> roles = new ArrayList<>();
-        Map<String, Object> rolesClaim = new HashMap<>();
-        UserDetails userDetails = userDetailsService.loadUserByUsername(user.getName());
-        userDetails.getAuthorities().forEach(a -> roles.add(a.getAuthority()));
-        rolesClaim.put("roles", roles);
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(ROLES_CLAIM, roles);
+        claims.put(USER_ID_CLAIM, userPrincipal.getId());
+        ofNullable(userPrincipal.getEmail()).ifPresent(email -> claims.put(EMAIL_CLAIM, email));
 
-        long expirationDate = (new Date()).getTime() + jwtExpirationMs;
+        Date issuedAt = new Date();
+        long expirationDate = issuedAt.getTime() + jwtExpirationMs;
 
         return Jwts.builder()
-                .setId(user.getId().toString())
-                .setSubject(user.getName())
-                .addClaims(rolesClaim)
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(expirationDate)).signWith(SignatureAlgorithm.HS512, jwtSecret)
+                .setHeaderParam(JwsHeader.KEY_ID, jwtKeyProvider.getKeyId())
+                .setId(UUID.randomUUID().toString())
+                .setSubject(userPrincipal.getUsername())
+                .addClaims(claims)
+                .setIssuedAt(issuedAt)
+                .setExpiration(new Date(expirationDate))
+                .signWith(jwtKeyProvider.getAlgorithm(), jwtKeyProvider.getSigningKey())
                 .compact();
     }
 
+    public String generateTokenFromUser(User user) {
+        UserDetails userDetails = userDetailsService.loadUserByUsername(user.getUsername());
+
+        return generateJwtToken((UserDetailsImpl) userDetails);
+    }
+
     public String getUserNameFromJwtToken(String token) {
-        return Jwts.parser().setSigningKey(jwtSecret).parseClaimsJws(token).getBody().getSubject();
+        return verifyJwtToken(token)
+                .map(VerifiedToken::getUsername)
+                .orElseThrow(() -> new MalformedJwtException("JWT token cannot be verified"));
     }
 
     public boolean validateJwtToken(String authToken) {
+        return verifyJwtToken(authToken).isPresent();
+    }
+
+    /**
+     * Verifies the signature and expiration of the token with a single parse.
+     * Tokens verified before are served from {@link VerifiedTokenCache} until they expire.
+     */
+    public Optional<VerifiedToken> verifyJwtToken(String authToken) {
+        if (!StringUtils.hasText(authToken)) {
+            log.error("JWT claims string is empty");
+            return Optional.empty();
+        }
+
+        Optional<VerifiedToken> cachedToken = verifiedTokenCache.get(authToken);
+
+        if (cachedToken.isPresent()) {
+            return cachedToken;
+        }
+
         try {
-            Jwts.parser().setSigningKey(jwtSecret).parseClaimsJws(authToken);
-            return true;
+            Claims claims = Jwts.parser().setSigningKeyResolver(jwtKeyProvider).parseClaimsJws(authToken).getBody();
+            VerifiedToken verifiedToken = toVerifiedToken(claims);
+
+            verifiedTokenCache.put(authToken, verifiedToken);
+            return Optional.of(verifiedToken);
         } catch (SignatureException e) {
             log.error("Invalid JWT signature: {}", e.getMessage());
         } catch (MalformedJwtException e) {
@@ -68,6 +116,35 @@ public class JwtUtils {
             log.error("JWT claims string is empty: {}", e.getMessage());
         }
 
-        return false;
+        return Optional.empty();
+    }
+
+    /**
+     * Builds the principal from verified claims only, without touching the database.
+     */
+    public UserDetailsImpl buildUserDetails(VerifiedToken token) {
+        List<GrantedAuthority> authorities = token.getRoles().stream()
+                .map(SimpleGrantedAuthority::new)
+                .collect(Collectors.toList());
+
+        return new UserDetailsImpl(
+                token.getUserId(),
+                token.getUsername(),
+                token.getEmail(),
+                null,
+                authorities);
+    }
+
+    private VerifiedToken toVerifiedToken(Claims claims) {
+        List<?> roles = ofNullable(claims.get(ROLES_CLAIM, List.class)).orElse(Collections.emptyList());
+
+        return new VerifiedToken(
+                claims.getId(),
+                ofNullable(claims.get(USER_ID_CLAIM, Number.class)).map(Number::longValue).orElse(null),
+                claims.getSubject(),
+                claims.get(EMAIL_CLAIM, String.class),
+                roles.stream().map(Object::toString).toList(),
+                claims.getIssuedAt(),
+                claims.getExpiration());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,166 @@
+package com.epam.esm.epammodule4.security.jwt;
+
+import com.epam.esm.epammodule4.util.ConcurrentBloomFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Server-side revocation of single access tokens by {@code jti}.
+ * <p>
+ * Every token carries a {@code jti} of its own, so revoking one ends that session only.
+ * A Bloom filter answers the common "not revoked" case with a few bit probes; only possible
+ * hits consult the exact map. Entries age out once the token they revoke has expired,
+ * and the filter is then rebuilt from the remaining entries.
+ */
+@Slf4j
+@Component
+public class TokenRevocationList {
+
+    private static final int SNAPSHOT_VERSION = 2;
+
+    private final Map<String, Long> revokedUntil = new ConcurrentHashMap<>();
+    private final int expectedEntries;
+    private final double falsePositiveRate;
+    private final long jwtExpirationMs;
+    private final String snapshotFile;
+    private volatile ConcurrentBloomFilter filter;
+
+    public TokenRevocationList(@Value("${app.revocation.expected-entries}") int expectedEntries,
+                               @Value("${app.revocation.false-positive-rate}") double falsePositiveRate,
+                               @Value("${app.jwtExpirationMs}") long jwtExpirationMs,
+                               @Value("${app.revocation.snapshot-file:}") String snapshotFile) {
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+        this.jwtExpirationMs = jwtExpirationMs;
+        this.snapshotFile = snapshotFile;
+        this.filter = new ConcurrentBloomFilter(expectedEntries, falsePositiveRate);
+    }
+
+    /**
+     * Revokes the token with the {@code jti} until {@code expiresAt}, or for a full token lifetime when unknown.
+     */
+    public void revoke(String jti, Date expiresAt) {
+        long until = expiresAt == null ? System.currentTimeMillis() + jwtExpirationMs : expiresAt.getTime();
+
+        revokedUntil.merge(jti, until, Math::max);
+        filter.put(jti);
+
+        log.debug("Token with jti {} is revoked", jti);
+    }
+
+    public boolean isRevoked(String jti) {
+        return jti != null && filter.mightContain(jti) && revokedUntil.containsKey(jti);
+    }
+
+    public int size() {
+        return revokedUntil.size();
+    }
+
+    @Scheduled(fixedDelayString = "${app.revocation.purge-interval-ms}")
+    public void purge() {
+        long now = System.currentTimeMillis();
+        int before = revokedUntil.size();
+
+        revokedUntil.values().removeIf(until -> until < now);
+
+        if (revokedUntil.size() < before) {
+            rebuildFilter();
+            log.debug("Purged {} expired token revocations", before - revokedUntil.size());
+        }
+
+        snapshot();
+    }
+
+    @PostConstruct
+    public void restore() {
+        if (!StringUtils.hasText(snapshotFile) || !Files.exists(Paths.get(snapshotFile))) {
+            return;
+        }
+
+        try (DataInputStream input = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(Paths.get(snapshotFile))))) {
+            if (input.readInt() != SNAPSHOT_VERSION) {
+                log.warn("Ignoring token revocation snapshot {} of unknown version", snapshotFile);
+                return;
+            }
+
+            ConcurrentBloomFilter restoredFilter = ConcurrentBloomFilter.readFrom(input);
+            long now = System.currentTimeMillis();
+            int count = input.readInt();
+
+            for (int i = 0; i < count; i++) {
+                String jti = input.readUTF();
+                long until = input.readLong();
+
+                if (until >= now) {
+                    revokedUntil.merge(jti, until, Math::max);
+                }
+            }
+
+            if (restoredFilter.getBitSize() == filter.getBitSize()
+                    && restoredFilter.getHashCount() == filter.getHashCount()) {
+                filter = restoredFilter;
+            }
+            revokedUntil.keySet().forEach(filter::put);
+
+            log.info("Restored {} token revocations from {}", revokedUntil.size(), snapshotFile);
+        } catch (IOException e) {
+            log.warn("Cannot restore token revocations from {}: {}", snapshotFile, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void snapshot() {
+        if (!StringUtils.hasText(snapshotFile)) {
+            return;
+        }
+
+        Path target = Paths.get(snapshotFile);
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        Map<String, Long> entries = Map.copyOf(revokedUntil);
+
+        try (DataOutputStream output = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+            output.writeInt(SNAPSHOT_VERSION);
+            filter.writeTo(output);
+            output.writeInt(entries.size());
+
+            for (Map.Entry<String, Long> entry : entries.entrySet()) {
+                output.writeUTF(entry.getKey());
+                output.writeLong(entry.getValue());
+            }
+        } catch (IOException e) {
+            log.warn("Cannot write token revocation snapshot {}: {}", snapshotFile, e.getMessage());
+            return;
+        }
+
+        try {
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Cannot replace token revocation snapshot {}: {}", snapshotFile, e.getMessage());
+        }
+    }
+
+    private void rebuildFilter() {
+        ConcurrentBloomFilter rebuilt = new ConcurrentBloomFilter(expectedEntries, falsePositiveRate);
+
+        revokedUntil.keySet().forEach(rebuilt::put);
+        filter = rebuilt;
+        // revocations that raced with the rebuild may have gone to the old filter
+        revokedUntil.keySet().forEach(rebuilt::put);
+    }
+}
@@ -0,0 +1,29 @@
+package com.epam.esm.epammodule4.security.jwt;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Claims of a JWT whose signature and expiration have already been verified.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class VerifiedToken {
+
+    private final String id;
+    private final Long userId;
+    private final String username;
+    private final String email;
+    private final List<String> roles;
+    private final Date issuedAt;
+    private final Date expiration;
+
+    public boolean isExpired(long nowMillis) {
+        return expiration != null && expiration.getTime() <= nowMillis;
+    }
+}
@@ -0,0 +1,135 @@
+package com.epam.esm.epammodule4.security.jwt;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of already verified tokens, keyed by the SHA-256 digest of the compact token.
+ * An entry lives until the token expires, so a client reusing one bearer token pays the
+ * signature verification and JSON parsing only once. The whole cache is dropped when a verification key
+ * is removed, since the entries do not tell which key verified them.
+ */
+@Slf4j
+@Component
+public class VerifiedTokenCache implements MeterBinder {
+
+    private static final String METRIC_NAME = "jwt.verification.cache";
+
+    private final Map<String, VerifiedToken> tokens = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    @Value("${app.jwtCacheMaxSize}")
+    private int maxSize;
+
+    public Optional<VerifiedToken> get(String token) {
+        String key = digest(token);
+        VerifiedToken verifiedToken = tokens.get(key);
+
+        if (verifiedToken == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+
+        if (verifiedToken.isExpired(System.currentTimeMillis())) {
+            tokens.remove(key);
+            misses.increment();
+            return Optional.empty();
+        }
+
+        hits.increment();
+        return Optional.of(verifiedToken);
+    }
+
+    public void put(String token, VerifiedToken verifiedToken) {
+        if (maxSize <= 0) {
+            return;
+        }
+
+        if (tokens.size() >= maxSize) {
+            evict();
+        }
+
+        tokens.put(digest(token), verifiedToken);
+    }
+
+    @EventListener
+    public void onKeySetChanged(JwtKeySetChangedEvent event) {
+        invalidateAll();
+    }
+
+    public void invalidateAll() {
+        tokens.clear();
+        log.debug("Dropped all verified tokens");
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public int size() {
+        return tokens.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder(METRIC_NAME, hits, LongAdder::sum)
+                .tag("result", "hit")
+                .description("Tokens served without signature verification")
+                .register(registry);
+        FunctionCounter.builder(METRIC_NAME, misses, LongAdder::sum)
+                .tag("result", "miss")
+                .description("Tokens that had to be parsed and verified")
+                .register(registry);
+        Gauge.builder(METRIC_NAME + ".size", tokens, Map::size)
+                .description("Verified tokens currently cached")
+                .register(registry);
+    }
+
+    private void evict() {
+        long now = System.currentTimeMillis();
+        tokens.values().removeIf(verifiedToken -> verifiedToken.isExpired(now));
+
+        // still full of live tokens: drop an arbitrary tenth, they will simply be verified again
+        int toRemove = tokens.size() - maxSize + Math.max(1, maxSize / 10);
+        Iterator<String> iterator = tokens.keySet().iterator();
+
+        while (toRemove-- > 0 && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+
+        log.debug("Evicted verified tokens, {} left in cache", tokens.size());
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = messageDigest.digest(token.getBytes(StandardCharsets.US_ASCII));
+
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
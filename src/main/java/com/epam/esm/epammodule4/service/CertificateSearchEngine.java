@@ -0,0 +1,31 @@
+package com.epam.esm.epammodule4.service;
+
+import com.epam.esm.epammodule4.util.CompressedBitmap;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+
+/**
+ * Full-text search over certificate names and descriptions.
+ * Returns ids of the certificates containing every query term, best match first.
+ * Sort orders of the page request are ignored, the results are always ranked by relevance.
+ */
+public interface CertificateSearchEngine {
+
+    default Page<Long> search(String text, Pageable pageable) {
+        return search(text, null, pageable);
+    }
+
+    /**
+     * Ranks only the matches contained in {@code filter}, the ids passing the other search filters;
+     * a {@code null} filter admits every certificate.
+     */
+    Page<Long> search(String text, @Nullable CompressedBitmap filter, Pageable pageable);
+
+    /**
+     * Returns the ids of every certificate containing all query terms, unranked.
+     */
+    List<Long> findAllIds(String text);
+}
@@ -0,0 +1,22 @@
+package com.epam.esm.epammodule4.service;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Typo-tolerant lookup of certificate and tag names by Levenshtein distance, ignoring case.
+ * The distance requested is capped by {@code app.search.fuzzy.max-distance}.
+ */
+public interface FuzzyNameMatcher {
+
+    /**
+     * Returns the ids of the certificates whose name has, for every word of {@code name}, a word within
+     * {@code maxDistance} edits of it; the smallest sum of distances first, then by id.
+     */
+    List<Long> findCertificateIds(String name, int maxDistance);
+
+    /**
+     * Returns the existing tag name closest to {@code name}, if one is within {@code maxDistance} edits.
+     */
+    Optional<String> findTagName(String name, int maxDistance);
+}
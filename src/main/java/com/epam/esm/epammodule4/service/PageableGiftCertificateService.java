@@ -1,13 +1,23 @@
 package com.epam.esm.epammodule4.service;
 
+import com.epam.esm.epammodule4.model.CertificateFacets;
+import com.epam.esm.epammodule4.model.TotalCount;
+import com.epam.esm.epammodule4.model.dto.CursorPage;
 import com.epam.esm.epammodule4.model.dto.request.SearchGiftCertificateRequest;
 import com.epam.esm.epammodule4.model.entity.GiftCertificate;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 public interface PageableGiftCertificateService {
 
     Page<GiftCertificate> findAll(Pageable pageable);
 
-    Page<GiftCertificate> findCertificateWithSearchParams(Pageable pageable, SearchGiftCertificateRequest searchRequest);
+    Slice<GiftCertificate> findAll(Pageable pageable, TotalCount total);
+
+    CursorPage<GiftCertificate> findAll(String cursor, Pageable pageable);
+
+    Slice<GiftCertificate> findCertificateWithSearchParams(Pageable pageable, SearchGiftCertificateRequest searchRequest);
+
+    CertificateFacets findFacets(SearchGiftCertificateRequest searchRequest);
 }
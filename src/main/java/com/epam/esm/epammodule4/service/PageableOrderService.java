@@ -1,12 +1,38 @@
 package com.epam.esm.epammodule4.service;
 
+import com.epam.esm.epammodule4.model.TotalCount;
+import com.epam.esm.epammodule4.model.dto.CursorPage;
+import com.epam.esm.epammodule4.model.dto.OrderDto;
 import com.epam.esm.epammodule4.model.entity.Order;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 public interface PageableOrderService {
 
     Page<Order> findAll(Pageable pageable);
 
+    Slice<Order> findAll(Pageable pageable, TotalCount total);
+
     Page<Order> findAllByUserId(Long id, Pageable pageable);
+
+    Slice<Order> findAllByUserId(Long id, Pageable pageable, TotalCount total);
+
+    CursorPage<Order> findAll(String cursor, Pageable pageable);
+
+    CursorPage<Order> findAllByUserId(Long id, String cursor, Pageable pageable);
+
+    /**
+     * Same listing as {@link #findAll(Pageable, TotalCount)}, read as projections straight into DTOs.
+     */
+    Slice<OrderDto> findAllAsDto(Pageable pageable, TotalCount total);
+
+    Slice<OrderDto> findAllAsDtoByUserId(Long id, Pageable pageable, TotalCount total);
+
+    /**
+     * Same listing as {@link #findAll(String, Pageable)}, read as projections straight into DTOs.
+     */
+    CursorPage<OrderDto> findAllAsDto(String cursor, Pageable pageable);
+
+    CursorPage<OrderDto> findAllAsDtoByUserId(Long id, String cursor, Pageable pageable);
 }
@@ -1,10 +1,17 @@
 package com.epam.esm.epammodule4.service;
 
+import com.epam.esm.epammodule4.model.TotalCount;
+import com.epam.esm.epammodule4.model.dto.CursorPage;
 import com.epam.esm.epammodule4.model.entity.Tag;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 public interface PageableTagService {
 
     Page<Tag> findAll(Pageable pageable);
+
+    Slice<Tag> findAll(Pageable pageable, TotalCount total);
+
+    CursorPage<Tag> findAll(String cursor, Pageable pageable);
 }
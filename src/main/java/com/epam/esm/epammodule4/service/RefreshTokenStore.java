@@ -0,0 +1,23 @@
+package com.epam.esm.epammodule4.service;
+
+import com.epam.esm.epammodule4.model.entity.RefreshToken;
+
+import java.util.Optional;
+
+public interface RefreshTokenStore {
+
+    RefreshToken save(RefreshToken refreshToken);
+
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    /**
+     * @return {@code true} if the token was active and is now revoked
+     */
+    boolean revoke(RefreshToken refreshToken);
+
+    void delete(RefreshToken refreshToken);
+
+    int deleteByFamily(String family);
+
+    int deleteByUserId(Long userId);
+}
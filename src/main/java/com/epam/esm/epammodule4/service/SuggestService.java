@@ -0,0 +1,10 @@
+package com.epam.esm.epammodule4.service;
+
+import java.util.List;
+
+public interface SuggestService {
+
+    List<String> suggestTagNames(String prefix, int limit);
+
+    List<String> suggestCertificateNames(String prefix, int limit);
+}
@@ -0,0 +1,8 @@
+package com.epam.esm.epammodule4.service.event;
+
+/**
+ * Published after rows were written in bulk, bypassing the services and their change events, so every
+ * in-memory index must be rebuilt from the database.
+ */
+public class BulkDataLoadedEvent {
+}
@@ -0,0 +1,23 @@
+package com.epam.esm.epammodule4.service.event;
+
+import com.epam.esm.epammodule4.model.entity.GiftCertificate;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published after a gift certificate has been created, updated or deleted.
+ * {@code certificate} holds the saved state and is {@code null} when the certificate is gone.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class GiftCertificateChangedEvent {
+
+    private final Long certificateId;
+    private final GiftCertificate certificate;
+
+    public boolean isDeleted() {
+        return certificate == null;
+    }
+}
@@ -0,0 +1,19 @@
+package com.epam.esm.epammodule4.service.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published after an order has been created, updated or deleted.
+ * {@code previousCertificateId} is {@code null} for a new order, {@code certificateId} for a deleted one.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class OrderChangedEvent {
+
+    private final Long orderId;
+    private final Long previousCertificateId;
+    private final Long certificateId;
+}
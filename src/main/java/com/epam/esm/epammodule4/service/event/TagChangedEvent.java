@@ -0,0 +1,23 @@
+package com.epam.esm.epammodule4.service.event;
+
+import com.epam.esm.epammodule4.model.entity.Tag;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published after a tag has been created, renamed or deleted.
+ * {@code tag} holds the saved state and is {@code null} when the tag is gone.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class TagChangedEvent {
+
+    private final Long tagId;
+    private final Tag tag;
+
+    public boolean isDeleted() {
+        return tag == null;
+    }
+}
@@ -0,0 +1,19 @@
+package com.epam.esm.epammodule4.service.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published after a user has been updated or deleted.
+ * {@code credentialsChanged} is set when the password or roles changed, or the user is gone,
+ * so tokens issued before the change must not be trusted on their claims alone.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class UserChangedEvent {
+
+    private final Long userId;
+    private final boolean credentialsChanged;
+}
@@ -0,0 +1,132 @@
+package com.epam.esm.epammodule4.service.implementation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Approximate totals for paged listings, so a page does not pay for a {@code count(*)} over the whole table.
+ * <p>
+ * Whole tables are estimated from the PostgreSQL planner statistics ({@code pg_class.reltuples}). Filtered
+ * listings, tables never analyzed and other databases use an exact count cached per key for
+ * {@code app.pagination.approximate-count-ttl-ms}. Keys come from search parameters, so at most
+ * {@code app.pagination.approximate-count-max-entries} counts are kept: beyond that the expired ones are
+ * purged, then the least recently used evicted.
+ */
+@Slf4j
+@Component
+public class ApproximateRowCounter {
+
+    private static final String TABLE_STATISTICS_QUERY =
+            "SELECT reltuples::bigint FROM pg_class WHERE oid = to_regclass(?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long ttlMs;
+    private final int maxEntries;
+    private final LinkedHashMap<String, CachedCount> counts = new LinkedHashMap<>(16, 0.75f, true);
+    private volatile Boolean tableStatistics;
+
+    public ApproximateRowCounter(JdbcTemplate jdbcTemplate,
+                                 @Value("${app.pagination.approximate-count-ttl-ms}") long ttlMs,
+                                 @Value("${app.pagination.approximate-count-max-entries}") int maxEntries) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ttlMs = ttlMs;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Returns the slice as a page whose total is the estimate, corrected by what the slice tells exactly:
+     * a last slice ends the listing and a slice with a next one means there are more rows than it reaches.
+     * An empty slice past the end only tells that the listing ends before its offset, so its total is the
+     * estimate capped at the offset. The estimate is not evaluated for any other last slice.
+     */
+    public <T> Page<T> withApproximateTotal(Slice<T> slice, LongSupplier estimate) {
+        long offset = slice.getPageable().isPaged() ? slice.getPageable().getOffset() : 0;
+        long reached = offset + slice.getNumberOfElements();
+
+        long total;
+        if (slice.hasNext()) {
+            total = Math.max(estimate.getAsLong(), reached + 1);
+        } else if (!slice.hasContent() && offset > 0) {
+            total = Math.min(estimate.getAsLong(), offset);
+        } else {
+            total = reached;
+        }
+        return new PageImpl<>(slice.getContent(), slice.getPageable(), total);
+    }
+
+    public long estimateTable(String table, LongSupplier exactCount) {
+        if (hasTableStatistics()) {
+            Long estimate = jdbcTemplate.queryForObject(TABLE_STATISTICS_QUERY, Long.class, table);
+
+            if (estimate != null && estimate >= 0) {
+                return estimate;
+            }
+        }
+        return estimate(table, exactCount);
+    }
+
+    public long estimate(String key, LongSupplier exactCount) {
+        long now = System.currentTimeMillis();
+        CachedCount cached = get(key, now);
+
+        if (cached == null) {
+            cached = new CachedCount(exactCount.getAsLong(), now + ttlMs);
+            put(key, cached, now);
+        }
+        return cached.count();
+    }
+
+    public synchronized int size() {
+        return counts.size();
+    }
+
+    private synchronized CachedCount get(String key, long now) {
+        CachedCount cached = counts.get(key);
+
+        if (cached != null && cached.expiresAt() <= now) {
+            counts.remove(key);
+            return null;
+        }
+        return cached;
+    }
+
+    private synchronized void put(String key, CachedCount cached, long now) {
+        if (maxEntries <= 0) {
+            return;
+        }
+
+        counts.put(key, cached);
+        if (counts.size() > maxEntries) {
+            counts.values().removeIf(count -> count.expiresAt() <= now);
+        }
+
+        Iterator<CachedCount> eldest = counts.values().iterator();
+        while (counts.size() > maxEntries && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    private boolean hasTableStatistics() {
+        if (tableStatistics == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            tableStatistics = "PostgreSQL".equals(product);
+            log.info("Approximate row counts use {}", tableStatistics ? "table statistics" : "cached counts");
+        }
+        return tableStatistics;
+    }
+
+    private record CachedCount(long count, long expiresAt) {
+    }
+}
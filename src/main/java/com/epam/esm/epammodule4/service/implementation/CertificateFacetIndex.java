@@ -0,0 +1,244 @@
+package com.epam.esm.epammodule4.service.implementation;
+
+import com.epam.esm.epammodule4.model.CertificateFacets;
+import com.epam.esm.epammodule4.model.CertificateFacets.RangeFacet;
+import com.epam.esm.epammodule4.model.CertificateFacets.TagFacet;
+import com.epam.esm.epammodule4.model.entity.GiftCertificate;
+import com.epam.esm.epammodule4.repository.GiftCertificateRepository;
+import com.epam.esm.epammodule4.repository.TagRepository;
+import com.epam.esm.epammodule4.service.event.BulkDataLoadedEvent;
+import com.epam.esm.epammodule4.service.event.GiftCertificateChangedEvent;
+import com.epam.esm.epammodule4.service.event.TagChangedEvent;
+import com.epam.esm.epammodule4.util.CompressedBitmap;
+import com.epam.esm.epammodule4.util.PendingChanges;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static java.util.Optional.ofNullable;
+
+/**
+ * Columnar copy of certificate prices, durations and tags, indexed by certificate id, from which the
+ * facets of a search are aggregated in a single pass over its matches.
+ * <p>
+ * Tags are stored as dense ordinals so per-tag counts go to a plain array. Price and duration ranges are
+ * delimited by {@code app.search.facets.price-bounds} and {@code app.search.facets.duration-bounds}; at most
+ * {@code app.search.facets.max-tags} of the most frequent tags are returned. Built once the application is
+ * ready and then follows committed {@link GiftCertificateChangedEvent}s and {@link TagChangedEvent}s, replaying
+ * those committed during a rebuild over its snapshot.
+ */
+@Slf4j
+@Component
+public class CertificateFacetIndex {
+
+    private static final int MISSING_DURATION = Integer.MIN_VALUE;
+    private static final int[] NO_TAGS = new int[0];
+
+    private final GiftCertificateRepository certificateRepository;
+    private final TagRepository tagRepository;
+    private final int maxTags;
+    private final double[] priceBounds;
+    private final int[] durationBounds;
+
+    private double[] prices = new double[0];
+    private int[] durations = new int[0];
+    private int[][] tagOrdinals = new int[0][];
+    private final Map<Long, Integer> ordinalsByTagId = new HashMap<>();
+    private final List<Long> tagIds = new ArrayList<>();
+    private final List<String> tagNames = new ArrayList<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final PendingChanges pendingChanges = new PendingChanges(lock.writeLock());
+
+    public CertificateFacetIndex(GiftCertificateRepository certificateRepository,
+                                 TagRepository tagRepository,
+                                 @Value("${app.search.facets.max-tags}") int maxTags,
+                                 @Value("${app.search.facets.price-bounds}") double[] priceBounds,
+                                 @Value("${app.search.facets.duration-bounds}") int[] durationBounds) {
+        this.certificateRepository = certificateRepository;
+        this.tagRepository = tagRepository;
+        this.maxTags = maxTags;
+        this.priceBounds = priceBounds.clone();
+        this.durationBounds = durationBounds.clone();
+        Arrays.sort(this.priceBounds);
+        Arrays.sort(this.durationBounds);
+    }
+
+    @EventListener({ApplicationReadyEvent.class, BulkDataLoadedEvent.class})
+    public void rebuild() {
+        log.debug("Building the certificate facet columns");
+
+        pendingChanges.rebuild(() -> {
+            List<Object[]> tagRows = tagRepository.findAllNames();
+            List<Object[]> certificateRows = certificateRepository.findAllPricesAndDurations();
+            List<Object[]> tagLinks = certificateRepository.findAllTagLinks();
+
+            return () -> {
+                tagRows.forEach(row -> putTag((Long) row[0], (String) row[1]));
+                certificateRows.forEach(row ->
+                        putColumns(toIndex((Long) row[0]), (Double) row[1], (Integer) row[2]));
+
+                Map<Integer, List<Integer>> ordinals = new HashMap<>();
+                tagLinks.forEach(row -> ordinals.computeIfAbsent(toIndex((Long) row[0]), id -> new ArrayList<>())
+                        .add(ordinalOf((Long) row[1], null)));
+                ordinals.forEach((id, tags) -> {
+                    if (id < tagOrdinals.length) {
+                        tagOrdinals[id] = tags.stream().mapToInt(Integer::intValue).distinct().toArray();
+                    }
+                });
+                log.info("Built facet columns of {} gift certificates", certificateRows.size());
+            };
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCertificateChanged(GiftCertificateChangedEvent event) {
+        int certificateId = toIndex(event.getCertificateId());
+
+        pendingChanges.apply(() -> {
+            if (event.isDeleted()) {
+                if (certificateId < prices.length) {
+                    prices[certificateId] = Double.NaN;
+                    durations[certificateId] = MISSING_DURATION;
+                    tagOrdinals[certificateId] = null;
+                }
+                return;
+            }
+
+            GiftCertificate certificate = event.getCertificate();
+            putColumns(certificateId, certificate.getPrice(), certificate.getDuration());
+            tagOrdinals[certificateId] = ofNullable(certificate.getTags()).orElse(List.of()).stream()
+                    .filter(tag -> tag.getId() != null)
+                    .mapToInt(tag -> ordinalOf(tag.getId(), tag.getName()))
+                    .distinct()
+                    .toArray();
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTagChanged(TagChangedEvent event) {
+        pendingChanges.apply(() -> {
+            if (event.isDeleted()) {
+                ofNullable(ordinalsByTagId.get(event.getTagId())).ifPresent(ordinal -> tagNames.set(ordinal, null));
+            } else {
+                putTag(event.getTagId(), event.getTag().getName());
+            }
+        });
+    }
+
+    /**
+     * Counts the tags, price ranges and duration ranges of the certificates in {@code matches}.
+     */
+    public CertificateFacets aggregate(CompressedBitmap matches) {
+        lock.readLock().lock();
+        try {
+            int[] tagCounts = new int[tagIds.size()];
+            long[] priceCounts = new long[priceBounds.length + 1];
+            long[] durationCounts = new long[durationBounds.length + 1];
+
+            matches.forEach(id -> {
+                if (id >= prices.length) {
+                    return;
+                }
+                if (!Double.isNaN(prices[id])) {
+                    priceCounts[bucketOf(priceBounds, prices[id])]++;
+                }
+                if (durations[id] != MISSING_DURATION) {
+                    durationCounts[bucketOf(durationBounds, durations[id])]++;
+                }
+                if (tagOrdinals[id] != null) {
+                    for (int ordinal : tagOrdinals[id]) {
+                        tagCounts[ordinal]++;
+                    }
+                }
+            });
+
+            return new CertificateFacets(matches.getCardinality(), topTags(tagCounts),
+                    ranges(Arrays.stream(priceBounds).boxed().toArray(Number[]::new), priceCounts),
+                    ranges(Arrays.stream(durationBounds).boxed().toArray(Number[]::new), durationCounts));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<TagFacet> topTags(int[] tagCounts) {
+        List<TagFacet> tags = new ArrayList<>();
+
+        for (int ordinal = 0; ordinal < tagCounts.length; ordinal++) {
+            if (tagCounts[ordinal] > 0 && tagNames.get(ordinal) != null) {
+                tags.add(new TagFacet(tagIds.get(ordinal), tagNames.get(ordinal), tagCounts[ordinal]));
+            }
+        }
+
+        return tags.stream()
+                .sorted(Comparator.comparingLong(TagFacet::count).reversed().thenComparing(TagFacet::name))
+                .limit(maxTags)
+                .toList();
+    }
+
+    private void putTag(Long tagId, String name) {
+        tagNames.set(ordinalOf(tagId, name), name);
+    }
+
+    private int ordinalOf(Long tagId, String name) {
+        Integer ordinal = ordinalsByTagId.get(tagId);
+
+        if (ordinal == null) {
+            ordinal = tagIds.size();
+            ordinalsByTagId.put(tagId, ordinal);
+            tagIds.add(tagId);
+            tagNames.add(name);
+        }
+        return ordinal;
+    }
+
+    private void putColumns(int certificateId, Double price, Integer duration) {
+        if (certificateId >= prices.length) {
+            int capacity = Math.max(certificateId + 1, prices.length * 2);
+            int from = prices.length;
+
+            prices = Arrays.copyOf(prices, capacity);
+            durations = Arrays.copyOf(durations, capacity);
+            tagOrdinals = Arrays.copyOf(tagOrdinals, capacity);
+            Arrays.fill(prices, from, capacity, Double.NaN);
+            Arrays.fill(durations, from, capacity, MISSING_DURATION);
+        }
+
+        prices[certificateId] = price == null ? Double.NaN : price;
+        durations[certificateId] = duration == null ? MISSING_DURATION : duration;
+        tagOrdinals[certificateId] = NO_TAGS;
+    }
+
+    private static List<RangeFacet> ranges(Number[] bounds, long[] counts) {
+        List<RangeFacet> ranges = new ArrayList<>(counts.length);
+
+        for (int i = 0; i < counts.length; i++) {
+            ranges.add(new RangeFacet(i == 0 ? null : bounds[i - 1], i == bounds.length ? null : bounds[i], counts[i]));
+        }
+        return ranges;
+    }
+
+    /**
+     * Index of the range holding {@code value}: the number of bounds not greater than it.
+     */
+    private static int bucketOf(double[] bounds, double value) {
+        int index = Arrays.binarySearch(bounds, value);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    private static int bucketOf(int[] bounds, int value) {
+        int index = Arrays.binarySearch(bounds, value);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    private static int toIndex(Long certificateId) {
+        return Math.toIntExact(certificateId);
+    }
+}
@@ -0,0 +1,252 @@
+package com.epam.esm.epammodule4.service.implementation;
+
+import com.epam.esm.epammodule4.model.entity.GiftCertificate;
+import com.epam.esm.epammodule4.repository.GiftCertificateRepository;
+import com.epam.esm.epammodule4.service.event.BulkDataLoadedEvent;
+import com.epam.esm.epammodule4.service.event.GiftCertificateChangedEvent;
+import com.epam.esm.epammodule4.util.CompressedBitmap;
+import com.epam.esm.epammodule4.util.PendingChanges;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Certificate prices and durations kept both as columns sorted by value and as columns indexed by id.
+ * <p>
+ * The ids within a range are found by two binary searches in the sorted column, which also tell how many
+ * there are. A search therefore materializes only its narrowest range and checks the other bounds by id,
+ * and candidates found by another index are checked by id alone. Bounds are inclusive and certificates
+ * without a value never match a bounded range, as in SQL. Built once the application is ready and then
+ * follows committed {@link GiftCertificateChangedEvent}s, replaying those committed during a rebuild over its
+ * snapshot.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CertificateRangeIndex {
+
+    private final GiftCertificateRepository certificateRepository;
+
+    private final SortedColumn prices = new SortedColumn();
+    private final SortedColumn durations = new SortedColumn();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final PendingChanges pendingChanges = new PendingChanges(lock.writeLock());
+
+    @EventListener({ApplicationReadyEvent.class, BulkDataLoadedEvent.class})
+    public void rebuild() {
+        log.debug("Building the certificate range index");
+
+        pendingChanges.rebuild(() -> {
+            List<Object[]> rows = certificateRepository.findAllPricesAndDurations();
+            Map<Integer, Double> priceById = new HashMap<>();
+            Map<Integer, Double> durationById = new HashMap<>();
+
+            rows.forEach(row -> {
+                int certificateId = toIndex((Long) row[0]);
+                ofNumber(row[1]).ifPresent(price -> priceById.put(certificateId, price));
+                ofNumber(row[2]).ifPresent(duration -> durationById.put(certificateId, duration));
+            });
+
+            return () -> {
+                prices.load(priceById);
+                durations.load(durationById);
+                log.info("Indexed prices and durations of {} gift certificates", rows.size());
+            };
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCertificateChanged(GiftCertificateChangedEvent event) {
+        int certificateId = toIndex(event.getCertificateId());
+        GiftCertificate certificate = event.getCertificate();
+
+        pendingChanges.apply(() -> {
+            prices.remove(certificateId);
+            durations.remove(certificateId);
+
+            if (!event.isDeleted()) {
+                ofNumber(certificate.getPrice()).ifPresent(price -> prices.put(certificateId, price));
+                ofNumber(certificate.getDuration()).ifPresent(duration -> durations.put(certificateId, duration));
+            }
+        });
+    }
+
+    /**
+     * Returns the ids among {@code candidates} priced and lasting within the bounds, or among all
+     * certificates when there are no candidates. A missing bound leaves that side of the range open.
+     */
+    public CompressedBitmap match(@Nullable CompressedBitmap candidates, Double minPrice, Double maxPrice,
+                                  Integer minDuration, Integer maxDuration) {
+        Range price = new Range(prices, minPrice, maxPrice);
+        Range duration = new Range(durations, toDouble(minDuration), toDouble(maxDuration));
+
+        lock.readLock().lock();
+        try {
+            if (candidates == null) {
+                Range narrowest = price.size() <= duration.size() ? price : duration;
+                candidates = narrowest.toBitmap();
+            }
+
+            int[] matched = Arrays.stream(candidates.toArray())
+                    .filter(id -> price.contains(id) && duration.contains(id))
+                    .toArray();
+            return CompressedBitmap.of(matched);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Double toDouble(Integer value) {
+        return value == null ? null : value.doubleValue();
+    }
+
+    private static Optional<Double> ofNumber(Object value) {
+        return Optional.ofNullable((Number) value).map(Number::doubleValue);
+    }
+
+    private static int toIndex(Long certificateId) {
+        return Math.toIntExact(certificateId);
+    }
+
+    /**
+     * Inclusive bounds on one column; without bounds it holds every certificate, with or without a value.
+     */
+    private record Range(SortedColumn column, Double min, Double max) {
+
+        boolean isBounded() {
+            return min != null || max != null;
+        }
+
+        int size() {
+            return isBounded() ? column.count(lower(), upper()) : Integer.MAX_VALUE;
+        }
+
+        boolean contains(int id) {
+            if (!isBounded()) {
+                return true;
+            }
+
+            double value = column.valueOf(id);
+            return value >= lower() && value <= upper();
+        }
+
+        CompressedBitmap toBitmap() {
+            return column.range(lower(), upper());
+        }
+
+        private double lower() {
+            return min == null ? Double.NEGATIVE_INFINITY : min;
+        }
+
+        private double upper() {
+            return max == null ? Double.POSITIVE_INFINITY : max;
+        }
+    }
+
+    /**
+     * Values ordered by value, ties by id, along with the value of each id ({@code NaN} when it has none).
+     */
+    private static final class SortedColumn {
+
+        private double[] values = new double[0];
+        private int[] ids = new int[0];
+        private int size;
+        private double[] valueById = new double[0];
+
+        void load(Map<Integer, Double> column) {
+            Integer[] order = column.keySet().toArray(Integer[]::new);
+            Arrays.sort(order, Comparator.<Integer>comparingDouble(column::get).thenComparingInt(id -> id));
+
+            values = new double[order.length];
+            ids = new int[order.length];
+            valueById = new double[order.length == 0 ? 0 : Collections.max(column.keySet()) + 1];
+            Arrays.fill(valueById, Double.NaN);
+
+            for (int i = 0; i < order.length; i++) {
+                values[i] = column.get(order[i]);
+                ids[i] = order[i];
+                valueById[order[i]] = values[i];
+            }
+            size = order.length;
+        }
+
+        void put(int id, double value) {
+            int position = position(value, id);
+
+            if (size == values.length) {
+                values = Arrays.copyOf(values, Math.max(size * 2, 4));
+                ids = Arrays.copyOf(ids, values.length);
+            }
+            if (id >= valueById.length) {
+                int from = valueById.length;
+                valueById = Arrays.copyOf(valueById, Math.max(id + 1, from * 2));
+                Arrays.fill(valueById, from, valueById.length, Double.NaN);
+            }
+
+            System.arraycopy(values, position, values, position + 1, size - position);
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            values[position] = value;
+            ids[position] = id;
+            valueById[id] = value;
+            size++;
+        }
+
+        void remove(int id) {
+            double value = valueOf(id);
+
+            if (!Double.isNaN(value)) {
+                int position = position(value, id);
+                System.arraycopy(values, position + 1, values, position, size - position - 1);
+                System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+                valueById[id] = Double.NaN;
+                size--;
+            }
+        }
+
+        double valueOf(int id) {
+            return id < valueById.length ? valueById[id] : Double.NaN;
+        }
+
+        int count(double min, double max) {
+            return min > max ? 0 : position(max, Integer.MAX_VALUE) - position(min, Integer.MIN_VALUE);
+        }
+
+        CompressedBitmap range(double min, double max) {
+            if (min > max) {
+                return new CompressedBitmap();
+            }
+
+            int from = position(min, Integer.MIN_VALUE);
+            return CompressedBitmap.of(Arrays.copyOfRange(ids, from, position(max, Integer.MAX_VALUE)));
+        }
+
+        /**
+         * Index of the first entry ordered after {@code (value, id)}, or holding it.
+         */
+        private int position(double value, int id) {
+            int low = 0;
+            int high = size;
+
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                int compared = Double.compare(values[middle], value);
+
+                if (compared < 0 || compared == 0 && ids[middle] < id) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+}
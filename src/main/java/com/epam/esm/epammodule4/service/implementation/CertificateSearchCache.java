@@ -0,0 +1,294 @@
+package com.epam.esm.epammodule4.service.implementation;
+
+import com.epam.esm.epammodule4.model.TotalCount;
+import com.epam.esm.epammodule4.model.dto.request.SearchGiftCertificateRequest;
+import com.epam.esm.epammodule4.service.event.BulkDataLoadedEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiPredicate;
+
+import static java.util.Optional.ofNullable;
+
+/**
+ * Bounded cache of certificate search results, keyed by the normalized search request and the page.
+ * <p>
+ * Only the ids of a page and its total are kept; the certificates are loaded by primary key on a hit, so
+ * updated certificates are never served stale. Entries are evicted least recently used once
+ * {@code app.search.cache.max-entries} or {@code app.search.cache.max-weight-bytes} is exceeded.
+ * A write to a certificate or tag drops every page of the searches it may affect, a bulk load all of them.
+ */
+@Slf4j
+@Component
+public class CertificateSearchCache implements MeterBinder {
+
+    private static final String METRIC_NAME = "certificate.search.cache";
+    private static final int ENTRY_OVERHEAD_BYTES = 160;
+    private static final int ID_BYTES = 24;
+
+    private final int maxEntries;
+    private final long maxWeightBytes;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private long weightBytes;
+    private long version;
+
+    public CertificateSearchCache(@Value("${app.search.cache.max-entries}") int maxEntries,
+                                  @Value("${app.search.cache.max-weight-bytes}") long maxWeightBytes) {
+        this.maxEntries = maxEntries;
+        this.maxWeightBytes = maxWeightBytes;
+    }
+
+    public synchronized Optional<Slice<Long>> get(Key key) {
+        Entry entry = entries.get(key);
+
+        if (entry == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+
+        hits.increment();
+        return Optional.of(entry.ids());
+    }
+
+    /**
+     * Version to pass to {@link #put}; read it before running the search, so a result computed while a
+     * write was invalidating the cache is not stored.
+     */
+    public synchronized long version() {
+        return version;
+    }
+
+    /**
+     * Caches the ids of a result page; a {@link Page} keeps its total, a {@link Slice} whether a next page exists.
+     */
+    public synchronized void put(Key key, Slice<Long> ids, long readVersion) {
+        if (readVersion != version || maxEntries <= 0) {
+            return;
+        }
+
+        Entry entry = new Entry(ids, weigh(key, ids.getContent()));
+
+        if (entry.weightBytes() > maxWeightBytes) {
+            return;
+        }
+
+        ofNullable(entries.put(key, entry)).ifPresent(replaced -> weightBytes -= replaced.weightBytes());
+        weightBytes += entry.weightBytes();
+        evict();
+    }
+
+    /**
+     * Drops the searches a write to the certificate may change: those that returned it, those filtering
+     * by any of its previous or current tags, and those not restricted to tags at all. Inside a transaction
+     * they are dropped again after commit, so a search running concurrently cannot cache the old state.
+     */
+    public void invalidateCertificate(Long certificateId, Collection<String> tagNames) {
+        nowAndAfterCommit(() -> invalidate((key, entry) -> key.filter().tags().isEmpty()
+                || entry.ids().getContent().contains(certificateId)
+                || references(key.filter(), tagNames)));
+    }
+
+    public void invalidateTags(Collection<String> tagNames) {
+        nowAndAfterCommit(() -> invalidate((key, entry) -> references(key.filter(), tagNames)));
+    }
+
+    @EventListener(BulkDataLoadedEvent.class)
+    public void invalidateAll() {
+        invalidate((key, entry) -> true);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getWeightBytes() {
+        return weightBytes;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public double getHitRatio() {
+        long lookups = hits.sum() + misses.sum();
+        return lookups == 0 ? 0 : (double) hits.sum() / lookups;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder(METRIC_NAME, hits, LongAdder::sum)
+                .tag("result", "hit")
+                .description("Searches answered from the cache")
+                .register(registry);
+        FunctionCounter.builder(METRIC_NAME, misses, LongAdder::sum)
+                .tag("result", "miss")
+                .description("Searches that had to query the database")
+                .register(registry);
+        FunctionCounter.builder(METRIC_NAME + ".evictions", evictions, LongAdder::sum)
+                .description("Search results evicted to stay within the size and weight bounds")
+                .register(registry);
+        Gauge.builder(METRIC_NAME + ".hit.ratio", this, CertificateSearchCache::getHitRatio)
+                .description("Share of searches answered from the cache")
+                .register(registry);
+        Gauge.builder(METRIC_NAME + ".size", this, CertificateSearchCache::size)
+                .description("Search result pages currently cached")
+                .register(registry);
+        Gauge.builder(METRIC_NAME + ".weight", this, CertificateSearchCache::getWeightBytes)
+                .baseUnit("bytes")
+                .description("Estimated heap footprint of the cached search results")
+                .register(registry);
+    }
+
+    private synchronized void invalidate(BiPredicate<Key, Entry> affects) {
+        Set<Filter> affected = new HashSet<>();
+        entries.forEach((key, entry) -> {
+            if (affects.test(key, entry)) {
+                affected.add(key.filter());
+            }
+        });
+
+        version++;
+        if (affected.isEmpty()) {
+            return;
+        }
+
+        Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Key, Entry> entry = iterator.next();
+            if (affected.contains(entry.getKey().filter())) {
+                weightBytes -= entry.getValue().weightBytes();
+                iterator.remove();
+            }
+        }
+        log.debug("Invalidated {} cached searches, {} entries left", affected.size(), entries.size());
+    }
+
+    private void nowAndAfterCommit(Runnable invalidation) {
+        invalidation.run();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidation.run();
+                }
+            });
+        }
+    }
+
+    private void evict() {
+        Iterator<Entry> eldest = entries.values().iterator();
+
+        while ((entries.size() > maxEntries || weightBytes > maxWeightBytes) && eldest.hasNext()) {
+            weightBytes -= eldest.next().weightBytes();
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    private static boolean references(Filter filter, Collection<String> tagNames) {
+        return tagNames.stream()
+                .filter(Objects::nonNull)
+                .anyMatch(name -> filter.tags().contains(name) || filter.excludedTags().contains(name));
+    }
+
+    private static long weigh(Key key, List<Long> ids) {
+        Filter filter = key.filter();
+        long strings = length(filter.name()) + length(filter.description()) + length(filter.text())
+                + length(key.sort())
+                + filter.tags().stream().mapToLong(CertificateSearchCache::length).sum()
+                + filter.excludedTags().stream().mapToLong(CertificateSearchCache::length).sum();
+
+        return ENTRY_OVERHEAD_BYTES + 2 * strings + (long) ID_BYTES * ids.size();
+    }
+
+    private static long length(String value) {
+        return value == null ? 0 : value.length() + 20;
+    }
+
+    /**
+     * Search parameters normalized so equivalent requests share an entry: the name is trimmed and
+     * lower-cased, tag lists are deduplicated and sorted, and a fuzziness of zero means exact matching.
+     * The search must run {@link #toRequest() the normalized request}, so every request sharing an entry
+     * gets the same result.
+     */
+    public record Filter(String name, String description, List<String> tags, boolean matchAllTags,
+                         List<String> excludedTags, String text, Double minPrice, Double maxPrice,
+                         Integer minDuration, Integer maxDuration, Integer fuzziness, TotalCount total) {
+
+        public static Filter of(SearchGiftCertificateRequest request) {
+            return new Filter(
+                    normalize(request.getName()),
+                    StringUtils.hasText(request.getDescription()) ? request.getDescription().trim() : null,
+                    sorted(request.getTags()),
+                    request.isMatchAllTags(),
+                    sorted(request.getExcludedTags()),
+                    normalize(request.getText()),
+                    request.getMinPrice(),
+                    request.getMaxPrice(),
+                    request.getMinDuration(),
+                    request.getMaxDuration(),
+                    request.getFuzziness() == null || request.getFuzziness() <= 0 ? null : request.getFuzziness(),
+                    request.getTotal());
+        }
+
+        public SearchGiftCertificateRequest toRequest() {
+            return SearchGiftCertificateRequest.builder()
+                    .name(name)
+                    .description(description)
+                    .tags(tags)
+                    .matchAllTags(matchAllTags)
+                    .excludedTags(excludedTags)
+                    .text(text)
+                    .minPrice(minPrice)
+                    .maxPrice(maxPrice)
+                    .minDuration(minDuration)
+                    .maxDuration(maxDuration)
+                    .fuzziness(fuzziness)
+                    .total(total)
+                    .build();
+        }
+
+        private static String normalize(String value) {
+            return StringUtils.hasText(value) ? value.trim().toLowerCase(Locale.ROOT) : null;
+        }
+
+        private static List<String> sorted(List<String> values) {
+            return ofNullable(values).orElse(List.of()).stream().distinct().sorted().toList();
+        }
+    }
+
+    public record Key(Filter filter, long offset, int size, String sort) {
+
+        public static Key of(SearchGiftCertificateRequest request, Pageable pageable) {
+            return pageable.isPaged()
+                    ? new Key(Filter.of(request), pageable.getOffset(), pageable.getPageSize(),
+                    pageable.getSort().toString())
+                    : new Key(Filter.of(request), 0, -1, pageable.getSort().toString());
+        }
+    }
+
+    private record Entry(Slice<Long> ids, long weightBytes) {
+    }
+}
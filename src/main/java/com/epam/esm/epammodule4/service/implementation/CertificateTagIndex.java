@@ -0,0 +1,215 @@
+package com.epam.esm.epammodule4.service.implementation;
+
+import com.epam.esm.epammodule4.model.entity.GiftCertificate;
+import com.epam.esm.epammodule4.model.entity.Tag;
+import com.epam.esm.epammodule4.repository.GiftCertificateRepository;
+import com.epam.esm.epammodule4.repository.TagRepository;
+import com.epam.esm.epammodule4.service.event.BulkDataLoadedEvent;
+import com.epam.esm.epammodule4.service.event.GiftCertificateChangedEvent;
+import com.epam.esm.epammodule4.service.event.TagChangedEvent;
+import com.epam.esm.epammodule4.util.CompressedBitmap;
+import com.epam.esm.epammodule4.util.PendingChanges;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static java.util.Optional.ofNullable;
+
+/**
+ * Tag id to certificate ids index kept as compressed bitmaps, so tag filters are answered with
+ * bitwise AND, OR and AND NOT instead of joins over {@code certificate_tag}.
+ * <p>
+ * Built once the application is ready and then follows committed {@link GiftCertificateChangedEvent}s and
+ * {@link TagChangedEvent}s, so a tag filter never matches a certificate whose write was rolled back.
+ * Changes committed during a rebuild are replayed over its snapshot.
+ * Tag names are resolved to ids from an in-memory map, so renamed tags keep their certificates and a
+ * query never touches the database.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CertificateTagIndex {
+
+    private final GiftCertificateRepository certificateRepository;
+    private final TagRepository tagRepository;
+
+    private final Map<Long, CompressedBitmap> certificatesByTag = new HashMap<>();
+    private final Map<Integer, long[]> tagsByCertificate = new HashMap<>();
+    private final Map<String, Long> tagIdsByName = new HashMap<>();
+    private final Map<Long, String> tagNamesById = new HashMap<>();
+    private final CompressedBitmap allCertificates = new CompressedBitmap();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final PendingChanges pendingChanges = new PendingChanges(lock.writeLock());
+
+    @EventListener({ApplicationReadyEvent.class, BulkDataLoadedEvent.class})
+    public void rebuild() {
+        log.debug("Building the certificate tag index");
+
+        pendingChanges.rebuild(() -> {
+            List<Long> certificateIds = certificateRepository.findAllIds();
+            Map<Integer, List<Long>> links = new HashMap<>();
+
+            for (Object[] link : certificateRepository.findAllTagLinks()) {
+                links.computeIfAbsent(toIndex((Long) link[0]), id -> new ArrayList<>()).add((Long) link[1]);
+            }
+            List<Object[]> tagNames = tagRepository.findAllNames();
+
+            return () -> {
+                tagIdsByName.clear();
+                tagNamesById.clear();
+                tagNames.forEach(tag -> putTag((Long) tag[0], (String) tag[1]));
+                certificateIds.forEach(id -> {
+                    int certificateId = toIndex(id);
+                    List<Long> tagIds = links.getOrDefault(certificateId, List.of());
+                    put(certificateId, tagIds.stream().mapToLong(Long::longValue).distinct().toArray());
+                });
+            };
+        });
+
+        log.info("Indexed tags of {} gift certificates", size());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCertificateChanged(GiftCertificateChangedEvent event) {
+        int certificateId = toIndex(event.getCertificateId());
+
+        pendingChanges.apply(() -> {
+            if (event.isDeleted()) {
+                remove(certificateId);
+            } else {
+                ofNullable(event.getCertificate().getTags()).orElse(List.of()).stream()
+                        .filter(tag -> tag.getId() != null && tag.getName() != null)
+                        .forEach(tag -> putTag(tag.getId(), tag.getName()));
+                put(certificateId, tagIds(event.getCertificate()));
+            }
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTagChanged(TagChangedEvent event) {
+        pendingChanges.apply(() -> {
+            if (event.isDeleted()) {
+                String name = tagNamesById.remove(event.getTagId());
+                if (name != null) {
+                    tagIdsByName.remove(name, event.getTagId());
+                }
+            } else {
+                putTag(event.getTagId(), event.getTag().getName());
+            }
+        });
+    }
+
+    /**
+     * Returns the ids of certificates carrying all ({@code matchAll}) or any of {@code tags} and none of
+     * {@code excludedTags}. Without {@code tags} every certificate is a candidate.
+     */
+    public CompressedBitmap match(Collection<String> tags, boolean matchAll, Collection<String> excludedTags) {
+        lock.readLock().lock();
+        try {
+            List<Long> includedIds = resolve(tags);
+            List<Long> excludedIds = resolve(excludedTags);
+            CompressedBitmap matched = included(includedIds, tags, matchAll);
+
+            for (Long tagId : excludedIds) {
+                matched = CompressedBitmap.andNot(matched, bitmapOf(tagId));
+            }
+            return matched;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long size() {
+        lock.readLock().lock();
+        try {
+            return allCertificates.getCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private CompressedBitmap included(List<Long> tagIds, Collection<String> tags, boolean matchAll) {
+        if (tags == null || tags.isEmpty()) {
+            return CompressedBitmap.or(new CompressedBitmap(), allCertificates);
+        }
+        if (matchAll && tagIds.size() < new HashSet<>(tags).size()) {
+            return new CompressedBitmap();
+        }
+
+        List<CompressedBitmap> bitmaps = tagIds.stream()
+                .map(this::bitmapOf)
+                .sorted(Comparator.comparingLong(CompressedBitmap::getCardinality))
+                .toList();
+        CompressedBitmap matched = new CompressedBitmap();
+
+        for (int i = 0; i < bitmaps.size(); i++) {
+            matched = matchAll && i > 0
+                    ? CompressedBitmap.and(matched, bitmaps.get(i))
+                    : CompressedBitmap.or(matched, bitmaps.get(i));
+        }
+        return matched;
+    }
+
+    private List<Long> resolve(Collection<String> tagNames) {
+        return ofNullable(tagNames).orElse(List.of()).stream()
+                .distinct()
+                .map(tagIdsByName::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private void putTag(Long tagId, String name) {
+        ofNullable(tagNamesById.put(tagId, name)).ifPresent(previous -> tagIdsByName.remove(previous, tagId));
+        tagIdsByName.put(name, tagId);
+    }
+
+    private CompressedBitmap bitmapOf(Long tagId) {
+        return certificatesByTag.getOrDefault(tagId, new CompressedBitmap());
+    }
+
+    private void put(int certificateId, long[] tagIds) {
+        remove(certificateId);
+
+        for (long tagId : tagIds) {
+            certificatesByTag.computeIfAbsent(tagId, id -> new CompressedBitmap()).add(certificateId);
+        }
+        tagsByCertificate.put(certificateId, tagIds);
+        allCertificates.add(certificateId);
+    }
+
+    private void remove(int certificateId) {
+        long[] tagIds = tagsByCertificate.remove(certificateId);
+
+        if (tagIds != null) {
+            for (long tagId : tagIds) {
+                CompressedBitmap certificates = certificatesByTag.get(tagId);
+                certificates.remove(certificateId);
+                if (certificates.isEmpty()) {
+                    certificatesByTag.remove(tagId);
+                }
+            }
+        }
+        allCertificates.remove(certificateId);
+    }
+
+    private static long[] tagIds(GiftCertificate certificate) {
+        return ofNullable(certificate.getTags()).orElse(List.of()).stream()
+                .map(Tag::getId)
+                .filter(Objects::nonNull)
+                .mapToLong(Long::longValue)
+                .distinct()
+                .toArray();
+    }
+
+    private static int toIndex(Long certificateId) {
+        return Math.toIntExact(certificateId);
+    }
+}
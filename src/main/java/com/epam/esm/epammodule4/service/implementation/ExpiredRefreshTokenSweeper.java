@@ -0,0 +1,44 @@
+package com.epam.esm.epammodule4.service.implementation;
+
+import com.epam.esm.epammodule4.repository.RefreshTokenRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Removes expired refresh tokens from the database in bounded batches,
+ * each batch in its own short transaction.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ExpiredRefreshTokenSweeper {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    @Value("${app.refresh-token.sweep-batch-size}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${app.refresh-token.sweep-interval-ms}",
+            initialDelayString = "${app.refresh-token.sweep-interval-ms}")
+    public int sweep() {
+        Instant now = Instant.now();
+        int total = 0;
+        int deleted;
+
+        do {
+            deleted = refreshTokenRepository.deleteExpired(now, batchSize);
+            total += deleted;
+        } while (deleted == batchSize);
+
+        if (total > 0) {
+            log.info("Deleted {} expired refresh tokens", total);
+        }
+
+        return total;
+    }
+}
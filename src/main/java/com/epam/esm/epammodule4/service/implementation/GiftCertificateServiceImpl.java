@@ -1,6 +1,9 @@
 package com.epam.esm.epammodule4.service.implementation;
 
 import com.epam.esm.epammodule4.exception.GiftCertificateNotFoundException;
+import com.epam.esm.epammodule4.model.CertificateFacets;
+import com.epam.esm.epammodule4.model.TotalCount;
+import com.epam.esm.epammodule4.model.dto.CursorPage;
 import com.epam.esm.epammodule4.model.dto.request.CreateGiftCertificateRequest;
 import com.epam.esm.epammodule4.model.dto.request.CreateTagRequest;
 import com.epam.esm.epammodule4.model.dto.request.SearchGiftCertificateRequest;
@@ -9,19 +12,41 @@ import com.epam.esm.epammodule4.model.entity.GiftCertificate;
 import com.epam.esm.epammodule4.model.entity.Tag;
 import com.epam.esm.epammodule4.repository.*;
 import com.epam.esm.epammodule4.repository.specification.GiftCertificateSpecification;
+import com.epam.esm.epammodule4.service.CertificateSearchEngine;
+import com.epam.esm.epammodule4.service.FuzzyNameMatcher;
 import com.epam.esm.epammodule4.service.GiftCertificateService;
 import com.epam.esm.epammodule4.service.TagService;
+import com.epam.esm.epammodule4.service.event.GiftCertificateChangedEvent;
 import com.epam.esm.epammodule4.service.mapper.GiftCertificateMapper;
+import com.epam.esm.epammodule4.util.CompressedBitmap;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.StringUtils;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
 
 import static java.util.Optional.ofNullable;
 
@@ -34,6 +59,14 @@ public class GiftCertificateServiceImpl implements GiftCertificateService {
     private final PageableGiftCertificateRepository pageableCertificateRepository;
     private final TagService tagService;
     private final GiftCertificateMapper certificateMapper;
+    private final CertificateSearchEngine searchEngine;
+    private final CertificateTagIndex tagIndex;
+    private final CertificateFacetIndex facetIndex;
+    private final CertificateRangeIndex rangeIndex;
+    private final FuzzyNameMatcher fuzzyMatcher;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ApproximateRowCounter rowCounter;
+    private final CertificateSearchCache searchCache;
 
     @Override
     public GiftCertificate findById(Long id) {
@@ -61,6 +94,39 @@ public class GiftCertificateServiceImpl implements GiftCertificateService {
         return foundCertificates;
     }
 
+    @Override
+    public Slice<GiftCertificate> findAll(Pageable pageable, TotalCount total) {
+        if (total == TotalCount.EXACT) {
+            return findAll(pageable);
+        }
+        log.debug("Retrieving gift certificates with {} total. Page request: {}", total, pageable);
+
+        Slice<GiftCertificate> foundCertificates = pageableCertificateRepository.findSlice(pageable);
+        if (total == TotalCount.APPROXIMATE) {
+            foundCertificates = rowCounter.withApproximateTotal(foundCertificates,
+                    () -> rowCounter.estimateTable("gift_certificate", pageableCertificateRepository::count));
+        }
+
+        log.info("Retrieved {} gift certificates, last page: {}",
+                foundCertificates.getNumberOfElements(),
+                foundCertificates.isLast());
+
+        return foundCertificates;
+    }
+
+    @Override
+    public CursorPage<GiftCertificate> findAll(String cursor, Pageable pageable) {
+        log.debug("Retrieving gift certificates after cursor '{}'. Page request: {}", cursor, pageable);
+
+        CursorPage<GiftCertificate> foundCertificates = pageableCertificateRepository.findAll(cursor, pageable);
+
+        log.info("Retrieved {} gift certificates, last page: {}",
+                foundCertificates.getSize(),
+                foundCertificates.isLast());
+
+        return foundCertificates;
+    }
+
     @Override
     @Transactional
     public GiftCertificate create(CreateGiftCertificateRequest createRequest) {
@@ -76,6 +142,8 @@ public class GiftCertificateServiceImpl implements GiftCertificateService {
                 }));
 
         GiftCertificate createdCertificate = certificateRepository.save(certificate);
+        eventPublisher.publishEvent(new GiftCertificateChangedEvent(createdCertificate.getId(), createdCertificate));
+        searchCache.invalidateCertificate(createdCertificate.getId(), tagNames(createdCertificate));
 
         log.info("Created a new gift certificate with id {}", createdCertificate.getId());
         return createdCertificate;
@@ -87,6 +155,7 @@ public class GiftCertificateServiceImpl implements GiftCertificateService {
         log.debug("Updating a gift certificate with id {}", updateRequest.getId());
 
         GiftCertificate foundCertificate = findById(updateRequest.getId());
+        Set<String> affectedTags = new HashSet<>(tagNames(foundCertificate));
 
         ofNullable(updateRequest.getName()).ifPresent(foundCertificate::setName);
         ofNullable(updateRequest.getDescription()).ifPresent(foundCertificate::setDescription);
@@ -105,6 +174,9 @@ public class GiftCertificateServiceImpl implements GiftCertificateService {
         });
 
         GiftCertificate updatedCertificate = certificateRepository.save(foundCertificate);
+        eventPublisher.publishEvent(new GiftCertificateChangedEvent(updatedCertificate.getId(), updatedCertificate));
+        affectedTags.addAll(tagNames(updatedCertificate));
+        searchCache.invalidateCertificate(updatedCertificate.getId(), affectedTags);
 
         log.info("Updated a gift certificate with id {}", updatedCertificate.getId());
         return updatedCertificate;
@@ -118,18 +190,110 @@ public class GiftCertificateServiceImpl implements GiftCertificateService {
         GiftCertificate foundCertificate = findById(id);
 
         certificateRepository.delete(foundCertificate);
+        eventPublisher.publishEvent(new GiftCertificateChangedEvent(foundCertificate.getId(), null));
+        searchCache.invalidateCertificate(foundCertificate.getId(), tagNames(foundCertificate));
 
         log.info("Gift certificate with id {} is deleted", foundCertificate.getId());
     }
 
     @Override
-    public Page<GiftCertificate> findCertificateWithSearchParams(
+    public Slice<GiftCertificate> findCertificateWithSearchParams(
             Pageable pageable,
             SearchGiftCertificateRequest searchRequest) {
         log.debug("Looking for a certificates by search params");
 
+        searchRequest = normalize(searchRequest);
+        CertificateSearchCache.Key cacheKey = CertificateSearchCache.Key.of(searchRequest, pageable);
+        Optional<Slice<Long>> cachedIds = searchCache.get(cacheKey);
+
+        if (cachedIds.isPresent()) {
+            Slice<GiftCertificate> foundCertificates = findAllInOrder(cachedIds.get());
+
+            log.info("Retrieved {} gift certificates of a cached search", foundCertificates.getNumberOfElements());
+            return foundCertificates;
+        }
+
+        long cacheVersion = searchCache.version();
+        Slice<GiftCertificate> foundCertificates = searchCertificates(pageable, searchRequest);
+
+        searchCache.put(cacheKey, foundCertificates.map(GiftCertificate::getId), cacheVersion);
+        return foundCertificates;
+    }
+
+    @Override
+    public CertificateFacets findFacets(SearchGiftCertificateRequest searchRequest) {
+        log.debug("Aggregating facets of a certificate search");
+
+        CertificateFacets facets = facetIndex.aggregate(matchAll(normalize(searchRequest)));
+
+        log.info("Aggregated facets of {} matching gift certificates", facets.total());
+        return facets;
+    }
+
+    /**
+     * Ids of every certificate matching the search: the full-text matches passing the other filters or,
+     * without text, the certificates passing the filters.
+     */
+    private CompressedBitmap matchAll(SearchGiftCertificateRequest searchRequest) {
+        if (StringUtils.hasText(searchRequest.getText())) {
+            return matchFilters(searchRequest, toBitmap(searchEngine.findAllIds(searchRequest.getText())));
+        }
+
+        return hasFilter(searchRequest)
+                ? matchFilters(searchRequest, null)
+                : tagIndex.match(null, false, null);
+    }
+
+    /**
+     * Narrows {@code candidates}, or all certificates when {@code null}, to those passing every filter but
+     * the text. A fuzzy name is matched first; tag and range filters are answered by the in-memory indexes,
+     * the narrowest first; name and description need one id-only query, which then applies all filters at once.
+     */
+    private CompressedBitmap matchFilters(SearchGiftCertificateRequest searchRequest, CompressedBitmap candidates) {
+        if (isFuzzyName(searchRequest)) {
+            candidates = intersect(candidates, toBitmap(
+                    fuzzyMatcher.findCertificateIds(searchRequest.getName(), searchRequest.getFuzziness())));
+            searchRequest = searchRequest.toBuilder().name(null).build();
+        }
+
+        if (searchRequest.getName() != null || searchRequest.getDescription() != null) {
+            return intersect(candidates,
+                    toBitmap(pageableCertificateRepository.findIds(new GiftCertificateSpecification(searchRequest))));
+        }
+
+        CompressedBitmap matched = candidates;
+
+        if (hasTagFilter(searchRequest)) {
+            matched = intersect(matched, tagIndex.match(
+                    searchRequest.getTags(), searchRequest.isMatchAllTags(), searchRequest.getExcludedTags()));
+        }
+        if (hasRangeFilter(searchRequest)) {
+            matched = rangeIndex.match(matched, searchRequest.getMinPrice(), searchRequest.getMaxPrice(),
+                    searchRequest.getMinDuration(), searchRequest.getMaxDuration());
+        }
+        return matched;
+    }
+
+    private Slice<GiftCertificate> searchCertificates(Pageable pageable, SearchGiftCertificateRequest searchRequest) {
+        if (StringUtils.hasText(searchRequest.getText())) {
+            return findCertificatesByText(pageable, searchRequest);
+        }
+
+        if (isFuzzyName(searchRequest)) {
+            return findCertificatesByFuzzyName(pageable, searchRequest);
+        }
+
+        if (searchRequest.getName() == null && searchRequest.getDescription() == null
+                && (hasTagFilter(searchRequest) || hasRangeFilter(searchRequest)) && isOrderedById(pageable)) {
+            return findCertificatesByIndex(pageable, matchFilters(searchRequest, null));
+        }
+
         Specification<GiftCertificate> specification = new GiftCertificateSpecification(searchRequest);
 
+        if (searchRequest.getTotal() != TotalCount.EXACT) {
+            return findCertificatesBySpecification(pageable, specification, searchRequest);
+        }
+
         Page<GiftCertificate> foundCertificates = pageableCertificateRepository.findAll(specification, pageable);
 
         log.info("Retrieved {} gift certificates of {} total",
@@ -138,4 +302,200 @@ public class GiftCertificateServiceImpl implements GiftCertificateService {
 
         return foundCertificates;
     }
+
+    private Slice<GiftCertificate> findCertificatesBySpecification(
+            Pageable pageable,
+            Specification<GiftCertificate> specification,
+            SearchGiftCertificateRequest searchRequest) {
+        Slice<GiftCertificate> foundCertificates = pageableCertificateRepository.findSlice(specification, pageable);
+
+        if (searchRequest.getTotal() == TotalCount.APPROXIMATE) {
+            String countKey = "gift_certificate:" + Arrays.asList(searchRequest.getName(),
+                    searchRequest.getDescription(),
+                    searchRequest.getTags(),
+                    searchRequest.isMatchAllTags(),
+                    searchRequest.getExcludedTags(),
+                    searchRequest.getMinPrice(),
+                    searchRequest.getMaxPrice(),
+                    searchRequest.getMinDuration(),
+                    searchRequest.getMaxDuration());
+
+            foundCertificates = rowCounter.withApproximateTotal(foundCertificates, () -> rowCounter.estimate(
+                    countKey, () -> pageableCertificateRepository.count(specification)));
+        }
+
+        log.info("Retrieved {} gift certificates, last page: {}",
+                foundCertificates.getNumberOfElements(),
+                foundCertificates.isLast());
+
+        return foundCertificates;
+    }
+
+    private Page<GiftCertificate> findCertificatesByText(Pageable pageable, SearchGiftCertificateRequest searchRequest) {
+        String text = searchRequest.getText();
+        CompressedBitmap filter = hasFilter(searchRequest)
+                ? matchFilters(searchRequest, toBitmap(searchEngine.findAllIds(text)))
+                : null;
+        Page<Long> rankedIds = searchEngine.search(text, filter, pageable);
+
+        Page<GiftCertificate> foundCertificates = new PageImpl<>(
+                findAllInOrder(rankedIds.getContent()), rankedIds.getPageable(), rankedIds.getTotalElements());
+
+        log.info("Retrieved {} gift certificates of {} total matching '{}'",
+                foundCertificates.getNumberOfElements(),
+                foundCertificates.getTotalElements(),
+                text);
+
+        return foundCertificates;
+    }
+
+    /**
+     * Ranks the certificates by how close their name is to the requested one, keeping those passing the
+     * other filters. As with full-text search, sort orders of the page request are ignored.
+     */
+    private Page<GiftCertificate> findCertificatesByFuzzyName(
+            Pageable pageable,
+            SearchGiftCertificateRequest searchRequest) {
+        List<Long> rankedIds = fuzzyMatcher.findCertificateIds(searchRequest.getName(), searchRequest.getFuzziness());
+        SearchGiftCertificateRequest otherFilters = searchRequest.toBuilder().name(null).build();
+
+        if (hasFilter(otherFilters)) {
+            CompressedBitmap matched = matchFilters(otherFilters, toBitmap(rankedIds));
+            rankedIds = rankedIds.stream()
+                    .filter(id -> matched.contains(Math.toIntExact(id)))
+                    .toList();
+        }
+
+        Pageable unsorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        List<Long> pageIds = rankedIds.stream()
+                .skip(unsorted.getOffset())
+                .limit(unsorted.getPageSize())
+                .toList();
+
+        Page<GiftCertificate> foundCertificates = new PageImpl<>(findAllInOrder(pageIds), unsorted, rankedIds.size());
+
+        log.info("Retrieved {} gift certificates of {} total with a name like '{}'",
+                foundCertificates.getNumberOfElements(),
+                foundCertificates.getTotalElements(),
+                searchRequest.getName());
+
+        return foundCertificates;
+    }
+
+    /**
+     * Answers tag and range searches from the in-memory indexes and fetches just the page of certificates by id.
+     */
+    private Page<GiftCertificate> findCertificatesByIndex(Pageable pageable, CompressedBitmap matched) {
+        long total = matched.getCardinality();
+        Sort.Order idOrder = pageable.getSort().getOrderFor(GiftCertificate.ID);
+
+        List<Long> pageIds;
+        if (idOrder != null && idOrder.isDescending()) {
+            long end = Math.max(total - pageable.getOffset(), 0);
+            long start = Math.max(end - pageable.getPageSize(), 0);
+            pageIds = toIds(matched.range(start, (int) (end - start)));
+            Collections.reverse(pageIds);
+        } else {
+            pageIds = toIds(matched.range(pageable.getOffset(), pageable.getPageSize()));
+        }
+
+        Page<GiftCertificate> foundCertificates = new PageImpl<>(findAllInOrder(pageIds), pageable, total);
+
+        log.info("Retrieved {} gift certificates of {} total by tags and ranges",
+                foundCertificates.getNumberOfElements(),
+                foundCertificates.getTotalElements());
+
+        return foundCertificates;
+    }
+
+    private Slice<GiftCertificate> findAllInOrder(Slice<Long> ids) {
+        List<GiftCertificate> content = findAllInOrder(ids.getContent());
+
+        return ids instanceof Page<Long> page
+                ? new PageImpl<>(content, page.getPageable(), page.getTotalElements())
+                : new SliceImpl<>(content, ids.getPageable(), ids.hasNext());
+    }
+
+    private static List<String> tagNames(GiftCertificate certificate) {
+        return ofNullable(certificate.getTags()).orElse(List.of()).stream()
+                .map(Tag::getName)
+                .toList();
+    }
+
+    private List<GiftCertificate> findAllInOrder(List<Long> ids) {
+        Map<Long, GiftCertificate> foundById = StreamSupport
+                .stream(certificateRepository.findAllById(ids).spliterator(), false)
+                .collect(Collectors.toMap(GiftCertificate::getId, Function.identity()));
+
+        return ids.stream()
+                .map(foundById::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * The request as the search cache keys it, fuzzy tags resolved, so a cached and a fresh search agree.
+     */
+    private SearchGiftCertificateRequest normalize(SearchGiftCertificateRequest searchRequest) {
+        return CertificateSearchCache.Filter.of(resolveFuzzyTags(searchRequest)).toRequest();
+    }
+
+    /**
+     * Replaces each requested tag with the closest existing tag name, when fuzzy matching is on.
+     */
+    private SearchGiftCertificateRequest resolveFuzzyTags(SearchGiftCertificateRequest searchRequest) {
+        if (!isFuzzy(searchRequest) || !hasTagFilter(searchRequest)) {
+            return searchRequest;
+        }
+
+        return searchRequest.toBuilder()
+                .tags(resolveTagNames(searchRequest.getTags(), searchRequest.getFuzziness()))
+                .excludedTags(resolveTagNames(searchRequest.getExcludedTags(), searchRequest.getFuzziness()))
+                .build();
+    }
+
+    private List<String> resolveTagNames(List<String> tagNames, int fuzziness) {
+        return tagNames == null ? null : tagNames.stream()
+                .map(tagName -> fuzzyMatcher.findTagName(tagName, fuzziness).orElse(tagName))
+                .toList();
+    }
+
+    private static boolean isFuzzy(SearchGiftCertificateRequest searchRequest) {
+        return searchRequest.getFuzziness() != null && searchRequest.getFuzziness() > 0;
+    }
+
+    private static boolean isFuzzyName(SearchGiftCertificateRequest searchRequest) {
+        return isFuzzy(searchRequest) && StringUtils.hasText(searchRequest.getName());
+    }
+
+    private static boolean hasTagFilter(SearchGiftCertificateRequest searchRequest) {
+        return !CollectionUtils.isEmpty(searchRequest.getTags())
+                || !CollectionUtils.isEmpty(searchRequest.getExcludedTags());
+    }
+
+    private static boolean hasFilter(SearchGiftCertificateRequest searchRequest) {
+        return searchRequest.getName() != null || searchRequest.getDescription() != null
+                || hasTagFilter(searchRequest) || hasRangeFilter(searchRequest);
+    }
+
+    private static boolean hasRangeFilter(SearchGiftCertificateRequest searchRequest) {
+        return searchRequest.getMinPrice() != null || searchRequest.getMaxPrice() != null
+                || searchRequest.getMinDuration() != null || searchRequest.getMaxDuration() != null;
+    }
+
+    private static boolean isOrderedById(Pageable pageable) {
+        return pageable.getSort().stream().allMatch(order -> GiftCertificate.ID.equals(order.getProperty()));
+    }
+
+    private static CompressedBitmap intersect(CompressedBitmap left, CompressedBitmap right) {
+        return left == null ? right : CompressedBitmap.and(left, right);
+    }
+
+    private static CompressedBitmap toBitmap(List<Long> ids) {
+        return CompressedBitmap.of(ids.stream().mapToInt(Math::toIntExact).toArray());
+    }
+
+    private static List<Long> toIds(int[] ids) {
+        return Arrays.stream(ids).mapToObj(Long::valueOf).collect(Collectors.toList());
+    }
 }
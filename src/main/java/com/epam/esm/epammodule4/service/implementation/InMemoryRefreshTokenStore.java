@@ -0,0 +1,206 @@
+package com.epam.esm.epammodule4.service.implementation;
+
+import com.epam.esm.epammodule4.model.entity.RefreshToken;
+import com.epam.esm.epammodule4.repository.RefreshTokenRepository;
+import com.epam.esm.epammodule4.repository.UserRepository;
+import com.epam.esm.epammodule4.service.RefreshTokenStore;
+import com.epam.esm.epammodule4.util.HierarchicalTimingWheel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps refresh tokens in memory and expires them through a hierarchical timing wheel.
+ * <p>
+ * With write-through enabled every change is mirrored to {@link RefreshTokenRepository}
+ * and unknown tokens are looked up there, so tokens survive a restart.
+ * Tokens are keyed by their hash and indexed by user and family for bulk revocation.
+ * Users are kept by id and handed out as references of the current persistence context.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.refresh-token.store", havingValue = "memory")
+public class InMemoryRefreshTokenStore implements RefreshTokenStore {
+
+    private final Map<String, StoredToken> tokens = new ConcurrentHashMap<>();
+    private final Map<Long, Set<String>> tokensByUser = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> tokensByFamily = new ConcurrentHashMap<>();
+    private final HierarchicalTimingWheel<String> expirations;
+    private final boolean writeThrough;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+
+    public InMemoryRefreshTokenStore(@Value("${app.refresh-token.wheel-tick-ms}") long wheelTickMs,
+                                     @Value("${app.refresh-token.wheel-size}") int wheelSize,
+                                     @Value("${app.refresh-token.write-through}") boolean writeThrough,
+                                     RefreshTokenRepository refreshTokenRepository,
+                                     UserRepository userRepository) {
+        this.expirations = new HierarchicalTimingWheel<>(wheelTickMs, wheelSize, System.currentTimeMillis());
+        this.writeThrough = writeThrough;
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+    }
+
+    @Override
+    public RefreshToken save(RefreshToken refreshToken) {
+        RefreshToken saved = writeThrough ? refreshTokenRepository.save(refreshToken) : refreshToken;
+        put(saved);
+
+        return saved;
+    }
+
+    @Override
+    public Optional<RefreshToken> findByTokenHash(String tokenHash) {
+        StoredToken stored = tokens.get(tokenHash);
+
+        if (stored != null) {
+            return Optional.of(toRefreshToken(stored));
+        }
+
+        if (!writeThrough) {
+            return Optional.empty();
+        }
+
+        Optional<RefreshToken> found = refreshTokenRepository.findByTokenHash(tokenHash);
+        found.ifPresent(this::put);
+
+        return found;
+    }
+
+    @Override
+    public boolean revoke(RefreshToken refreshToken) {
+        String tokenHash = refreshToken.getTokenHash();
+        StoredToken stored = tokens.get(tokenHash);
+        boolean revoked = stored != null && !stored.revoked()
+                && tokens.replace(tokenHash, stored, stored.withRevoked());
+
+        if (writeThrough) {
+            return revoked && refreshTokenRepository.revokeById(refreshToken.getId()) == 1;
+        }
+
+        return revoked;
+    }
+
+    @Override
+    public void delete(RefreshToken refreshToken) {
+        remove(refreshToken.getTokenHash());
+
+        if (writeThrough) {
+            refreshTokenRepository.delete(refreshToken);
+        }
+    }
+
+    @Override
+    public int deleteByFamily(String family) {
+        int deleted = removeAll(tokensByFamily.remove(family));
+
+        return writeThrough ? refreshTokenRepository.deleteByFamily(family) : deleted;
+    }
+
+    @Override
+    public int deleteByUserId(Long userId) {
+        int deleted = removeAll(tokensByUser.remove(userId));
+
+        return writeThrough ? refreshTokenRepository.deleteByUserId(userId) : deleted;
+    }
+
+    @Scheduled(fixedDelayString = "${app.refresh-token.wheel-tick-ms}")
+    public void expire() {
+        Instant now = Instant.now();
+        List<String> due = expirations.advance(now.toEpochMilli());
+        int expired = 0;
+
+        for (String token : due) {
+            StoredToken stored = tokens.get(token);
+
+            if (stored != null && !stored.expiryDate().isAfter(now)) {
+                remove(token);
+                expired++;
+            }
+        }
+
+        if (expired > 0) {
+            log.debug("Expired {} refresh tokens", expired);
+        }
+    }
+
+    public int size() {
+        return tokens.size();
+    }
+
+    private void put(RefreshToken refreshToken) {
+        String tokenHash = refreshToken.getTokenHash();
+        StoredToken stored = new StoredToken(refreshToken.getId(), tokenHash, refreshToken.getFamily(),
+                refreshToken.isRevoked(), refreshToken.getExpiryDate(), refreshToken.getUser().getId());
+
+        tokens.put(tokenHash, stored);
+        tokensByUser.computeIfAbsent(stored.userId(), id -> ConcurrentHashMap.newKeySet()).add(tokenHash);
+        tokensByFamily.computeIfAbsent(stored.family(), family -> ConcurrentHashMap.newKeySet()).add(tokenHash);
+
+        if (!expirations.add(tokenHash, stored.expiryDate().toEpochMilli())) {
+            remove(tokenHash);
+        }
+    }
+
+    private int removeAll(Set<String> tokenHashes) {
+        int removed = 0;
+
+        if (tokenHashes != null) {
+            for (String tokenHash : tokenHashes) {
+                if (remove(tokenHash)) {
+                    removed++;
+                }
+            }
+        }
+
+        return removed;
+    }
+
+    private boolean remove(String tokenHash) {
+        StoredToken stored = tokens.remove(tokenHash);
+
+        if (stored == null) {
+            return false;
+        }
+
+        unindex(tokensByUser, stored.userId(), tokenHash);
+        unindex(tokensByFamily, stored.family(), tokenHash);
+
+        return true;
+    }
+
+    private static <K> void unindex(Map<K, Set<String>> index, K key, String tokenHash) {
+        index.computeIfPresent(key, (k, tokenHashes) -> {
+            tokenHashes.remove(tokenHash);
+            return tokenHashes.isEmpty() ? null : tokenHashes;
+        });
+    }
+
+    private RefreshToken toRefreshToken(StoredToken stored) {
+        return RefreshToken.builder()
+                .id(stored.id())
+                .tokenHash(stored.tokenHash())
+                .family(stored.family())
+                .revoked(stored.revoked())
+                .expiryDate(stored.expiryDate())
+                .user(userRepository.getReferenceById(stored.userId()))
+                .build();
+    }
+
+    private record StoredToken(long id, String tokenHash, String family, boolean revoked,
+                               Instant expiryDate, Long userId) {
+
+        StoredToken withRevoked() {
+            return new StoredToken(id, tokenHash, family, true, expiryDate, userId);
+        }
+    }
+}
@@ -0,0 +1,340 @@
+package com.epam.esm.epammodule4.service.implementation;
+
+import com.epam.esm.epammodule4.model.entity.GiftCertificate;
+import com.epam.esm.epammodule4.repository.PageableGiftCertificateRepository;
+import com.epam.esm.epammodule4.service.CertificateSearchEngine;
+import com.epam.esm.epammodule4.service.event.BulkDataLoadedEvent;
+import com.epam.esm.epammodule4.service.event.GiftCertificateChangedEvent;
+import com.epam.esm.epammodule4.util.CompressedBitmap;
+import com.epam.esm.epammodule4.util.PendingChanges;
+import com.epam.esm.epammodule4.util.TextAnalyzer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process inverted index over certificate names and descriptions, ranked with BM25.
+ * <p>
+ * Each term keeps a posting list of certificate ids sorted ascending, so a query intersects the lists
+ * of its terms by merging, starting from the rarest one. Matches outside the filter of the other search
+ * criteria are dropped with a bitmap lookup before scoring. Name terms count {@link #NAME_WEIGHT} times.
+ * The index is built once the application is ready and then follows {@link GiftCertificateChangedEvent}s
+ * once their transaction has committed, so a rolled back write never reaches it. Changes committed during a
+ * rebuild are replayed after it, so a batch read before them does not overwrite them.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "app.search.engine", havingValue = "memory", matchIfMissing = true)
+public class InvertedIndexSearchEngine implements CertificateSearchEngine {
+
+    private static final int NAME_WEIGHT = 2;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private final PageableGiftCertificateRepository pageableCertificateRepository;
+    private final int indexBatchSize;
+
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final Map<Long, String[]> documentTerms = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final PendingChanges pendingChanges = new PendingChanges(lock.writeLock());
+    private long totalLength;
+
+    public InvertedIndexSearchEngine(PageableGiftCertificateRepository pageableCertificateRepository,
+                                     @Value("${app.search.index-batch-size}") int indexBatchSize) {
+        this.pageableCertificateRepository = pageableCertificateRepository;
+        this.indexBatchSize = indexBatchSize;
+    }
+
+    @EventListener({ApplicationReadyEvent.class, BulkDataLoadedEvent.class})
+    public void rebuild() {
+        log.debug("Building the certificate search index");
+
+        pendingChanges.rebuild(() -> {
+            Pageable limit = PageRequest.of(0, indexBatchSize);
+            List<GiftCertificate> batch;
+            long lastId = 0;
+
+            do {
+                batch = pageableCertificateRepository.findByIdGreaterThanOrderByIdAsc(lastId, limit);
+                batch.forEach(this::index);
+                if (!batch.isEmpty()) {
+                    lastId = batch.get(batch.size() - 1).getId();
+                }
+            } while (batch.size() == indexBatchSize);
+            return () -> {
+            };
+        });
+
+        log.info("Indexed {} gift certificates for full-text search", size());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCertificateChanged(GiftCertificateChangedEvent event) {
+        if (event.isDeleted()) {
+            pendingChanges.apply(() -> removeDocument(event.getCertificateId()));
+        } else {
+            pendingChanges.apply(() -> index(event.getCertificate()));
+        }
+    }
+
+    public void index(GiftCertificate certificate) {
+        List<String> terms = new ArrayList<>();
+
+        for (int i = 0; i < NAME_WEIGHT; i++) {
+            terms.addAll(TextAnalyzer.analyze(certificate.getName()));
+        }
+        terms.addAll(TextAnalyzer.analyze(certificate.getDescription()));
+
+        lock.writeLock().lock();
+        try {
+            removeDocument(certificate.getId());
+
+            Map<String, Integer> frequencies = new HashMap<>();
+            terms.forEach(term -> frequencies.merge(term, 1, Integer::sum));
+            frequencies.forEach((term, frequency) ->
+                    postings.computeIfAbsent(term, key -> new PostingList()).put(certificate.getId(), frequency));
+
+            documentTerms.put(certificate.getId(), terms.toArray(String[]::new));
+            totalLength += terms.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long certificateId) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(certificateId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Page<Long> search(String text, CompressedBitmap filter, Pageable pageable) {
+        Pageable unsorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+
+        lock.readLock().lock();
+        try {
+            List<PostingList> lists = postingLists(text);
+            return lists.isEmpty() || filter != null && filter.isEmpty()
+                    ? Page.empty(unsorted)
+                    : rank(lists, filter, unsorted);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Long> findAllIds(String text) {
+        lock.readLock().lock();
+        try {
+            List<PostingList> lists = postingLists(text);
+            List<Long> ids = new ArrayList<>();
+
+            if (!lists.isEmpty()) {
+                intersect(lists, (id, position, cursors) -> ids.add(id));
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documentTerms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Page<Long> rank(List<PostingList> lists, CompressedBitmap filter, Pageable pageable) {
+        int documents = documentTerms.size();
+        double averageLength = (double) totalLength / documents;
+        double[] idf = new double[lists.size()];
+
+        for (int i = 0; i < lists.size(); i++) {
+            int df = lists.get(i).size();
+            idf[i] = Math.log(1 + (documents - df + 0.5) / (df + 0.5));
+        }
+
+        int limit = (int) Math.min(pageable.getOffset() + pageable.getPageSize(), Integer.MAX_VALUE);
+        PriorityQueue<ScoredId> top = new PriorityQueue<>(Comparator.comparingDouble(ScoredId::score)
+                .thenComparing(ScoredId::id, Comparator.reverseOrder()));
+        PostingList rarest = lists.get(0);
+        int[] matches = {0};
+
+        intersect(lists, (id, position, cursors) -> {
+            if (filter != null && !filter.contains((int) id)) {
+                return;
+            }
+
+            matches[0]++;
+            double lengthNorm = K1 * (1 - B + B * documentTerms.get(id).length / averageLength);
+            double score = 0;
+
+            for (int i = 0; i < lists.size(); i++) {
+                int tf = i == 0 ? rarest.frequencies[position] : lists.get(i).frequencies[cursors[i]];
+                score += idf[i] * tf * (K1 + 1) / (tf + lengthNorm);
+            }
+
+            top.add(new ScoredId(id, score));
+            if (top.size() > limit) {
+                top.poll();
+            }
+        });
+
+        List<Long> ranked = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            ranked.add(top.poll().id());
+        }
+        Collections.reverse(ranked);
+
+        int from = (int) Math.min(pageable.getOffset(), ranked.size());
+        return new PageImpl<>(ranked.subList(from, ranked.size()), pageable, matches[0]);
+    }
+
+    /**
+     * Posting lists of the query terms, rarest first; empty when a term occurs nowhere.
+     */
+    private List<PostingList> postingLists(String text) {
+        Set<String> queryTerms = new LinkedHashSet<>(TextAnalyzer.analyze(text));
+        List<PostingList> lists = new ArrayList<>(queryTerms.size());
+
+        for (String term : queryTerms) {
+            PostingList list = postings.get(term);
+            if (list == null) {
+                return List.of();
+            }
+            lists.add(list);
+        }
+
+        lists.sort(Comparator.comparingInt(PostingList::size));
+        return lists;
+    }
+
+    /**
+     * Walks the ids of the rarest list and seeks the others to them, reporting each id present in all lists.
+     */
+    private static void intersect(List<PostingList> lists, Match match) {
+        PostingList rarest = lists.get(0);
+        int[] cursors = new int[lists.size()];
+
+        candidates:
+        for (int position = 0; position < rarest.size(); position++) {
+            long id = rarest.ids[position];
+
+            for (int i = 1; i < lists.size(); i++) {
+                cursors[i] = lists.get(i).seek(id, cursors[i]);
+                if (cursors[i] < 0) {
+                    break candidates;
+                }
+                if (lists.get(i).ids[cursors[i]] != id) {
+                    continue candidates;
+                }
+            }
+
+            match.accept(id, position, cursors);
+        }
+    }
+
+    private void removeDocument(Long certificateId) {
+        String[] terms = documentTerms.remove(certificateId);
+
+        if (terms == null) {
+            return;
+        }
+
+        for (String term : new HashSet<>(Arrays.asList(terms))) {
+            PostingList list = postings.get(term);
+            list.remove(certificateId);
+            if (list.size() == 0) {
+                postings.remove(term);
+            }
+        }
+        totalLength -= terms.length;
+    }
+
+    private record ScoredId(long id, double score) {
+    }
+
+    @FunctionalInterface
+    private interface Match {
+
+        void accept(long id, int position, int[] cursors);
+    }
+
+    /**
+     * Certificate ids containing a term, sorted ascending, with the term frequency of each.
+     */
+    private static final class PostingList {
+
+        private long[] ids = new long[4];
+        private int[] frequencies = new int[4];
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        void put(long id, int frequency) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+
+            if (position >= 0) {
+                frequencies[position] = frequency;
+                return;
+            }
+
+            position = -position - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            System.arraycopy(frequencies, position, frequencies, position + 1, size - position);
+            ids[position] = id;
+            frequencies[position] = frequency;
+            size++;
+        }
+
+        void remove(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+
+            if (position >= 0) {
+                System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+                System.arraycopy(frequencies, position + 1, frequencies, position, size - position - 1);
+                size--;
+            }
+        }
+
+        /**
+         * Returns the first position at or after {@code from} holding an id not less than {@code id},
+         * or -1 when the list is exhausted.
+         */
+        int seek(long id, int from) {
+            int position = Arrays.binarySearch(ids, from, size, id);
+
+            if (position < 0) {
+                position = -position - 1;
+            }
+            return position < size ? position : -1;
+        }
+    }
+}
@@ -2,6 +2,11 @@ package com.epam.esm.epammodule4.service.implementation;
 
 import com.epam.esm.epammodule4.exception.OrderAlreadyExistsException;
 import com.epam.esm.epammodule4.exception.OrderNotFoundException;
+import com.epam.esm.epammodule4.model.OrderRow;
+import com.epam.esm.epammodule4.model.TotalCount;
+import com.epam.esm.epammodule4.model.dto.CursorPage;
+import com.epam.esm.epammodule4.model.dto.OrderDto;
+import com.epam.esm.epammodule4.model.dto.TagDto;
 import com.epam.esm.epammodule4.model.dto.request.CreateOrderRequest;
 import com.epam.esm.epammodule4.model.dto.request.UpdateOrderRequest;
 import com.epam.esm.epammodule4.model.entity.GiftCertificate;
@@ -11,15 +16,20 @@ import com.epam.esm.epammodule4.repository.*;
 import com.epam.esm.epammodule4.service.GiftCertificateService;
 import com.epam.esm.epammodule4.service.OrderService;
 import com.epam.esm.epammodule4.service.UserService;
+import com.epam.esm.epammodule4.service.event.OrderChangedEvent;
 import com.epam.esm.epammodule4.service.mapper.OrderMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Optional;
+import java.util.*;
 
 import static java.util.Optional.ofNullable;
 
@@ -32,6 +42,9 @@ public class OrderServiceImpl implements OrderService {
     private final GiftCertificateService certificateService;
     private final UserService userService;
     private final OrderMapper orderMapper;
+    private final ApproximateRowCounter rowCounter;
+    private final RoleCatalog roleCatalog;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public Order findById(Long id) {
@@ -75,6 +88,7 @@ public class OrderServiceImpl implements OrderService {
         Order createdOrder = orderRepository.save(newOrder);
         createdOrder.setUser(foundUser);
         createdOrder.setGiftCertificate(foundCertificate);
+        eventPublisher.publishEvent(new OrderChangedEvent(createdOrder.getId(), null, foundCertificate.getId()));
 
         log.info("Created a new order with id {}", createdOrder.getId());
         return createdOrder;
@@ -86,6 +100,7 @@ public class OrderServiceImpl implements OrderService {
         log.debug("Updating an order with id {}", updateOrderRequest.getId());
 
         Order foundOrder = findById(updateOrderRequest.getId());
+        Long previousCertificateId = certificateIdOf(foundOrder);
 
         ofNullable(updateOrderRequest.getPrice()).ifPresent(foundOrder::setPrice);
 
@@ -100,6 +115,8 @@ public class OrderServiceImpl implements OrderService {
         });
 
         Order updatedOrder = orderRepository.save(foundOrder);
+        eventPublisher.publishEvent(new OrderChangedEvent(
+                updatedOrder.getId(), previousCertificateId, certificateIdOf(updatedOrder)));
 
         log.info("Updated an order with id {}", updatedOrder.getId());
         return updatedOrder;
@@ -113,6 +130,7 @@ public class OrderServiceImpl implements OrderService {
         Order foundOrder = findById(id);
 
         orderRepository.delete(foundOrder);
+        eventPublisher.publishEvent(new OrderChangedEvent(foundOrder.getId(), certificateIdOf(foundOrder), null));
         log.info("Order with id {} is deleted", foundOrder.getId());
     }
 
@@ -126,6 +144,118 @@ public class OrderServiceImpl implements OrderService {
         return foundOrders;
     }
 
+    @Override
+    public Slice<Order> findAll(Pageable pageable, TotalCount total) {
+        if (total == TotalCount.EXACT) {
+            return findAll(pageable);
+        }
+        log.debug("Retrieving orders with {} total. Page request: {}", total, pageable);
+
+        Slice<Order> foundOrders = orderRepository.findSlice(pageable);
+        if (total == TotalCount.APPROXIMATE) {
+            foundOrders = rowCounter.withApproximateTotal(foundOrders,
+                    () -> rowCounter.estimateTable("cert_order", orderRepository::count));
+        }
+
+        log.info("Retrieved {} orders, last page: {}", foundOrders.getNumberOfElements(), foundOrders.isLast());
+        return foundOrders;
+    }
+
+    @Override
+    public Slice<Order> findAllByUserId(Long userId, Pageable pageable, TotalCount total) {
+        if (total == TotalCount.EXACT) {
+            return findAllByUserId(userId, pageable);
+        }
+        log.debug("Retrieving orders by user id {} with {} total. Page request: {}", userId, total, pageable);
+
+        Slice<Order> foundOrders = orderRepository.findSlice(ofUser(userId), pageable);
+        if (total == TotalCount.APPROXIMATE) {
+            foundOrders = rowCounter.withApproximateTotal(foundOrders, () -> rowCounter.estimate(
+                    "cert_order:user:" + userId, () -> orderRepository.countByUserId(userId)));
+        }
+
+        log.info("Retrieved {} orders, last page: {}", foundOrders.getNumberOfElements(), foundOrders.isLast());
+        return foundOrders;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<OrderDto> findAllAsDto(Pageable pageable, TotalCount total) {
+        log.debug("Retrieving order rows with {} total. Page request: {}", total, pageable);
+
+        Slice<OrderRow> foundRows = switch (total) {
+            case EXACT -> orderRepository.findAllRows(pageable);
+            case APPROXIMATE -> rowCounter.withApproximateTotal(orderRepository.findRowSlice(pageable),
+                    () -> rowCounter.estimateTable("cert_order", orderRepository::count));
+            case NONE -> orderRepository.findRowSlice(pageable);
+        };
+
+        Slice<OrderDto> foundOrders = toDto(foundRows);
+
+        log.info("Retrieved {} orders, last page: {}", foundOrders.getNumberOfElements(), foundOrders.isLast());
+        return foundOrders;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<OrderDto> findAllAsDtoByUserId(Long userId, Pageable pageable, TotalCount total) {
+        log.debug("Retrieving order rows by user id {} with {} total. Page request: {}", userId, total, pageable);
+
+        Slice<OrderRow> foundRows = switch (total) {
+            case EXACT -> orderRepository.findAllRowsByUserId(userId, pageable);
+            case APPROXIMATE -> rowCounter.withApproximateTotal(orderRepository.findRowSliceByUserId(userId, pageable),
+                    () -> rowCounter.estimate("cert_order:user:" + userId, () -> orderRepository.countByUserId(userId)));
+            case NONE -> orderRepository.findRowSliceByUserId(userId, pageable);
+        };
+
+        Slice<OrderDto> foundOrders = toDto(foundRows);
+
+        log.info("Retrieved {} orders, last page: {}", foundOrders.getNumberOfElements(), foundOrders.isLast());
+        return foundOrders;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<OrderDto> findAllAsDto(String cursor, Pageable pageable) {
+        log.debug("Retrieving order rows after cursor '{}'. Page request: {}", cursor, pageable);
+
+        CursorPage<OrderDto> foundOrders = toDto(orderRepository.findAllRows(null, cursor, pageable));
+
+        log.info("Retrieved {} orders, last page: {}", foundOrders.getSize(), foundOrders.isLast());
+        return foundOrders;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<OrderDto> findAllAsDtoByUserId(Long userId, String cursor, Pageable pageable) {
+        log.debug("Retrieving order rows by user id {} after cursor '{}'. Page request: {}", userId, cursor, pageable);
+
+        CursorPage<OrderDto> foundOrders = toDto(orderRepository.findAllRows(ofUser(userId), cursor, pageable));
+
+        log.info("Retrieved {} orders, last page: {}", foundOrders.getSize(), foundOrders.isLast());
+        return foundOrders;
+    }
+
+    @Override
+    public CursorPage<Order> findAll(String cursor, Pageable pageable) {
+        log.debug("Retrieving orders after cursor '{}'. Page request: {}", cursor, pageable);
+
+        CursorPage<Order> foundOrders = orderRepository.findAll(cursor, pageable);
+
+        log.info("Retrieved {} orders, last page: {}", foundOrders.getSize(), foundOrders.isLast());
+        return foundOrders;
+    }
+
+    @Override
+    public CursorPage<Order> findAllByUserId(Long userId, String cursor, Pageable pageable) {
+        log.debug("Retrieving orders by user id {} after cursor '{}'. Page request: {}", userId, cursor, pageable);
+
+        CursorPage<Order> foundOrders = orderRepository.findAll(ofUser(userId), cursor, pageable);
+
+        log.info("Retrieved {} orders, last page: {}", foundOrders.getSize(), foundOrders.isLast());
+        return foundOrders;
+    }
+
 
     @Override
     public Order findByOrderIdAndUserId(Long orderId, Long userId) {
@@ -190,4 +320,37 @@ public class OrderServiceImpl implements OrderService {
 
         return cost;
     }
+
+    /**
+     * Completes the rows of a page with the tags of their certificates, one query for the whole page, and
+     * the roles of their users, taken from the role catalog.
+     */
+    private Slice<OrderDto> toDto(Slice<OrderRow> rows) {
+        Set<Long> certificateIds = new HashSet<>();
+        rows.forEach(row -> certificateIds.add(row.certificateId()));
+
+        Map<Long, List<TagDto>> tagsByCertificate = new HashMap<>();
+
+        if (rows.hasContent()) {
+            orderRepository.findTagsByCertificateIds(certificateIds).forEach(tag -> tagsByCertificate
+                    .computeIfAbsent((Long) tag[0], id -> new ArrayList<>())
+                    .add(new TagDto((Long) tag[1], (String) tag[2])));
+        }
+
+        return rows.map(row -> orderMapper.toDto(row,
+                tagsByCertificate.getOrDefault(row.certificateId(), List.of()),
+                roleCatalog.rolesOf(row.userRoleMask())));
+    }
+
+    private CursorPage<OrderDto> toDto(CursorPage<OrderRow> rows) {
+        return new CursorPage<>(toDto(new SliceImpl<>(rows.getContent())).getContent(), rows.getNextCursor());
+    }
+
+    private static Long certificateIdOf(Order order) {
+        return ofNullable(order.getGiftCertificate()).map(GiftCertificate::getId).orElse(null);
+    }
+
+    private static Specification<Order> ofUser(Long userId) {
+        return (root, query, builder) -> builder.equal(root.get("user").get("id"), userId);
+    }
 }
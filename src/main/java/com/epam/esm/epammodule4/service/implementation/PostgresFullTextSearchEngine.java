@@ -0,0 +1,95 @@
+package com.epam.esm.epammodule4.service.implementation;
+
+import com.epam.esm.epammodule4.service.CertificateSearchEngine;
+import com.epam.esm.epammodule4.util.CompressedBitmap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Full-text search backed by a generated {@code tsvector} column with a GIN index.
+ * <p>
+ * Hibernate does not manage either of them, so both are created on startup if missing. Names are
+ * weighted above descriptions, and the query accepts web search syntax ("quoted phrases", -exclusions).
+ * Ids passing the other search filters are bound as one {@code int[]} array parameter.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.search.engine", havingValue = "postgres")
+public class PostgresFullTextSearchEngine implements CertificateSearchEngine {
+
+    static final String ADD_SEARCH_VECTOR = """
+            ALTER TABLE gift_certificate ADD COLUMN IF NOT EXISTS search_vector tsvector
+            GENERATED ALWAYS AS (
+                setweight(to_tsvector('english', coalesce(name, '')), 'A') ||
+                setweight(to_tsvector('english', coalesce(description, '')), 'B')
+            ) STORED""";
+    static final String CREATE_SEARCH_INDEX = """
+            CREATE INDEX IF NOT EXISTS gift_certificate_search_vector_idx
+            ON gift_certificate USING gin (search_vector)""";
+    static final String SEARCH = """
+            SELECT g.id FROM gift_certificate g, websearch_to_tsquery('english', :text) q
+            WHERE g.search_vector @@ q
+            ORDER BY ts_rank_cd(g.search_vector, q) DESC, g.id
+            LIMIT :limit OFFSET :offset""";
+    static final String SEARCH_FILTERED = """
+            SELECT g.id FROM gift_certificate g, websearch_to_tsquery('english', :text) q
+            WHERE g.search_vector @@ q AND g.id = ANY(:ids)
+            ORDER BY ts_rank_cd(g.search_vector, q) DESC, g.id
+            LIMIT :limit OFFSET :offset""";
+    static final String MATCH_IDS = """
+            SELECT g.id FROM gift_certificate g
+            WHERE g.search_vector @@ websearch_to_tsquery('english', :text)""";
+    static final String COUNT = """
+            SELECT count(*) FROM gift_certificate g
+            WHERE g.search_vector @@ websearch_to_tsquery('english', :text)""";
+    static final String COUNT_FILTERED = """
+            SELECT count(*) FROM gift_certificate g
+            WHERE g.search_vector @@ websearch_to_tsquery('english', :text) AND g.id = ANY(:ids)""";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createSearchIndex() {
+        jdbcTemplate.getJdbcTemplate().execute(ADD_SEARCH_VECTOR);
+        jdbcTemplate.getJdbcTemplate().execute(CREATE_SEARCH_INDEX);
+
+        log.info("Full-text search index on gift_certificate is in place");
+    }
+
+    @Override
+    public Page<Long> search(String text, CompressedBitmap filter, Pageable pageable) {
+        Pageable unsorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("text", text)
+                .addValue("limit", unsorted.getPageSize())
+                .addValue("offset", unsorted.getOffset());
+
+        if (filter != null) {
+            parameters.addValue("ids", filter.toArray());
+        }
+
+        List<Long> ids = jdbcTemplate.queryForList(filter == null ? SEARCH : SEARCH_FILTERED, parameters, Long.class);
+
+        return PageableExecutionUtils.getPage(ids, unsorted, () -> Objects.requireNonNull(
+                jdbcTemplate.queryForObject(filter == null ? COUNT : COUNT_FILTERED, parameters, Long.class)));
+    }
+
+    @Override
+    public List<Long> findAllIds(String text) {
+        return jdbcTemplate.queryForList(MATCH_IDS, new MapSqlParameterSource("text", text), Long.class);
+    }
+}
@@ -0,0 +1,131 @@
+package com.epam.esm.epammodule4.service.implementation;
+
+import com.epam.esm.epammodule4.service.FuzzyNameMatcher;
+import com.epam.esm.epammodule4.util.TextAnalyzer;
+import com.epam.esm.epammodule4.util.TrigramIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+/**
+ * Fuzzy name matching backed by {@code pg_trgm} GIN indexes on the lower-cased names.
+ * <p>
+ * Hibernate does not manage the extension or the indexes, so they are created on startup if missing.
+ * A word within {@code k} edits shares at least {@code trigrams(word) - 3k} trigrams with the name, so the
+ * word similarity threshold is set to that share for the transaction and the index returns only such
+ * candidates; their exact distance is then checked here, per name word.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "app.search.engine", havingValue = "postgres")
+public class PostgresTrigramNameMatcher implements FuzzyNameMatcher {
+
+    static final String CREATE_EXTENSION = "CREATE EXTENSION IF NOT EXISTS pg_trgm";
+    static final String CREATE_CERTIFICATE_NAME_INDEX = """
+            CREATE INDEX IF NOT EXISTS gift_certificate_name_trgm_idx
+            ON gift_certificate USING gin (lower(name) gin_trgm_ops)""";
+    static final String CREATE_TAG_NAME_INDEX = """
+            CREATE INDEX IF NOT EXISTS tag_name_trgm_idx
+            ON tag USING gin (lower(name) gin_trgm_ops)""";
+    static final String SET_THRESHOLD = "SELECT set_config('pg_trgm.word_similarity_threshold', :threshold, true)";
+    static final String MATCH_CERTIFICATES = """
+            SELECT g.id, g.name FROM gift_certificate g
+            WHERE :word <% lower(g.name)""";
+    static final String MATCH_TAGS = """
+            SELECT t.name FROM tag t
+            WHERE :name <% lower(t.name)
+            ORDER BY t.id""";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final int maxDistance;
+
+    public PostgresTrigramNameMatcher(NamedParameterJdbcTemplate jdbcTemplate,
+                                      @Value("${app.search.fuzzy.max-distance}") int maxDistance) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxDistance = maxDistance;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createTrigramIndexes() {
+        jdbcTemplate.getJdbcTemplate().execute(CREATE_EXTENSION);
+        jdbcTemplate.getJdbcTemplate().execute(CREATE_CERTIFICATE_NAME_INDEX);
+        jdbcTemplate.getJdbcTemplate().execute(CREATE_TAG_NAME_INDEX);
+
+        log.info("Trigram indexes on gift_certificate and tag names are in place");
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Long> findCertificateIds(String name, int maxDistance) {
+        log.debug("Looking for certificates with a name like '{}'", name);
+
+        List<String> queryWords = TextAnalyzer.words(name).stream().distinct().toList();
+        int distance = cap(maxDistance);
+
+        if (queryWords.isEmpty()) {
+            return List.of();
+        }
+
+        List<Map<Long, Integer>> distancesByWord = new ArrayList<>(queryWords.size());
+
+        for (String queryWord : queryWords) {
+            Map<Long, Integer> distances = new HashMap<>();
+            setThreshold(queryWord, distance);
+
+            jdbcTemplate.query(MATCH_CERTIFICATES, new MapSqlParameterSource("word", queryWord), row -> {
+                int wordDistance = TextAnalyzer.words(row.getString(2)).stream()
+                        .mapToInt(word -> TrigramIndex.distance(queryWord, word, distance))
+                        .min()
+                        .orElse(distance + 1);
+
+                if (wordDistance <= distance) {
+                    distances.put(row.getLong(1), wordDistance);
+                }
+            });
+            distancesByWord.add(distances);
+        }
+        return TrigramNameMatcher.rankByTotalDistance(distancesByWord);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<String> findTagName(String name, int maxDistance) {
+        String key = TrigramNameMatcher.key(name);
+        int distance = cap(maxDistance);
+        setThreshold(key, distance);
+
+        List<String> candidates = jdbcTemplate.queryForList(
+                MATCH_TAGS, new MapSqlParameterSource("name", key), String.class);
+
+        return candidates.stream()
+                .map(candidate -> Map.entry(candidate,
+                        TrigramIndex.distance(key, TrigramNameMatcher.key(candidate), distance)))
+                .filter(candidate -> candidate.getValue() <= distance)
+                .min(Map.Entry.comparingByValue())
+                .map(Map.Entry::getKey);
+    }
+
+    /**
+     * Sets the least share of the query trigrams a match can have, rounded down so that float rounding in
+     * {@code pg_trgm} never drops a candidate; at least one trigram is always required.
+     */
+    private void setThreshold(String query, int distance) {
+        int trigrams = TrigramIndex.trigrams(query).size();
+        double threshold = Math.max(1, trigrams - 3 * distance) / (double) trigrams;
+
+        jdbcTemplate.queryForObject(SET_THRESHOLD, new MapSqlParameterSource(
+                "threshold", String.valueOf(Math.floor(threshold * 10_000) / 10_000)), String.class);
+    }
+
+    private int cap(int distance) {
+        return Math.max(0, Math.min(distance, maxDistance));
+    }
+}
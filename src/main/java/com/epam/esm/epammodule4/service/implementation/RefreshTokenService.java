@@ -2,18 +2,28 @@ package com.epam.esm.epammodule4.service.implementation;
 
 import com.epam.esm.epammodule4.exception.TokenRefreshException;
 import com.epam.esm.epammodule4.model.entity.RefreshToken;
-import com.epam.esm.epammodule4.repository.RefreshTokenRepository;
+import com.epam.esm.epammodule4.model.entity.User;
 import com.epam.esm.epammodule4.repository.UserRepository;
+import com.epam.esm.epammodule4.service.RefreshTokenStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.transaction.Transactional;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
+import java.util.Base64;
 import java.util.Optional;
 import java.util.UUID;
 
+/**
+ * Issues and rotates refresh tokens. Only the SHA-256 hash of a token is stored;
+ * every token belongs to a family started at login, and presenting an already
+ * rotated token revokes the whole family.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -21,28 +31,44 @@ public class RefreshTokenService {
 
     @Value("${app.jwtRefreshExpirationMs}")
     private Long refreshTokenDurationMs;
-    private final RefreshTokenRepository refreshTokenRepository;
+    private final RefreshTokenStore refreshTokenStore;
     private final UserRepository userRepository;
 
     public Optional<RefreshToken> findByToken(String token) {
-        return refreshTokenRepository.findByToken(token);
+        return refreshTokenStore.findByTokenHash(hashToken(token));
     }
 
+    /**
+     * Stores a new refresh token for the user in a new family. The user is referenced by id only,
+     * so issuing a token costs a single insert and no user lookup.
+     */
     public RefreshToken createRefreshToken(Long userId) {
-        RefreshToken refreshToken = new RefreshToken();
+        return issue(userRepository.getReferenceById(userId), UUID.randomUUID().toString());
+    }
 
-        refreshToken.setUser(userRepository.findById(userId).get());
-        refreshToken.setExpiryDate(Instant.now().plusMillis(refreshTokenDurationMs));
-        refreshToken.setToken(UUID.randomUUID().toString());
+    /**
+     * Retires the presented token and issues its successor in the same family.
+     */
+    @Transactional(dontRollbackOn = TokenRefreshException.class)
+    public RefreshToken rotate(String token) {
+        RefreshToken current = findByToken(token)
+                .orElseThrow(() -> new TokenRefreshException(token, "Refresh token is not in database!"));
 
-        refreshToken = refreshTokenRepository.save(refreshToken);
+        verifyExpiration(current);
 
-        return refreshToken;
+        if (current.isRevoked() || !refreshTokenStore.revoke(current)) {
+            int revoked = refreshTokenStore.deleteByFamily(current.getFamily());
+            log.warn("Refresh token reuse detected, revoked {} tokens of family {}", revoked, current.getFamily());
+
+            throw new TokenRefreshException(token, "Refresh token was already used. Please make a new login request");
+        }
+
+        return issue(current.getUser(), current.getFamily());
     }
 
     public RefreshToken verifyExpiration(RefreshToken token) {
         if (token.getExpiryDate().compareTo(Instant.now()) < 0) {
-            refreshTokenRepository.delete(token);
+            refreshTokenStore.delete(token);
             throw new TokenRefreshException(
                     token.getToken(),
                     "Refresh token was expired. Please make a new login request"
@@ -52,8 +78,40 @@ public class RefreshTokenService {
         return token;
     }
 
+    @Transactional
+    public int deleteByFamily(String family) {
+        return refreshTokenStore.deleteByFamily(family);
+    }
+
     @Transactional
     public int deleteByUserId(Long userId) {
-        return refreshTokenRepository.deleteByUser(userRepository.findById(userId).get());
+        return refreshTokenStore.deleteByUserId(userId);
+    }
+
+    public static String hashToken(String token) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = messageDigest.digest(token.getBytes(StandardCharsets.UTF_8));
+
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private RefreshToken issue(User user, String family) {
+        String token = UUID.randomUUID().toString();
+
+        RefreshToken refreshToken = RefreshToken.builder()
+                .tokenHash(hashToken(token))
+                .family(family)
+                .expiryDate(Instant.now().plusMillis(refreshTokenDurationMs))
+                .user(user)
+                .build();
+
+        refreshToken = refreshTokenStore.save(refreshToken);
+        refreshToken.setToken(token);
+
+        return refreshToken;
     }
-}
\ No newline at end of file
+}
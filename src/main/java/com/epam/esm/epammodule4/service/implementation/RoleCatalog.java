@@ -0,0 +1,104 @@
+package com.epam.esm.epammodule4.service.implementation;
+
+import com.epam.esm.epammodule4.exception.RoleNotFoundException;
+import com.epam.esm.epammodule4.model.ERole;
+import com.epam.esm.epammodule4.model.entity.Role;
+import com.epam.esm.epammodule4.repository.RoleRepository;
+import com.epam.esm.epammodule4.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+/**
+ * The rows of the {@code role} table, one per {@link ERole}, loaded once into an immutable map.
+ * <p>
+ * Roles that are missing are created on load, and users stored before {@code role_mask} existed get their
+ * mask derived from their roles, so the mask can be trusted afterwards. Role rows are never changed by the
+ * application, hence there is nothing to follow.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RoleCatalog {
+
+    private static final int UPDATE_BATCH_SIZE = 1000;
+
+    private final RoleRepository roleRepository;
+    private final UserRepository userRepository;
+
+    private volatile Map<ERole, Role> roles = Map.of();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void load() {
+        log.debug("Loading the role catalog");
+
+        Map<ERole, Role> loaded = new EnumMap<>(ERole.class);
+        roleRepository.findAll().forEach(role -> loaded.put(role.getName(), role));
+
+        for (ERole name : ERole.values()) {
+            if (!loaded.containsKey(name)) {
+                loaded.put(name, roleRepository.save(Role.builder().name(name).build()));
+                log.info("Created missing role {}", name);
+            }
+        }
+        roles = Collections.unmodifiableMap(loaded);
+
+        log.info("Loaded {} roles, set the role mask of {} users", roles.size(), backfillRoleMasks());
+    }
+
+    public Role get(ERole name) {
+        Role role = roles.get(name);
+
+        if (role == null) {
+            throw new RoleNotFoundException("Role %s is not found.".formatted(name));
+        }
+        return role;
+    }
+
+    /**
+     * Returns the roles of a {@link ERole#mask(Collection) role mask}, none for {@code null}.
+     */
+    public Set<Role> rolesOf(@Nullable Integer roleMask) {
+        if (roleMask == null) {
+            return Set.of();
+        }
+
+        Set<Role> found = new HashSet<>();
+        ERole.fromMask(roleMask).forEach(name -> found.add(get(name)));
+        return found;
+    }
+
+    /**
+     * Groups the users without a mask by the mask of their roles, so there are as many updates as distinct
+     * role sets (times the batches of ids) rather than one per user.
+     */
+    private int backfillRoleMasks() {
+        Map<Long, Set<ERole>> rolesByUser = new HashMap<>();
+        userRepository.findRolesOfUsersWithoutRoleMask().forEach(row -> {
+            Set<ERole> userRoles = rolesByUser.computeIfAbsent((Long) row[0], id -> EnumSet.noneOf(ERole.class));
+            if (row[1] != null) {
+                userRoles.add((ERole) row[1]);
+            }
+        });
+
+        Map<Integer, List<Long>> usersByMask = new HashMap<>();
+        rolesByUser.forEach((userId, userRoles) -> usersByMask
+                .computeIfAbsent(ERole.mask(userRoles), mask -> new ArrayList<>())
+                .add(userId));
+
+        usersByMask.forEach((mask, userIds) -> {
+            for (int from = 0; from < userIds.size(); from += UPDATE_BATCH_SIZE) {
+                userRepository.updateRoleMask(
+                        userIds.subList(from, Math.min(from + UPDATE_BATCH_SIZE, userIds.size())), mask);
+            }
+        });
+        return rolesByUser.size();
+    }
+}
@@ -0,0 +1,301 @@
+package com.epam.esm.epammodule4.service.implementation;
+
+import com.epam.esm.epammodule4.model.entity.GiftCertificate;
+import com.epam.esm.epammodule4.repository.GiftCertificateRepository;
+import com.epam.esm.epammodule4.repository.OrderRepository;
+import com.epam.esm.epammodule4.repository.TagRepository;
+import com.epam.esm.epammodule4.service.SuggestService;
+import com.epam.esm.epammodule4.service.event.BulkDataLoadedEvent;
+import com.epam.esm.epammodule4.service.event.GiftCertificateChangedEvent;
+import com.epam.esm.epammodule4.service.event.OrderChangedEvent;
+import com.epam.esm.epammodule4.service.event.TagChangedEvent;
+import com.epam.esm.epammodule4.util.CompletionTrie;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static java.util.Optional.ofNullable;
+
+/**
+ * Name autocomplete served from in-memory completion tries, without touching the database.
+ * <p>
+ * Tag names are ranked by the number of certificates carrying the tag, certificate names by the number of
+ * orders of the certificates with that name. Matching ignores case. The tries are built once the application
+ * is ready and then follow {@link TagChangedEvent}s, {@link GiftCertificateChangedEvent}s and
+ * {@link OrderChangedEvent}s once their transaction commits.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SuggestServiceImpl implements SuggestService {
+
+    private static final int MAX_LIMIT = 50;
+
+    private final TagRepository tagRepository;
+    private final GiftCertificateRepository certificateRepository;
+    private final OrderRepository orderRepository;
+
+    private final CompletionTrie tagNames = new CompletionTrie();
+    private final CompletionTrie certificateNames = new CompletionTrie();
+    private final Map<Long, TagEntry> tags = new HashMap<>();
+    private final Map<Long, CertificateEntry> certificates = new HashMap<>();
+    private final Map<String, NameEntry> names = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Loads the tries from the database, dropping the certificates indexed before so that reloading after a
+     * bulk load does not count their orders twice.
+     */
+    @EventListener({ApplicationReadyEvent.class, BulkDataLoadedEvent.class})
+    public void rebuild() {
+        log.debug("Building the name suggestion index");
+
+        List<Object[]> tagRows = tagRepository.findAllNames();
+        List<Object[]> certificateRows = certificateRepository.findAllNames();
+        List<Object[]> tagLinks = certificateRepository.findAllTagLinks();
+        List<Object[]> orderCounts = orderRepository.countByCertificate();
+
+        lock.writeLock().lock();
+        try {
+            List.copyOf(certificates.keySet()).forEach(this::removeCertificate);
+            tagRows.forEach(row -> putTag((Long) row[0], (String) row[1]));
+            certificateRows.forEach(row -> putCertificate((Long) row[0], (String) row[1], Set.of()));
+            tagLinks.forEach(row -> ofNullable(certificates.get((Long) row[0])).ifPresent(certificate -> {
+                if (certificate.tagIds.add((Long) row[1])) {
+                    addUsage((Long) row[1], 1);
+                }
+            }));
+            orderCounts.stream()
+                    .filter(row -> row[0] != null)
+                    .forEach(row -> addOrders((Long) row[0], (Long) row[1]));
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.info("Indexed {} tag names and {} certificate names for suggestions",
+                tagRows.size(), certificateRows.size());
+    }
+
+    @Override
+    public List<String> suggestTagNames(String prefix, int limit) {
+        return complete(tagNames, prefix, limit);
+    }
+
+    @Override
+    public List<String> suggestCertificateNames(String prefix, int limit) {
+        return complete(certificateNames, prefix, limit);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTagChanged(TagChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (event.isDeleted()) {
+                removeTag(event.getTagId());
+            } else {
+                putTag(event.getTagId(), event.getTag().getName());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCertificateChanged(GiftCertificateChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (event.isDeleted()) {
+                removeCertificate(event.getCertificateId());
+                return;
+            }
+
+            GiftCertificate certificate = event.getCertificate();
+            Set<Long> tagIds = new HashSet<>();
+            ofNullable(certificate.getTags()).orElse(List.of()).stream()
+                    .filter(tag -> tag.getId() != null)
+                    .forEach(tag -> {
+                        if (!tags.containsKey(tag.getId())) {
+                            putTag(tag.getId(), tag.getName());
+                        }
+                        tagIds.add(tag.getId());
+                    });
+            putCertificate(event.getCertificateId(), certificate.getName(), tagIds);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        if (Objects.equals(event.getPreviousCertificateId(), event.getCertificateId())) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            ofNullable(event.getPreviousCertificateId()).ifPresent(id -> addOrders(id, -1));
+            ofNullable(event.getCertificateId()).ifPresent(id -> addOrders(id, 1));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private List<String> complete(CompletionTrie trie, String prefix, int limit) {
+        log.debug("Suggesting names for prefix '{}'", prefix);
+
+        lock.readLock().lock();
+        try {
+            return trie.complete(key(prefix), Math.max(0, Math.min(limit, MAX_LIMIT))).stream()
+                    .map(CompletionTrie.Completion::value)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void putTag(Long tagId, String name) {
+        TagEntry previous = tags.get(tagId);
+        TagEntry entry = new TagEntry(tagId, name, previous == null ? 0 : previous.usage);
+
+        if (previous != null) {
+            unindexTag(previous);
+        }
+        tags.put(tagId, entry);
+        indexTag(entry);
+    }
+
+    private void removeTag(Long tagId) {
+        TagEntry removed = tags.remove(tagId);
+
+        if (removed != null) {
+            unindexTag(removed);
+        }
+    }
+
+    private void addUsage(Long tagId, int delta) {
+        TagEntry entry = tags.get(tagId);
+
+        if (entry != null) {
+            entry.usage += delta;
+            indexTag(entry);
+        }
+    }
+
+    private void indexTag(TagEntry entry) {
+        if (entry.name != null) {
+            tagNames.put(entry.trieKey(), entry.name, entry.usage);
+        }
+    }
+
+    private void unindexTag(TagEntry entry) {
+        if (entry.name != null) {
+            tagNames.remove(entry.trieKey());
+        }
+    }
+
+    private void putCertificate(Long certificateId, String name, Set<Long> tagIds) {
+        CertificateEntry previous = removeCertificate(certificateId);
+        long orders = previous == null ? 0 : previous.orders;
+        CertificateEntry entry = new CertificateEntry(name, new HashSet<>(tagIds), orders);
+
+        certificates.put(certificateId, entry);
+        entry.tagIds.forEach(tagId -> addUsage(tagId, 1));
+        addName(name, 1, orders);
+    }
+
+    private CertificateEntry removeCertificate(Long certificateId) {
+        CertificateEntry removed = certificates.remove(certificateId);
+
+        if (removed != null) {
+            removed.tagIds.forEach(tagId -> addUsage(tagId, -1));
+            addName(removed.name, -1, -removed.orders);
+        }
+        return removed;
+    }
+
+    private void addOrders(Long certificateId, long delta) {
+        CertificateEntry entry = certificates.get(certificateId);
+
+        if (entry != null) {
+            entry.orders += delta;
+            addName(entry.name, 0, delta);
+        }
+    }
+
+    /**
+     * Certificates sharing a name up to case are suggested once, with the orders of all of them.
+     */
+    private void addName(String name, int certificateDelta, long ordersDelta) {
+        if (name == null) {
+            return;
+        }
+
+        String key = key(name);
+        NameEntry entry = names.computeIfAbsent(key, ignored -> new NameEntry(name));
+        entry.certificates += certificateDelta;
+        entry.orders += ordersDelta;
+
+        if (entry.certificates <= 0) {
+            names.remove(key);
+            certificateNames.remove(key);
+        } else {
+            certificateNames.put(key, entry.name, entry.orders);
+        }
+    }
+
+    private static String key(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class TagEntry {
+
+        private final Long id;
+        private final String name;
+        private long usage;
+
+        private TagEntry(Long id, String name, long usage) {
+            this.id = id;
+            this.name = name;
+            this.usage = usage;
+        }
+
+        /**
+         * Tag names are unique only up to case, so the id keeps "Spa" and "spa" apart.
+         */
+        private String trieKey() {
+            return key(name) + '\0' + id;
+        }
+    }
+
+    private static final class CertificateEntry {
+
+        private final String name;
+        private final Set<Long> tagIds;
+        private long orders;
+
+        private CertificateEntry(String name, Set<Long> tagIds, long orders) {
+            this.name = name;
+            this.tagIds = tagIds;
+            this.orders = orders;
+        }
+    }
+
+    private static final class NameEntry {
+
+        private final String name;
+        private int certificates;
+        private long orders;
+
+        private NameEntry(String name) {
+            this.name = name;
+        }
+    }
+}
@@ -2,12 +2,15 @@ package com.epam.esm.epammodule4.service.implementation;
 
 import com.epam.esm.epammodule4.exception.TagAlreadyExistsException;
 import com.epam.esm.epammodule4.exception.TagNotFoundException;
+import com.epam.esm.epammodule4.model.TotalCount;
+import com.epam.esm.epammodule4.model.dto.CursorPage;
 import com.epam.esm.epammodule4.model.dto.request.CreateTagRequest;
 import com.epam.esm.epammodule4.model.dto.request.UpdateTagRequest;
 import com.epam.esm.epammodule4.model.entity.Tag;
 import com.epam.esm.epammodule4.model.entity.User;
 import com.epam.esm.epammodule4.repository.TagRepository;
 import com.epam.esm.epammodule4.service.TagService;
+import com.epam.esm.epammodule4.service.event.TagChangedEvent;
 
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
@@ -16,12 +19,16 @@ import com.epam.esm.epammodule4.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 
 @Slf4j
@@ -32,6 +39,9 @@ public class TagServiceImpl implements TagService {
     private final TagRepository tagRepository;
     private final UserService userService;
     private final ModelMapper modelMapper;
+    private final ApproximateRowCounter rowCounter;
+    private final CertificateSearchCache searchCache;
+    private final ApplicationEventPublisher eventPublisher;
     public final EntityManager entityManager;
 
     @Override
@@ -57,6 +67,33 @@ public class TagServiceImpl implements TagService {
         return foundTags;
     }
 
+    @Override
+    public Slice<Tag> findAll(Pageable pageable, TotalCount total) {
+        if (total == TotalCount.EXACT) {
+            return findAll(pageable);
+        }
+        log.debug("Retrieving tags with {} total. Page request: {}", total, pageable);
+
+        Slice<Tag> foundTags = tagRepository.findSlice(pageable);
+        if (total == TotalCount.APPROXIMATE) {
+            foundTags = rowCounter.withApproximateTotal(foundTags,
+                    () -> rowCounter.estimateTable("tag", tagRepository::count));
+        }
+
+        log.info("Retrieved {} tags, last page: {}", foundTags.getNumberOfElements(), foundTags.isLast());
+        return foundTags;
+    }
+
+    @Override
+    public CursorPage<Tag> findAll(String cursor, Pageable pageable) {
+        log.debug("Retrieving tags after cursor '{}'. Page request: {}", cursor, pageable);
+
+        CursorPage<Tag> foundTags = tagRepository.findAll(cursor, pageable);
+
+        log.info("Retrieved {} tags, last page: {}", foundTags.getSize(), foundTags.isLast());
+        return foundTags;
+    }
+
     @Override
     public Tag create(CreateTagRequest createTagRequest) {
         log.debug("Creating a new tag");
@@ -66,6 +103,7 @@ public class TagServiceImpl implements TagService {
 
         try {
             createdTag = tagRepository.save(newTag);
+            eventPublisher.publishEvent(new TagChangedEvent(createdTag.getId(), createdTag));
 
             log.info("Created a new tag with id {}", createdTag.getId());
             return createdTag;
@@ -89,9 +127,12 @@ public class TagServiceImpl implements TagService {
                     "Requested resource already exists (name = %s)".formatted(updateRequest.getName()));
         }
 
+        String previousName = foundTagById.getName();
         foundTagById.setName(updateRequest.getName());
 
         Tag updatedTag = tagRepository.save(foundTagById);
+        searchCache.invalidateTags(Arrays.asList(previousName, updatedTag.getName()));
+        eventPublisher.publishEvent(new TagChangedEvent(updatedTag.getId(), updatedTag));
 
         log.info("Updated a tag with id {}", updatedTag.getId());
         return updatedTag;
@@ -105,6 +146,8 @@ public class TagServiceImpl implements TagService {
         Tag foundTag = findById(id);
 
         tagRepository.delete(foundTag);
+        searchCache.invalidateTags(List.of(foundTag.getName()));
+        eventPublisher.publishEvent(new TagChangedEvent(foundTag.getId(), null));
 
         log.info("Tag with id {} is deleted", foundTag.getId());
     }
@@ -137,6 +180,7 @@ public class TagServiceImpl implements TagService {
             Tag newTag = modelMapper.map(createTagRequest, Tag.class);
 
             foundTag = Optional.of(tagRepository.save(newTag));
+            eventPublisher.publishEvent(new TagChangedEvent(foundTag.get().getId(), foundTag.get()));
             log.info("Created a new tag with name {}", newTagName);
         }
 
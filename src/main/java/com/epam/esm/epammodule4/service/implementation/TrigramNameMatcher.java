@@ -0,0 +1,230 @@
+package com.epam.esm.epammodule4.service.implementation;
+
+import com.epam.esm.epammodule4.repository.GiftCertificateRepository;
+import com.epam.esm.epammodule4.repository.TagRepository;
+import com.epam.esm.epammodule4.service.FuzzyNameMatcher;
+import com.epam.esm.epammodule4.service.event.BulkDataLoadedEvent;
+import com.epam.esm.epammodule4.service.event.GiftCertificateChangedEvent;
+import com.epam.esm.epammodule4.service.event.TagChangedEvent;
+import com.epam.esm.epammodule4.util.CompressedBitmap;
+import com.epam.esm.epammodule4.util.TextAnalyzer;
+import com.epam.esm.epammodule4.util.TrigramIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Fuzzy name matching over in-process trigram indexes: one of the distinct words of certificate names,
+ * each word holding the bitmap of certificates using it, and one of the distinct tag names.
+ * <p>
+ * Words are matched rather than whole names, so a typo costs the same in a short name and a long one.
+ * Built once the application is ready and then follows committed {@link GiftCertificateChangedEvent}s and
+ * {@link TagChangedEvent}s.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "app.search.engine", havingValue = "memory", matchIfMissing = true)
+public class TrigramNameMatcher implements FuzzyNameMatcher {
+
+    private final GiftCertificateRepository certificateRepository;
+    private final TagRepository tagRepository;
+    private final int maxDistance;
+
+    private final TrigramIndex certificateWords = new TrigramIndex();
+    private final Map<String, CompressedBitmap> certificatesByWord = new HashMap<>();
+    private final Map<Long, Set<String>> wordsByCertificate = new HashMap<>();
+    private final TrigramIndex tagKeys = new TrigramIndex();
+    private final Map<String, SortedMap<Long, String>> tagsByKey = new HashMap<>();
+    private final Map<Long, String> tagNames = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public TrigramNameMatcher(GiftCertificateRepository certificateRepository,
+                              TagRepository tagRepository,
+                              @Value("${app.search.fuzzy.max-distance}") int maxDistance) {
+        this.certificateRepository = certificateRepository;
+        this.tagRepository = tagRepository;
+        this.maxDistance = maxDistance;
+    }
+
+    @EventListener({ApplicationReadyEvent.class, BulkDataLoadedEvent.class})
+    public void rebuild() {
+        log.debug("Building the fuzzy name index");
+
+        List<Object[]> certificateRows = certificateRepository.findAllNames();
+        List<Object[]> tagRows = tagRepository.findAllNames();
+
+        lock.writeLock().lock();
+        try {
+            certificateRows.forEach(row -> putCertificate((Long) row[0], (String) row[1]));
+            tagRows.forEach(row -> putTag((Long) row[0], (String) row[1]));
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.info("Indexed {} certificate name words and {} tag names for fuzzy matching",
+                certificateWords.size(), tagKeys.size());
+    }
+
+    @Override
+    public List<Long> findCertificateIds(String name, int maxDistance) {
+        log.debug("Looking for certificates with a name like '{}'", name);
+
+        List<String> queryWords = TextAnalyzer.words(name).stream().distinct().toList();
+        int distance = cap(maxDistance);
+
+        if (queryWords.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Map<Long, Integer>> distancesByWord = new ArrayList<>(queryWords.size());
+
+            for (String queryWord : queryWords) {
+                Map<Long, Integer> distances = new HashMap<>();
+
+                certificateWords.search(queryWord, distance).forEach(match -> certificatesByWord.get(match.value())
+                        .forEach(id -> distances.merge((long) id, match.distance(), Math::min)));
+                distancesByWord.add(distances);
+            }
+            return rankByTotalDistance(distancesByWord);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<String> findTagName(String name, int maxDistance) {
+        lock.readLock().lock();
+        try {
+            return tagKeys.search(key(name), cap(maxDistance)).stream()
+                    .findFirst()
+                    .map(match -> tagsByKey.get(match.value()).values().iterator().next());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCertificateChanged(GiftCertificateChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            removeCertificate(event.getCertificateId());
+
+            if (!event.isDeleted()) {
+                putCertificate(event.getCertificateId(), event.getCertificate().getName());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTagChanged(TagChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            removeTag(event.getTagId());
+
+            if (!event.isDeleted()) {
+                putTag(event.getTagId(), event.getTag().getName());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Keeps the ids found for every query word, ordered by the sum of their per-word distances, then by id.
+     */
+    static List<Long> rankByTotalDistance(List<Map<Long, Integer>> distancesByWord) {
+        Map<Long, Integer> totals = new HashMap<>(distancesByWord.get(0));
+
+        for (Map<Long, Integer> distances : distancesByWord.subList(1, distancesByWord.size())) {
+            totals.keySet().retainAll(distances.keySet());
+            totals.replaceAll((id, total) -> total + distances.get(id));
+        }
+
+        return totals.entrySet().stream()
+                .sorted(Map.Entry.<Long, Integer>comparingByValue().thenComparing(Map.Entry.comparingByKey()))
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    private int cap(int distance) {
+        return Math.max(0, Math.min(distance, maxDistance));
+    }
+
+    private void putCertificate(Long certificateId, String name) {
+        Set<String> words = new HashSet<>(TextAnalyzer.words(name));
+        int index = Math.toIntExact(certificateId);
+
+        wordsByCertificate.put(certificateId, words);
+        words.forEach(word -> certificatesByWord.computeIfAbsent(word, key -> {
+            certificateWords.add(key);
+            return new CompressedBitmap();
+        }).add(index));
+    }
+
+    private void removeCertificate(Long certificateId) {
+        Set<String> words = wordsByCertificate.remove(certificateId);
+
+        if (words == null) {
+            return;
+        }
+
+        words.forEach(word -> {
+            CompressedBitmap certificates = certificatesByWord.get(word);
+            certificates.remove(Math.toIntExact(certificateId));
+
+            if (certificates.isEmpty()) {
+                certificatesByWord.remove(word);
+                certificateWords.remove(word);
+            }
+        });
+    }
+
+    /**
+     * Tag names are unique only up to case, so each key keeps its tags ordered by id and answers with the first.
+     */
+    private void putTag(Long tagId, String name) {
+        if (name == null) {
+            return;
+        }
+
+        tagNames.put(tagId, name);
+        tagsByKey.computeIfAbsent(key(name), key -> {
+            tagKeys.add(key);
+            return new TreeMap<>();
+        }).put(tagId, name);
+    }
+
+    private void removeTag(Long tagId) {
+        String name = tagNames.remove(tagId);
+
+        if (name == null) {
+            return;
+        }
+
+        String key = key(name);
+        SortedMap<Long, String> tags = tagsByKey.get(key);
+        tags.remove(tagId);
+
+        if (tags.isEmpty()) {
+            tagsByKey.remove(key);
+            tagKeys.remove(key);
+        }
+    }
+
+    static String key(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,5 +1,7 @@
 package com.epam.esm.epammodule4.service.implementation;
 
+import com.epam.esm.epammodule4.model.ERole;
+import com.epam.esm.epammodule4.model.entity.Role;
 import com.epam.esm.epammodule4.model.entity.User;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
@@ -28,9 +30,17 @@ public class UserDetailsImpl implements UserDetails {
 
     private Collection<? extends GrantedAuthority> authorities;
 
+    /**
+     * Takes the authorities from the role mask of the user, so the roles are not loaded; only a user
+     * without a mask yet falls back to them.
+     */
     public static UserDetailsImpl build(User user) {
-        List<GrantedAuthority> authorities = user.getRoles().stream()
-                .map(role -> new SimpleGrantedAuthority(role.getName().name()))
+        Collection<ERole> roles = user.getRoleMask() != null
+                ? ERole.fromMask(user.getRoleMask())
+                : user.getRoles().stream().map(Role::getName).toList();
+
+        List<GrantedAuthority> authorities = roles.stream()
+                .map(role -> new SimpleGrantedAuthority(role.name()))
                 .collect(Collectors.toList());
 
         return new UserDetailsImpl(
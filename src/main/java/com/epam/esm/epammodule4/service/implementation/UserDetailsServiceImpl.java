@@ -3,16 +3,19 @@ package com.epam.esm.epammodule4.service.implementation;
 import com.epam.esm.epammodule4.model.entity.User;
 import com.epam.esm.epammodule4.repository.UserRepository;
 import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 import javax.transaction.Transactional;
 
+@Slf4j
 @Service
 @AllArgsConstructor
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
 
@@ -24,4 +27,19 @@ public class UserDetailsServiceImpl implements UserDetailsService {
 
         return UserDetailsImpl.build(user);
     }
-}
\ No newline at end of file
+
+    /**
+     * Called after a successful login when the stored hash uses a lower BCrypt strength than configured.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePasswordByUsername(user.getUsername(), newPassword);
+
+        log.info("Upgraded password hash of user {}", user.getUsername());
+
+        UserDetailsImpl userDetails = (UserDetailsImpl) user;
+        userDetails.setPassword(newPassword);
+        return userDetails;
+    }
+}
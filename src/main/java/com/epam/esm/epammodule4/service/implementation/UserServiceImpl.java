@@ -2,6 +2,8 @@ package com.epam.esm.epammodule4.service.implementation;
 
 import com.epam.esm.epammodule4.exception.*;
 import com.epam.esm.epammodule4.model.ERole;
+import com.epam.esm.epammodule4.model.TotalCount;
+import com.epam.esm.epammodule4.model.dto.CursorPage;
 import com.epam.esm.epammodule4.model.dto.request.CreateUserRequest;
 import com.epam.esm.epammodule4.model.dto.request.UpdateUserRequest;
 import com.epam.esm.epammodule4.model.entity.Order;
@@ -9,20 +11,20 @@ import com.epam.esm.epammodule4.model.entity.Role;
 import com.epam.esm.epammodule4.model.entity.User;
 import com.epam.esm.epammodule4.repository.OrderRepository;
 import com.epam.esm.epammodule4.repository.PageableUserRepository;
-import com.epam.esm.epammodule4.repository.RoleRepository;
 import com.epam.esm.epammodule4.repository.UserRepository;
+import com.epam.esm.epammodule4.security.CurrentUser;
 import com.epam.esm.epammodule4.service.UserService;
+import com.epam.esm.epammodule4.service.event.UserChangedEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.core.oidc.user.OidcUser;
 import org.springframework.stereotype.Service;
@@ -39,9 +41,12 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final PageableUserRepository pageableUserRepository;
-    private final RoleRepository roleRepository;
+    private final RoleCatalog roleCatalog;
     private final OrderRepository orderRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CurrentUser currentUser;
+    private final ApproximateRowCounter rowCounter;
 
     @Override
     public User findById(Long id) {
@@ -68,6 +73,33 @@ public class UserServiceImpl implements UserService {
         return users;
     }
 
+    @Override
+    public Slice<User> findAll(Pageable pageable, TotalCount total) {
+        if (total == TotalCount.EXACT) {
+            return findAll(pageable);
+        }
+        log.debug("Retrieving users with {} total. Page request: {}", total, pageable);
+
+        Slice<User> users = pageableUserRepository.findSlice(pageable);
+        if (total == TotalCount.APPROXIMATE) {
+            users = rowCounter.withApproximateTotal(users,
+                    () -> rowCounter.estimateTable("customer", pageableUserRepository::count));
+        }
+
+        log.info("Retrieved {} users, last page: {}", users.getNumberOfElements(), users.isLast());
+        return users;
+    }
+
+    @Override
+    public CursorPage<User> findAll(String cursor, Pageable pageable) {
+        log.debug("Retrieving users after cursor '{}'. Page request: {}", cursor, pageable);
+
+        CursorPage<User> users = pageableUserRepository.findAll(cursor, pageable);
+
+        log.info("Retrieved {} users, last page: {}", users.getSize(), users.isLast());
+        return users;
+    }
+
     @Override
     public User findByName(String name) {
         log.debug("Looking for a user with name {}", name);
@@ -152,8 +184,12 @@ public class UserServiceImpl implements UserService {
                 user.setRoles(parseRoles(roles))
         );
 
+        boolean credentialsChanged = ofNullable(updateRequest.getPassword()).isPresent()
+                || ofNullable(updateRequest.getRole()).isPresent();
+
         try {
             User updatedUser = userRepository.save(user);
+            eventPublisher.publishEvent(new UserChangedEvent(updatedUser.getId(), credentialsChanged));
 
             log.info("Updated a user with id {}", updatedUser.getId());
             return updatedUser;
@@ -179,6 +215,7 @@ public class UserServiceImpl implements UserService {
         }
 
         userRepository.delete(foundUser);
+        eventPublisher.publishEvent(new UserChangedEvent(foundUser.getId(), true));
 
         log.info("User with id {} is deleted", foundUser.getId());
     }
@@ -205,16 +242,7 @@ public class UserServiceImpl implements UserService {
     }
 
     public void checkIdOfCurrentUser(Long id) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-
-        Object principal = authentication.getPrincipal();
-        String username = ((UserDetails) principal).getUsername();
-        User user = findByUsername(username);
-
-        Collection<? extends GrantedAuthority> authorities = authentication.getAuthorities();
-        boolean roleAdmin = authorities.contains(new SimpleGrantedAuthority("ROLE_ADMIN"));
-
-        if (!roleAdmin && user.getId() != id) {
+        if (!currentUser.isAdmin() && (currentUser.getId() == null || !currentUser.getId().equals(id))) {
             throw new UserIdIncorrectException(
                     "User id (%d) belongs to another user".formatted(id)
             );
@@ -225,17 +253,13 @@ public class UserServiceImpl implements UserService {
         Set<Role> roles = new HashSet<>();
 
         if (ofNullable(strRoles).isEmpty()) {
-            Role userRole = roleRepository.findByName(ERole.ROLE_USER)
-                    .orElseThrow(() -> new RoleNotFoundException("Error: Role USER is not found."));
-            roles.add(userRole);
+            roles.add(roleCatalog.get(ERole.ROLE_USER));
         } else {
             strRoles.forEach(role -> {
                 if (role.equals("admin")) {
                     throw new RoleNotFoundException("Role ADMIN cannot be assigned on registration.");
                 } else {
-                    Role userRole = roleRepository.findByName(ERole.ROLE_USER)
-                            .orElseThrow(() -> new RoleNotFoundException("Role USER is not found."));
-                    roles.add(userRole);
+                    roles.add(roleCatalog.get(ERole.ROLE_USER));
                 }
             });
         }
@@ -1,16 +1,24 @@
 package com.epam.esm.epammodule4.service.mapper;
 
+import com.epam.esm.epammodule4.model.OrderRow;
+import com.epam.esm.epammodule4.model.dto.GiftCertificateDto;
 import com.epam.esm.epammodule4.model.dto.OrderDto;
+import com.epam.esm.epammodule4.model.dto.TagDto;
 import com.epam.esm.epammodule4.model.dto.UserDto;
 import com.epam.esm.epammodule4.model.dto.request.CreateOrderRequest;
 import com.epam.esm.epammodule4.model.entity.GiftCertificate;
 import com.epam.esm.epammodule4.model.entity.Order;
+import com.epam.esm.epammodule4.model.entity.Role;
 import com.epam.esm.epammodule4.model.entity.User;
 import com.epam.esm.epammodule4.util.DateUtil;
 import lombok.AllArgsConstructor;
 import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Component;
 
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
 @Component
 @AllArgsConstructor
 public class OrderMapper {
@@ -48,4 +56,39 @@ public class OrderMapper {
 
         return orderDto;
     }
+
+    public OrderDto toDto(OrderRow row, List<TagDto> tags, Set<Role> roles) {
+        UserDto userDto = UserDto.builder()
+                .id(row.userId())
+                .email(row.userEmail())
+                .name(row.userName())
+                .username(row.username())
+                .password(row.userPassword())
+                .roles(roles)
+                .build();
+
+        GiftCertificateDto certificateDto = GiftCertificateDto.builder()
+                .id(row.certificateId())
+                .name(row.certificateName())
+                .description(row.certificateDescription())
+                .price(row.certificatePrice())
+                .duration(row.certificateDuration())
+                .tags(tags)
+                .createDate(toIso8601Format(row.certificateCreateDate()))
+                .lastUpdateDate(toIso8601Format(row.certificateLastUpdateDate()))
+                .build();
+
+        return OrderDto.builder()
+                .id(row.id())
+                .price(row.price())
+                .user(userDto)
+                .certificate(certificateDto)
+                .createDate(toIso8601Format(row.createDate()))
+                .lastUpdateDate(toIso8601Format(row.lastUpdateDate()))
+                .build();
+    }
+
+    private String toIso8601Format(Instant instant) {
+        return instant == null ? null : dateUtil.toIso8601Format(instant);
+    }
 }
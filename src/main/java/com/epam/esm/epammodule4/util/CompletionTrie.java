@@ -0,0 +1,251 @@
+package com.epam.esm.epammodule4.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Radix tree of completion keys, each mapped to a display value and a score, answering "best completions
+ * of a prefix" without visiting the whole subtree.
+ * <p>
+ * Edges carry string labels, so chains of single-child nodes are collapsed. Every node keeps the best
+ * score found below it; a completion query walks to the prefix and then expands nodes best first, so it
+ * stops after {@code limit} results. Not thread-safe.
+ */
+public class CompletionTrie {
+
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    /**
+     * A node is keyed by the path leading to it, which sorts before every key in its subtree, so among equal
+     * scores a subtree is expanded only once no completion with a smaller key can be returned instead.
+     */
+    private static final Comparator<Candidate> BEST_FIRST = Comparator
+            .comparingLong(Candidate::score).reversed()
+            .thenComparing(Candidate::key)
+            .thenComparing(candidate -> candidate.node() == null);
+
+    private final Node root = new Node("");
+    private int size;
+
+    public record Completion(String value, long score) {
+    }
+
+    /**
+     * Maps {@code key} to {@code value} and {@code score}, replacing a previous mapping of the key.
+     */
+    public void put(String key, String value, long score) {
+        if (value == null) {
+            throw new IllegalArgumentException("Completion value must not be null");
+        }
+        if (put(root, key, value, score)) {
+            size++;
+        }
+    }
+
+    public boolean remove(String key) {
+        boolean removed = remove(root, key);
+        if (removed) {
+            size--;
+        }
+        return removed;
+    }
+
+    /**
+     * Returns up to {@code limit} values whose key starts with {@code prefix}, highest score first and
+     * in key order among equal scores.
+     */
+    public List<Completion> complete(String prefix, int limit) {
+        Node start = root;
+        String path = "";
+
+        while (path.length() < prefix.length()) {
+            Node child = start.child(prefix.charAt(path.length()));
+            if (child == null) {
+                return List.of();
+            }
+
+            String rest = prefix.substring(path.length());
+            if (commonPrefix(child.label, rest) < Math.min(child.label.length(), rest.length())) {
+                return List.of();
+            }
+            path += child.label;
+            start = child;
+        }
+
+        List<Completion> completions = new ArrayList<>(Math.max(0, Math.min(limit, size)));
+        PriorityQueue<Candidate> queue = new PriorityQueue<>(BEST_FIRST);
+        if (start.maxScore != Long.MIN_VALUE) {
+            queue.add(new Candidate(start, path, null, start.maxScore));
+        }
+
+        while (!queue.isEmpty() && completions.size() < limit) {
+            Candidate candidate = queue.poll();
+            Node node = candidate.node();
+
+            if (node == null) {
+                completions.add(new Completion(candidate.value(), candidate.score()));
+                continue;
+            }
+            if (node.value != null) {
+                queue.add(new Candidate(null, candidate.key(), node.value, node.score));
+            }
+            for (Node child : node.children) {
+                queue.add(new Candidate(child, candidate.key() + child.label, null, child.maxScore));
+            }
+        }
+        return completions;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static boolean put(Node node, String key, String value, long score) {
+        boolean added;
+
+        if (key.isEmpty()) {
+            added = node.value == null;
+            node.value = value;
+            node.score = score;
+        } else {
+            Node child = node.child(key.charAt(0));
+
+            if (child == null) {
+                child = new Node(key);
+                node.addChild(child);
+            } else if (commonPrefix(child.label, key) < child.label.length()) {
+                child = node.split(child, commonPrefix(child.label, key));
+            }
+            added = put(child, key.substring(child.label.length()), value, score);
+        }
+
+        node.updateMaxScore();
+        return added;
+    }
+
+    private static boolean remove(Node node, String key) {
+        boolean removed;
+
+        if (key.isEmpty()) {
+            removed = node.value != null;
+            node.value = null;
+        } else {
+            Node child = node.child(key.charAt(0));
+            if (child == null || !key.startsWith(child.label)) {
+                return false;
+            }
+
+            removed = remove(child, key.substring(child.label.length()));
+            if (child.value == null && child.children.length == 0) {
+                node.removeChild(child);
+            } else if (child.value == null && child.children.length == 1) {
+                node.merge(child);
+            }
+        }
+
+        node.updateMaxScore();
+        return removed;
+    }
+
+    private static int commonPrefix(String left, String right) {
+        int length = Math.min(left.length(), right.length());
+        int i = 0;
+
+        while (i < length && left.charAt(i) == right.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private record Candidate(Node node, String key, String value, long score) {
+    }
+
+    private static final class Node {
+
+        private String label;
+        private Node[] children = NO_CHILDREN;
+        private String value;
+        private long score;
+        private long maxScore = Long.MIN_VALUE;
+
+        private Node(String label) {
+            this.label = label;
+        }
+
+        private Node child(char first) {
+            int index = indexOf(first);
+            return index >= 0 ? children[index] : null;
+        }
+
+        private void addChild(Node child) {
+            int index = -indexOf(child.label.charAt(0)) - 1;
+            Node[] grown = new Node[children.length + 1];
+
+            System.arraycopy(children, 0, grown, 0, index);
+            grown[index] = child;
+            System.arraycopy(children, index, grown, index + 1, children.length - index);
+            children = grown;
+        }
+
+        private void removeChild(Node child) {
+            int index = indexOf(child.label.charAt(0));
+            Node[] shrunk = new Node[children.length - 1];
+
+            System.arraycopy(children, 0, shrunk, 0, index);
+            System.arraycopy(children, index + 1, shrunk, index, children.length - index - 1);
+            children = shrunk.length == 0 ? NO_CHILDREN : shrunk;
+        }
+
+        /**
+         * Splits the edge to {@code child} after {@code at} characters and returns the new middle node.
+         */
+        private Node split(Node child, int at) {
+            int index = indexOf(child.label.charAt(0));
+            Node middle = new Node(child.label.substring(0, at));
+            child.label = child.label.substring(at);
+            middle.children = new Node[]{child};
+            middle.maxScore = child.maxScore;
+
+            children[index] = middle;
+            return middle;
+        }
+
+        /**
+         * Replaces a valueless {@code child} with its only child, keeping the tree compact after a removal.
+         */
+        private void merge(Node child) {
+            Node grandchild = child.children[0];
+            grandchild.label = child.label + grandchild.label;
+            children[indexOf(child.label.charAt(0))] = grandchild;
+        }
+
+        private void updateMaxScore() {
+            long best = value != null ? score : Long.MIN_VALUE;
+            for (Node child : children) {
+                best = Math.max(best, child.maxScore);
+            }
+            maxScore = best;
+        }
+
+        private int indexOf(char first) {
+            int low = 0;
+            int high = children.length - 1;
+
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                char current = children[middle].label.charAt(0);
+
+                if (current < first) {
+                    low = middle + 1;
+                } else if (current > first) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return -(low + 1);
+        }
+    }
+}
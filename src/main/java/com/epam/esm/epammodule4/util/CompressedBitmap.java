@@ -0,0 +1,546 @@
+package com.epam.esm.epammodule4.util;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Compressed set of non-negative ints in the layout of Roaring bitmaps.
+ * <p>
+ * Values are split by their high 16 bits into chunks of 65536. A chunk holding at most
+ * {@link #ARRAY_MAX_SIZE} values is kept as a sorted {@code char[]}, a denser one as a plain 8 KiB bitset,
+ * so sparse and dense id ranges both stay small and set operations run chunk by chunk on words.
+ * Not thread-safe.
+ */
+public final class CompressedBitmap {
+
+    static final int ARRAY_MAX_SIZE = 4096;
+
+    private char[] keys = new char[4];
+    private Container[] containers = new Container[4];
+    private int size;
+
+    /**
+     * Builds the set of {@code values}, given in any order, in linear time: each value sets its bit in the
+     * bitset of its chunk, and chunks left sparse are compacted to arrays afterwards.
+     */
+    public static CompressedBitmap of(int... values) {
+        long[][] chunks = new long[0][];
+
+        for (int value : values) {
+            checkValue(value);
+            int key = value >>> 16;
+
+            if (key >= chunks.length) {
+                chunks = Arrays.copyOf(chunks, Math.max(key + 1, chunks.length * 2));
+            }
+            if (chunks[key] == null) {
+                chunks[key] = new long[1024];
+            }
+            chunks[key][(char) value >>> 6] |= 1L << value;
+        }
+
+        CompressedBitmap bitmap = new CompressedBitmap();
+        for (int key = 0; key < chunks.length; key++) {
+            if (chunks[key] != null) {
+                bitmap.appendIfNotEmpty((char) key, BitmapContainer.compact(chunks[key]));
+            }
+        }
+        return bitmap;
+    }
+
+    public void add(int value) {
+        checkValue(value);
+        char key = (char) (value >>> 16);
+        int position = findKey(key);
+
+        if (position >= 0) {
+            containers[position] = containers[position].add((char) value);
+        } else {
+            insertContainer(-position - 1, key, new ArrayContainer().add((char) value));
+        }
+    }
+
+    public void remove(int value) {
+        if (value < 0) {
+            return;
+        }
+
+        int position = findKey((char) (value >>> 16));
+
+        if (position >= 0) {
+            Container container = containers[position].remove((char) value);
+
+            if (container.cardinality() == 0) {
+                removeContainer(position);
+            } else {
+                containers[position] = container;
+            }
+        }
+    }
+
+    public boolean contains(int value) {
+        if (value < 0) {
+            return false;
+        }
+
+        int position = findKey((char) (value >>> 16));
+        return position >= 0 && containers[position].contains((char) value);
+    }
+
+    public long getCardinality() {
+        long cardinality = 0;
+
+        for (int i = 0; i < size; i++) {
+            cardinality += containers[i].cardinality();
+        }
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void forEach(IntConsumer consumer) {
+        for (int i = 0; i < size; i++) {
+            containers[i].forEach(keys[i] << 16, consumer);
+        }
+    }
+
+    public int[] toArray() {
+        return range(0, (int) Math.min(getCardinality(), Integer.MAX_VALUE));
+    }
+
+    /**
+     * Returns up to {@code count} values in ascending order, starting with the value of rank {@code fromRank}.
+     * Whole chunks before the start are skipped by their cardinality.
+     */
+    public int[] range(long fromRank, int count) {
+        int[] values = new int[(int) Math.max(0, Math.min(count, getCardinality() - fromRank))];
+        long skip = fromRank;
+        int filled = 0;
+
+        for (int i = 0; i < size && filled < values.length; i++) {
+            int cardinality = containers[i].cardinality();
+
+            if (skip >= cardinality) {
+                skip -= cardinality;
+                continue;
+            }
+
+            filled = containers[i].fill(keys[i] << 16, (int) skip, values, filled);
+            skip = 0;
+        }
+        return values;
+    }
+
+    public static CompressedBitmap and(CompressedBitmap left, CompressedBitmap right) {
+        CompressedBitmap result = new CompressedBitmap();
+        int i = 0;
+        int j = 0;
+
+        while (i < left.size && j < right.size) {
+            if (left.keys[i] < right.keys[j]) {
+                i++;
+            } else if (left.keys[i] > right.keys[j]) {
+                j++;
+            } else {
+                result.appendIfNotEmpty(left.keys[i], left.containers[i++].and(right.containers[j++]));
+            }
+        }
+        return result;
+    }
+
+    public static CompressedBitmap or(CompressedBitmap left, CompressedBitmap right) {
+        CompressedBitmap result = new CompressedBitmap();
+        int i = 0;
+        int j = 0;
+
+        while (i < left.size || j < right.size) {
+            if (j == right.size || i < left.size && left.keys[i] < right.keys[j]) {
+                result.appendIfNotEmpty(left.keys[i], left.containers[i++].copy());
+            } else if (i == left.size || left.keys[i] > right.keys[j]) {
+                result.appendIfNotEmpty(right.keys[j], right.containers[j++].copy());
+            } else {
+                result.appendIfNotEmpty(left.keys[i], left.containers[i++].or(right.containers[j++]));
+            }
+        }
+        return result;
+    }
+
+    public static CompressedBitmap andNot(CompressedBitmap left, CompressedBitmap right) {
+        CompressedBitmap result = new CompressedBitmap();
+        int j = 0;
+
+        for (int i = 0; i < left.size; i++) {
+            while (j < right.size && right.keys[j] < left.keys[i]) {
+                j++;
+            }
+
+            Container container = j < right.size && right.keys[j] == left.keys[i]
+                    ? left.containers[i].andNot(right.containers[j])
+                    : left.containers[i].copy();
+            result.appendIfNotEmpty(left.keys[i], container);
+        }
+        return result;
+    }
+
+    private static void checkValue(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Only non-negative values are supported: " + value);
+        }
+    }
+
+    private int findKey(char key) {
+        return Arrays.binarySearch(keys, 0, size, key);
+    }
+
+    private void appendIfNotEmpty(char key, Container container) {
+        if (container.cardinality() > 0) {
+            insertContainer(size, key, container);
+        }
+    }
+
+    private void insertContainer(int position, char key, Container container) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            containers = Arrays.copyOf(containers, size * 2);
+        }
+
+        System.arraycopy(keys, position, keys, position + 1, size - position);
+        System.arraycopy(containers, position, containers, position + 1, size - position);
+        keys[position] = key;
+        containers[position] = container;
+        size++;
+    }
+
+    private void removeContainer(int position) {
+        System.arraycopy(keys, position + 1, keys, position, size - position - 1);
+        System.arraycopy(containers, position + 1, containers, position, size - position - 1);
+        containers[--size] = null;
+    }
+
+    /**
+     * One chunk of 65536 values. Mutators return the container to keep, which may have changed its type.
+     */
+    private abstract static class Container {
+
+        abstract Container add(char value);
+
+        abstract Container remove(char value);
+
+        abstract boolean contains(char value);
+
+        abstract int cardinality();
+
+        abstract Container copy();
+
+        abstract Container and(Container other);
+
+        abstract Container or(Container other);
+
+        abstract Container andNot(Container other);
+
+        abstract void forEach(int high, IntConsumer consumer);
+
+        abstract int fill(int high, int skip, int[] values, int filled);
+    }
+
+    private static final class ArrayContainer extends Container {
+
+        private char[] values;
+        private int cardinality;
+
+        ArrayContainer() {
+            this(new char[4], 0);
+        }
+
+        ArrayContainer(char[] values, int cardinality) {
+            this.values = values;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        Container add(char value) {
+            int position = Arrays.binarySearch(values, 0, cardinality, value);
+
+            if (position >= 0) {
+                return this;
+            }
+            if (cardinality == ARRAY_MAX_SIZE) {
+                return toBitmap().add(value);
+            }
+
+            position = -position - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(Math.max(cardinality * 2, 4), ARRAY_MAX_SIZE));
+            }
+
+            System.arraycopy(values, position, values, position + 1, cardinality - position);
+            values[position] = value;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            int position = Arrays.binarySearch(values, 0, cardinality, value);
+
+            if (position >= 0) {
+                System.arraycopy(values, position + 1, values, position, cardinality - position - 1);
+                cardinality--;
+            }
+            return this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, cardinality), cardinality);
+        }
+
+        @Override
+        Container and(Container other) {
+            char[] result = new char[cardinality];
+            int count = 0;
+
+            for (int i = 0; i < cardinality; i++) {
+                if (other.contains(values[i])) {
+                    result[count++] = values[i];
+                }
+            }
+            return new ArrayContainer(result, count);
+        }
+
+        @Override
+        Container or(Container other) {
+            if (other instanceof BitmapContainer) {
+                return other.or(this);
+            }
+
+            ArrayContainer array = (ArrayContainer) other;
+            char[] result = new char[cardinality + array.cardinality];
+            int count = 0;
+            int i = 0;
+            int j = 0;
+
+            while (i < cardinality || j < array.cardinality) {
+                if (j == array.cardinality || i < cardinality && values[i] < array.values[j]) {
+                    result[count++] = values[i++];
+                } else if (i == cardinality || values[i] > array.values[j]) {
+                    result[count++] = array.values[j++];
+                } else {
+                    result[count++] = values[i++];
+                    j++;
+                }
+            }
+
+            ArrayContainer union = new ArrayContainer(result, count);
+            return count > ARRAY_MAX_SIZE ? union.toBitmap() : union;
+        }
+
+        @Override
+        Container andNot(Container other) {
+            char[] result = new char[cardinality];
+            int count = 0;
+
+            for (int i = 0; i < cardinality; i++) {
+                if (!other.contains(values[i])) {
+                    result[count++] = values[i];
+                }
+            }
+            return new ArrayContainer(result, count);
+        }
+
+        @Override
+        void forEach(int high, IntConsumer consumer) {
+            for (int i = 0; i < cardinality; i++) {
+                consumer.accept(high | values[i]);
+            }
+        }
+
+        @Override
+        int fill(int high, int skip, int[] target, int filled) {
+            for (int i = skip; i < cardinality && filled < target.length; i++) {
+                target[filled++] = high | values[i];
+            }
+            return filled;
+        }
+
+        BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer();
+
+            for (int i = 0; i < cardinality; i++) {
+                bitmap.add(values[i]);
+            }
+            return bitmap;
+        }
+    }
+
+    private static final class BitmapContainer extends Container {
+
+        private final long[] words;
+        private int cardinality;
+
+        BitmapContainer() {
+            this(new long[1024], 0);
+        }
+
+        BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        Container add(char value) {
+            long before = words[value >>> 6];
+            words[value >>> 6] = before | 1L << value;
+            if (before != words[value >>> 6]) {
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            long before = words[value >>> 6];
+            words[value >>> 6] = before & ~(1L << value);
+            if (before != words[value >>> 6]) {
+                cardinality--;
+            }
+            return cardinality <= ARRAY_MAX_SIZE ? toArray() : this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return (words[value >>> 6] & 1L << value) != 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        Container copy() {
+            return new BitmapContainer(words.clone(), cardinality);
+        }
+
+        @Override
+        Container and(Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.and(this);
+            }
+
+            long[] otherWords = ((BitmapContainer) other).words;
+            long[] result = new long[words.length];
+
+            for (int i = 0; i < words.length; i++) {
+                result[i] = words[i] & otherWords[i];
+            }
+            return compact(result);
+        }
+
+        @Override
+        Container or(Container other) {
+            if (other instanceof ArrayContainer array) {
+                BitmapContainer union = (BitmapContainer) copy();
+
+                for (int i = 0; i < array.cardinality; i++) {
+                    union.add(array.values[i]);
+                }
+                return union;
+            }
+
+            long[] otherWords = ((BitmapContainer) other).words;
+            long[] result = new long[words.length];
+
+            for (int i = 0; i < words.length; i++) {
+                result[i] = words[i] | otherWords[i];
+            }
+            return compact(result);
+        }
+
+        @Override
+        Container andNot(Container other) {
+            long[] result = words.clone();
+
+            if (other instanceof BitmapContainer bitmap) {
+                for (int i = 0; i < words.length; i++) {
+                    result[i] &= ~bitmap.words[i];
+                }
+            } else {
+                ArrayContainer array = (ArrayContainer) other;
+
+                for (int i = 0; i < array.cardinality; i++) {
+                    result[array.values[i] >>> 6] &= ~(1L << array.values[i]);
+                }
+            }
+            return compact(result);
+        }
+
+        @Override
+        void forEach(int high, IntConsumer consumer) {
+            for (int i = 0; i < words.length; i++) {
+                long word = words[i];
+
+                while (word != 0) {
+                    consumer.accept(high | i << 6 | Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+        }
+
+        @Override
+        int fill(int high, int skip, int[] target, int filled) {
+            int remaining = skip;
+
+            for (int i = 0; i < words.length && filled < target.length; i++) {
+                long word = words[i];
+                int bits = Long.bitCount(word);
+
+                if (remaining >= bits) {
+                    remaining -= bits;
+                    continue;
+                }
+
+                while (word != 0 && filled < target.length) {
+                    if (remaining > 0) {
+                        remaining--;
+                    } else {
+                        target[filled++] = high | i << 6 | Long.numberOfTrailingZeros(word);
+                    }
+                    word &= word - 1;
+                }
+            }
+            return filled;
+        }
+
+        private static Container compact(long[] words) {
+            int cardinality = 0;
+
+            for (long word : words) {
+                cardinality += Long.bitCount(word);
+            }
+
+            BitmapContainer bitmap = new BitmapContainer(words, cardinality);
+            return cardinality <= ARRAY_MAX_SIZE ? bitmap.toArray() : bitmap;
+        }
+
+        private ArrayContainer toArray() {
+            char[] values = new char[cardinality];
+            int[] count = {0};
+
+            forEach(0, value -> values[count[0]++] = (char) value);
+            return new ArrayContainer(values, cardinality);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.epam.esm.epammodule4.util;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free Bloom filter over strings. Bits are set with atomic OR, so concurrent
+ * {@link #put} and {@link #mightContain} calls never block each other.
+ * Probe positions come from double hashing of one 64-bit hash.
+ */
+public class ConcurrentBloomFilter {
+
+    private final AtomicLongArray words;
+    private final int bitSize;
+    private final int hashCount;
+
+    public ConcurrentBloomFilter(int expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Expected insertions must be positive and false positive rate in (0, 1)");
+        }
+
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bitSize = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(64, bits));
+        this.hashCount = Math.max(1, (int) Math.round((double) bitSize / expectedInsertions * Math.log(2)));
+        this.words = new AtomicLongArray((bitSize + 63) / 64);
+    }
+
+    private ConcurrentBloomFilter(int bitSize, int hashCount, long[] words) {
+        this.bitSize = bitSize;
+        this.hashCount = hashCount;
+        this.words = new AtomicLongArray(words);
+    }
+
+    public void put(String value) {
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+
+        for (int i = 1; i <= hashCount; i++) {
+            int bit = index(h1 + i * h2);
+            words.accumulateAndGet(bit >>> 6, 1L << bit, (word, mask) -> word | mask);
+        }
+    }
+
+    public boolean mightContain(String value) {
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+
+        for (int i = 1; i <= hashCount; i++) {
+            int bit = index(h1 + i * h2);
+
+            if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    public int getBitSize() {
+        return bitSize;
+    }
+
+    public int getHashCount() {
+        return hashCount;
+    }
+
+    public void writeTo(DataOutput output) throws IOException {
+        output.writeInt(bitSize);
+        output.writeInt(hashCount);
+        output.writeInt(words.length());
+
+        for (int i = 0; i < words.length(); i++) {
+            output.writeLong(words.get(i));
+        }
+    }
+
+    public static ConcurrentBloomFilter readFrom(DataInput input) throws IOException {
+        int bitSize = input.readInt();
+        int hashCount = input.readInt();
+        long[] words = new long[input.readInt()];
+
+        if (bitSize <= 0 || hashCount <= 0 || words.length != (bitSize + 63) / 64) {
+            throw new IOException("Corrupted Bloom filter header");
+        }
+
+        for (int i = 0; i < words.length; i++) {
+            words[i] = input.readLong();
+        }
+
+        return new ConcurrentBloomFilter(bitSize, hashCount, words);
+    }
+
+    private int index(int combinedHash) {
+        return (combinedHash < 0 ? ~combinedHash : combinedHash) % bitSize;
+    }
+
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+
+        return hash;
+    }
+}
@@ -1,108 +1,319 @@
 package com.epam.esm.epammodule4.util;
 
-import com.epam.esm.epammodule4.model.entity.GiftCertificate;
-import com.epam.esm.epammodule4.model.entity.Order;
-import com.epam.esm.epammodule4.model.entity.Tag;
-import com.epam.esm.epammodule4.model.entity.User;
-import com.epam.esm.epammodule4.repository.GiftCertificateRepository;
-import com.epam.esm.epammodule4.repository.OrderRepository;
-import com.epam.esm.epammodule4.repository.TagRepository;
-import com.epam.esm.epammodule4.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
+import com.epam.esm.epammodule4.model.entity.*;
+import com.epam.esm.epammodule4.service.event.BulkDataLoadedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.hibernate.query.NativeQuery;
 import org.kohsuke.randname.RandomNameGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.ThreadLocalRandom;
-
-import static java.util.Optional.ofNullable;
+import javax.persistence.EntityManagerFactory;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Bulk generator of test data: tags, then users and certificates, then orders.
+ * <p>
+ * Each phase is cut into chunks of {@code app.initial-data.chunk-size} rows written in parallel, each chunk
+ * in one transaction of its own {@link StatelessSession}, so no persistence context builds up. Entities go
+ * out as JDBC batches, which pgjdbc rewrites into multi-row inserts, and certificate tags as multi-row
+ * inserts. A chunk is generated from a random seed of its own and records itself as a {@link SeedChunk} in
+ * its transaction, so a run that stopped is resumed by running it again with the same settings.
+ * <p>
+ * Certificates take their tags and orders their users by a Zipf distribution over the ids, with the
+ * exponents {@code app.initial-data.tag-skew} and {@code order-skew}; 0 spreads them evenly. Written rows
+ * are counted by the {@code initial-data.rows} meter. Entity listeners do not run for stateless inserts,
+ * so dates and role masks are set here, and no change events are published; a single
+ * {@link BulkDataLoadedEvent} once the run ends has the in-memory indexes reload from the database.
+ */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class GenerateInitialDataImpl {
 
-    private final TagRepository tagRepository;
-    private final GiftCertificateRepository certificateRepository;
-    private final UserRepository userRepository;
-    private final OrderRepository orderRepository;
+    private static final String METRIC_NAME = "initial-data.rows";
+    private static final int TAG_ROWS_PER_INSERT = 500;
+    private static final long HISTORY_SECONDS = 365L * 24 * 60 * 60;
 
-    public void generate(int numberOfRecords) {
-        log.info("Generating entities for {} records each", numberOfRecords);
-        RandomNameGenerator rnd = new RandomNameGenerator();
+    private final SessionFactory sessionFactory;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int threads;
+    private final int chunkSize;
+    private final int tags;
+    private final int tagsPerCertificate;
+    private final double tagSkew;
+    private final double orderSkew;
+    private final long seed;
+    private final Map<Phase, Counter> rowCounters = new EnumMap<>(Phase.class);
+
+    private enum Phase {
+        TAGS, USERS, CERTIFICATES, ORDERS;
+
+        String key() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ChunkWriter {
+
+        void write(StatelessSession session, SplittableRandom random, int from, int to);
+    }
+
+    public GenerateInitialDataImpl(EntityManagerFactory entityManagerFactory,
+                                   ApplicationEventPublisher eventPublisher,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${app.initial-data.threads}") int threads,
+                                   @Value("${app.initial-data.chunk-size}") int chunkSize,
+                                   @Value("${app.initial-data.tags}") int tags,
+                                   @Value("${app.initial-data.tags-per-certificate}") int tagsPerCertificate,
+                                   @Value("${app.initial-data.tag-skew}") double tagSkew,
+                                   @Value("${app.initial-data.order-skew}") double orderSkew,
+                                   @Value("${app.initial-data.seed}") long seed) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.eventPublisher = eventPublisher;
+        this.threads = threads;
+        this.chunkSize = chunkSize;
+        this.tags = tags;
+        this.tagsPerCertificate = tagsPerCertificate;
+        this.tagSkew = tagSkew;
+        this.orderSkew = orderSkew;
+        this.seed = seed;
+
+        for (Phase phase : Phase.values()) {
+            rowCounters.put(phase, Counter.builder(METRIC_NAME)
+                    .tag("entity", phase.key())
+                    .description("Rows written by the initial data generator")
+                    .register(meterRegistry));
+        }
+    }
 
-        Tag previousTag = null;
+    /**
+     * Runs {@link #generate(int)} on a thread of its own, so that the caller is not blocked.
+     */
+    public CompletableFuture<Void> generateAsync(int numberOfRecords) {
+        return CompletableFuture.runAsync(() -> generate(numberOfRecords), task -> {
+            Thread thread = new Thread(task, "initial-data");
+            thread.setDaemon(true);
+            thread.start();
+        });
+    }
 
-        for (int i = 0; i < numberOfRecords; i++) {
-            Tag tag = generateTag(rnd);
-            tagRepository.save(tag);
+    public void generate(int numberOfRecords) {
+        if (numberOfRecords <= 0) {
+            return;
+        }
 
-//            Long id = Long.valueOf(getRandomInt(1, 10));
-//            Tag tag = tagRepository.findById(id).get();
+        String run = "%d-%d-%d-%d".formatted(numberOfRecords, tags, chunkSize, seed);
+        Set<String> completed = findCompletedChunks(run);
+        log.info("Generating {} tags and {} users, certificates and orders on {} threads, run {}, {} chunks done",
+                tags, numberOfRecords, threads, run, completed.size());
 
-            System.out.println("TAG ID " + tag.getId() + " / " + tag.getName());
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "initial-data-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
 
-            GiftCertificate cert = generateGiftCertificate(rnd, previousTag, tag);
-            previousTag = tag;
-            certificateRepository.save(cert);
+        try {
+            runPhase(executor, run, completed, Phase.TAGS, tags, this::writeTags);
 
-            User user = generateUser(rnd);
-            userRepository.save(user);
+            long[] tagIds = findIds("Tag");
+            ZipfDistribution tagPopularity = tagIds.length > 0 ? new ZipfDistribution(tagIds.length, tagSkew) : null;
+            runPhase(executor, run, completed, Phase.USERS, numberOfRecords, this::writeUsers);
+            runPhase(executor, run, completed, Phase.CERTIFICATES, numberOfRecords, (session, random, from, to) ->
+                    writeCertificates(session, random, from, to, tagIds, tagPopularity));
 
-            Order order = generateOrder(cert, user);
-            orderRepository.save(order);
+            long[] userIds = findIds("User");
+            List<Object[]> certificates = findCertificatePrices();
+            ZipfDistribution userActivity = new ZipfDistribution(userIds.length, orderSkew);
+            runPhase(executor, run, completed, Phase.ORDERS, numberOfRecords, (session, random, from, to) ->
+                    writeOrders(session, random, from, to, userIds, userActivity, certificates));
+        } finally {
+            executor.shutdown();
+            eventPublisher.publishEvent(new BulkDataLoadedEvent());
         }
 
         log.info("Generated entities finished");
     }
 
-    private static Order generateOrder(GiftCertificate cert, User user) {
-        Order order = Order.builder()
-                .user(user)
-                .giftCertificate(cert)
-                .price(cert.getPrice())
-                .build();
-        return order;
+    private void runPhase(ExecutorService executor, String run, Set<String> completed, Phase phase, int rows,
+                          ChunkWriter writer) {
+        long startedAt = System.nanoTime();
+        int chunks = (rows + chunkSize - 1) / chunkSize;
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        long written = 0;
+
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            String chunkId = "%s/%s/%d".formatted(run, phase.key(), chunk);
+            if (completed.contains(chunkId)) {
+                continue;
+            }
+
+            int from = chunk * chunkSize;
+            int to = Math.min(rows, from + chunkSize);
+            SplittableRandom random = new SplittableRandom(seed ^ ((long) phase.ordinal() << 32 | chunk));
+            written += to - from;
+            pending.add(CompletableFuture.runAsync(() ->
+                    writeChunk(run, chunkId, phase, from, to, random, writer), executor));
+        }
+        CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).join();
+
+        long elapsedMs = Math.max(1, (System.nanoTime() - startedAt) / 1_000_000);
+        log.info("Generated {} in {} of {} chunks, {} ms, {} rows/s", phase.key(), pending.size(), chunks,
+                elapsedMs, written * 1000 / elapsedMs);
+    }
+
+    private void writeChunk(String run, String chunkId, Phase phase, int from, int to, SplittableRandom random,
+                            ChunkWriter writer) {
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            Transaction transaction = session.beginTransaction();
+            try {
+                writer.write(session, random, from, to);
+                session.insert(SeedChunk.builder()
+                        .id(chunkId)
+                        .run(run)
+                        .rows(to - from)
+                        .completedAt(Instant.now())
+                        .build());
+                transaction.commit();
+            } catch (RuntimeException e) {
+                transaction.rollback();
+                throw e;
+            }
+        }
+
+        rowCounters.get(phase).increment(to - from);
+        log.debug("Generated {} {} to {}", phase.key(), from, to);
+    }
+
+    private void writeTags(StatelessSession session, SplittableRandom random, int from, int to) {
+        RandomNameGenerator names = new RandomNameGenerator(random.nextInt());
+
+        for (int i = from; i < to; i++) {
+            session.insert(Tag.builder()
+                    .name(addPrefix(names.next() + " " + i, Tag.class.getSimpleName()))
+                    .build());
+        }
+    }
+
+    private void writeUsers(StatelessSession session, SplittableRandom random, int from, int to) {
+        RandomNameGenerator names = new RandomNameGenerator(random.nextInt());
+
+        for (int i = from; i < to; i++) {
+            String name = names.next() + "_" + i;
+            session.insert(User.builder()
+                    .name(addPrefix(name, User.class.getSimpleName()))
+                    .username(name)
+                    .password(name)
+                    .email(name + "@mail.com")
+                    .roleMask(0)
+                    .build());
+        }
+    }
+
+    private void writeCertificates(StatelessSession session, SplittableRandom random, int from, int to,
+                                   long[] tagIds, ZipfDistribution tagPopularity) {
+        RandomNameGenerator names = new RandomNameGenerator(random.nextInt());
+        int tagsPerRow = Math.min(tagsPerCertificate, tagIds.length);
+        List<long[]> certificateTags = new ArrayList<>((to - from) * tagsPerRow);
+
+        for (int i = from; i < to; i++) {
+            double price = random.nextInt(1, 100) * 1.55;
+            GiftCertificate certificate = GiftCertificate.builder()
+                    .name(addPrefix(names.next(), GiftCertificate.class.getSimpleName()))
+                    .description(capitalizeWord(names.next()))
+                    .duration(random.nextInt(1, 10))
+                    .price((double) Math.round(price * 100) / 100)
+                    .build();
+            setDates(certificate, random);
+            session.insert(certificate);
+
+            Set<Integer> ranks = new HashSet<>();
+            while (ranks.size() < tagsPerRow) {
+                ranks.add(tagPopularity.sample(random));
+            }
+            ranks.forEach(rank -> certificateTags.add(new long[]{certificate.getId(), tagIds[rank]}));
+        }
+
+        insertCertificateTags(session, certificateTags);
     }
 
-    private User generateUser(RandomNameGenerator rnd) {
-        String name = rnd.next();
-        User user = User.builder()
-                .name(addPrefix(name, User.class.getSimpleName()))
-                .username(name)
-                .password(name)
-                .email(name + "@mail.com")
-                .build();
-        return user;
+    private void writeOrders(StatelessSession session, SplittableRandom random, int from, int to,
+                             long[] userIds, ZipfDistribution userActivity, List<Object[]> certificates) {
+        for (int i = from; i < to; i++) {
+            Object[] certificate = certificates.get(random.nextInt(certificates.size()));
+            Order order = Order.builder()
+                    .user(User.builder().id(userIds[userActivity.sample(random)]).build())
+                    .giftCertificate(GiftCertificate.builder().id((Long) certificate[0]).build())
+                    .price((Double) certificate[1])
+                    .build();
+            setDates(order, random);
+            session.insert(order);
+        }
     }
 
-    private GiftCertificate generateGiftCertificate(RandomNameGenerator rnd, Tag previousTag, Tag tag) {
-        double price = getRandomInt(1, 100) * 1.55;
+    /**
+     * Writes the join rows {@code TAG_ROWS_PER_INSERT} at a time. Preparing the statement first executes the
+     * pending batch of certificates, which the rows refer to.
+     */
+    private void insertCertificateTags(StatelessSession session, List<long[]> certificateTags) {
+        for (int from = 0; from < certificateTags.size(); from += TAG_ROWS_PER_INSERT) {
+            List<long[]> rows = certificateTags.subList(from,
+                    Math.min(from + TAG_ROWS_PER_INSERT, certificateTags.size()));
 
-        GiftCertificate cert = GiftCertificate.builder()
-                .name(addPrefix(rnd.next(), GiftCertificate.class.getSimpleName()))
-                .description(capitalizeWord(rnd.next()))
-                .duration(getRandomInt(1, 10))
-                .price((double) Math.round(price * 100) / 100)
-                .build();
+            NativeQuery<?> insert = session.createNativeQuery("INSERT INTO certificate_tag (cert_id, tag_id) VALUES "
+                    + String.join(", ", Collections.nCopies(rows.size(), "(?, ?)")));
+            for (int row = 0; row < rows.size(); row++) {
+                insert.setParameter(2 * row + 1, rows.get(row)[0]);
+                insert.setParameter(2 * row + 2, rows.get(row)[1]);
+            }
+            insert.executeUpdate();
+        }
+    }
 
-        List<Tag> tags = new ArrayList<>();
+    private Set<String> findCompletedChunks(String run) {
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            return new HashSet<>(session.createQuery("SELECT c.id FROM SeedChunk c WHERE c.run = :run", String.class)
+                    .setParameter("run", run)
+                    .list());
+        }
+    }
 
-        tags.add(tag);
-        ofNullable(previousTag).ifPresent(tags::add);
+    /**
+     * Ids of all rows of the entity in ascending order; the Zipf distributions favour the lowest.
+     */
+    private long[] findIds(String entity) {
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            return session.createQuery("SELECT e.id FROM %s e ORDER BY e.id".formatted(entity), Long.class)
+                    .list().stream()
+                    .mapToLong(Long::longValue)
+                    .toArray();
+        }
+    }
 
-        cert.setTags(tags);
-        return cert;
+    private List<Object[]> findCertificatePrices() {
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            return session.createQuery("SELECT c.id, c.price FROM GiftCertificate c ORDER BY c.id", Object[].class).list();
+        }
     }
 
-    private Tag generateTag(RandomNameGenerator rnd) {
-        Tag tag = Tag.builder()
-                .name(addPrefix(rnd.next(), Tag.class.getSimpleName()))
-                .build();
-        return tag;
+    private static void setDates(AuditableEntity entity, SplittableRandom random) {
+        Instant date = Instant.now().minusSeconds(random.nextLong(HISTORY_SECONDS));
+        entity.setCreateDate(date);
+        entity.setLastUpdateDate(date);
     }
 
     private String addPrefix(String word, String prefix) {
@@ -112,13 +323,9 @@ public class GenerateInitialDataImpl {
     private String capitalizeWord(String word) {
         return StringUtils.capitalize(word.replace("_", " "));
     }
-
-    private int getRandomInt(int min, int max) {
-        return ThreadLocalRandom.current().nextInt(min, max);
-    }
 }
 
 /*
 INSERT INTO role(name) VALUES('ROLE_USER');
 INSERT INTO role(name) VALUES('ROLE_ADMIN');
-*/
\ No newline at end of file
+*/
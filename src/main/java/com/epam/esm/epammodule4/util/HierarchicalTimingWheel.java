@@ -0,0 +1,132 @@
+package com.epam.esm.epammodule4.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel for expiring items in O(1) per insert and per tick.
+ * <p>
+ * Level {@code k} has {@code wheelSize} slots of {@code tickMs * wheelSize^k} milliseconds each;
+ * an item lands on the lowest level whose span still covers its expiration and is cascaded
+ * to finer levels as time advances. Higher levels are created on demand, so any expiration fits.
+ * Items cannot be removed individually: callers should ignore expirations of items they no longer track.
+ */
+public class HierarchicalTimingWheel<T> {
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final List<List<Entry<T>>[]> levels = new ArrayList<>();
+    private long currentTime;
+    private int size;
+
+    public HierarchicalTimingWheel(long tickMs, int wheelSize, long startMs) {
+        if (tickMs <= 0 || wheelSize < 2) {
+            throw new IllegalArgumentException("Tick must be positive and wheel size at least 2");
+        }
+
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.currentTime = startMs - startMs % tickMs;
+    }
+
+    /**
+     * @return {@code false} if the item is already expired and was not scheduled
+     */
+    public synchronized boolean add(T item, long expirationMs) {
+        if (expirationMs < currentTime) {
+            return false;
+        }
+
+        place(new Entry<>(item, expirationMs));
+        size++;
+        return true;
+    }
+
+    /**
+     * Moves the wheel to {@code nowMs} and returns the items that expired on the way.
+     */
+    public synchronized List<T> advance(long nowMs) {
+        List<T> expired = new ArrayList<>();
+
+        while (currentTime + tickMs <= nowMs) {
+            List<Entry<T>> bucket = bucket(0, currentTime);
+
+            for (Entry<T> entry : bucket) {
+                expired.add(entry.item());
+            }
+            size -= bucket.size();
+            bucket.clear();
+
+            currentTime += tickMs;
+            cascade();
+        }
+
+        return expired;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private void cascade() {
+        long slotMs = tickMs;
+
+        for (int level = 1; level < levels.size(); level++) {
+            slotMs *= wheelSize;
+
+            if (currentTime % slotMs != 0) {
+                break;
+            }
+
+            List<Entry<T>> bucket = bucket(level, currentTime);
+            List<Entry<T>> entries = new ArrayList<>(bucket);
+            bucket.clear();
+
+            entries.forEach(this::place);
+        }
+    }
+
+    private void place(Entry<T> entry) {
+        long slotMs = tickMs;
+        int level = 0;
+
+        while (true) {
+            long levelStart = currentTime - currentTime % slotMs;
+
+            if (entry.expirationMs() < levelStart + slotMs * wheelSize) {
+                bucket(level, entry.expirationMs()).add(entry);
+                return;
+            }
+
+            slotMs *= wheelSize;
+            level++;
+        }
+    }
+
+    private List<Entry<T>> bucket(int level, long timeMs) {
+        while (levels.size() <= level) {
+            levels.add(newLevel());
+        }
+
+        long slotMs = tickMs;
+        for (int i = 0; i < level; i++) {
+            slotMs *= wheelSize;
+        }
+
+        return levels.get(level)[(int) ((timeMs / slotMs) % wheelSize)];
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Entry<T>>[] newLevel() {
+        List<Entry<T>>[] slots = new List[wheelSize];
+
+        for (int i = 0; i < wheelSize; i++) {
+            slots[i] = new ArrayList<>();
+        }
+
+        return slots;
+    }
+
+    private record Entry<T>(T item, long expirationMs) {
+    }
+}
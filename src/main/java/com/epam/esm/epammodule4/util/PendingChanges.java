@@ -0,0 +1,59 @@
+package com.epam.esm.epammodule4.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Supplier;
+
+/**
+ * Applies the changes of an in-memory index under its write lock and keeps those arriving during a rebuild,
+ * which reads its snapshot outside the lock, to replay them once the snapshot is installed. A change
+ * committed while the snapshot is read therefore survives the rebuild. Changes must be idempotent, as a
+ * replayed change may already be part of the snapshot.
+ */
+public class PendingChanges {
+
+    private final Lock writeLock;
+    private List<Runnable> changes;
+
+    public PendingChanges(Lock writeLock) {
+        this.writeLock = writeLock;
+    }
+
+    public void apply(Runnable change) {
+        locked(() -> {
+            change.run();
+            if (changes != null) {
+                changes.add(change);
+            }
+        });
+    }
+
+    /**
+     * Reads a snapshot with {@code load}, then runs the install step it returns followed by the changes
+     * applied meanwhile, all under the write lock. Rebuilds run one at a time.
+     */
+    public synchronized void rebuild(Supplier<Runnable> load) {
+        List<Runnable> pending = new ArrayList<>();
+        locked(() -> changes = pending);
+
+        try {
+            Runnable install = load.get();
+            locked(() -> {
+                install.run();
+                pending.forEach(Runnable::run);
+            });
+        } finally {
+            locked(() -> changes = null);
+        }
+    }
+
+    private void locked(Runnable action) {
+        writeLock.lock();
+        try {
+            action.run();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.epam.esm.epammodule4.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Splits text into normalized search terms: lower-cased letter/digit runs, English stop words removed
+ * and inflectional suffixes stripped, so "Massages" and "massage" produce the same term.
+ * <p>
+ * The stemmer is deliberately light (plural, -ing, -ed, -ly) and is applied to both indexed text
+ * and queries, so consistency matters more than linguistic precision.
+ */
+public final class TextAnalyzer {
+
+    private static final int MIN_STEM_LENGTH = 3;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "but", "by", "for", "from", "if", "in", "into",
+            "is", "it", "no", "not", "of", "on", "or", "such", "that", "the", "their", "then", "there",
+            "these", "they", "this", "to", "was", "will", "with"
+    );
+
+    private TextAnalyzer() {
+    }
+
+    public static List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+
+        words(text).forEach(word -> addTerm(terms, word));
+        return terms;
+    }
+
+    /**
+     * Lower-cased letter/digit runs of the text, as written: neither stemmed nor filtered.
+     */
+    public static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+
+        if (text == null) {
+            return words;
+        }
+
+        String lowerCase = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+
+        for (int i = 0; i <= lowerCase.length(); i++) {
+            boolean wordChar = i < lowerCase.length() && Character.isLetterOrDigit(lowerCase.charAt(i));
+
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                words.add(lowerCase.substring(start, i));
+                start = -1;
+            }
+        }
+
+        return words;
+    }
+
+    public static String stem(String word) {
+        if (word.length() > 4 && word.endsWith("ies")) {
+            return word.substring(0, word.length() - 3) + "y";
+        }
+        if (word.endsWith("sses")) {
+            return word.substring(0, word.length() - 2);
+        }
+        if (word.endsWith("s") && !word.endsWith("ss") && !word.endsWith("us")) {
+            word = word.substring(0, word.length() - 1);
+        }
+
+        for (String suffix : new String[]{"ing", "ed", "ly"}) {
+            if (word.endsWith(suffix) && word.length() - suffix.length() >= MIN_STEM_LENGTH) {
+                return undouble(word.substring(0, word.length() - suffix.length()));
+            }
+        }
+
+        return word;
+    }
+
+    private static void addTerm(List<String> terms, String word) {
+        if (!STOP_WORDS.contains(word)) {
+            terms.add(stem(word));
+        }
+    }
+
+    private static String undouble(String stem) {
+        int length = stem.length();
+
+        if (length > MIN_STEM_LENGTH && stem.charAt(length - 1) == stem.charAt(length - 2)
+                && "lsz".indexOf(stem.charAt(length - 1)) < 0) {
+            return stem.substring(0, length - 1);
+        }
+        return stem;
+    }
+}
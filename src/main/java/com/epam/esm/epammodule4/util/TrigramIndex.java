@@ -0,0 +1,157 @@
+package com.epam.esm.epammodule4.util;
+
+import java.util.*;
+
+/**
+ * Set of strings searchable by edit distance through their trigrams, in the manner of {@code pg_trgm}.
+ * <p>
+ * A string is padded with two spaces in front and one behind, so "spa" has the trigrams "  s", " sp",
+ * "spa" and "pa ". One edit changes at most three trigrams, so a string within distance {@code k} of the
+ * query shares at least {@code trigrams(query) - 3k} of them. A search counts shared trigrams over the
+ * posting lists of the query and runs the bounded Levenshtein distance only on strings reaching that
+ * count, and at least one, and differing in length by at most {@code k}. Not thread-safe.
+ */
+public class TrigramIndex {
+
+    private final Map<String, Integer> ordinals = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+    private final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+    private final Map<String, CompressedBitmap> postings = new HashMap<>();
+
+    public record Match(String value, int distance) {
+    }
+
+    public boolean add(String value) {
+        if (ordinals.containsKey(value)) {
+            return false;
+        }
+
+        int ordinal = freeOrdinals.isEmpty() ? values.size() : freeOrdinals.pop();
+        if (ordinal == values.size()) {
+            values.add(value);
+        } else {
+            values.set(ordinal, value);
+        }
+        ordinals.put(value, ordinal);
+        trigrams(value).forEach(trigram -> postings.computeIfAbsent(trigram, key -> new CompressedBitmap())
+                .add(ordinal));
+        return true;
+    }
+
+    public boolean remove(String value) {
+        Integer ordinal = ordinals.remove(value);
+
+        if (ordinal == null) {
+            return false;
+        }
+
+        for (String trigram : trigrams(value)) {
+            CompressedBitmap posting = postings.get(trigram);
+            posting.remove(ordinal);
+            if (posting.isEmpty()) {
+                postings.remove(trigram);
+            }
+        }
+        values.set(ordinal, null);
+        freeOrdinals.push(ordinal);
+        return true;
+    }
+
+    public int size() {
+        return ordinals.size();
+    }
+
+    /**
+     * Returns the strings within {@code maxDistance} edits of {@code query}, closest first and then in
+     * natural order. Strings sharing no trigram with the query are never found.
+     */
+    public List<Match> search(String query, int maxDistance) {
+        Set<String> queryTrigrams = trigrams(query);
+        int minShared = Math.max(1, queryTrigrams.size() - 3 * maxDistance);
+
+        int postingSize = 0;
+        List<int[]> lists = new ArrayList<>(queryTrigrams.size());
+        for (String trigram : queryTrigrams) {
+            CompressedBitmap posting = postings.get(trigram);
+            if (posting != null) {
+                int[] list = posting.toArray();
+                lists.add(list);
+                postingSize += list.length;
+            }
+        }
+
+        int[] candidates = new int[postingSize];
+        int filled = 0;
+        for (int[] list : lists) {
+            System.arraycopy(list, 0, candidates, filled, list.length);
+            filled += list.length;
+        }
+        Arrays.sort(candidates);
+
+        List<Match> matches = new ArrayList<>();
+        for (int start = 0, end; start < candidates.length; start = end) {
+            end = start;
+            while (end < candidates.length && candidates[end] == candidates[start]) {
+                end++;
+            }
+
+            String value = values.get(candidates[start]);
+            if (end - start >= minShared && Math.abs(value.length() - query.length()) <= maxDistance) {
+                int distance = distance(query, value, maxDistance);
+                if (distance <= maxDistance) {
+                    matches.add(new Match(value, distance));
+                }
+            }
+        }
+
+        matches.sort(Comparator.comparingInt(Match::distance).thenComparing(Match::value));
+        return matches;
+    }
+
+    /**
+     * Levenshtein distance of the strings, or {@code limit + 1} as soon as it is known to exceed {@code limit}.
+     */
+    public static int distance(String left, String right, int limit) {
+        if (Math.abs(left.length() - right.length()) > limit) {
+            return limit + 1;
+        }
+
+        int[] previous = new int[right.length() + 1];
+        int[] current = new int[right.length() + 1];
+        for (int j = 0; j <= right.length(); j++) {
+            previous[j] = j;
+        }
+
+        for (int i = 1; i <= left.length(); i++) {
+            current[0] = i;
+            int rowMinimum = i;
+
+            for (int j = 1; j <= right.length(); j++) {
+                int substitution = previous[j - 1] + (left.charAt(i - 1) == right.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+                rowMinimum = Math.min(rowMinimum, current[j]);
+            }
+
+            if (rowMinimum > limit) {
+                return limit + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[right.length()], limit + 1);
+    }
+
+    /**
+     * Distinct trigrams of the string padded with two spaces in front and one behind.
+     */
+    public static Set<String> trigrams(String value) {
+        String padded = "  " + value + " ";
+        Set<String> trigrams = new HashSet<>();
+
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+}
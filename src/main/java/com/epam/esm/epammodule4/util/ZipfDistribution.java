@@ -0,0 +1,40 @@
+package com.epam.esm.epammodule4.util;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Ranks {@code 0 .. n-1} drawn with probability proportional to {@code 1 / (rank + 1)^exponent}: rank 0 is
+ * the most frequent, and exponent 0 draws them uniformly.
+ * <p>
+ * The cumulative weights are computed once, so a draw is a binary search. Immutable and thread-safe; the
+ * random generator is the caller's.
+ */
+public class ZipfDistribution {
+
+    private final double[] cumulative;
+
+    public ZipfDistribution(int n, double exponent) {
+        if (n < 1) {
+            throw new IllegalArgumentException("At least one rank is needed, got %d".formatted(n));
+        }
+
+        cumulative = new double[n];
+        double total = 0;
+        for (int rank = 0; rank < n; rank++) {
+            total += Math.pow(rank + 1, -exponent);
+            cumulative[rank] = total;
+        }
+    }
+
+    public int size() {
+        return cumulative.length;
+    }
+
+    public int sample(RandomGenerator random) {
+        double target = random.nextDouble() * cumulative[cumulative.length - 1];
+        int index = Arrays.binarySearch(cumulative, target);
+
+        return Math.min(index < 0 ? -index - 1 : index + 1, cumulative.length - 1);
+    }
+}
@@ -0,0 +1,114 @@
+package com.epam.esm.epammodule4.benchmark;
+
+import com.epam.esm.epammodule4.EpamModule4Application;
+import com.epam.esm.epammodule4.model.entity.GiftCertificate;
+import com.epam.esm.epammodule4.model.entity.Order;
+import com.epam.esm.epammodule4.model.entity.Tag;
+import com.epam.esm.epammodule4.model.entity.User;
+import com.epam.esm.epammodule4.repository.GiftCertificateRepository;
+import com.epam.esm.epammodule4.repository.OrderRepository;
+import com.epam.esm.epammodule4.repository.TagRepository;
+import com.epam.esm.epammodule4.repository.UserRepository;
+import org.h2.tools.Server;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creation of {@code size} certificates, each with one tag, and of one order per certificate, in one
+ * transaction, through the repositories. {@code batchSize} 1 sends every insert on its own, as identity
+ * ids forced before; 50 is the configured JDBC batch.
+ * <p>
+ * The database is an in-memory H2 served over TCP on the loopback, so that every statement is a round trip
+ * as with Postgres, where {@code reWriteBatchedInserts} further folds a batch into multi-row inserts.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark=BulkInsertBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 10, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkInsertBenchmark {
+
+    @Param({"1", "50"})
+    private int batchSize;
+
+    @Param({"1000"})
+    private int size;
+
+    private Server server;
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate transactionTemplate;
+    private GiftCertificateRepository certificateRepository;
+    private OrderRepository orderRepository;
+    private Tag tag;
+    private User user;
+
+    @Setup
+    public void setUp() throws Exception {
+        server = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        context = new SpringApplicationBuilder(EpamModule4Application.class)
+                .run("--spring.datasource.url=jdbc:h2:tcp://localhost:%d/mem:bulk;DB_CLOSE_DELAY=-1"
+                                .formatted(server.getPort()),
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize,
+                        "--spring.jpa.properties.hibernate.generate_statistics=false",
+                        "--server.port=0",
+                        "--logging.level.root=WARN");
+
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        certificateRepository = context.getBean(GiftCertificateRepository.class);
+        orderRepository = context.getBean(OrderRepository.class);
+        tag = context.getBean(TagRepository.class).save(Tag.builder().name("benchmark").build());
+        user = context.getBean(UserRepository.class).save(User.builder()
+                .name("benchmark")
+                .username("benchmark")
+                .email("benchmark@mail.com")
+                .roles(Set.of())
+                .build());
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteCreated() {
+        orderRepository.deleteAllInBatch();
+        transactionTemplate.executeWithoutResult(status ->
+                certificateRepository.findAll().forEach(certificateRepository::delete));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        server.stop();
+    }
+
+    @Benchmark
+    public List<Order> createCertificatesAndOrders() {
+        return transactionTemplate.execute(status -> {
+            List<GiftCertificate> certificates = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                certificates.add(GiftCertificate.builder()
+                        .name("certificate " + i)
+                        .description("benchmark")
+                        .price(10.0 + i % 90)
+                        .duration(1 + i % 365)
+                        .tags(List.of(tag))
+                        .build());
+            }
+            certificateRepository.saveAll(certificates);
+
+            List<Order> orders = new ArrayList<>(size);
+            for (GiftCertificate certificate : certificates) {
+                orders.add(Order.builder().price(certificate.getPrice()).user(user).giftCertificate(certificate).build());
+            }
+            return orderRepository.saveAll(orders);
+        });
+    }
+}
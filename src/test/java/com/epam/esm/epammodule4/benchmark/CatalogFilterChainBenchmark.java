@@ -0,0 +1,89 @@
+package com.epam.esm.epammodule4.benchmark;
+
+import com.epam.esm.epammodule4.EpamModule4Application;
+import com.epam.esm.epammodule4.model.entity.User;
+import com.epam.esm.epammodule4.repository.UserRepository;
+import com.epam.esm.epammodule4.security.jwt.JwtUtils;
+import com.epam.esm.epammodule4.service.implementation.UserDetailsImpl;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.web.FilterChainProxy;
+
+import javax.servlet.FilterChain;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Security filter chain overhead of a catalog read ({@code GET /certificates}) with and without
+ * the catalog fast lane, for anonymous requests and for requests carrying a bearer token.
+ * Only the filter chain runs; the request never reaches a controller.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark=CatalogFilterChainBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CatalogFilterChainBenchmark {
+
+    private static final FilterChain TERMINAL = (request, response) -> {
+    };
+
+    @Param({"true", "false"})
+    private boolean fastLane;
+
+    private ConfigurableApplicationContext context;
+    private FilterChainProxy filterChainProxy;
+    private String bearerToken;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(EpamModule4Application.class)
+                .run("--app.security.catalog-fast-lane=" + fastLane,
+                        "--server.port=0",
+                        "--logging.level.root=WARN");
+
+        filterChainProxy = context.getBean(FilterChainProxy.class);
+
+        User user = context.getBean(UserRepository.class).save(User.builder()
+                .name("benchmark")
+                .username("benchmark")
+                .email("benchmark@mail.com")
+                .roles(Collections.emptySet())
+                .build());
+        bearerToken = "Bearer " + context.getBean(JwtUtils.class).generateJwtToken(UserDetailsImpl.build(user));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse anonymous() throws Exception {
+        return filter(null);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse withBearerToken() throws Exception {
+        return filter(bearerToken);
+    }
+
+    private MockHttpServletResponse filter(String authorization) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/certificates");
+        request.setServletPath("/certificates");
+        if (authorization != null) {
+            request.addHeader("Authorization", authorization);
+        }
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filterChainProxy.doFilter(request, response, TERMINAL);
+
+        return response;
+    }
+}
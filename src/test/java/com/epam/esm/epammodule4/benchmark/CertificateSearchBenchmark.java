@@ -0,0 +1,95 @@
+package com.epam.esm.epammodule4.benchmark;
+
+import com.epam.esm.epammodule4.model.entity.GiftCertificate;
+import com.epam.esm.epammodule4.service.implementation.InvertedIndexSearchEngine;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of a two-term full-text query against the in-process inverted index, compared with
+ * the substring scan over names and descriptions that {@code LIKE '%x%'} performs.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark=CertificateSearchBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class CertificateSearchBenchmark {
+
+    private static final int VOCABULARY_SIZE = 5_000;
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 10);
+
+    @Param({"100000", "1000000"})
+    private int certificates;
+
+    private InvertedIndexSearchEngine searchEngine;
+    private List<String> names;
+    private List<String> descriptions;
+    private String[] vocabulary;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        vocabulary = new String[VOCABULARY_SIZE];
+        for (int i = 0; i < VOCABULARY_SIZE; i++) {
+            vocabulary[i] = "word" + Integer.toString(i, 36) + "x";
+        }
+
+        searchEngine = new InvertedIndexSearchEngine(null, 1_000);
+        names = new ArrayList<>(certificates);
+        descriptions = new ArrayList<>(certificates);
+
+        for (long id = 1; id <= certificates; id++) {
+            String name = words(random, 3);
+            String description = words(random, 12);
+
+            names.add(name);
+            descriptions.add(description);
+            searchEngine.index(GiftCertificate.builder().id(id).name(name).description(description).build());
+        }
+    }
+
+    @Benchmark
+    public Page<Long> invertedIndex() {
+        return searchEngine.search(vocabulary[3] + " " + vocabulary[7], FIRST_PAGE);
+    }
+
+    @Benchmark
+    public int likeScan() {
+        String first = vocabulary[3];
+        String second = vocabulary[7];
+        int matches = 0;
+
+        for (int i = 0; i < certificates; i++) {
+            String name = names.get(i);
+            String description = descriptions.get(i);
+
+            if ((name.contains(first) || description.contains(first))
+                    && (name.contains(second) || description.contains(second))) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    private String words(Random random, int count) {
+        StringBuilder text = new StringBuilder();
+
+        for (int i = 0; i < count; i++) {
+            // Squared uniform gives a skewed, Zipf-like term distribution.
+            double skewed = random.nextDouble() * random.nextDouble();
+            text.append(vocabulary[(int) (skewed * VOCABULARY_SIZE)]).append(' ');
+        }
+        return text.toString();
+    }
+}
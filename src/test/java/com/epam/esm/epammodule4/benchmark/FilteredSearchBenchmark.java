@@ -0,0 +1,184 @@
+package com.epam.esm.epammodule4.benchmark;
+
+import com.epam.esm.epammodule4.model.entity.GiftCertificate;
+import com.epam.esm.epammodule4.repository.GiftCertificateRepository;
+import com.epam.esm.epammodule4.repository.TagRepository;
+import com.epam.esm.epammodule4.service.implementation.CertificateRangeIndex;
+import com.epam.esm.epammodule4.service.implementation.CertificateTagIndex;
+import com.epam.esm.epammodule4.service.implementation.InvertedIndexSearchEngine;
+import com.epam.esm.epammodule4.util.CompressedBitmap;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of certificate searches combining full text, a tag and price and duration ranges, answered from
+ * the in-memory indexes, compared with the unfiltered text query and with a scan evaluating every filter
+ * per row as a query without usable indexes does.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark=FilteredSearchBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class FilteredSearchBenchmark {
+
+    private static final int VOCABULARY_SIZE = 5_000;
+    private static final int TAGS = 50;
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 10);
+    private static final double MIN_PRICE = 50;
+    private static final double MAX_PRICE = 150;
+    private static final int MIN_DURATION = 30;
+
+    @Param({"100000", "1000000"})
+    private int certificates;
+
+    private InvertedIndexSearchEngine searchEngine;
+    private CertificateTagIndex tagIndex;
+    private CertificateRangeIndex rangeIndex;
+    private String[] vocabulary;
+    private String text;
+    private List<String> tag;
+    private String[] names;
+    private String[] descriptions;
+    private double[] prices;
+    private int[] durations;
+    private long[][] tagIds;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        vocabulary = new String[VOCABULARY_SIZE];
+        for (int i = 0; i < VOCABULARY_SIZE; i++) {
+            vocabulary[i] = "word" + Integer.toString(i, 36) + "x";
+        }
+        text = vocabulary[3] + " " + vocabulary[7];
+        tag = List.of("tag5");
+
+        searchEngine = new InvertedIndexSearchEngine(null, 1_000);
+        names = new String[certificates + 1];
+        descriptions = new String[certificates + 1];
+        prices = new double[certificates + 1];
+        durations = new int[certificates + 1];
+        tagIds = new long[certificates + 1][];
+        List<Long> ids = new ArrayList<>(certificates);
+        List<Object[]> columns = new ArrayList<>(certificates);
+        List<Object[]> links = new ArrayList<>(certificates * 3);
+
+        for (int id = 1; id <= certificates; id++) {
+            names[id] = words(random, 3);
+            descriptions[id] = words(random, 12);
+            prices[id] = 1 + random.nextInt(500);
+            durations[id] = 1 + random.nextInt(365);
+            tagIds[id] = random.longs(3, 1, TAGS + 1).distinct().toArray();
+
+            searchEngine.index(GiftCertificate.builder().id((long) id)
+                    .name(names[id]).description(descriptions[id]).build());
+            ids.add((long) id);
+            columns.add(new Object[]{(long) id, prices[id], durations[id]});
+            for (long tagId : tagIds[id]) {
+                links.add(new Object[]{(long) id, tagId});
+            }
+        }
+
+        GiftCertificateRepository certificateRepository = stub(GiftCertificateRepository.class, Map.of(
+                "findAllIds", arguments -> ids,
+                "findAllTagLinks", arguments -> links,
+                "findAllPricesAndDurations", arguments -> columns));
+        List<Object[]> tagNames = new ArrayList<>(TAGS);
+        for (long tagId = 1; tagId <= TAGS; tagId++) {
+            tagNames.add(new Object[]{tagId, "tag" + tagId});
+        }
+        TagRepository tagRepository = stub(TagRepository.class, Map.of("findAllNames", arguments -> tagNames));
+
+        tagIndex = new CertificateTagIndex(certificateRepository, tagRepository);
+        tagIndex.rebuild();
+        rangeIndex = new CertificateRangeIndex(certificateRepository);
+        rangeIndex.rebuild();
+    }
+
+    @Benchmark
+    public Page<Long> text() {
+        return searchEngine.search(text, FIRST_PAGE);
+    }
+
+    @Benchmark
+    public Page<Long> textTagAndRanges() {
+        CompressedBitmap candidates = CompressedBitmap.of(searchEngine.findAllIds(text).stream()
+                .mapToInt(Long::intValue)
+                .toArray());
+        return searchEngine.search(text, filters(candidates), FIRST_PAGE);
+    }
+
+    @Benchmark
+    public int[] tagAndRanges() {
+        return filters(null).range(0, FIRST_PAGE.getPageSize());
+    }
+
+    @Benchmark
+    public int scan() {
+        String first = vocabulary[3];
+        String second = vocabulary[7];
+        int matches = 0;
+
+        for (int id = 1; id <= certificates; id++) {
+            if (prices[id] >= MIN_PRICE && prices[id] <= MAX_PRICE && durations[id] >= MIN_DURATION
+                    && hasTag(id, 5)
+                    && (names[id].contains(first) || descriptions[id].contains(first))
+                    && (names[id].contains(second) || descriptions[id].contains(second))) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Narrows the candidates the way the certificate service does: tag bitmap first, then the ranges by id.
+     */
+    private CompressedBitmap filters(CompressedBitmap candidates) {
+        CompressedBitmap matched = tagIndex.match(tag, false, null);
+        if (candidates != null) {
+            matched = CompressedBitmap.and(candidates, matched);
+        }
+        return rangeIndex.match(matched, MIN_PRICE, MAX_PRICE, MIN_DURATION, null);
+    }
+
+    private boolean hasTag(int id, long tagId) {
+        for (long candidate : tagIds[id]) {
+            if (candidate == tagId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String words(Random random, int count) {
+        StringBuilder words = new StringBuilder();
+
+        for (int i = 0; i < count; i++) {
+            // Squared uniform gives a skewed, Zipf-like term distribution.
+            double skewed = random.nextDouble() * random.nextDouble();
+            words.append(vocabulary[(int) (skewed * VOCABULARY_SIZE)]).append(' ');
+        }
+        return words.toString();
+    }
+
+    /**
+     * Repository answering only the given methods, so the indexes load their data without a database.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type, Map<String, java.util.function.Function<Object[], Object>> answers) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, arguments) ->
+                Optional.ofNullable(answers.get(method.getName()))
+                        .orElseThrow(() -> new UnsupportedOperationException(method.getName()))
+                        .apply(arguments));
+    }
+}
@@ -0,0 +1,81 @@
+package com.epam.esm.epammodule4.benchmark;
+
+import com.epam.esm.epammodule4.util.TrigramIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of a typo-tolerant lookup in a vocabulary of distinct name words: the trigram index, which checks
+ * the edit distance only of words sharing enough trigrams with the query, against checking every word.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark=FuzzyNameBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class FuzzyNameBenchmark {
+
+    private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyz";
+
+    @Param({"100000", "1000000"})
+    private int words;
+
+    @Param({"1", "2"})
+    private int maxDistance;
+
+    private TrigramIndex index;
+    private String[] vocabulary;
+    private String query;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        index = new TrigramIndex();
+        vocabulary = new String[words];
+
+        for (int i = 0; i < words; i++) {
+            String word;
+            do {
+                word = randomWord(random, 5 + random.nextInt(6));
+            } while (!index.add(word));
+            vocabulary[i] = word;
+        }
+
+        // One substitution away from a word in the vocabulary.
+        char[] typo = vocabulary[words / 2].toCharArray();
+        typo[2] = typo[2] == 'z' ? 'a' : (char) (typo[2] + 1);
+        query = new String(typo);
+    }
+
+    @Benchmark
+    public List<TrigramIndex.Match> trigramIndex() {
+        return index.search(query, maxDistance);
+    }
+
+    @Benchmark
+    public int scan() {
+        int matches = 0;
+
+        for (String word : vocabulary) {
+            if (TrigramIndex.distance(query, word, maxDistance) <= maxDistance) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    private static String randomWord(Random random, int length) {
+        StringBuilder word = new StringBuilder(length);
+
+        for (int i = 0; i < length; i++) {
+            word.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return word.toString();
+    }
+}
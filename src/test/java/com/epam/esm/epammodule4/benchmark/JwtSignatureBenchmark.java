@@ -0,0 +1,59 @@
+package com.epam.esm.epammodule4.benchmark;
+
+import com.epam.esm.epammodule4.security.jwt.JwtKeyProvider;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sign and verify throughput of the supported JWT algorithms with precomputed keys.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark=JwtSignatureBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtSignatureBenchmark {
+
+    private static final String SECRET = "SuperSecretKey";
+
+    @Param({"HS256", "HS512", "ES256"})
+    private String algorithm;
+
+    private JwtKeyProvider keyProvider;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        keyProvider = new JwtKeyProvider(event -> { }, algorithm, "k1", SECRET, "", "", Collections.emptyList());
+        token = sign();
+    }
+
+    @Benchmark
+    public String sign() {
+        return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, keyProvider.getKeyId())
+                .setId("1")
+                .setSubject("user")
+                .claim("roles", List.of("ROLE_USER"))
+                .claim("email", "user@mail.com")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 3_600_000))
+                .signWith(keyProvider.getAlgorithm(), keyProvider.getSigningKey())
+                .compact();
+    }
+
+    @Benchmark
+    public Claims verify() {
+        return Jwts.parser().setSigningKeyResolver(keyProvider).parseClaimsJws(token).getBody();
+    }
+}
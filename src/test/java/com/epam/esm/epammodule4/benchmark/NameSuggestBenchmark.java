@@ -0,0 +1,71 @@
+package com.epam.esm.epammodule4.benchmark;
+
+import com.epam.esm.epammodule4.util.CompletionTrie;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of a ten-item autocomplete against the completion trie, compared with the substring scan and
+ * top-ten ranking over all names that {@code LIKE '%x%'} with an {@code ORDER BY} performs per keystroke.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark=NameSuggestBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class NameSuggestBenchmark {
+
+    private static final int LIMIT = 10;
+
+    @Param({"100000", "1000000"})
+    private int names;
+
+    @Param({"c", "cer", "certg"})
+    private String prefix;
+
+    private CompletionTrie trie;
+    private List<String> keys;
+    private long[] scores;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        trie = new CompletionTrie();
+        keys = new ArrayList<>(names);
+        scores = new long[names];
+
+        for (int i = 0; i < names; i++) {
+            String name = "cert" + Integer.toString(random.nextInt(Integer.MAX_VALUE), 36) + " " + i;
+
+            keys.add(name);
+            scores[i] = random.nextInt(1_000);
+            trie.put(name, name, scores[i]);
+        }
+    }
+
+    @Benchmark
+    public List<CompletionTrie.Completion> trie() {
+        return trie.complete(prefix, LIMIT);
+    }
+
+    @Benchmark
+    public List<CompletionTrie.Completion> likeScan() {
+        PriorityQueue<CompletionTrie.Completion> best = new PriorityQueue<>(
+                Comparator.comparingLong(CompletionTrie.Completion::score));
+
+        for (int i = 0; i < keys.size(); i++) {
+            if (keys.get(i).contains(prefix)) {
+                best.add(new CompletionTrie.Completion(keys.get(i), scores[i]));
+                if (best.size() > LIMIT) {
+                    best.poll();
+                }
+            }
+        }
+        return new ArrayList<>(best);
+    }
+}
@@ -0,0 +1,49 @@
+package com.epam.esm.epammodule4.config;
+
+import com.epam.esm.epammodule4.EpamModule4Application;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = EpamModule4Application.class)
+class IdSequenceAlignerTest {
+
+    private static final long STORED_ID = 1_000_000L;
+
+    @Autowired
+    private IdSequenceAligner subject;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM tag WHERE id = ?", STORED_ID);
+    }
+
+    @Test
+    void alignSequences_whenIdsWereStoredPastSequence_thenNextBlockFollowsThem() {
+        jdbcTemplate.update("INSERT INTO tag (id, name) VALUES (?, ?)", STORED_ID, "identity-tag");
+
+        subject.alignSequences();
+        Long next = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR tag_seq", Long.class);
+
+        assertThat(next - 50).isGreaterThanOrEqualTo(STORED_ID);
+    }
+
+    @Test
+    void alignSequences_whenSequenceIsAhead_thenLeavesIt() {
+        Long before = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR gift_certificate_seq", Long.class);
+
+        subject.alignSequences();
+        Long after = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR gift_certificate_seq", Long.class);
+
+        assertThat(after).isEqualTo(before + 100);
+    }
+}
@@ -1,15 +1,19 @@
 package com.epam.esm.epammodule4.controller;
 
 import com.epam.esm.epammodule4.controller.advice.ApplicationControllerAdvice;
+import com.epam.esm.epammodule4.exception.TokenRefreshException;
 import com.epam.esm.epammodule4.model.dto.request.*;
 import com.epam.esm.epammodule4.model.dto.response.JwtResponse;
 import com.epam.esm.epammodule4.model.dto.response.MessageResponse;
 import com.epam.esm.epammodule4.model.entity.*;
 import com.epam.esm.epammodule4.security.jwt.JwtUtils;
+import com.epam.esm.epammodule4.security.jwt.TokenRevocationList;
+import com.epam.esm.epammodule4.security.jwt.VerifiedToken;
 import com.epam.esm.epammodule4.service.UserService;
 import com.epam.esm.epammodule4.service.implementation.RefreshTokenService;
 import com.epam.esm.epammodule4.service.implementation.UserDetailsImpl;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -24,6 +28,7 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.RequestBuilder;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
@@ -51,6 +56,8 @@ class AuthControllerTest {
     private UserService userService;
     @Mock
     private ModelMapper modelMapper;
+    @Mock
+    private TokenRevocationList tokenRevocationList;
     @InjectMocks
     private AuthController subject;
     private MockMvc mockMvc;
@@ -66,6 +73,11 @@ class AuthControllerTest {
         objectMapper = new ObjectMapper();
     }
 
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
     @Test
     void authenticateUser() throws Exception {
         Collection<? extends GrantedAuthority> roles = Arrays.asList(
@@ -146,7 +158,10 @@ class AuthControllerTest {
                 .andExpect(jsonPath("$.username").value(jwtResponse.getUsername().toString()))
                 .andExpect(jsonPath("$.email").value(jwtResponse.getEmail().toString()));
 
-        verifyNoMoreInteractions(authenticationManager, refreshTokenService);
+        verify(jwtUtils).generateJwtToken(userDetails);
+        verify(refreshTokenService).createRefreshToken(USER_ID);
+        verifyNoInteractions(userService);
+        verifyNoMoreInteractions(authenticationManager, refreshTokenService, jwtUtils);
     }
 
     @Test
@@ -245,13 +260,13 @@ class AuthControllerTest {
         String refreshTokenString = "12345";
         TokenRefreshRequest request = new TokenRefreshRequest(refreshTokenString);
         User user = User.builder().id(USER_ID).name("User").build();
-        RefreshToken refreshToken = RefreshToken.builder()
-                .token(refreshTokenString)
+        RefreshToken rotatedRefreshToken = RefreshToken.builder()
+                .token("67890")
                 .user(user)
                 .build();
 
-        when(refreshTokenService.findByToken(any(String.class))).thenReturn(Optional.of(refreshToken));
-        when(refreshTokenService.verifyExpiration(any(RefreshToken.class))).thenReturn(refreshToken);
+        when(refreshTokenService.rotate(any(String.class))).thenReturn(rotatedRefreshToken);
+        when(jwtUtils.generateTokenFromUser(any(User.class))).thenReturn("jwt");
 
         RequestBuilder requestBuilder = post("/auth/refreshtoken")
                 .contentType(MediaType.APPLICATION_JSON_VALUE)
@@ -261,10 +276,10 @@ class AuthControllerTest {
 
         mockMvc.perform(requestBuilder)
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.refreshToken").value(refreshTokenString));
+                .andExpect(jsonPath("$.accessToken").value("jwt"))
+                .andExpect(jsonPath("$.refreshToken").value("67890"));
 
-        verify(refreshTokenService).findByToken(refreshTokenString);
-        verify(refreshTokenService).verifyExpiration(refreshToken);
+        verify(refreshTokenService).rotate(refreshTokenString);
         verify(jwtUtils).generateTokenFromUser(user);
         verifyNoMoreInteractions(refreshTokenService, jwtUtils);
     }
@@ -274,6 +289,9 @@ class AuthControllerTest {
         String refreshToken = "12345";
         TokenRefreshRequest request = new TokenRefreshRequest(refreshToken);
 
+        when(refreshTokenService.rotate(any(String.class)))
+                .thenThrow(new TokenRefreshException(refreshToken, "Refresh token is not in database!"));
+
         RequestBuilder requestBuilder = post("/auth/refreshtoken")
                 .contentType(MediaType.APPLICATION_JSON_VALUE)
                 .characterEncoding("UTF-8")
@@ -290,4 +308,30 @@ class AuthControllerTest {
         mockMvc.perform(post("/auth/logout"))
                 .andExpect(status().isOk());
     }
-}
\ No newline at end of file
+
+    @Test
+    void logout_whenAuthenticated_thenRevokesPresentedToken() throws Exception {
+        UserDetailsImpl userDetails = new UserDetailsImpl(
+                USER_ID, "user", "user@mail.com", "pass", Collections.emptyList()
+        );
+        Date expiration = new Date(System.currentTimeMillis() + 60_000);
+        VerifiedToken accessToken = new VerifiedToken("jti", USER_ID, "user", "user@mail.com", List.of(),
+                new Date(), expiration);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(userDetails, accessToken, userDetails.getAuthorities()));
+
+        mockMvc.perform(post("/auth/logout"))
+                .andExpect(status().isOk());
+
+        verify(tokenRevocationList).revoke("jti", expiration);
+        verify(refreshTokenService).deleteByUserId(USER_ID);
+    }
+
+    @Test
+    void logout_whenAnonymous_thenRevokesNothing() throws Exception {
+        mockMvc.perform(post("/auth/logout"))
+                .andExpect(status().isOk());
+
+        verifyNoInteractions(tokenRevocationList, refreshTokenService);
+    }
+}
@@ -2,6 +2,8 @@ package com.epam.esm.epammodule4.controller;
 
 import com.epam.esm.epammodule4.controller.advice.ApplicationControllerAdvice;
 import com.epam.esm.epammodule4.exception.GiftCertificateNotFoundException;
+import com.epam.esm.epammodule4.model.CertificateFacets;
+import com.epam.esm.epammodule4.model.TotalCount;
 import com.epam.esm.epammodule4.model.dto.*;
 import com.epam.esm.epammodule4.model.dto.request.CreateGiftCertificateRequest;
 import com.epam.esm.epammodule4.model.dto.request.SearchGiftCertificateRequest;
@@ -115,7 +117,7 @@ class GiftCertificateControllerTest {
         Page<GiftCertificate> pageableCertificates =
                 new PageImpl(expectedCertificates, pageable, expectedCertificates.size());
 
-        when(certificateService.findAll(any(Pageable.class))).thenReturn(pageableCertificates);
+        when(certificateService.findAll(any(Pageable.class), any(TotalCount.class))).thenReturn(pageableCertificates);
 
         mockMvc.perform(
                         get("/certificates")
@@ -125,7 +127,35 @@ class GiftCertificateControllerTest {
                 )
                 .andExpect(status().isOk());
 
-        verify(certificateService).findAll(pageable);
+        verify(certificateService).findAll(pageable, TotalCount.EXACT);
+        verifyNoMoreInteractions(certificateService);
+    }
+
+    @Test
+    void getAllGiftCertificates_whenCursor_thenReturnsCursorPage() throws Exception {
+        GiftCertificate expectedCertificate = new GiftCertificate();
+        GiftCertificateDto certificateDto = GiftCertificateDto.builder()
+                .id(CERTIFICATE_ID)
+                .name("myGiftCertificate")
+                .build();
+
+        Pageable pageable = PageRequest.of(0, 5, Sort.by("name"));
+        CursorPage<GiftCertificate> expectedCertificates = new CursorPage<>(List.of(expectedCertificate), "next");
+
+        when(certificateService.findAll(any(String.class), any(Pageable.class))).thenReturn(expectedCertificates);
+        when(certificateMapper.toDto(any(GiftCertificate.class))).thenReturn(certificateDto);
+
+        mockMvc.perform(
+                        get("/certificates")
+                                .param("cursor", "")
+                                .param("size", "5")
+                                .param("sort", "name,asc")
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name").value("myGiftCertificate"))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+
+        verify(certificateService).findAll("", pageable);
         verifyNoMoreInteractions(certificateService);
     }
 
@@ -222,4 +252,84 @@ class GiftCertificateControllerTest {
         verify(certificateMapper).toDto(expectedCertificate);
         verifyNoMoreInteractions(certificateService, certificateMapper);
     }
-}
\ No newline at end of file
+
+    @Test
+    void searchCertificatesWithSearchParams_thenBindsParamsToSearchRequest() throws Exception {
+        when(certificateService.findCertificateWithSearchParams(
+                any(Pageable.class),
+                any(SearchGiftCertificateRequest.class)
+        )).thenReturn(new SliceImpl<>(List.of()));
+
+        mockMvc.perform(
+                        get("/certificates/search")
+                                .param("name", "spa")
+                                .param("tags", "relax,wellness")
+                                .param("matchAllTags", "true")
+                                .param("fuzziness", "1")
+                                .param("total", "NONE")
+                )
+                .andExpect(status().isOk());
+
+        verify(certificateService).findCertificateWithSearchParams(any(Pageable.class), argThat(request ->
+                "spa".equals(request.getName())
+                        && List.of("relax", "wellness").equals(request.getTags())
+                        && request.isMatchAllTags()
+                        && request.getFuzziness() == 1
+                        && request.getTotal() == TotalCount.NONE
+                        && request.getExcludedTags() == null));
+    }
+
+    @Test
+    void searchCertificatesWithSearchParams_whenNoTotal_thenExact() throws Exception {
+        when(certificateService.findCertificateWithSearchParams(
+                any(Pageable.class),
+                any(SearchGiftCertificateRequest.class)
+        )).thenReturn(new SliceImpl<>(List.of()));
+
+        mockMvc.perform(get("/certificates/search").param("name", "spa"))
+                .andExpect(status().isOk());
+
+        verify(certificateService).findCertificateWithSearchParams(any(Pageable.class),
+                argThat(request -> !request.isMatchAllTags() && request.getTotal() == TotalCount.EXACT));
+    }
+
+    @Test
+    void searchCertificatesWithFacets() throws Exception {
+        GiftCertificate expectedCertificate = new GiftCertificate();
+        GiftCertificateDto certificateDto = new GiftCertificateDto();
+        certificateDto.setName("Spa day");
+        Pageable pageable = PageRequest.of(0, 5);
+        CertificateFacets facets = new CertificateFacets(1,
+                List.of(new CertificateFacets.TagFacet(10L, "spa", 1)),
+                List.of(new CertificateFacets.RangeFacet(null, 10.0, 1), new CertificateFacets.RangeFacet(10.0, null, 0)),
+                List.of(new CertificateFacets.RangeFacet(null, null, 1)));
+
+        when(certificateService.findCertificateWithSearchParams(
+                any(Pageable.class),
+                any(SearchGiftCertificateRequest.class)
+        )).thenReturn(new PageImpl<>(List.of(expectedCertificate), pageable, 1));
+        when(certificateService.findFacets(any(SearchGiftCertificateRequest.class))).thenReturn(facets);
+        when(certificateMapper.toDto(any(GiftCertificate.class))).thenReturn(certificateDto);
+
+        mockMvc.perform(
+                        get("/certificates/search")
+                                .param("tags", "spa")
+                                .param("minPrice", "10")
+                                .param("maxDuration", "30")
+                                .param("facets", "true")
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results.content[0].name").value("Spa day"))
+                .andExpect(jsonPath("$.facets.total").value(1))
+                .andExpect(jsonPath("$.facets.tags[0].name").value("spa"))
+                .andExpect(jsonPath("$.facets.tags[0].count").value(1))
+                .andExpect(jsonPath("$.facets.prices[0].to").value(10.0))
+                .andExpect(jsonPath("$.facets.prices[1].count").value(0));
+
+        verify(certificateService).findCertificateWithSearchParams(any(Pageable.class),
+                argThat(request -> List.of("spa").equals(request.getTags())));
+        verify(certificateService).findFacets(argThat(request -> List.of("spa").equals(request.getTags())
+                && request.getMinPrice() == 10.0 && request.getMaxDuration() == 30));
+        verifyNoMoreInteractions(certificateService);
+    }
+}
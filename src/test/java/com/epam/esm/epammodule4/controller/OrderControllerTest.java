@@ -3,6 +3,7 @@ package com.epam.esm.epammodule4.controller;
 import com.epam.esm.epammodule4.controller.advice.ApplicationControllerAdvice;
 import com.epam.esm.epammodule4.exception.OrderAlreadyExistsException;
 import com.epam.esm.epammodule4.exception.OrderNotFoundException;
+import com.epam.esm.epammodule4.model.TotalCount;
 import com.epam.esm.epammodule4.model.dto.*;
 import com.epam.esm.epammodule4.model.dto.request.CreateOrderRequest;
 import com.epam.esm.epammodule4.model.dto.request.UpdateOrderRequest;
@@ -129,12 +130,12 @@ class OrderControllerTest {
 
     @Test
     void getAllOrders() throws Exception {
-        List<Order> expectedOrders = List.of(new Order());
+        List<OrderDto> expectedOrders = List.of(OrderDto.builder().id(ORDER_ID).build());
 
         Pageable pageable = PageRequest.of(0, 5, Sort.by("price"));
-        Page<Order> pageableExpectedOrders = new PageImpl(expectedOrders, pageable, expectedOrders.size());
+        Page<OrderDto> pageableExpectedOrders = new PageImpl<>(expectedOrders, pageable, expectedOrders.size());
 
-        when(orderService.findAll(any(Pageable.class))).thenReturn(pageableExpectedOrders);
+        when(orderService.findAllAsDto(any(Pageable.class), any(TotalCount.class))).thenReturn(pageableExpectedOrders);
 
         mockMvc.perform(
                         get("/orders")
@@ -142,10 +143,33 @@ class OrderControllerTest {
                                 .param("size", "5")
                                 .param("sort", "price,asc")
                 )
-                .andExpect(status().isOk());
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(ORDER_ID));
+
+        verify(orderService).findAllAsDto(pageable, TotalCount.EXACT);
+        verifyNoMoreInteractions(orderService);
+        verifyNoInteractions(orderMapper);
+    }
+
+    @Test
+    void getAllOrders_whenCursor_thenReturnsCursorPage() throws Exception {
+        Pageable pageable = PageRequest.of(0, 5, Sort.by("price"));
+        CursorPage<OrderDto> expectedOrders = new CursorPage<>(List.of(), null);
+
+        when(orderService.findAllAsDto(any(String.class), any(Pageable.class))).thenReturn(expectedOrders);
+
+        mockMvc.perform(
+                        get("/orders")
+                                .param("cursor", "abc")
+                                .param("size", "5")
+                                .param("sort", "price,asc")
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.last").value(true));
 
-        verify(orderService).findAll(pageable);
+        verify(orderService).findAllAsDto("abc", pageable);
         verifyNoMoreInteractions(orderService);
+        verifyNoInteractions(orderMapper);
     }
 
     @Test
@@ -331,39 +355,19 @@ class OrderControllerTest {
 
     @Test
     void getAllOrdersForUser() throws Exception {
-        GiftCertificate certificate = GiftCertificate.builder()
-                .id(CERTIFICATE_ID)
-                .name("cert")
-                .build();
-        GiftCertificateDto certificateDtoRequest = GiftCertificateDto.builder()
-                .id(CERTIFICATE_ID)
-                .name("cert")
-                .build();
-
-        User user = User.builder().id(USER_ID).name("User").build();
         UserDto userDto = UserDto.builder().id(USER_ID).name("User").build();
-
-        Order expectedOrder = Order.builder()
-                .id(ORDER_ID)
-                .price(10.2)
-                .user(user)
-                .giftCertificate(certificate)
-                .build();
         OrderDto orderDto = OrderDto.builder()
                 .id(ORDER_ID)
                 .price(10.2)
                 .user(userDto)
-                .certificate(certificateDtoRequest)
+                .certificate(GiftCertificateDto.builder().id(CERTIFICATE_ID).name("cert").build())
                 .build();
 
-
-        List<Order> expectedOrders = List.of(expectedOrder);
-
         Pageable pageable = PageRequest.of(0, 5);
-        Page<Order> pageableExpectedOrders = new PageImpl(expectedOrders, pageable, expectedOrders.size());
+        Page<OrderDto> pageableExpectedOrders = new PageImpl<>(List.of(orderDto), pageable, 1);
 
-        when(orderService.findAllByUserId(any(Long.class), any(Pageable.class))).thenReturn(pageableExpectedOrders);
-        when(orderMapper.toDto(any(Order.class))).thenReturn(orderDto);
+        when(orderService.findAllAsDtoByUserId(any(Long.class), any(Pageable.class), any(TotalCount.class)))
+                .thenReturn(pageableExpectedOrders);
 
         mockMvc.perform(
                         get("/orders/user")
@@ -372,11 +376,36 @@ class OrderControllerTest {
                                 .param("size", "5")
 
                 )
-                .andExpect(status().isOk());
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].certificate.name").value("cert"));
 
         verify(userService).checkIdOfCurrentUser(USER_ID);
-        verify(orderService).findAllByUserId(USER_ID, pageable);
-        verify(orderMapper).toDto(expectedOrder);
+        verify(orderService).findAllAsDtoByUserId(USER_ID, pageable, TotalCount.EXACT);
+        verifyNoMoreInteractions(orderService, orderMapper, userService);
+    }
+
+    @Test
+    void getAllOrdersForUser_whenCursor_thenReturnsCursorPage() throws Exception {
+        OrderDto orderDto = OrderDto.builder().id(ORDER_ID).price(10.2).build();
+
+        Pageable pageable = PageRequest.of(0, 5);
+        CursorPage<OrderDto> expectedOrders = new CursorPage<>(List.of(orderDto), "next");
+
+        when(orderService.findAllAsDtoByUserId(any(Long.class), any(String.class), any(Pageable.class)))
+                .thenReturn(expectedOrders);
+
+        mockMvc.perform(
+                        get("/orders/user")
+                                .param("userId", String.valueOf(USER_ID))
+                                .param("cursor", "")
+                                .param("size", "5")
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(ORDER_ID))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+
+        verify(userService).checkIdOfCurrentUser(USER_ID);
+        verify(orderService).findAllAsDtoByUserId(USER_ID, "", pageable);
         verifyNoMoreInteractions(orderService, orderMapper, userService);
     }
 
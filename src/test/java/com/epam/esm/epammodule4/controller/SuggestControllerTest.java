@@ -0,0 +1,63 @@
+package com.epam.esm.epammodule4.controller;
+
+import com.epam.esm.epammodule4.controller.advice.ApplicationControllerAdvice;
+import com.epam.esm.epammodule4.service.SuggestService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class SuggestControllerTest {
+
+    @InjectMocks
+    private SuggestController subject;
+    @Mock
+    private SuggestService suggestService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(subject)
+                .setControllerAdvice(new ApplicationControllerAdvice())
+                .build();
+    }
+
+    @Test
+    void suggest() throws Exception {
+        when(suggestService.suggestTagNames("sp", 5)).thenReturn(List.of("spa", "sport"));
+        when(suggestService.suggestCertificateNames("sp", 5)).thenReturn(List.of("Spa day"));
+
+        mockMvc.perform(get("/suggest").param("prefix", "sp").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tags[0]").value("spa"))
+                .andExpect(jsonPath("$.tags[1]").value("sport"))
+                .andExpect(jsonPath("$.certificates[0]").value("Spa day"));
+
+        verify(suggestService).suggestTagNames("sp", 5);
+        verify(suggestService).suggestCertificateNames("sp", 5);
+        verifyNoMoreInteractions(suggestService);
+    }
+
+    @Test
+    void suggest_whenNoParameters_thenUsesDefaults() throws Exception {
+        when(suggestService.suggestTagNames("", 10)).thenReturn(List.of());
+        when(suggestService.suggestCertificateNames("", 10)).thenReturn(List.of());
+
+        mockMvc.perform(get("/suggest"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tags").isEmpty())
+                .andExpect(jsonPath("$.certificates").isEmpty());
+    }
+}
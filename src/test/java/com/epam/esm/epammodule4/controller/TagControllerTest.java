@@ -1,8 +1,11 @@
 package com.epam.esm.epammodule4.controller;
 
 import com.epam.esm.epammodule4.controller.advice.ApplicationControllerAdvice;
+import com.epam.esm.epammodule4.exception.InvalidCursorException;
 import com.epam.esm.epammodule4.exception.TagAlreadyExistsException;
 import com.epam.esm.epammodule4.exception.TagNotFoundException;
+import com.epam.esm.epammodule4.model.TotalCount;
+import com.epam.esm.epammodule4.model.dto.CursorPage;
 import com.epam.esm.epammodule4.model.dto.TagDto;
 import com.epam.esm.epammodule4.model.dto.request.CreateTagRequest;
 import com.epam.esm.epammodule4.model.dto.request.UpdateTagRequest;
@@ -102,7 +105,7 @@ class TagControllerTest {
         Pageable pageable = PageRequest.of(0, 5, Sort.by("name"));
         Page<Tag> pageableExpectedTags = new PageImpl(expectedTags, pageable, expectedTags.size());
 
-        when(tagService.findAll(any(Pageable.class))).thenReturn(pageableExpectedTags);
+        when(tagService.findAll(any(Pageable.class), any(TotalCount.class))).thenReturn(pageableExpectedTags);
 
         mockMvc.perform(
                         get("/tags")
@@ -112,10 +115,70 @@ class TagControllerTest {
                 )
                 .andExpect(status().isOk());
 
-        verify(tagService).findAll(pageable);
+        verify(tagService).findAll(pageable, TotalCount.EXACT);
         verifyNoMoreInteractions(tagService);
     }
 
+    @Test
+    void getAllTags_whenTotalIsNone_thenReturnsSliceWithoutTotal() throws Exception {
+        Pageable pageable = PageRequest.of(0, 5, Sort.by("name"));
+        Slice<Tag> expectedTags = new SliceImpl<>(List.of(new Tag()), pageable, true);
+
+        when(tagService.findAll(any(Pageable.class), any(TotalCount.class))).thenReturn(expectedTags);
+
+        mockMvc.perform(
+                        get("/tags")
+                                .param("total", "NONE")
+                                .param("page", "0")
+                                .param("size", "5")
+                                .param("sort", "name,asc")
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.last").value(false))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+
+        verify(tagService).findAll(pageable, TotalCount.NONE);
+        verifyNoMoreInteractions(tagService);
+    }
+
+    @Test
+    void getAllTags_whenCursor_thenReturnsCursorPage() throws Exception {
+        Tag expectedTag = Tag.builder().id(TAG_ID).name("myTag").build();
+        TagDto tagDto = new TagDto(TAG_ID, "myTag");
+
+        Pageable pageable = PageRequest.of(0, 5, Sort.by("name"));
+        CursorPage<Tag> expectedTags = new CursorPage<>(List.of(expectedTag), "next");
+
+        when(tagService.findAll(any(String.class), any(Pageable.class))).thenReturn(expectedTags);
+        when(modelMapper.map(any(Tag.class), any(Class.class))).thenReturn(tagDto);
+
+        mockMvc.perform(
+                        get("/tags")
+                                .param("cursor", "")
+                                .param("size", "5")
+                                .param("sort", "name,asc")
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name").value("myTag"))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+
+        verify(tagService).findAll("", pageable);
+        verifyNoMoreInteractions(tagService);
+    }
+
+    @Test
+    void getAllTags_whenCursorIsInvalid_thenReturnsBadRequest() throws Exception {
+        when(tagService.findAll(any(String.class), any(Pageable.class)))
+                .thenThrow(new InvalidCursorException("Cursor is malformed"));
+
+        mockMvc.perform(
+                        get("/tags")
+                                .param("cursor", "broken")
+                )
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value(40001));
+    }
+
     @Test
     void addTag() throws Exception {
         Tag createdTag = new Tag();
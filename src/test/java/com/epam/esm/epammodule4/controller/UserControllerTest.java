@@ -5,6 +5,7 @@ import com.epam.esm.epammodule4.exception.TagAlreadyExistsException;
 import com.epam.esm.epammodule4.exception.UserAlreadyExistsException;
 import com.epam.esm.epammodule4.exception.UserCannotDeleteException;
 import com.epam.esm.epammodule4.exception.UserNotFoundException;
+import com.epam.esm.epammodule4.model.TotalCount;
 import com.epam.esm.epammodule4.model.dto.*;
 import com.epam.esm.epammodule4.model.dto.request.CreateTagRequest;
 import com.epam.esm.epammodule4.model.dto.request.CreateUserRequest;
@@ -109,7 +110,7 @@ class UserControllerTest {
         Pageable pageable = PageRequest.of(0, 5, Sort.by("name"));
         Page<User> pageableExpectedUsers = new PageImpl(expectedUsers, pageable, expectedUsers.size());
 
-        when(userService.findAll(any(Pageable.class))).thenReturn(pageableExpectedUsers);
+        when(userService.findAll(any(Pageable.class), any(TotalCount.class))).thenReturn(pageableExpectedUsers);
 
         mockMvc.perform(
                         get("/users")
@@ -119,7 +120,26 @@ class UserControllerTest {
                 )
                 .andExpect(status().isOk());
 
-        verify(userService).findAll(pageable);
+        verify(userService).findAll(pageable, TotalCount.EXACT);
+        verifyNoMoreInteractions(userService);
+    }
+
+    @Test
+    void getUsers_whenCursor_thenReturnsCursorPage() throws Exception {
+        Pageable pageable = PageRequest.of(0, 5, Sort.by("name"));
+        CursorPage<User> expectedUsers = new CursorPage<>(List.of(), null);
+
+        when(userService.findAll(any(String.class), any(Pageable.class))).thenReturn(expectedUsers);
+
+        mockMvc.perform(
+                        get("/users")
+                                .param("cursor", "")
+                                .param("size", "5")
+                                .param("sort", "name,asc")
+                )
+                .andExpect(status().isOk());
+
+        verify(userService).findAll("", pageable);
         verifyNoMoreInteractions(userService);
     }
 
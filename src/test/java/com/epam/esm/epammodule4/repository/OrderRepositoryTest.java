@@ -1,11 +1,33 @@
 package com.epam.esm.epammodule4.repository;
 
 import com.epam.esm.epammodule4.EpamModule4Application;
+import com.epam.esm.epammodule4.model.ERole;
+import com.epam.esm.epammodule4.model.OrderRow;
+import com.epam.esm.epammodule4.model.dto.CursorPage;
+import com.epam.esm.epammodule4.model.entity.GiftCertificate;
+import com.epam.esm.epammodule4.model.entity.Order;
+import com.epam.esm.epammodule4.model.entity.Role;
+import com.epam.esm.epammodule4.model.entity.Tag;
+import com.epam.esm.epammodule4.model.entity.User;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -15,9 +37,104 @@ class OrderRepositoryTest {
 
     @Autowired
     private OrderRepository orderRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private RoleRepository roleRepository;
+    @Autowired
+    private TagRepository tagRepository;
+    @Autowired
+    private GiftCertificateRepository certificateRepository;
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Test
     void context() {
         assertThat(orderRepository).isNotNull();
     }
-}
\ No newline at end of file
+
+    @Test
+    @Transactional
+    void findAllRowsByUserId_thenSelectsOrderUserAndCertificateColumnsInOneQuery() {
+        Role role = roleRepository.findByName(ERole.ROLE_USER)
+                .orElseGet(() -> roleRepository.save(Role.builder().name(ERole.ROLE_USER).build()));
+        User user = userRepository.save(User.builder()
+                .name("rows-user").username("rows").email("rows@example.com").roles(Set.of(role)).build());
+        Tag spa = tagRepository.save(Tag.builder().name("rows-spa").build());
+        Tag gift = tagRepository.save(Tag.builder().name("rows-gift").build());
+        GiftCertificate certificate = certificateRepository.save(GiftCertificate.builder()
+                .name("rows-certificate").price(20.0).duration(30).tags(List.of(spa, gift)).build());
+        Order cheap = orderRepository.save(Order.builder().price(5.0).user(user).giftCertificate(certificate).build());
+        Order dear = orderRepository.save(Order.builder().price(9.0).user(user).giftCertificate(certificate).build());
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Page<OrderRow> rows = orderRepository.findAllRowsByUserId(user.getId(),
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "price")));
+        List<Object[]> tags = orderRepository.findTagsByCertificateIds(Set.of(certificate.getId()));
+
+        assertThat(rows.getContent()).extracting(OrderRow::id).containsExactly(dear.getId(), cheap.getId());
+        assertThat(rows.getTotalElements()).isEqualTo(2);
+        OrderRow row = rows.getContent().get(0);
+        assertThat(row.price()).isEqualTo(9.0);
+        assertThat(row.createDate()).isNotNull();
+        assertThat(row.userName()).isEqualTo("rows-user");
+        assertThat(row.userEmail()).isEqualTo("rows@example.com");
+        assertThat(row.userRoleMask()).isEqualTo(ERole.ROLE_USER.bit());
+        assertThat(row.certificateName()).isEqualTo("rows-certificate");
+        assertThat(row.certificateDuration()).isEqualTo(30);
+        assertThat(tags).extracting(tag -> tag[2]).containsExactlyInAnyOrder("rows-spa", "rows-gift");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    @Transactional
+    void findRowSlice_thenSkipsCount() {
+        Slice<OrderRow> rows = orderRepository.findRowSlice(PageRequest.of(0, 1));
+
+        assertThat(rows).isNotInstanceOf(Page.class);
+        assertThat(rows.getNumberOfElements()).isLessThanOrEqualTo(1);
+    }
+
+    @Test
+    @Transactional
+    void findAllRows_whenCursor_thenWalksRowsOfUserInSortOrderOneQueryPerPage() {
+        Role role = roleRepository.findByName(ERole.ROLE_USER)
+                .orElseGet(() -> roleRepository.save(Role.builder().name(ERole.ROLE_USER).build()));
+        User user = userRepository.save(User.builder()
+                .name("keyset-user").username("keyset").email("keyset@example.com").roles(Set.of(role)).build());
+        GiftCertificate certificate = certificateRepository.save(GiftCertificate.builder()
+                .name("keyset-certificate").price(20.0).duration(30).build());
+        List<Long> expected = new ArrayList<>();
+        for (double price : new double[]{9.0, 5.0, 7.0, 5.0, 3.0}) {
+            expected.add(orderRepository.save(Order.builder()
+                    .price(price).user(user).giftCertificate(certificate).build()).getId());
+        }
+        expected = List.of(expected.get(0), expected.get(2), expected.get(3), expected.get(1), expected.get(4));
+        Specification<Order> ofUser = (root, query, builder) -> builder.equal(root.get("user").get("id"), user.getId());
+        PageRequest byPrice = PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "price"));
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<Long> ids = new ArrayList<>();
+        String cursor = "";
+        int pages = 0;
+        do {
+            CursorPage<OrderRow> page = orderRepository.findAllRows(ofUser, cursor, byPrice);
+            page.getContent().forEach(row -> ids.add(row.id()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(ids).isEqualTo(expected);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(pages);
+        String second = orderRepository.findAllRows(ofUser, "", byPrice).getNextCursor();
+        assertThat(orderRepository.findAll(ofUser, second, byPrice).getContent())
+                .extracting(Order::getId)
+                .isEqualTo(expected.subList(2, 4));
+    }
+}
@@ -1,13 +1,32 @@
 package com.epam.esm.epammodule4.repository;
 
 import com.epam.esm.epammodule4.EpamModule4Application;
+import com.epam.esm.epammodule4.exception.InvalidCursorException;
+import com.epam.esm.epammodule4.model.dto.CursorPage;
+import com.epam.esm.epammodule4.model.dto.request.SearchGiftCertificateRequest;
+import com.epam.esm.epammodule4.model.entity.GiftCertificate;
+import com.epam.esm.epammodule4.model.entity.Tag;
+import com.epam.esm.epammodule4.repository.specification.GiftCertificateSpecification;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @ExtendWith(SpringExtension.class)
 @SpringBootTest(classes = EpamModule4Application.class)
@@ -15,9 +34,252 @@ class PageableGiftCertificateRepositoryTest {
 
     @Autowired
     private PageableGiftCertificateRepository pageableCertificateRepository;
+    @Autowired
+    private TagRepository tagRepository;
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Test
     void context() {
         assertThat(pageableCertificateRepository).isNotNull();
     }
-}
\ No newline at end of file
+
+    @Test
+    @Transactional
+    void findAll_whenTagFilters_thenAppliesAllAnyAndExcludedTagsWithoutDuplicates() {
+        Tag spa = tagRepository.save(Tag.builder().name("spec-spa").build());
+        Tag massage = tagRepository.save(Tag.builder().name("spec-massage").build());
+        Tag gift = tagRepository.save(Tag.builder().name("spec-gift").build());
+
+        GiftCertificate both = save("spec-both", spa, massage);
+        GiftCertificate spaOnly = save("spec-spa-only", spa);
+        GiftCertificate massageGift = save("spec-massage-gift", massage, gift);
+
+        assertThat(find(SearchGiftCertificateRequest.builder()
+                .tags(List.of("spec-spa", "spec-massage"))
+                .build()))
+                .containsExactlyInAnyOrder(both, spaOnly, massageGift);
+        assertThat(find(SearchGiftCertificateRequest.builder()
+                .tags(List.of("spec-spa", "spec-massage"))
+                .matchAllTags(true)
+                .build()))
+                .containsExactly(both);
+        assertThat(find(SearchGiftCertificateRequest.builder()
+                .tags(List.of("spec-spa", "spec-massage"))
+                .excludedTags(List.of("spec-gift"))
+                .build()))
+                .containsExactlyInAnyOrder(both, spaOnly);
+    }
+
+    @Test
+    @Transactional
+    void findAll_whenNameFilter_thenMatchesNameOrDescriptionIgnoringCase() {
+        GiftCertificate byName = pageableCertificateRepository.save(GiftCertificate.builder()
+                .name("Relaxing SPA day").build());
+        GiftCertificate byDescription = pageableCertificateRepository.save(GiftCertificate.builder()
+                .name("Weekend").description("with a spa visit").build());
+        save("spec-no-match");
+
+        assertThat(find(SearchGiftCertificateRequest.builder().name("Spa").build()))
+                .containsExactlyInAnyOrder(byName, byDescription);
+    }
+
+    @Test
+    @Transactional
+    void findAll_whenDescriptionAndRangeFilters_thenAppliesEachIndependently() {
+        GiftCertificate shortSpa = saveRanged("spec-short", "Spa and sauna", 20.0, 7);
+        GiftCertificate longSpa = saveRanged("spec-long", "Spa weekend", 80.0, 30);
+        GiftCertificate longKarting = saveRanged("spec-karting", "Karting", 50.0, 90);
+
+        assertThat(find(SearchGiftCertificateRequest.builder().description("SPA").build()))
+                .containsExactlyInAnyOrder(shortSpa, longSpa);
+        assertThat(find(SearchGiftCertificateRequest.builder().description("spa").minDuration(30).build()))
+                .containsExactly(longSpa);
+        assertThat(find(SearchGiftCertificateRequest.builder().minPrice(20.0).maxPrice(50.0).build()))
+                .containsExactlyInAnyOrder(shortSpa, longKarting);
+        assertThat(find(SearchGiftCertificateRequest.builder().minPrice(30.0).maxDuration(30).build()))
+                .containsExactly(longSpa);
+    }
+
+    @Test
+    @Transactional
+    void findAll_whenWalkedByCursor_thenReturnsEveryRowOnceInSortOrder() {
+        saveCertificate("keyset-a", "beta", 10.0);
+        saveCertificate("keyset-b", null, 5.0);
+        saveCertificate("keyset-c", "alpha", null);
+        saveCertificate("keyset-d", "beta", 10.0);
+        saveCertificate("keyset-e", null, null);
+        saveCertificate("keyset-f", "gamma", 7.5);
+        saveCertificate("keyset-g", "alpha", 5.0);
+
+        for (Sort sort : List.of(
+                Sort.by(Sort.Direction.ASC, "description"),
+                Sort.by(Sort.Direction.DESC, "description"),
+                Sort.by(Sort.Direction.ASC, "price").and(Sort.by(Sort.Direction.DESC, "name")),
+                Sort.unsorted())) {
+            Sort expectedSort = sort.isSorted() ? sort.and(Sort.by(sort.toList().get(sort.toList().size() - 1)
+                    .getDirection(), "id")) : Sort.by("id");
+            List<Long> expected = pageableCertificateRepository.findAll(expectedSort).stream()
+                    .map(GiftCertificate::getId)
+                    .toList();
+
+            assertThat(walk(PageRequest.of(0, 3, sort))).containsExactlyElementsOf(expected);
+        }
+    }
+
+    @Test
+    void findAll_whenCursorIsMalformed_thenThrowsInvalidCursorException() {
+        Pageable pageable = PageRequest.of(0, 3);
+
+        assertThrows(InvalidCursorException.class,
+                () -> pageableCertificateRepository.findAll("not a cursor", pageable));
+        assertThrows(InvalidCursorException.class,
+                () -> pageableCertificateRepository.findAll("", PageRequest.of(0, 3, Sort.by("tags"))));
+    }
+
+    @Test
+    @Transactional
+    void findAll_whenSortDiffersFromCursor_thenThrowsInvalidCursorException() {
+        saveCertificate("keyset-x", "x", 1.0);
+        saveCertificate("keyset-y", "y", 2.0);
+        String cursor = pageableCertificateRepository
+                .findAll("", PageRequest.of(0, 1, Sort.by("price")))
+                .getNextCursor();
+        Pageable otherSort = PageRequest.of(0, 1, Sort.by("name"));
+
+        assertThat(cursor).isNotNull();
+        assertThrows(InvalidCursorException.class, () -> pageableCertificateRepository.findAll(cursor, otherSort));
+    }
+
+    @Test
+    @Transactional
+    void findSlice_thenFetchesOneRowAheadWithoutCounting() {
+        saveCertificate("slice-a", null, 1.0);
+        saveCertificate("slice-b", null, 2.0);
+        saveCertificate("slice-c", null, 3.0);
+        long total = pageableCertificateRepository.count();
+
+        Slice<GiftCertificate> first = pageableCertificateRepository.findSlice(PageRequest.of(0, 2, Sort.by("id")));
+        Slice<GiftCertificate> last = pageableCertificateRepository
+                .findSlice(PageRequest.of((int) (total - 1) / 2, 2, Sort.by("id")));
+        Slice<GiftCertificate> unpaged = pageableCertificateRepository.findSlice(Pageable.unpaged());
+
+        assertThat(first.getContent()).hasSize(2);
+        assertThat(first.hasNext()).isTrue();
+        assertThat(last.hasNext()).isFalse();
+        assertThat(last.getNumberOfElements()).isEqualTo(total % 2 == 0 ? 2 : 1);
+        assertThat(unpaged.getContent()).hasSize((int) total);
+    }
+
+    @Test
+    @Transactional
+    void findByIdGreaterThanOrderByIdAsc_thenSeeksPastLastId() {
+        saveCertificate("seek-a", null, 1.0);
+        saveCertificate("seek-b", null, 2.0);
+        saveCertificate("seek-c", null, 3.0);
+        List<Long> expected = pageableCertificateRepository.findAll(Sort.by("id")).stream()
+                .map(GiftCertificate::getId)
+                .toList();
+        List<Long> ids = new ArrayList<>();
+        List<GiftCertificate> batch;
+        long lastId = 0;
+
+        do {
+            batch = pageableCertificateRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, 2));
+            batch.forEach(certificate -> ids.add(certificate.getId()));
+            lastId = batch.isEmpty() ? lastId : batch.get(batch.size() - 1).getId();
+        } while (!batch.isEmpty());
+
+        assertThat(ids).isEqualTo(expected);
+    }
+
+    private List<Long> walk(Pageable pageable) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = "";
+
+        do {
+            CursorPage<GiftCertificate> page = pageableCertificateRepository.findAll(cursor, pageable);
+            page.getContent().forEach(certificate -> ids.add(certificate.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return ids;
+    }
+
+    private void saveCertificate(String name, String description, Double price) {
+        pageableCertificateRepository.save(GiftCertificate.builder()
+                .name(name)
+                .description(description)
+                .price(price)
+                .build());
+    }
+
+    @Test
+    @Transactional
+    void findSlice_whenPageTagsAreRead_thenLoadsThemInOneBatch() {
+        List<Long> ids = saveTaggedPage("batch-page", 100);
+        Statistics statistics = resetStatistics();
+
+        Slice<GiftCertificate> page = pageableCertificateRepository.findSlice(
+                new GiftCertificateSpecification(SearchGiftCertificateRequest.builder().name("batch-page").build()),
+                PageRequest.of(0, 100));
+        page.forEach(certificate -> assertThat(certificate.getTags()).hasSize(2));
+
+        assertThat(page.getNumberOfElements()).isEqualTo(100);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(ids).hasSize(100);
+    }
+
+    @Test
+    @Transactional
+    void findAllById_whenTagsAreRead_thenLoadsThemInOneBatch() {
+        List<Long> ids = saveTaggedPage("batch-ids", 100);
+        Statistics statistics = resetStatistics();
+
+        List<GiftCertificate> found = pageableCertificateRepository.findAllById(ids);
+        found.forEach(certificate -> assertThat(certificate.getTags()).hasSize(2));
+
+        assertThat(found).hasSize(100);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    /**
+     * Saves certificates carrying two tags each and detaches them, so reading them goes to the database.
+     */
+    private List<Long> saveTaggedPage(String name, int size) {
+        Tag first = tagRepository.save(Tag.builder().name(name + "-first").build());
+        Tag second = tagRepository.save(Tag.builder().name(name + "-second").build());
+        List<Long> ids = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            ids.add(save(name + "-" + i, first, second).getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return ids;
+    }
+
+    private Statistics resetStatistics() {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    private GiftCertificate saveRanged(String name, String description, Double price, Integer duration) {
+        return pageableCertificateRepository.save(GiftCertificate.builder()
+                .name(name)
+                .description(description)
+                .price(price)
+                .duration(duration)
+                .build());
+    }
+
+    private GiftCertificate save(String name, Tag... tags) {
+        return pageableCertificateRepository.save(GiftCertificate.builder().name(name).tags(List.of(tags)).build());
+    }
+
+    private List<GiftCertificate> find(SearchGiftCertificateRequest searchRequest) {
+        return pageableCertificateRepository
+                .findAll(new GiftCertificateSpecification(searchRequest), PageRequest.of(0, 10))
+                .getContent();
+    }
+}
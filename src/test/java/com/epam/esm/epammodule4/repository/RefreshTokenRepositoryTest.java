@@ -0,0 +1,81 @@
+package com.epam.esm.epammodule4.repository;
+
+import com.epam.esm.epammodule4.EpamModule4Application;
+import com.epam.esm.epammodule4.model.entity.RefreshToken;
+import com.epam.esm.epammodule4.model.entity.User;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = EpamModule4Application.class)
+class RefreshTokenRepositoryTest {
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void deleteExpired_thenDeletesExpiredTokensInBatches() {
+        User user = userRepository.save(User.builder().name("sweep").username("sweep").build());
+
+        for (int i = 0; i < 5; i++) {
+            refreshTokenRepository.save(RefreshToken.builder()
+                    .tokenHash("expired-" + i)
+                    .family("family")
+                    .expiryDate(Instant.now().minusSeconds(60))
+                    .user(user)
+                    .build());
+        }
+        refreshTokenRepository.save(RefreshToken.builder()
+                .tokenHash("alive")
+                .family("other")
+                .expiryDate(Instant.now().plusSeconds(60))
+                .user(user)
+                .build());
+
+        assertThat(refreshTokenRepository.deleteExpired(Instant.now(), 3)).isEqualTo(3);
+        assertThat(refreshTokenRepository.deleteExpired(Instant.now(), 3)).isEqualTo(2);
+        assertThat(refreshTokenRepository.findByTokenHash("alive")).isPresent();
+
+        refreshTokenRepository.deleteAll();
+        userRepository.delete(user);
+    }
+
+    @Test
+    void revokeAndBulkDeletes_thenTouchOnlyMatchingTokens() {
+        User user = userRepository.save(User.builder().name("revoke").username("revoke").build());
+        RefreshToken first = refreshTokenRepository.save(RefreshToken.builder()
+                .tokenHash("first")
+                .family("family")
+                .expiryDate(Instant.now().plusSeconds(60))
+                .user(user)
+                .build());
+        refreshTokenRepository.save(RefreshToken.builder()
+                .tokenHash("second")
+                .family("family")
+                .expiryDate(Instant.now().plusSeconds(60))
+                .user(user)
+                .build());
+        refreshTokenRepository.save(RefreshToken.builder()
+                .tokenHash("third")
+                .family("other")
+                .expiryDate(Instant.now().plusSeconds(60))
+                .user(user)
+                .build());
+
+        assertThat(refreshTokenRepository.revokeById(first.getId())).isEqualTo(1);
+        assertThat(refreshTokenRepository.revokeById(first.getId())).isZero();
+        assertThat(refreshTokenRepository.deleteByFamily("family")).isEqualTo(2);
+        assertThat(refreshTokenRepository.deleteByUserId(user.getId())).isEqualTo(1);
+
+        userRepository.delete(user);
+    }
+}
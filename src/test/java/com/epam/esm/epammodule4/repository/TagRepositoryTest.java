@@ -1,11 +1,20 @@
 package com.epam.esm.epammodule4.repository;
 
 import com.epam.esm.epammodule4.EpamModule4Application;
+import com.epam.esm.epammodule4.model.entity.Tag;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.List;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -15,9 +24,27 @@ class TagRepositoryTest {
 
     @Autowired
     private TagRepository tagRepository;
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Test
     void context() {
         assertThat(tagRepository).isNotNull();
     }
-}
\ No newline at end of file
+
+    @Test
+    @Transactional
+    void saveAll_thenTakesIdsFromOneSequenceCallAndInsertsInOneBatch() {
+        List<Tag> tags = IntStream.range(0, 20)
+                .mapToObj(i -> Tag.builder().name("batch-tag-" + i).build())
+                .toList();
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        tagRepository.saveAll(tags);
+        entityManager.flush();
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(20);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+    }
+}
@@ -1,13 +1,26 @@
 package com.epam.esm.epammodule4.repository;
 
 import com.epam.esm.epammodule4.EpamModule4Application;
+import com.epam.esm.epammodule4.model.ERole;
+import com.epam.esm.epammodule4.model.entity.Role;
+import com.epam.esm.epammodule4.model.entity.User;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.List;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 @ExtendWith(SpringExtension.class)
 @SpringBootTest(classes = EpamModule4Application.class)
@@ -15,9 +28,53 @@ class UserRepositoryTest {
 
     @Autowired
     private UserRepository userRepository;
+    @Autowired
+    private RoleRepository roleRepository;
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Test
     void context() {
         assertThat(userRepository).isNotNull();
     }
-}
\ No newline at end of file
+
+    @Test
+    @Transactional
+    void findByUsername_thenReadsRoleMaskWithoutLoadingRoles() {
+        Role user = roleRepository.findByName(ERole.ROLE_USER).orElseThrow();
+        Role admin = roleRepository.findByName(ERole.ROLE_ADMIN).orElseThrow();
+        userRepository.save(User.builder()
+                .name("mask-user").username("mask").email("mask@example.com").roles(Set.of(user, admin)).build());
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        User found = userRepository.findByUsername("mask").orElseThrow();
+
+        assertThat(found.getRoleMask()).isEqualTo(ERole.ROLE_USER.bit() | ERole.ROLE_ADMIN.bit());
+        assertThat(Hibernate.isInitialized(found.getRoles())).isFalse();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @Transactional
+    void updateRoleMask_thenUsersNoLongerNeedOne() {
+        Role admin = roleRepository.findByName(ERole.ROLE_ADMIN).orElseThrow();
+        User saved = userRepository.save(User.builder()
+                .name("legacy-user").username("legacy").email("legacy@example.com").roles(Set.of(admin)).build());
+        entityManager.flush();
+        entityManager.createQuery("UPDATE User u SET u.roleMask = NULL WHERE u.id = :id")
+                .setParameter("id", saved.getId())
+                .executeUpdate();
+
+        List<Object[]> withoutMask = userRepository.findRolesOfUsersWithoutRoleMask();
+        int updated = userRepository.updateRoleMask(List.of(saved.getId()), ERole.ROLE_ADMIN.bit());
+
+        assertThat(withoutMask).extracting(row -> row[0], row -> row[1])
+                .contains(tuple(saved.getId(), ERole.ROLE_ADMIN));
+        assertThat(updated).isEqualTo(1);
+        assertThat(userRepository.findRolesOfUsersWithoutRoleMask())
+                .extracting(row -> row[0]).doesNotContain(saved.getId());
+    }
+}
@@ -0,0 +1,108 @@
+package com.epam.esm.epammodule4.security;
+
+import com.epam.esm.epammodule4.exception.PasswordHashingUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BoundedPasswordEncoderTest {
+
+    private BoundedPasswordEncoder subject;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        subject = new BoundedPasswordEncoder(4, 1, 1);
+        meterRegistry = new SimpleMeterRegistry();
+        subject.bindTo(meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        subject.destroy();
+    }
+
+    @Test
+    void encodeAndMatches() {
+        String encodedPassword = subject.encode("password");
+
+        assertThat(subject.matches("password", encodedPassword)).isTrue();
+        assertThat(subject.matches("wrong", encodedPassword)).isFalse();
+        assertThat(meterRegistry.get("password.hashing").tag("operation", "encode").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("password.hashing").tag("operation", "matches").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void upgradeEncoding_whenHashHasLowerStrength_thenReturnsTrue() {
+        String weakHash = new BCryptPasswordEncoder(4).encode("password");
+        String strongHash = new BCryptPasswordEncoder(5).encode("password");
+
+        BoundedPasswordEncoder strongerEncoder = new BoundedPasswordEncoder(5, 1, 1);
+
+        assertThat(strongerEncoder.upgradeEncoding(weakHash)).isTrue();
+        assertThat(strongerEncoder.upgradeEncoding(strongHash)).isFalse();
+
+        strongerEncoder.destroy();
+    }
+
+    @Test
+    void encode_whenQueueIsFull_thenThrowsPasswordHashingUnavailableException() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CharSequence blockingPassword = new BlockingPassword(release);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> subject.encode(blockingPassword), callers);
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> subject.encode(blockingPassword), callers);
+
+        while (subject.getQueueDepth() < 1) {
+            Thread.sleep(5);
+        }
+
+        assertThrows(PasswordHashingUnavailableException.class, () -> subject.encode("rejected"));
+        assertThat(meterRegistry.get("password.hashing.rejected").counter().count()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(running.get()).startsWith("$2a$04$");
+        assertThat(queued.get()).startsWith("$2a$04$");
+
+        callers.shutdown();
+    }
+
+    private record BlockingPassword(CountDownLatch release) implements CharSequence {
+
+        @Override
+        public int length() {
+            return toString().length();
+        }
+
+        @Override
+        public char charAt(int index) {
+            return toString().charAt(index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return toString().subSequence(start, end);
+        }
+
+        @Override
+        public String toString() {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "password";
+        }
+    }
+}
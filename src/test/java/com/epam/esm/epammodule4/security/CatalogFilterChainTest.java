@@ -0,0 +1,60 @@
+package com.epam.esm.epammodule4.security;
+
+import com.epam.esm.epammodule4.EpamModule4Application;
+import com.epam.esm.epammodule4.security.jwt.AuthTokenFilter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.security.web.FilterChainProxy;
+import org.springframework.security.web.context.SecurityContextHolderFilter;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import javax.servlet.Filter;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = EpamModule4Application.class)
+class CatalogFilterChainTest {
+
+    @Autowired
+    private FilterChainProxy filterChainProxy;
+
+    @Autowired
+    private FilterRegistrationBean<AuthTokenFilter> authenticationJwtTokenFilterRegistration;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/certificates", "/tags/1", "/suggest"})
+    void getFilters_whenCatalogRead_thenSkipsTokenAndContextFilters(String url) {
+        List<Filter> filters = filterChainProxy.getFilters(url);
+
+        assertThat(filters).noneMatch(AuthTokenFilter.class::isInstance);
+        assertThat(filters).noneMatch(SecurityContextHolderFilter.class::isInstance);
+        assertThat(filters).noneMatch(CatalogFilterChainTest::isSecurityContextFilter);
+    }
+
+    @Test
+    void getFilters_whenOtherRequest_thenUsesFullChain() {
+        List<Filter> filters = filterChainProxy.getFilters("/orders/cost");
+
+        assertThat(filters).anyMatch(AuthTokenFilter.class::isInstance);
+        assertThat(filters).anyMatch(CatalogFilterChainTest::isSecurityContextFilter);
+    }
+
+    @Test
+    void authTokenFilter_isNotRegisteredWithServletContainer() {
+        assertThat(authenticationJwtTokenFilterRegistration.isEnabled()).isFalse();
+    }
+
+    /**
+     * Whichever filter loads and stores the security context, without naming the deprecated one.
+     */
+    private static boolean isSecurityContextFilter(Filter filter) {
+        return filter.getClass().getPackage().equals(SecurityContextHolderFilter.class.getPackage());
+    }
+}
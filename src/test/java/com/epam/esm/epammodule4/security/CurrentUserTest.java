@@ -0,0 +1,76 @@
+package com.epam.esm.epammodule4.security;
+
+import com.epam.esm.epammodule4.model.entity.User;
+import com.epam.esm.epammodule4.repository.UserRepository;
+import com.epam.esm.epammodule4.service.implementation.UserDetailsImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CurrentUserTest {
+
+    private static final Long USER_ID = 1L;
+
+    @InjectMocks
+    private CurrentUser subject;
+    @Mock
+    private UserRepository userRepository;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void getId_whenUserDetailsImplPrincipal_thenResolvesWithoutDatabase() {
+        List<GrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_ADMIN"));
+        UserDetailsImpl userDetails = new UserDetailsImpl(USER_ID, "user", "user@mail.com", null, authorities);
+        authenticate(userDetails, authorities);
+
+        assertThat(subject.getId()).isEqualTo(USER_ID);
+        assertThat(subject.isAdmin()).isTrue();
+
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void getId_whenOtherUserDetailsPrincipal_thenLooksUpOnce() {
+        List<GrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_USER"));
+        authenticate(new org.springframework.security.core.userdetails.User("user", "pass", authorities), authorities);
+
+        when(userRepository.findByUsername(any(String.class)))
+                .thenReturn(Optional.of(User.builder().id(USER_ID).build()));
+
+        assertThat(subject.getId()).isEqualTo(USER_ID);
+        assertThat(subject.getId()).isEqualTo(USER_ID);
+        assertThat(subject.isAdmin()).isFalse();
+
+        verify(userRepository, times(1)).findByUsername("user");
+    }
+
+    @Test
+    void getId_whenAnonymous_thenNull() {
+        assertThat(subject.getId()).isNull();
+        assertThat(subject.isAdmin()).isFalse();
+    }
+
+    private void authenticate(Object principal, List<GrantedAuthority> authorities) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, authorities));
+    }
+}
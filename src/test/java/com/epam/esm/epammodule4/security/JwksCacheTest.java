@@ -0,0 +1,176 @@
+package com.epam.esm.epammodule4.security;
+
+import com.epam.esm.epammodule4.config.OAuth2LoginConfig;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JwksCacheTest {
+
+    private static final String ISSUER = "https://accounts.google.com";
+    private static final String CLIENT_ID = "client";
+    private static final String ALGORITHMS_METADATA = "id_token_signing_alg_values_supported";
+
+    @TempDir
+    Path tempDir;
+
+    private static RSAKey signingKey;
+
+    private OAuth2LoginConfig config;
+    private JwksCache jwksCache;
+    private JwtDecoder jwtDecoder;
+
+    @BeforeAll
+    static void generateKey() throws Exception {
+        signingKey = new RSAKeyGenerator(2048).keyID("seeded").generate();
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Path jwksFile = tempDir.resolve("jwks.json");
+        Files.writeString(jwksFile, new JWKSet(signingKey.toPublicJWK()).toString());
+
+        config = new OAuth2LoginConfig();
+        jwksCache = config.jwksCache("", jwksFile.toString());
+        jwksCache.load();
+        jwtDecoder = config.idTokenDecoderFactory(jwksCache, List.of()).createDecoder(clientRegistration(Map.of()));
+    }
+
+    @Test
+    void load_whenSeedFileConfigured_thenReadsKeysFromFile() {
+        assertThat(jwksCache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void load_whenSeedFileMissing_thenStartsEmpty() {
+        JwksCache subject = new JwksCache("", tempDir.resolve("missing.json").toString());
+
+        subject.load();
+
+        assertThat(subject.size()).isZero();
+    }
+
+    @Test
+    void load_whenNoSeedFile_thenFetchesKeysFromUri() throws Exception {
+        byte[] body = new JWKSet(signingKey.toPublicJWK()).toString().getBytes(StandardCharsets.UTF_8);
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/certs", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+
+        try {
+            JwksCache subject = new JwksCache("http://127.0.0.1:%d/certs".formatted(server.getAddress().getPort()), "");
+
+            subject.load();
+
+            assertThat(subject.size()).isEqualTo(1);
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void decode_whenSignedWithSeededKey_thenReturnsIdToken() throws Exception {
+        Jwt idToken = jwtDecoder.decode(sign(signingKey));
+
+        assertThat(idToken.getSubject()).isEqualTo("google-sub");
+        assertThat(idToken.getClaimAsString("email")).isEqualTo("user@mail.com");
+    }
+
+    @Test
+    void decode_whenSignedWithUnknownKey_thenThrowsJwtException() throws Exception {
+        RSAKey otherKey = new RSAKeyGenerator(2048).keyID("other").generate();
+        String idToken = sign(otherKey);
+
+        assertThrows(JwtException.class, () -> jwtDecoder.decode(idToken));
+    }
+
+    @Test
+    void decode_whenAlgorithmNotConfigured_thenThrowsJwtException() throws Exception {
+        JwtDecoder subject = config.idTokenDecoderFactory(jwksCache, List.of("ES256", "PS256"))
+                .createDecoder(clientRegistration(Map.of()));
+        String idToken = sign(signingKey);
+
+        assertThrows(JwtException.class, () -> subject.decode(idToken));
+    }
+
+    @Test
+    void decode_whenProviderAdvertisesAlgorithms_thenAcceptsOnlyThose() throws Exception {
+        JwtDecoder rsaProvider = config.idTokenDecoderFactory(jwksCache, List.of())
+                .createDecoder(clientRegistration(Map.of(ALGORITHMS_METADATA, List.of("RS256"))));
+        JwtDecoder ecProvider = config.idTokenDecoderFactory(jwksCache, List.of())
+                .createDecoder(clientRegistration(Map.of(ALGORITHMS_METADATA, List.of("ES256"))));
+        String idToken = sign(signingKey);
+
+        assertThat(rsaProvider.decode(idToken).getSubject()).isEqualTo("google-sub");
+        assertThrows(JwtException.class, () -> ecProvider.decode(idToken));
+    }
+
+    @Test
+    void idTokenDecoderFactory_whenSymmetricAlgorithmConfigured_thenThrows() {
+        assertThatThrownBy(() -> config.idTokenDecoderFactory(jwksCache, List.of("HS256")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private String sign(RSAKey key) throws Exception {
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .issuer(ISSUER)
+                .audience(CLIENT_ID)
+                .subject("google-sub")
+                .claim("email", "user@mail.com")
+                .issueTime(new Date())
+                .expirationTime(new Date(System.currentTimeMillis() + 60_000))
+                .build();
+
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(), claims);
+        jwt.sign(new RSASSASigner(key));
+
+        return jwt.serialize();
+    }
+
+    private ClientRegistration clientRegistration(Map<String, Object> providerMetadata) {
+        return ClientRegistration.withRegistrationId("google")
+                .clientId(CLIENT_ID)
+                .clientSecret("secret")
+                .authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE)
+                .redirectUri("http://127.0.0.1:8080/login/oauth2/code/google")
+                .scope("openid", "email")
+                .authorizationUri(ISSUER + "/o/oauth2/v2/auth")
+                .tokenUri("https://oauth2.googleapis.com/token")
+                .jwkSetUri("https://www.googleapis.com/oauth2/v3/certs")
+                .issuerUri(ISSUER)
+                .providerConfigurationMetadata(providerMetadata)
+                .build();
+    }
+}
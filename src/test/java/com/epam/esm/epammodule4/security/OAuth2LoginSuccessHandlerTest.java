@@ -0,0 +1,72 @@
+package com.epam.esm.epammodule4.security;
+
+import com.epam.esm.epammodule4.model.entity.RefreshToken;
+import com.epam.esm.epammodule4.security.jwt.JwtUtils;
+import com.epam.esm.epammodule4.service.implementation.RefreshTokenService;
+import com.epam.esm.epammodule4.service.implementation.UserDetailsImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.core.oidc.OidcIdToken;
+import org.springframework.security.oauth2.core.oidc.user.DefaultOidcUser;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OAuth2LoginSuccessHandlerTest {
+
+    private static final Long USER_ID = 1L;
+    private static final String EMAIL = "user@mail.com";
+
+    @Mock
+    private OidcPrincipalCache oidcPrincipalCache;
+    @Mock
+    private JwtUtils jwtUtils;
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Test
+    void onAuthenticationSuccess_thenWritesJwtResponse() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        OAuth2LoginSuccessHandler subject =
+                new OAuth2LoginSuccessHandler(oidcPrincipalCache, jwtUtils, refreshTokenService, objectMapper);
+
+        List<GrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_USER"));
+        UserDetailsImpl userDetails = new UserDetailsImpl(USER_ID, "user", EMAIL, null, authorities);
+        OidcIdToken idToken = new OidcIdToken("id-token", Instant.now(), Instant.now().plusSeconds(60),
+                Map.of("sub", "google-sub", "email", EMAIL));
+        DefaultOidcUser oidcUser = new DefaultOidcUser(authorities, idToken, "sub");
+
+        when(oidcPrincipalCache.getPrincipal(any(String.class))).thenReturn(userDetails);
+        when(jwtUtils.generateJwtToken(any(UserDetailsImpl.class))).thenReturn("jwt");
+        when(refreshTokenService.createRefreshToken(any(Long.class)))
+                .thenReturn(RefreshToken.builder().token("refresh").build());
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        subject.onAuthenticationSuccess(new MockHttpServletRequest(), response,
+                new TestingAuthenticationToken(oidcUser, null, authorities));
+
+        Map<?, ?> body = objectMapper.readValue(response.getContentAsString(), Map.class);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(body.get("token")).isEqualTo("jwt");
+        assertThat(body.get("refreshToken")).isEqualTo("refresh");
+        assertThat(body.get("email")).isEqualTo(EMAIL);
+
+        verify(oidcPrincipalCache).getPrincipal(EMAIL);
+        verify(refreshTokenService).createRefreshToken(USER_ID);
+    }
+}
@@ -0,0 +1,121 @@
+package com.epam.esm.epammodule4.security;
+
+import com.epam.esm.epammodule4.model.ERole;
+import com.epam.esm.epammodule4.model.entity.Role;
+import com.epam.esm.epammodule4.model.entity.User;
+import com.epam.esm.epammodule4.service.UserService;
+import com.epam.esm.epammodule4.service.event.UserChangedEvent;
+import com.epam.esm.epammodule4.service.implementation.UserDetailsImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OidcPrincipalCacheTest {
+
+    private static final Long USER_ID = 1L;
+    private static final String EMAIL = "user@mail.com";
+
+    @Mock
+    private UserService userService;
+
+    @Test
+    void getPrincipal_whenCached_thenLoadsUserOnce() {
+        OidcPrincipalCache subject = new OidcPrincipalCache(userService, 60_000, 100);
+
+        when(userService.findByEmail(any(String.class))).thenReturn(user());
+
+        UserDetailsImpl first = subject.getPrincipal(EMAIL);
+        UserDetailsImpl second = subject.getPrincipal(EMAIL);
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.getId()).isEqualTo(USER_ID);
+        assertThat(first.getPassword()).isNull();
+        assertThat(first.getAuthorities()).extracting("authority").containsExactly("ROLE_USER");
+
+        verify(userService, times(1)).findByEmail(EMAIL);
+    }
+
+    @Test
+    void onUserChanged_thenDropsPrincipalOfUser() {
+        OidcPrincipalCache subject = new OidcPrincipalCache(userService, 60_000, 100);
+
+        when(userService.findByEmail(any(String.class))).thenReturn(user());
+
+        subject.getPrincipal(EMAIL);
+        subject.onUserChanged(new UserChangedEvent(2L, false));
+        assertThat(subject.size()).isEqualTo(1);
+
+        subject.onUserChanged(new UserChangedEvent(USER_ID, false));
+        assertThat(subject.size()).isZero();
+
+        subject.getPrincipal(EMAIL);
+        verify(userService, times(2)).findByEmail(EMAIL);
+    }
+
+    @Test
+    void getPrincipal_whenExpired_thenReloads() {
+        OidcPrincipalCache subject = new OidcPrincipalCache(userService, -1, 100);
+
+        when(userService.findByEmail(any(String.class))).thenReturn(user());
+
+        subject.getPrincipal(EMAIL);
+        subject.getPrincipal(EMAIL);
+
+        verify(userService, times(2)).findByEmail(EMAIL);
+    }
+
+    @Test
+    void getPrincipal_whenFull_thenEvictsLeastRecentlyUsed() {
+        OidcPrincipalCache subject = new OidcPrincipalCache(userService, 60_000, 2);
+
+        when(userService.findByEmail(any(String.class))).thenReturn(user());
+
+        subject.getPrincipal("a@mail.com");
+        subject.getPrincipal("b@mail.com");
+        subject.getPrincipal("a@mail.com");
+        subject.getPrincipal("c@mail.com");
+
+        assertThat(subject.size()).isEqualTo(2);
+
+        subject.getPrincipal("a@mail.com");
+        subject.getPrincipal("b@mail.com");
+
+        verify(userService, times(1)).findByEmail("a@mail.com");
+        verify(userService, times(2)).findByEmail("b@mail.com");
+    }
+
+    @Test
+    void getPrincipal_whenFull_thenPurgesExpiredFirst() {
+        OidcPrincipalCache subject = new OidcPrincipalCache(userService, -1, 2);
+
+        when(userService.findByEmail(any(String.class))).thenReturn(user());
+
+        subject.getPrincipal("a@mail.com");
+        subject.getPrincipal("b@mail.com");
+        assertThat(subject.size()).isEqualTo(2);
+
+        subject.getPrincipal("c@mail.com");
+        assertThat(subject.size()).isZero();
+    }
+
+    private User user() {
+        Role role = new Role();
+        role.setName(ERole.ROLE_USER);
+
+        return User.builder()
+                .id(USER_ID)
+                .username("user")
+                .email(EMAIL)
+                .password("hash")
+                .roles(Set.of(role))
+                .build();
+    }
+}
@@ -0,0 +1,196 @@
+package com.epam.esm.epammodule4.security.jwt;
+
+import com.epam.esm.epammodule4.service.implementation.UserDetailsImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuthTokenFilterTest {
+
+    private static final String TOKEN = "header.payload.signature";
+    private static final Long USER_ID = 1L;
+    private static final String USERNAME = "user";
+    private static final long CLAIMS_MAX_AGE_MS = 300_000;
+
+    @InjectMocks
+    private AuthTokenFilter subject;
+    @Mock
+    private JwtUtils jwtUtils;
+    @Mock
+    private UserDetailsService userDetailsService;
+    @Mock
+    private TokenRevocationList tokenRevocationList;
+
+    private CredentialsChangeRegistry credentialsChangeRegistry;
+    private MockHttpServletRequest request;
+    private MockFilterChain filterChain;
+
+    @BeforeEach
+    void setUp() {
+        credentialsChangeRegistry = new CredentialsChangeRegistry();
+        ReflectionTestUtils.setField(credentialsChangeRegistry, "jwtExpirationMs", 3_600_000);
+        ReflectionTestUtils.setField(subject, "credentialsChangeRegistry", credentialsChangeRegistry);
+        ReflectionTestUtils.setField(subject, "claimsOnly", true);
+        ReflectionTestUtils.setField(subject, "claimsMaxAgeMs", CLAIMS_MAX_AGE_MS);
+
+        request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + TOKEN);
+        filterChain = new MockFilterChain();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void doFilter_whenClaimsOnlyAndTokenFresh_thenAuthenticatesFromClaims() throws Exception {
+        VerifiedToken token = verifiedToken(System.currentTimeMillis(), "ROLE_ADMIN");
+        when(jwtUtils.verifyJwtToken(TOKEN)).thenReturn(Optional.of(token));
+        when(jwtUtils.buildUserDetails(token)).thenCallRealMethod();
+
+        subject.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        assertThat(authorities()).containsExactly("ROLE_ADMIN");
+        assertThat(((UserDetailsImpl) authentication().getPrincipal()).getId()).isEqualTo(USER_ID);
+        assertThat(authentication().getCredentials()).isSameAs(token);
+        assertThat(filterChain.getRequest()).isSameAs(request);
+
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void doFilter_whenClaimsOlderThanMaxAge_thenReloadsUser() throws Exception {
+        VerifiedToken token = verifiedToken(System.currentTimeMillis() - CLAIMS_MAX_AGE_MS - 1_000, "ROLE_ADMIN");
+        when(jwtUtils.verifyJwtToken(TOKEN)).thenReturn(Optional.of(token));
+        when(userDetailsService.loadUserByUsername(USERNAME)).thenReturn(storedUser("ROLE_ADMIN"));
+
+        subject.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        assertThat(authorities()).containsExactly("ROLE_ADMIN");
+
+        verify(userDetailsService).loadUserByUsername(USERNAME);
+        verify(jwtUtils, never()).buildUserDetails(any(VerifiedToken.class));
+    }
+
+    @Test
+    void doFilter_whenRolesChangedAfterIssue_thenRevokedRoleDoesNotAuthorize() throws Exception {
+        VerifiedToken token = verifiedToken(System.currentTimeMillis() - 1_000, "ROLE_ADMIN");
+        when(jwtUtils.verifyJwtToken(TOKEN)).thenReturn(Optional.of(token));
+        when(userDetailsService.loadUserByUsername(USERNAME)).thenReturn(storedUser("ROLE_USER"));
+
+        credentialsChangeRegistry.markChanged(USER_ID);
+        subject.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        assertThat(authorities()).containsExactly("ROLE_USER");
+
+        verify(jwtUtils, never()).buildUserDetails(any(VerifiedToken.class));
+    }
+
+    @Test
+    void doFilter_whenTokenIssuedAfterChange_thenTrustsClaimsAgain() throws Exception {
+        credentialsChangeRegistry.markChanged(USER_ID);
+
+        VerifiedToken token = verifiedToken(System.currentTimeMillis() + 1_000, "ROLE_USER");
+        when(jwtUtils.verifyJwtToken(TOKEN)).thenReturn(Optional.of(token));
+        when(jwtUtils.buildUserDetails(token)).thenCallRealMethod();
+
+        subject.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        assertThat(authorities()).containsExactly("ROLE_USER");
+
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void doFilter_whenClaimsOnlyDisabled_thenLoadsUserEveryTime() throws Exception {
+        ReflectionTestUtils.setField(subject, "claimsOnly", false);
+        VerifiedToken token = verifiedToken(System.currentTimeMillis(), "ROLE_ADMIN");
+        when(jwtUtils.verifyJwtToken(TOKEN)).thenReturn(Optional.of(token));
+        when(userDetailsService.loadUserByUsername(USERNAME)).thenReturn(storedUser("ROLE_USER"));
+
+        subject.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        assertThat(authorities()).containsExactly("ROLE_USER");
+
+        verify(jwtUtils, never()).buildUserDetails(any(VerifiedToken.class));
+    }
+
+    @Test
+    void doFilter_whenTokenWithoutUserId_thenLoadsUser() throws Exception {
+        VerifiedToken token = new VerifiedToken(null, null, USERNAME, null, List.of("ROLE_ADMIN"),
+                new Date(), new Date(System.currentTimeMillis() + 60_000));
+        when(jwtUtils.verifyJwtToken(TOKEN)).thenReturn(Optional.of(token));
+        when(userDetailsService.loadUserByUsername(USERNAME)).thenReturn(storedUser("ROLE_USER"));
+
+        subject.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        assertThat(authorities()).containsExactly("ROLE_USER");
+    }
+
+    @Test
+    void doFilter_whenTokenRevoked_thenLeavesRequestAnonymous() throws Exception {
+        VerifiedToken token = verifiedToken(System.currentTimeMillis(), "ROLE_ADMIN");
+        when(jwtUtils.verifyJwtToken(TOKEN)).thenReturn(Optional.of(token));
+        when(tokenRevocationList.isRevoked(token.getId())).thenReturn(true);
+
+        subject.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        assertThat(authentication()).isNull();
+        assertThat(filterChain.getRequest()).isSameAs(request);
+
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void doFilter_whenNoBearerToken_thenLeavesRequestAnonymous() throws Exception {
+        MockHttpServletRequest anonymousRequest = new MockHttpServletRequest();
+
+        subject.doFilter(anonymousRequest, new MockHttpServletResponse(), filterChain);
+
+        assertThat(authentication()).isNull();
+        assertThat(filterChain.getRequest()).isSameAs(anonymousRequest);
+
+        verifyNoInteractions(jwtUtils, userDetailsService);
+    }
+
+    private VerifiedToken verifiedToken(long issuedAtMillis, String role) {
+        return new VerifiedToken("jti-" + issuedAtMillis, USER_ID, USERNAME, "user@mail.com", List.of(role),
+                new Date(issuedAtMillis), new Date(issuedAtMillis + 3_600_000));
+    }
+
+    private UserDetailsImpl storedUser(String role) {
+        return new UserDetailsImpl(USER_ID, USERNAME, "user@mail.com", "password",
+                List.of(new SimpleGrantedAuthority(role)));
+    }
+
+    private Authentication authentication() {
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private List<String> authorities() {
+        return authentication().getAuthorities().stream().map(GrantedAuthority::getAuthority).toList();
+    }
+}
@@ -0,0 +1,66 @@
+package com.epam.esm.epammodule4.security.jwt;
+
+import com.epam.esm.epammodule4.service.event.UserChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CredentialsChangeRegistryTest {
+
+    private static final Long USER_ID = 1L;
+    private static final Long OTHER_USER_ID = 2L;
+
+    private CredentialsChangeRegistry subject;
+
+    @BeforeEach
+    void setUp() {
+        subject = new CredentialsChangeRegistry();
+        ReflectionTestUtils.setField(subject, "jwtExpirationMs", 3_600_000);
+    }
+
+    @Test
+    void changedSince_whenTokenIssuedBeforeChange_thenTrue() {
+        Date issuedAt = new Date(System.currentTimeMillis() - 1_000);
+
+        subject.markChanged(USER_ID);
+
+        assertThat(subject.changedSince(USER_ID, issuedAt)).isTrue();
+        assertThat(subject.changedSince(OTHER_USER_ID, issuedAt)).isFalse();
+    }
+
+    @Test
+    void changedSince_whenTokenIssuedAfterChange_thenFalse() {
+        subject.markChanged(USER_ID);
+
+        assertThat(subject.changedSince(USER_ID, new Date(System.currentTimeMillis() + 1_000))).isFalse();
+    }
+
+    @Test
+    void changedSince_whenNeverChanged_thenFalse() {
+        assertThat(subject.changedSince(USER_ID, new Date(0))).isFalse();
+    }
+
+    @Test
+    void onUserChanged_whenCredentialsChanged_thenMarksUser() {
+        Date issuedAt = new Date(System.currentTimeMillis() - 1_000);
+
+        subject.onUserChanged(new UserChangedEvent(USER_ID, true));
+        subject.onUserChanged(new UserChangedEvent(OTHER_USER_ID, false));
+
+        assertThat(subject.changedSince(USER_ID, issuedAt)).isTrue();
+        assertThat(subject.changedSince(OTHER_USER_ID, issuedAt)).isFalse();
+    }
+
+    @Test
+    void markChanged_whenChangeOutlivedTokens_thenForgetsIt() {
+        ReflectionTestUtils.setField(subject, "jwtExpirationMs", -1);
+
+        subject.markChanged(USER_ID);
+
+        assertThat(subject.changedSince(USER_ID, new Date(0))).isFalse();
+    }
+}
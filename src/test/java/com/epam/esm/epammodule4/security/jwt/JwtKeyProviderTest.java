@@ -0,0 +1,161 @@
+package com.epam.esm.epammodule4.security.jwt;
+
+import io.jsonwebtoken.*;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.security.Key;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtKeyProviderTest {
+
+    private static final String SECRET = "SuperSecretKey";
+    private static final String RETIRED_SECRET = "RetiredSecretKey";
+    private static final ApplicationEventPublisher NO_EVENTS = event -> { };
+
+    @Test
+    void resolveSigningKey_whenActiveKid_thenVerifiesWithActiveKey() {
+        JwtKeyProvider subject = hmacProvider();
+
+        String token = sign("k1", subject.getAlgorithm(), subject.getSigningKey());
+
+        assertThat(parse(subject, token).getSubject()).isEqualTo("user");
+    }
+
+    @Test
+    void resolveSigningKey_whenRetiredKid_thenVerifiesWithRetiredKey() {
+        JwtKeyProvider subject = hmacProvider();
+        JwtKeyProvider retired = new JwtKeyProvider(NO_EVENTS, "HS256", "k0", RETIRED_SECRET, "", "", List.of());
+
+        String token = sign("k0", SignatureAlgorithm.HS256, retired.getSigningKey());
+
+        assertThat(parse(subject, token).getSubject()).isEqualTo("user");
+        assertThat(subject.getVerificationKeyIds()).containsExactlyInAnyOrder("k0", "k1");
+    }
+
+    @Test
+    void resolveSigningKey_whenNoKid_thenVerifiesWithActiveKey() {
+        JwtKeyProvider subject = hmacProvider();
+
+        String token = sign(null, subject.getAlgorithm(), subject.getSigningKey());
+
+        assertThat(parse(subject, token).getSubject()).isEqualTo("user");
+    }
+
+    @Test
+    void resolveSigningKey_whenUnknownKid_thenRejects() {
+        JwtKeyProvider subject = hmacProvider();
+
+        String token = sign("k9", subject.getAlgorithm(), subject.getSigningKey());
+
+        assertThatThrownBy(() -> parse(subject, token))
+                .isInstanceOf(UnsupportedJwtException.class)
+                .hasMessageContaining("k9");
+    }
+
+    @Test
+    void resolveSigningKey_whenRetiredKeyRemoved_thenRejectsAndPublishesEvent() {
+        List<Object> events = new ArrayList<>();
+        JwtKeyProvider subject = new JwtKeyProvider(events::add, "HS512", "k1", SECRET, "", "",
+                List.of("k0:HS256:" + RETIRED_SECRET));
+        JwtKeyProvider retired = new JwtKeyProvider(NO_EVENTS, "HS256", "k0", RETIRED_SECRET, "", "", List.of());
+        String token = sign("k0", SignatureAlgorithm.HS256, retired.getSigningKey());
+
+        subject.removeRetiredKey("k0");
+
+        assertThatThrownBy(() -> parse(subject, token)).isInstanceOf(UnsupportedJwtException.class);
+        assertThat(subject.getVerificationKeyIds()).containsExactly("k1");
+        assertThat(events).singleElement()
+                .isInstanceOfSatisfying(JwtKeySetChangedEvent.class,
+                        event -> assertThat(event.getRemovedKeyId()).isEqualTo("k0"));
+    }
+
+    @Test
+    void removeRetiredKey_whenActiveKey_thenThrows() {
+        JwtKeyProvider subject = hmacProvider();
+
+        assertThatThrownBy(() -> subject.removeRetiredKey("k1")).isInstanceOf(IllegalArgumentException.class);
+        assertThat(subject.getVerificationKeyIds()).contains("k1");
+    }
+
+    @Test
+    void resolveSigningKey_whenAlgorithmNone_thenRejects() {
+        JwtKeyProvider subject = hmacProvider();
+
+        String token = Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, "k1")
+                .setSubject("user")
+                .compact();
+
+        assertThatThrownBy(() -> parse(subject, token)).isInstanceOf(UnsupportedJwtException.class);
+    }
+
+    @Test
+    void resolveSigningKey_whenAlgorithmSwappedForSameSecret_thenRejects() {
+        JwtKeyProvider subject = hmacProvider();
+
+        String token = sign("k1", SignatureAlgorithm.HS256, subject.getSigningKey().getEncoded());
+
+        assertThatThrownBy(() -> parse(subject, token))
+                .isInstanceOf(UnsupportedJwtException.class)
+                .hasMessageContaining("does not match");
+    }
+
+    @Test
+    void resolveSigningKey_whenEcPublicKeyUsedAsHmacSecret_thenRejects() {
+        JwtKeyProvider subject = new JwtKeyProvider(NO_EVENTS, "ES256", "k1", SECRET, "", "", List.of());
+        JwtKeyProvider signer = new JwtKeyProvider(NO_EVENTS, "ES256", "k1", SECRET, "", "", List.of());
+        String valid = sign("k1", SignatureAlgorithm.ES256, subject.getSigningKey());
+        JwsHeader header = Jwts.jwsHeader().setKeyId("k1").setAlgorithm("ES256");
+        Key publicKey = subject.resolveSigningKey(header, (Claims) null);
+
+        String forged = sign("k1", SignatureAlgorithm.HS256, publicKey.getEncoded());
+
+        assertThat(parse(subject, valid).getSubject()).isEqualTo("user");
+        assertThatThrownBy(() -> parse(subject, forged)).isInstanceOf(UnsupportedJwtException.class);
+        assertThatThrownBy(() -> parse(subject, sign("k1", SignatureAlgorithm.ES256, signer.getSigningKey())))
+                .isInstanceOf(SignatureException.class);
+    }
+
+    @Test
+    void constructor_whenUnsupportedAlgorithm_thenThrows() {
+        assertThatThrownBy(() -> new JwtKeyProvider(NO_EVENTS, "RS256", "k1", SECRET, "", "", List.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new JwtKeyProvider(NO_EVENTS, "HS512", "k1", SECRET, "", "",
+                List.of("k0:none:" + RETIRED_SECRET)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void constructor_whenRetiredKeyMalformed_thenThrows() {
+        assertThatThrownBy(() -> new JwtKeyProvider(NO_EVENTS, "HS512", "k1", SECRET, "", "",
+                List.of("k0:" + RETIRED_SECRET)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static JwtKeyProvider hmacProvider() {
+        return new JwtKeyProvider(NO_EVENTS, "HS512", "k1", SECRET, "", "", List.of("k0:HS256:" + RETIRED_SECRET));
+    }
+
+    private static String sign(String keyId, SignatureAlgorithm algorithm, Key key) {
+        return builder(keyId).signWith(algorithm, key).compact();
+    }
+
+    private static String sign(String keyId, SignatureAlgorithm algorithm, byte[] key) {
+        return builder(keyId).signWith(algorithm, key).compact();
+    }
+
+    private static JwtBuilder builder(String keyId) {
+        JwtBuilder builder = Jwts.builder().setSubject("user");
+
+        return keyId == null ? builder : builder.setHeaderParam(JwsHeader.KEY_ID, keyId);
+    }
+
+    private static Claims parse(JwtKeyProvider keyProvider, String token) {
+        return Jwts.parser().setSigningKeyResolver(keyProvider).parseClaimsJws(token).getBody();
+    }
+}
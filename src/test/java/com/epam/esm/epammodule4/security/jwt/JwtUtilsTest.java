@@ -0,0 +1,150 @@
+package com.epam.esm.epammodule4.security.jwt;
+
+import com.epam.esm.epammodule4.service.implementation.UserDetailsImpl;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class JwtUtilsTest {
+
+    private static final String SECRET = "SuperSecretKey";
+    private static final String RETIRED_SECRET = "RetiredSecretKey";
+
+    private VerifiedTokenCache verifiedTokenCache;
+    private JwtKeyProvider keyProvider;
+    private JwtUtils subject;
+
+    @BeforeEach
+    void setUp() {
+        verifiedTokenCache = new VerifiedTokenCache();
+        ReflectionTestUtils.setField(verifiedTokenCache, "maxSize", 100);
+
+        keyProvider = spy(new JwtKeyProvider(
+                event -> verifiedTokenCache.onKeySetChanged((JwtKeySetChangedEvent) event),
+                "HS512", "k1", SECRET, "", "", List.of("k0:HS512:" + RETIRED_SECRET)));
+        subject = jwtUtils(keyProvider, verifiedTokenCache);
+    }
+
+    @Test
+    void verifyJwtToken_whenValid_thenReturnsClaimsOfPrincipal() {
+        String token = subject.generateJwtToken(principal());
+
+        Optional<VerifiedToken> actual = subject.verifyJwtToken(token);
+
+        assertThat(actual).hasValueSatisfying(verifiedToken -> {
+            assertThat(verifiedToken.getUserId()).isEqualTo(1L);
+            assertThat(verifiedToken.getUsername()).isEqualTo("user");
+            assertThat(verifiedToken.getEmail()).isEqualTo("user@mail.com");
+            assertThat(verifiedToken.getRoles()).containsExactly("ROLE_ADMIN");
+            assertThat(verifiedToken.getIssuedAt()).isNotNull();
+            assertThat(verifiedToken.getExpiration()).isAfter(verifiedToken.getIssuedAt());
+        });
+    }
+
+    @Test
+    void verifyJwtToken_whenVerifiedBefore_thenServedFromCacheWithoutParsing() {
+        String token = subject.generateJwtToken(principal());
+
+        VerifiedToken first = subject.verifyJwtToken(token).orElseThrow();
+        VerifiedToken second = subject.verifyJwtToken(token).orElseThrow();
+
+        assertThat(second).isSameAs(first);
+        assertThat(subject.getUserNameFromJwtToken(token)).isEqualTo("user");
+        assertThat(subject.validateJwtToken(token)).isTrue();
+        assertThat(verifiedTokenCache.getMissCount()).isEqualTo(1);
+        assertThat(verifiedTokenCache.getHitCount()).isEqualTo(3);
+
+        verify(keyProvider, times(1)).resolveSigningKey(any(JwsHeader.class), any(Claims.class));
+    }
+
+    @Test
+    void verifyJwtToken_whenTampered_thenEmptyAndNotCached() {
+        String token = subject.generateJwtToken(principal());
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThat(subject.verifyJwtToken(tampered)).isEmpty();
+        assertThat(subject.verifyJwtToken("")).isEmpty();
+        assertThat(verifiedTokenCache.size()).isZero();
+    }
+
+    @Test
+    void verifyJwtToken_whenRetiredKeyRemoved_thenCachedTokenRejected() {
+        JwtKeyProvider retiredKeyProvider = new JwtKeyProvider(event -> { },
+                "HS512", "k0", RETIRED_SECRET, "", "", List.of());
+        String token = jwtUtils(retiredKeyProvider, new VerifiedTokenCache()).generateJwtToken(principal());
+
+        assertThat(subject.verifyJwtToken(token)).isPresent();
+
+        keyProvider.removeRetiredKey("k0");
+
+        assertThat(subject.verifyJwtToken(token)).isEmpty();
+    }
+
+    @Test
+    void verifyJwtToken_whenTokensIssued_thenEachHasJtiOfItsOwn() {
+        VerifiedToken first = subject.verifyJwtToken(subject.generateJwtToken(principal())).orElseThrow();
+        VerifiedToken second = subject.verifyJwtToken(subject.generateJwtToken(principal())).orElseThrow();
+
+        assertThat(first.getId()).isNotEqualTo(second.getId());
+        assertThat(second.getUserId()).isEqualTo(first.getUserId()).isEqualTo(1L);
+    }
+
+    @Test
+    void doFilter_whenLoggedInAgainInSecondOfLogout_thenNewTokenAccepted() throws Exception {
+        TokenRevocationList revocationList = new TokenRevocationList(1_000, 0.01, 3_600_000, "");
+        AuthTokenFilter filter = new AuthTokenFilter();
+        ReflectionTestUtils.setField(filter, "jwtUtils", subject);
+        ReflectionTestUtils.setField(filter, "tokenRevocationList", revocationList);
+        ReflectionTestUtils.setField(filter, "credentialsChangeRegistry", new CredentialsChangeRegistry());
+        ReflectionTestUtils.setField(filter, "claimsOnly", true);
+        ReflectionTestUtils.setField(filter, "claimsMaxAgeMs", 300_000L);
+
+        String loggedOut = subject.generateJwtToken(principal());
+        VerifiedToken loggedOutToken = subject.verifyJwtToken(loggedOut).orElseThrow();
+        revocationList.revoke(loggedOutToken.getId(), loggedOutToken.getExpiration());
+        String loggedIn = subject.generateJwtToken(principal());
+
+        assertThat(authenticate(filter, loggedOut)).isNull();
+        assertThat(authenticate(filter, loggedIn)).isNotNull();
+    }
+
+    private static Authentication authenticate(AuthTokenFilter filter, String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private static JwtUtils jwtUtils(JwtKeyProvider keyProvider, VerifiedTokenCache verifiedTokenCache) {
+        JwtUtils jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 3_600_000);
+        ReflectionTestUtils.setField(jwtUtils, "jwtKeyProvider", keyProvider);
+        ReflectionTestUtils.setField(jwtUtils, "verifiedTokenCache", verifiedTokenCache);
+        return jwtUtils;
+    }
+
+    private static UserDetailsImpl principal() {
+        return new UserDetailsImpl(1L, "user", "user@mail.com", null,
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+    }
+}
@@ -0,0 +1,71 @@
+package com.epam.esm.epammodule4.security.jwt;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenRevocationListTest {
+
+    private static final long EXPIRATION_MS = 3_600_000;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void isRevoked_whenJtiRevoked_thenTrueForThatTokenOnly() {
+        TokenRevocationList subject = new TokenRevocationList(1_000, 0.01, EXPIRATION_MS, "");
+
+        subject.revoke("a", expiresIn(60_000));
+
+        assertThat(subject.isRevoked("a")).isTrue();
+        assertThat(subject.isRevoked("b")).isFalse();
+        assertThat(subject.isRevoked(null)).isFalse();
+    }
+
+    @Test
+    void purge_whenRevokedTokenExpired_thenForgetsIt() {
+        TokenRevocationList subject = new TokenRevocationList(1_000, 0.01, EXPIRATION_MS, "");
+
+        subject.revoke("expired", expiresIn(-1));
+        subject.revoke("live", expiresIn(60_000));
+        subject.purge();
+
+        assertThat(subject.size()).isEqualTo(1);
+        assertThat(subject.isRevoked("expired")).isFalse();
+        assertThat(subject.isRevoked("live")).isTrue();
+    }
+
+    @Test
+    void revoke_whenExpirationUnknown_thenKeepsItForTokenLifetime() {
+        TokenRevocationList subject = new TokenRevocationList(1_000, 0.01, EXPIRATION_MS, "");
+
+        subject.revoke("a", null);
+        subject.purge();
+
+        assertThat(subject.isRevoked("a")).isTrue();
+    }
+
+    @Test
+    void restore_whenSnapshotTaken_thenKeepsRevocations() {
+        String snapshotFile = tempDir.resolve("revocations.bin").toString();
+        TokenRevocationList subject = new TokenRevocationList(1_000, 0.01, EXPIRATION_MS, snapshotFile);
+
+        subject.revoke("a", expiresIn(60_000));
+        subject.revoke("expired", expiresIn(-1));
+        subject.snapshot();
+
+        TokenRevocationList restored = new TokenRevocationList(1_000, 0.01, EXPIRATION_MS, snapshotFile);
+        restored.restore();
+
+        assertThat(restored.size()).isEqualTo(1);
+        assertThat(restored.isRevoked("a")).isTrue();
+    }
+
+    private static Date expiresIn(long ms) {
+        return new Date(System.currentTimeMillis() + ms);
+    }
+}
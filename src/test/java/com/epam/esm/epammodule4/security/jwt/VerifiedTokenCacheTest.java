@@ -0,0 +1,114 @@
+package com.epam.esm.epammodule4.security.jwt;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VerifiedTokenCacheTest {
+
+    private static final int MAX_SIZE = 10;
+
+    private VerifiedTokenCache subject;
+
+    @BeforeEach
+    void setUp() {
+        subject = new VerifiedTokenCache();
+        ReflectionTestUtils.setField(subject, "maxSize", MAX_SIZE);
+    }
+
+    @Test
+    void get_whenTokenCached_thenHit() {
+        VerifiedToken verifiedToken = verifiedToken(60_000);
+
+        assertThat(subject.get("token")).isEmpty();
+
+        subject.put("token", verifiedToken);
+
+        assertThat(subject.get("token")).containsSame(verifiedToken);
+        assertThat(subject.get("other")).isEmpty();
+        assertThat(subject.getHitCount()).isEqualTo(1);
+        assertThat(subject.getMissCount()).isEqualTo(2);
+    }
+
+    @Test
+    void get_whenTokenExpired_thenMissAndRemoved() {
+        subject.put("token", verifiedToken(-1));
+
+        assertThat(subject.get("token")).isEmpty();
+        assertThat(subject.size()).isZero();
+        assertThat(subject.getMissCount()).isEqualTo(1);
+    }
+
+    @Test
+    void put_whenFull_thenEvictsExpiredFirst() {
+        for (int i = 0; i < MAX_SIZE - 1; i++) {
+            subject.put("live" + i, verifiedToken(60_000));
+        }
+        subject.put("expired", verifiedToken(-1));
+
+        subject.put("new", verifiedToken(60_000));
+
+        assertThat(subject.size()).isEqualTo(MAX_SIZE);
+        assertThat(subject.get("new")).isPresent();
+        assertThat(subject.get("live0")).isPresent();
+    }
+
+    @Test
+    void put_whenFullOfLiveTokens_thenStaysBounded() {
+        for (int i = 0; i < MAX_SIZE * 3; i++) {
+            subject.put("live" + i, verifiedToken(60_000));
+        }
+
+        assertThat(subject.size()).isLessThanOrEqualTo(MAX_SIZE);
+        assertThat(subject.get("live" + (MAX_SIZE * 3 - 1))).isPresent();
+    }
+
+    @Test
+    void put_whenDisabled_thenCachesNothing() {
+        ReflectionTestUtils.setField(subject, "maxSize", 0);
+
+        subject.put("token", verifiedToken(60_000));
+
+        assertThat(subject.size()).isZero();
+    }
+
+    @Test
+    void onKeySetChanged_whenTokensCached_thenDropsAll() {
+        subject.put("token", verifiedToken(60_000));
+        subject.put("other", verifiedToken(60_000));
+
+        subject.onKeySetChanged(new JwtKeySetChangedEvent("k0"));
+
+        assertThat(subject.size()).isZero();
+        assertThat(subject.get("token")).isEmpty();
+    }
+
+    @Test
+    void bindTo_whenBound_thenExposesCounters() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        subject.bindTo(registry);
+
+        subject.put("token", verifiedToken(60_000));
+        subject.get("token");
+        subject.get("other");
+
+        assertThat(registry.get("jwt.verification.cache").tag("result", "hit").functionCounter().count())
+                .isEqualTo(1);
+        assertThat(registry.get("jwt.verification.cache").tag("result", "miss").functionCounter().count())
+                .isEqualTo(1);
+        assertThat(registry.get("jwt.verification.cache.size").gauge().value()).isEqualTo(1);
+    }
+
+    private static VerifiedToken verifiedToken(long expiresInMs) {
+        long now = System.currentTimeMillis();
+
+        return new VerifiedToken("1", 1L, "user", "user@mail.com", List.of("ROLE_USER"),
+                new Date(now), new Date(now + expiresInMs));
+    }
+}
@@ -0,0 +1,158 @@
+package com.epam.esm.epammodule4.service;
+
+import com.epam.esm.epammodule4.service.implementation.ApproximateRowCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ApproximateRowCounterTest {
+
+    private static final long TTL_MS = 60_000;
+    private static final int MAX_ENTRIES = 100;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    private ApproximateRowCounter subject;
+
+    @BeforeEach
+    void setUp() {
+        subject = new ApproximateRowCounter(jdbcTemplate, TTL_MS, MAX_ENTRIES);
+    }
+
+    @Test
+    void estimateTable_whenPostgres_thenReadsTableStatistics() {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("PostgreSQL");
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), eq("tag"))).thenReturn(1_250L);
+
+        assertThat(subject.estimateTable("tag", () -> 0L)).isEqualTo(1_250);
+        assertThat(subject.estimateTable("tag", () -> 0L)).isEqualTo(1_250);
+
+        verify(jdbcTemplate).execute(any(ConnectionCallback.class));
+    }
+
+    @Test
+    void estimateTable_whenTableNeverAnalyzed_thenFallsBackToCachedCount() {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("PostgreSQL");
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), eq("tag"))).thenReturn(-1L);
+
+        assertThat(subject.estimateTable("tag", () -> 17L)).isEqualTo(17);
+    }
+
+    @Test
+    void estimateTable_whenOtherDatabase_thenCachesExactCount() {
+        AtomicLong counted = new AtomicLong();
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("H2");
+
+        assertThat(subject.estimateTable("tag", () -> 10 + counted.incrementAndGet())).isEqualTo(11);
+        assertThat(subject.estimateTable("tag", () -> 10 + counted.incrementAndGet())).isEqualTo(11);
+
+        assertThat(counted).hasValue(1);
+        verify(jdbcTemplate, never()).queryForObject(anyString(), eq(Long.class), any());
+    }
+
+    @Test
+    void estimate_whenExpired_thenCountsAgain() {
+        ApproximateRowCounter expiring = new ApproximateRowCounter(jdbcTemplate, 0, MAX_ENTRIES);
+        AtomicLong counted = new AtomicLong();
+
+        expiring.estimate("orders:user:1", counted::incrementAndGet);
+        expiring.estimate("orders:user:1", counted::incrementAndGet);
+
+        assertThat(counted).hasValue(2);
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void estimate_whenManyDistinctKeys_thenKeepsAtMostMaxEntries() {
+        for (int i = 0; i < MAX_ENTRIES * 3; i++) {
+            subject.estimate("certificates:name:" + i, () -> 1L);
+        }
+
+        assertThat(subject.size()).isEqualTo(MAX_ENTRIES);
+    }
+
+    @Test
+    void estimate_whenFull_thenEvictsLeastRecentlyUsed() {
+        ApproximateRowCounter small = new ApproximateRowCounter(jdbcTemplate, TTL_MS, 2);
+        AtomicLong counted = new AtomicLong();
+
+        small.estimate("a", counted::incrementAndGet);
+        small.estimate("b", counted::incrementAndGet);
+        small.estimate("a", counted::incrementAndGet);
+        small.estimate("c", counted::incrementAndGet);
+        small.estimate("a", counted::incrementAndGet);
+
+        assertThat(counted).hasValue(3);
+
+        small.estimate("b", counted::incrementAndGet);
+        assertThat(counted).hasValue(4);
+    }
+
+    @Test
+    void estimate_whenFull_thenPurgesExpiredFirst() {
+        ApproximateRowCounter expiring = new ApproximateRowCounter(jdbcTemplate, 0, 2);
+
+        expiring.estimate("a", () -> 1L);
+        expiring.estimate("b", () -> 1L);
+        assertThat(expiring.size()).isEqualTo(2);
+
+        expiring.estimate("c", () -> 1L);
+        assertThat(expiring.size()).isZero();
+    }
+
+    @Test
+    void withApproximateTotal_whenLastSlice_thenTotalIsExactWithoutEstimate() {
+        SliceImpl<String> slice = new SliceImpl<>(List.of("a", "b"), PageRequest.of(3, 5), false);
+
+        Page<String> page = subject.withApproximateTotal(slice, () -> {
+            throw new AssertionError("estimate must not be evaluated");
+        });
+
+        assertThat(page.getTotalElements()).isEqualTo(17);
+        assertThat(page.getContent()).containsExactly("a", "b");
+    }
+
+    @Test
+    void withApproximateTotal_whenEstimateIsBehind_thenTotalCoversNextPage() {
+        SliceImpl<String> slice = new SliceImpl<>(List.of("a", "b"), PageRequest.of(1, 2), true);
+
+        assertThat(subject.withApproximateTotal(slice, () -> 1_000).getTotalElements()).isEqualTo(1_000);
+        assertThat(subject.withApproximateTotal(slice, () -> 1).getTotalElements()).isEqualTo(5);
+        assertThat(subject.withApproximateTotal(slice, () -> 1).hasNext()).isTrue();
+    }
+
+    @Test
+    void withApproximateTotal_whenEmptySlicePastEnd_thenTotalIsEstimateCappedAtOffset() {
+        SliceImpl<String> slice = new SliceImpl<>(List.of(), PageRequest.of(10, 5), false);
+
+        assertThat(subject.withApproximateTotal(slice, () -> 17).getTotalElements()).isEqualTo(17);
+        assertThat(subject.withApproximateTotal(slice, () -> 1_000).getTotalElements()).isEqualTo(50);
+        assertThat(subject.withApproximateTotal(slice, () -> 1_000).getContent()).isEmpty();
+    }
+
+    @Test
+    void withApproximateTotal_whenFirstSliceIsEmpty_thenTotalIsZeroWithoutEstimate() {
+        SliceImpl<String> slice = new SliceImpl<>(List.of(), PageRequest.of(0, 5), false);
+
+        assertThat(subject.withApproximateTotal(slice, () -> {
+            throw new AssertionError("estimate must not be evaluated");
+        }).getTotalElements()).isZero();
+    }
+}
@@ -0,0 +1,116 @@
+package com.epam.esm.epammodule4.service;
+
+import com.epam.esm.epammodule4.model.CertificateFacets;
+import com.epam.esm.epammodule4.model.CertificateFacets.RangeFacet;
+import com.epam.esm.epammodule4.model.CertificateFacets.TagFacet;
+import com.epam.esm.epammodule4.model.entity.GiftCertificate;
+import com.epam.esm.epammodule4.model.entity.Tag;
+import com.epam.esm.epammodule4.repository.GiftCertificateRepository;
+import com.epam.esm.epammodule4.repository.TagRepository;
+import com.epam.esm.epammodule4.service.event.GiftCertificateChangedEvent;
+import com.epam.esm.epammodule4.service.event.TagChangedEvent;
+import com.epam.esm.epammodule4.service.implementation.CertificateFacetIndex;
+import com.epam.esm.epammodule4.util.CompressedBitmap;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CertificateFacetIndexTest {
+
+    @Mock
+    private GiftCertificateRepository certificateRepository;
+    @Mock
+    private TagRepository tagRepository;
+
+    private CertificateFacetIndex subject;
+
+    @BeforeEach
+    void setUp() {
+        subject = new CertificateFacetIndex(certificateRepository, tagRepository, 2,
+                new double[]{50, 10}, new int[]{7, 30});
+
+        when(tagRepository.findAllNames()).thenReturn(List.of(
+                new Object[]{10L, "spa"}, new Object[]{20L, "massage"}, new Object[]{30L, "gift"}));
+        when(certificateRepository.findAllPricesAndDurations()).thenReturn(List.of(
+                new Object[]{1L, 5.0, 7}, new Object[]{2L, 10.0, 14},
+                new Object[]{3L, 75.5, 60}, new Object[]{4L, null, null}));
+        when(certificateRepository.findAllTagLinks()).thenReturn(List.of(
+                new Object[]{1L, 10L}, new Object[]{1L, 20L},
+                new Object[]{2L, 10L},
+                new Object[]{3L, 20L}, new Object[]{3L, 30L}));
+
+        subject.rebuild();
+    }
+
+    @Test
+    void aggregate_thenCountsTagsAndRangesOfMatches() {
+        CertificateFacets facets = subject.aggregate(bitmap(1, 2, 3, 4, 99));
+
+        assertThat(facets.total()).isEqualTo(5);
+        assertThat(facets.tags()).containsExactly(new TagFacet(20L, "massage", 2), new TagFacet(10L, "spa", 2));
+        assertThat(facets.prices()).containsExactly(
+                new RangeFacet(null, 10.0, 1), new RangeFacet(10.0, 50.0, 1), new RangeFacet(50.0, null, 1));
+        assertThat(facets.durations()).containsExactly(
+                new RangeFacet(null, 7, 0), new RangeFacet(7, 30, 2), new RangeFacet(30, null, 1));
+    }
+
+    @Test
+    void aggregate_thenCountsOnlyMatches() {
+        CertificateFacets facets = subject.aggregate(bitmap(3));
+
+        assertThat(facets.tags()).containsExactly(new TagFacet(30L, "gift", 1), new TagFacet(20L, "massage", 1));
+        assertThat(facets.prices()).extracting(RangeFacet::count).containsExactly(0L, 0L, 1L);
+    }
+
+    @Test
+    void onChanged_thenUpdatesColumnsIncrementally() {
+        Tag yoga = Tag.builder().id(40L).name("yoga").build();
+        GiftCertificate updated = GiftCertificate.builder().id(2L).price(20.0).duration(3).tags(List.of(yoga)).build();
+        GiftCertificate created = GiftCertificate.builder().id(100L).price(1.0).duration(100).build();
+
+        subject.onCertificateChanged(new GiftCertificateChangedEvent(2L, updated));
+        subject.onCertificateChanged(new GiftCertificateChangedEvent(100L, created));
+        subject.onCertificateChanged(new GiftCertificateChangedEvent(1L, null));
+        subject.onTagChanged(new TagChangedEvent(40L, Tag.builder().id(40L).name("pilates").build()));
+        subject.onTagChanged(new TagChangedEvent(30L, null));
+
+        CertificateFacets facets = subject.aggregate(bitmap(1, 2, 3, 100));
+
+        assertThat(facets.tags()).containsExactly(new TagFacet(20L, "massage", 1), new TagFacet(40L, "pilates", 1));
+        assertThat(facets.prices()).extracting(RangeFacet::count).containsExactly(1L, 1L, 1L);
+        assertThat(facets.durations()).extracting(RangeFacet::count).containsExactly(1L, 0L, 2L);
+    }
+
+    @Test
+    void rebuild_whenChangedWhileReading_thenKeepsChanges() {
+        GiftCertificate updated = GiftCertificate.builder().id(2L).price(60.0).duration(40).tags(List.of()).build();
+        when(certificateRepository.findAllPricesAndDurations()).thenAnswer(invocation -> {
+            subject.onCertificateChanged(new GiftCertificateChangedEvent(2L, updated));
+            subject.onCertificateChanged(new GiftCertificateChangedEvent(3L, null));
+            return List.of(new Object[]{1L, 5.0, 7}, new Object[]{2L, 10.0, 14}, new Object[]{3L, 75.5, 60});
+        });
+
+        subject.rebuild();
+        CertificateFacets facets = subject.aggregate(bitmap(1, 2, 3));
+
+        assertThat(facets.tags()).containsExactly(new TagFacet(20L, "massage", 1), new TagFacet(10L, "spa", 1));
+        assertThat(facets.prices()).extracting(RangeFacet::count).containsExactly(1L, 0L, 1L);
+        assertThat(facets.durations()).extracting(RangeFacet::count).containsExactly(0L, 1L, 1L);
+    }
+
+    private static CompressedBitmap bitmap(int... ids) {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        for (int id : ids) {
+            bitmap.add(id);
+        }
+        return bitmap;
+    }
+}
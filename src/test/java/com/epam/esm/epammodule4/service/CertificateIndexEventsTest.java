@@ -0,0 +1,110 @@
+package com.epam.esm.epammodule4.service;
+
+import com.epam.esm.epammodule4.EpamModule4Application;
+import com.epam.esm.epammodule4.model.CertificateFacets.RangeFacet;
+import com.epam.esm.epammodule4.model.entity.GiftCertificate;
+import com.epam.esm.epammodule4.service.event.GiftCertificateChangedEvent;
+import com.epam.esm.epammodule4.service.implementation.CertificateFacetIndex;
+import com.epam.esm.epammodule4.service.implementation.CertificateRangeIndex;
+import com.epam.esm.epammodule4.service.implementation.CertificateTagIndex;
+import com.epam.esm.epammodule4.util.CompressedBitmap;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The in-memory indexes must only see writes whose transaction committed.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = EpamModule4Application.class)
+class CertificateIndexEventsTest {
+
+    private static final Long CERTIFICATE_ID = 90_001L;
+    private static final String NAME = "Zyzzyva safari";
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private CertificateSearchEngine searchEngine;
+    @Autowired
+    private CertificateTagIndex tagIndex;
+    @Autowired
+    private SuggestService suggestService;
+    @Autowired
+    private CertificateFacetIndex facetIndex;
+    @Autowired
+    private CertificateRangeIndex rangeIndex;
+    @Autowired
+    private FuzzyNameMatcher fuzzyMatcher;
+
+    @AfterEach
+    void tearDown() {
+        eventPublisher.publishEvent(new GiftCertificateChangedEvent(CERTIFICATE_ID, null));
+    }
+
+    @Test
+    void onCertificateChanged_whenTransactionRolledBack_thenIndexesUntouched() {
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(new GiftCertificateChangedEvent(CERTIFICATE_ID, certificate()));
+
+            assertIndexed(false);
+            status.setRollbackOnly();
+        });
+
+        assertIndexed(false);
+    }
+
+    @Test
+    void onCertificateChanged_whenTransactionCommitted_thenIndexed() {
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(new GiftCertificateChangedEvent(CERTIFICATE_ID, certificate()));
+
+            assertIndexed(false);
+        });
+
+        assertIndexed(true);
+    }
+
+    @Test
+    void onCertificateChanged_whenNoTransaction_thenIndexedAtOnce() {
+        eventPublisher.publishEvent(new GiftCertificateChangedEvent(CERTIFICATE_ID, certificate()));
+
+        assertIndexed(true);
+    }
+
+    private void assertIndexed(boolean indexed) {
+        List<Long> expected = indexed ? List.of(CERTIFICATE_ID) : List.of();
+
+        assertThat(searchEngine.findAllIds("zyzzyva")).isEqualTo(expected);
+        assertThat(tagIndex.match(List.of(), false, List.of()).contains(CERTIFICATE_ID.intValue())).isEqualTo(indexed);
+        assertThat(suggestService.suggestCertificateNames("zyzz", 10).contains(NAME)).isEqualTo(indexed);
+        assertThat(facetIndex.aggregate(CompressedBitmap.of(CERTIFICATE_ID.intValue())).prices().stream()
+                .mapToLong(RangeFacet::count)
+                .sum()).isEqualTo(indexed ? 1 : 0);
+        assertThat(rangeIndex.match(CompressedBitmap.of(CERTIFICATE_ID.intValue()), 10.0, 10.0, 7, 7)
+                .contains(CERTIFICATE_ID.intValue())).isEqualTo(indexed);
+        assertThat(fuzzyMatcher.findCertificateIds("zyzzyvas", 1)).isEqualTo(expected);
+    }
+
+    private static GiftCertificate certificate() {
+        return GiftCertificate.builder()
+                .id(CERTIFICATE_ID)
+                .name(NAME)
+                .description("Wildlife tour")
+                .price(10.0)
+                .duration(7)
+                .tags(List.of())
+                .build();
+    }
+}
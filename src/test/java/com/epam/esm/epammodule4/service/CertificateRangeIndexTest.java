@@ -0,0 +1,91 @@
+package com.epam.esm.epammodule4.service;
+
+import com.epam.esm.epammodule4.model.entity.GiftCertificate;
+import com.epam.esm.epammodule4.repository.GiftCertificateRepository;
+import com.epam.esm.epammodule4.service.event.GiftCertificateChangedEvent;
+import com.epam.esm.epammodule4.service.implementation.CertificateRangeIndex;
+import com.epam.esm.epammodule4.util.CompressedBitmap;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CertificateRangeIndexTest {
+
+    @InjectMocks
+    private CertificateRangeIndex subject;
+    @Mock
+    private GiftCertificateRepository certificateRepository;
+
+    @BeforeEach
+    void setUp() {
+        when(certificateRepository.findAllPricesAndDurations()).thenReturn(List.of(
+                new Object[]{1L, 10.0, 30},
+                new Object[]{2L, 25.5, 7},
+                new Object[]{3L, 10.0, null},
+                new Object[]{4L, null, 90},
+                new Object[]{5L, 99.9, 30}));
+
+        subject.rebuild();
+    }
+
+    @Test
+    void match_thenReturnsIdsWithinInclusiveBounds() {
+        assertThat(subject.match(null, 10.0, 25.5, null, null).toArray()).containsExactly(1, 2, 3);
+        assertThat(subject.match(null, null, 10.0, null, null).toArray()).containsExactly(1, 3);
+        assertThat(subject.match(null, 20.0, null, null, null).toArray()).containsExactly(2, 5);
+        assertThat(subject.match(null, 50.0, 20.0, null, null).isEmpty()).isTrue();
+    }
+
+    @Test
+    void match_whenBothRanges_thenSkipsCertificatesWithoutValue() {
+        assertThat(subject.match(null, null, null, 30, 90).toArray()).containsExactly(1, 4, 5);
+        assertThat(subject.match(null, 10.0, null, 30, null).toArray()).containsExactly(1, 5);
+        assertThat(subject.match(null, null, null, null, 29).toArray()).containsExactly(2);
+    }
+
+    @Test
+    void match_whenCandidatesGiven_thenChecksOnlyCandidates() {
+        CompressedBitmap candidates = CompressedBitmap.of(2, 3, 5, 42);
+
+        assertThat(subject.match(candidates, 10.0, 50.0, null, null).toArray()).containsExactly(2, 3);
+        assertThat(subject.match(candidates, null, null, 7, null).toArray()).containsExactly(2, 5);
+    }
+
+    @Test
+    void onCertificateChanged_thenMovesAndRemovesValues() {
+        subject.onCertificateChanged(new GiftCertificateChangedEvent(1L,
+                GiftCertificate.builder().id(1L).price(60.0).duration(null).build()));
+        subject.onCertificateChanged(new GiftCertificateChangedEvent(6L,
+                GiftCertificate.builder().id(6L).price(10.0).duration(7).build()));
+        subject.onCertificateChanged(new GiftCertificateChangedEvent(2L, null));
+
+        assertThat(subject.match(null, null, 10.0, null, null).toArray()).containsExactly(3, 6);
+        assertThat(subject.match(null, 50.0, 70.0, null, null).toArray()).containsExactly(1);
+        assertThat(subject.match(null, null, null, null, 30).toArray()).containsExactly(5, 6);
+    }
+
+    @Test
+    void rebuild_whenChangedWhileReading_thenKeepsChanges() {
+        when(certificateRepository.findAllPricesAndDurations()).thenAnswer(invocation -> {
+            subject.onCertificateChanged(new GiftCertificateChangedEvent(1L,
+                    GiftCertificate.builder().id(1L).price(60.0).duration(30).build()));
+            subject.onCertificateChanged(new GiftCertificateChangedEvent(2L, null));
+            return List.of(new Object[]{1L, 10.0, 30}, new Object[]{2L, 25.5, 7});
+        });
+
+        subject.rebuild();
+
+        assertThat(subject.match(null, 50.0, 70.0, null, null).toArray()).containsExactly(1);
+        assertThat(subject.match(null, null, 30.0, null, null).isEmpty()).isTrue();
+        assertThat(subject.match(null, null, null, null, 10).isEmpty()).isTrue();
+    }
+}
@@ -0,0 +1,154 @@
+package com.epam.esm.epammodule4.service;
+
+import com.epam.esm.epammodule4.model.dto.request.SearchGiftCertificateRequest;
+import com.epam.esm.epammodule4.service.implementation.CertificateSearchCache;
+import com.epam.esm.epammodule4.service.implementation.CertificateSearchCache.Key;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.*;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CertificateSearchCacheTest {
+
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 10, Sort.by("name"));
+
+    private final CertificateSearchCache subject = new CertificateSearchCache(100, 1 << 20);
+
+    @Test
+    void get_whenEquivalentRequest_thenHitsNormalizedKey() {
+        put(subject, key("Spa ", List.of("b", "a", "b"), FIRST_PAGE), new PageImpl<>(List.of(3L, 1L), FIRST_PAGE, 42));
+
+        Slice<Long> cached = subject.get(key("spa", List.of("a", "b"), FIRST_PAGE)).orElseThrow();
+
+        assertThat(cached.getContent()).containsExactly(3L, 1L);
+        assertThat(cached).isInstanceOfSatisfying(Page.class, page -> assertThat(page.getTotalElements()).isEqualTo(42));
+        assertThat(subject.get(key("spa", List.of("a", "b"), PageRequest.of(1, 10, Sort.by("name"))))).isEmpty();
+        assertThat(subject.getHitCount()).isEqualTo(1);
+        assertThat(subject.getMissCount()).isEqualTo(1);
+        assertThat(subject.getHitRatio()).isEqualTo(0.5);
+    }
+
+    @Test
+    void put_whenVersionChangedMeanwhile_thenSkipsStaleResult() {
+        long version = subject.version();
+        subject.invalidateTags(List.of("a"));
+
+        subject.put(key("spa", List.of(), FIRST_PAGE), new SliceImpl<>(List.of(1L), FIRST_PAGE, true), version);
+
+        assertThat(subject.size()).isZero();
+    }
+
+    @Test
+    void put_whenMaxEntriesExceeded_thenEvictsLeastRecentlyUsed() {
+        CertificateSearchCache bounded = new CertificateSearchCache(2, 1 << 20);
+        Key first = key("first", List.of(), FIRST_PAGE);
+        Key second = key("second", List.of(), FIRST_PAGE);
+        Key third = key("third", List.of(), FIRST_PAGE);
+
+        put(bounded, first, new SliceImpl<>(List.of(1L)));
+        put(bounded, second, new SliceImpl<>(List.of(2L)));
+        bounded.get(first);
+        put(bounded, third, new SliceImpl<>(List.of(3L)));
+
+        assertThat(bounded.get(first)).isPresent();
+        assertThat(bounded.get(second)).isEmpty();
+        assertThat(bounded.get(third)).isPresent();
+        assertThat(bounded.size()).isEqualTo(2);
+    }
+
+    @Test
+    void put_whenMaxWeightExceeded_thenEvictsAndSkipsOversizedResults() {
+        CertificateSearchCache bounded = new CertificateSearchCache(100, 4_000);
+        List<Long> manyIds = LongStream.range(0, 100).boxed().toList();
+
+        put(bounded, key("first", List.of(), FIRST_PAGE), new SliceImpl<>(manyIds));
+        put(bounded, key("second", List.of(), FIRST_PAGE), new SliceImpl<>(manyIds));
+        put(bounded, key("huge", List.of(), FIRST_PAGE), new SliceImpl<>(LongStream.range(0, 1_000).boxed().toList()));
+
+        assertThat(bounded.size()).isEqualTo(1);
+        assertThat(bounded.get(key("second", List.of(), FIRST_PAGE))).isPresent();
+        assertThat(bounded.getWeightBytes()).isPositive().isLessThanOrEqualTo(4_000);
+    }
+
+    @Test
+    void invalidateCertificate_thenDropsEveryPageOfAffectedSearches() {
+        Key spaFirst = key(null, List.of("spa"), FIRST_PAGE);
+        Key spaSecond = key(null, List.of("spa"), PageRequest.of(1, 10, Sort.by("name")));
+        Key giftFirst = key(null, List.of("gift"), FIRST_PAGE);
+        Key travelFirst = key(null, List.of("travel"), FIRST_PAGE);
+        Key byName = key("massage", List.of(), FIRST_PAGE);
+
+        put(subject, spaFirst, new SliceImpl<>(List.of(1L)));
+        put(subject, spaSecond, new SliceImpl<>(List.of(2L)));
+        put(subject, giftFirst, new SliceImpl<>(List.of(7L)));
+        put(subject, travelFirst, new SliceImpl<>(List.of(8L)));
+        put(subject, byName, new SliceImpl<>(List.of(9L)));
+
+        subject.invalidateCertificate(7L, List.of("spa"));
+
+        assertThat(subject.get(spaFirst)).isEmpty();
+        assertThat(subject.get(spaSecond)).isEmpty();
+        assertThat(subject.get(giftFirst)).isEmpty();
+        assertThat(subject.get(byName)).isEmpty();
+        assertThat(subject.get(travelFirst)).isPresent();
+    }
+
+    @Test
+    void invalidateAll_thenDropsEverySearchAndSkipsResultsReadBefore() {
+        long version = subject.version();
+        put(subject, key("spa", List.of("a"), FIRST_PAGE), new SliceImpl<>(List.of(1L)));
+        put(subject, key("gym", List.of(), FIRST_PAGE), new SliceImpl<>(List.of(2L)));
+
+        subject.invalidateAll();
+        subject.put(key("pool", List.of(), FIRST_PAGE), new SliceImpl<>(List.of(3L)), version);
+
+        assertThat(subject.size()).isZero();
+        assertThat(subject.getWeightBytes()).isZero();
+    }
+
+    @Test
+    void invalidateTags_whenInTransaction_thenDropsAgainAfterCommit() {
+        Key spa = key(null, List.of("spa"), FIRST_PAGE);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            subject.invalidateTags(List.of("spa"));
+            put(subject, spa, new SliceImpl<>(List.of(1L)));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(subject.get(spa)).isEmpty();
+    }
+
+    @Test
+    void bindTo_thenReportsHitRatioAndFootprint() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        subject.bindTo(registry);
+
+        Key spa = key("spa", List.of(), FIRST_PAGE);
+        put(subject, spa, new SliceImpl<>(List.of(1L, 2L)));
+        subject.get(spa);
+
+        assertThat(registry.get("certificate.search.cache.hit.ratio").gauge().value()).isEqualTo(1.0);
+        assertThat(registry.get("certificate.search.cache.size").gauge().value()).isEqualTo(1.0);
+        assertThat(registry.get("certificate.search.cache.weight").gauge().value()).isPositive();
+        assertThat(registry.get("certificate.search.cache").tag("result", "hit").functionCounter().count())
+                .isEqualTo(1.0);
+    }
+
+    private static void put(CertificateSearchCache cache, Key key, Slice<Long> ids) {
+        cache.put(key, ids, cache.version());
+    }
+
+    private static Key key(String name, List<String> tags, Pageable pageable) {
+        return Key.of(SearchGiftCertificateRequest.builder().name(name).tags(tags).build(), pageable);
+    }
+}
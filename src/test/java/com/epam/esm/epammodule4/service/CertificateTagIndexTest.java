@@ -0,0 +1,129 @@
+package com.epam.esm.epammodule4.service;
+
+import com.epam.esm.epammodule4.model.entity.GiftCertificate;
+import com.epam.esm.epammodule4.model.entity.Tag;
+import com.epam.esm.epammodule4.repository.GiftCertificateRepository;
+import com.epam.esm.epammodule4.repository.TagRepository;
+import com.epam.esm.epammodule4.service.event.GiftCertificateChangedEvent;
+import com.epam.esm.epammodule4.service.event.TagChangedEvent;
+import com.epam.esm.epammodule4.service.implementation.CertificateTagIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CertificateTagIndexTest {
+
+    private static final Tag SPA = Tag.builder().id(10L).name("spa").build();
+    private static final Tag MASSAGE = Tag.builder().id(20L).name("massage").build();
+    private static final Tag GIFT = Tag.builder().id(30L).name("gift").build();
+
+    @InjectMocks
+    private CertificateTagIndex subject;
+    @Mock
+    private GiftCertificateRepository certificateRepository;
+    @Mock
+    private TagRepository tagRepository;
+
+    @BeforeEach
+    void setUp() {
+        when(tagRepository.findAllNames()).thenReturn(List.of(
+                new Object[]{SPA.getId(), SPA.getName()},
+                new Object[]{MASSAGE.getId(), MASSAGE.getName()},
+                new Object[]{GIFT.getId(), GIFT.getName()}));
+
+        when(certificateRepository.findAllIds()).thenReturn(List.of(1L, 2L, 3L, 4L));
+        when(certificateRepository.findAllTagLinks()).thenReturn(List.of(
+                new Object[]{1L, 10L}, new Object[]{1L, 20L},
+                new Object[]{2L, 10L},
+                new Object[]{3L, 20L}, new Object[]{3L, 30L}));
+
+        subject.rebuild();
+    }
+
+    @Test
+    void match_whenAnyTag_thenReturnsUnion() {
+        assertThat(ids(List.of("spa", "massage"), false, null)).containsExactly(1, 2, 3);
+        assertThat(ids(List.of("unknown", "gift"), false, null)).containsExactly(3);
+        verify(tagRepository, never()).findFirstByName(anyString());
+    }
+
+    @Test
+    void match_whenAllTags_thenReturnsIntersection() {
+        assertThat(ids(List.of("spa", "massage"), true, null)).containsExactly(1);
+        assertThat(ids(List.of("spa", "unknown"), true, null)).isEmpty();
+    }
+
+    @Test
+    void match_whenExcludedTags_thenSubtractsThem() {
+        assertThat(ids(List.of("spa", "massage"), false, List.of("gift"))).containsExactly(1, 2);
+        assertThat(ids(null, false, List.of("massage"))).containsExactly(2, 4);
+    }
+
+    @Test
+    void onCertificateChanged_thenUpdatesIncrementally() {
+        GiftCertificate retagged = GiftCertificate.builder().id(2L).tags(List.of(GIFT)).build();
+        GiftCertificate created = GiftCertificate.builder().id(5L).tags(List.of(SPA, MASSAGE)).build();
+
+        subject.onCertificateChanged(new GiftCertificateChangedEvent(2L, retagged));
+        subject.onCertificateChanged(new GiftCertificateChangedEvent(5L, created));
+        subject.onCertificateChanged(new GiftCertificateChangedEvent(1L, null));
+
+        assertThat(ids(List.of("spa"), false, null)).containsExactly(5);
+        assertThat(ids(List.of("gift"), false, null)).containsExactly(2, 3);
+        assertThat(subject.size()).isEqualTo(4);
+    }
+
+    @Test
+    void onTagChanged_thenResolvesCurrentNames() {
+        subject.onTagChanged(new TagChangedEvent(10L, Tag.builder().id(10L).name("wellness").build()));
+        subject.onTagChanged(new TagChangedEvent(20L, Tag.builder().id(20L).name("spa").build()));
+        subject.onTagChanged(new TagChangedEvent(30L, null));
+
+        assertThat(ids(List.of("wellness"), false, null)).containsExactly(1, 2);
+        assertThat(ids(List.of("spa"), false, null)).containsExactly(1, 3);
+        assertThat(ids(List.of("massage", "gift"), false, null)).isEmpty();
+    }
+
+    @Test
+    void onCertificateChanged_whenNewTag_thenResolvesItsName() {
+        Tag yoga = Tag.builder().id(40L).name("yoga").build();
+
+        subject.onCertificateChanged(new GiftCertificateChangedEvent(4L,
+                GiftCertificate.builder().id(4L).tags(List.of(yoga)).build()));
+
+        assertThat(ids(List.of("yoga"), false, null)).containsExactly(4);
+    }
+
+    @Test
+    void rebuild_whenChangedWhileReading_thenKeepsChanges() {
+        when(certificateRepository.findAllIds()).thenAnswer(invocation -> {
+            subject.onCertificateChanged(new GiftCertificateChangedEvent(4L,
+                    GiftCertificate.builder().id(4L).tags(List.of(GIFT)).build()));
+            subject.onTagChanged(new TagChangedEvent(10L, Tag.builder().id(10L).name("wellness").build()));
+            return List.of(1L, 2L, 3L, 4L);
+        });
+
+        subject.rebuild();
+
+        assertThat(ids(List.of("gift"), false, null)).containsExactly(3, 4);
+        assertThat(ids(List.of("wellness"), false, null)).containsExactly(1, 2);
+        assertThat(ids(List.of("spa"), false, null)).isEmpty();
+    }
+
+    private List<Integer> ids(List<String> tags, boolean matchAll, List<String> excludedTags) {
+        return Arrays.stream(subject.match(tags, matchAll, excludedTags).toArray()).boxed().toList();
+    }
+}
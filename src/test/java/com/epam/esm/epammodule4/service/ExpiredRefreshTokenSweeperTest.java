@@ -0,0 +1,40 @@
+package com.epam.esm.epammodule4.service;
+
+import com.epam.esm.epammodule4.repository.RefreshTokenRepository;
+import com.epam.esm.epammodule4.service.implementation.ExpiredRefreshTokenSweeper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExpiredRefreshTokenSweeperTest {
+
+    @InjectMocks
+    private ExpiredRefreshTokenSweeper subject;
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Test
+    void sweep_whenFullBatches_thenRepeatsUntilPartialBatch() {
+        ReflectionTestUtils.setField(subject, "batchSize", 100);
+
+        when(refreshTokenRepository.deleteExpired(any(Instant.class), anyInt())).thenReturn(100, 100, 30);
+
+        int actualDeleted = subject.sweep();
+
+        assertThat(actualDeleted).isEqualTo(230);
+
+        verify(refreshTokenRepository, times(3)).deleteExpired(any(Instant.class), eq(100));
+        verifyNoMoreInteractions(refreshTokenRepository);
+    }
+}
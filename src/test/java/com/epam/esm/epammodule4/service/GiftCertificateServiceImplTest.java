@@ -1,6 +1,9 @@
 package com.epam.esm.epammodule4.service;
 
 import com.epam.esm.epammodule4.exception.GiftCertificateNotFoundException;
+import com.epam.esm.epammodule4.model.CertificateFacets;
+import com.epam.esm.epammodule4.model.TotalCount;
+import com.epam.esm.epammodule4.model.dto.CursorPage;
 import com.epam.esm.epammodule4.model.dto.request.CreateGiftCertificateRequest;
 import com.epam.esm.epammodule4.model.dto.request.CreateTagRequest;
 import com.epam.esm.epammodule4.model.dto.request.SearchGiftCertificateRequest;
@@ -9,19 +12,30 @@ import com.epam.esm.epammodule4.model.entity.GiftCertificate;
 import com.epam.esm.epammodule4.model.entity.Tag;
 import com.epam.esm.epammodule4.repository.GiftCertificateRepository;
 import com.epam.esm.epammodule4.repository.PageableGiftCertificateRepository;
+import com.epam.esm.epammodule4.service.event.GiftCertificateChangedEvent;
+import com.epam.esm.epammodule4.service.implementation.ApproximateRowCounter;
+import com.epam.esm.epammodule4.service.implementation.CertificateFacetIndex;
+import com.epam.esm.epammodule4.service.implementation.CertificateRangeIndex;
+import com.epam.esm.epammodule4.service.implementation.CertificateSearchCache;
+import com.epam.esm.epammodule4.service.implementation.CertificateTagIndex;
 import com.epam.esm.epammodule4.service.implementation.GiftCertificateServiceImpl;
 import com.epam.esm.epammodule4.service.implementation.TagServiceImpl;
 import com.epam.esm.epammodule4.service.mapper.GiftCertificateMapper;
+import com.epam.esm.epammodule4.util.CompressedBitmap;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.LongSupplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -44,6 +58,22 @@ class GiftCertificateServiceImplTest {
     @Mock
     private GiftCertificateMapper giftCertificateMapper;
     @Mock
+    private CertificateSearchEngine searchEngine;
+    @Mock
+    private CertificateTagIndex tagIndex;
+    @Mock
+    private CertificateFacetIndex facetIndex;
+    @Mock
+    private CertificateRangeIndex rangeIndex;
+    @Mock
+    private FuzzyNameMatcher fuzzyMatcher;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private ApproximateRowCounter rowCounter;
+    @Mock
+    private CertificateSearchCache searchCache;
+    @Mock
     private CreateGiftCertificateRequest createRequest;
     @Mock
     private UpdateGiftCertificateRequest updateRequest;
@@ -96,6 +126,139 @@ class GiftCertificateServiceImplTest {
         assertThat(actualGiftCertificates).isEqualTo(pageableExpectedCertificates);
     }
 
+    @Test
+    void findAll_whenTotalIsApproximate_thenEstimatesTableSize() {
+        Pageable pageable = PageRequest.of(0, 5, Sort.by("name"));
+        Slice<GiftCertificate> foundCertificates = new SliceImpl<>(List.of(new GiftCertificate()), pageable, true);
+        Page<GiftCertificate> expectedCertificates = new PageImpl<>(foundCertificates.getContent(), pageable, 500);
+
+        when(pageableCertificateRepository.findSlice(any(Pageable.class))).thenReturn(foundCertificates);
+        when(rowCounter.withApproximateTotal(any(Slice.class), any(LongSupplier.class)))
+                .thenAnswer(invocation -> {
+                    invocation.<LongSupplier>getArgument(1).getAsLong();
+                    return expectedCertificates;
+                });
+        when(rowCounter.estimateTable(any(String.class), any(LongSupplier.class))).thenReturn(500L);
+
+        Slice<GiftCertificate> actualCertificates = subject.findAll(pageable, TotalCount.APPROXIMATE);
+
+        verify(rowCounter).estimateTable(eq("gift_certificate"), any(LongSupplier.class));
+        assertThat(actualCertificates).isEqualTo(expectedCertificates);
+    }
+
+    @Test
+    void findCertificateWithSearchParams_whenTotalIsNone_thenSkipsCount() {
+        Pageable pageable = PageRequest.of(0, 5, Sort.by("name"));
+        Slice<GiftCertificate> expectedCertificates =
+                new SliceImpl<>(List.of(new GiftCertificate()), pageable, true);
+
+        SearchGiftCertificateRequest searchCertificateRequest = SearchGiftCertificateRequest.builder()
+                .name("name")
+                .total(TotalCount.NONE)
+                .build();
+
+        when(pageableCertificateRepository.findSlice(any(Specification.class), any(Pageable.class)))
+                .thenReturn(expectedCertificates);
+
+        Slice<GiftCertificate> actualCertificates =
+                subject.findCertificateWithSearchParams(pageable, searchCertificateRequest);
+
+        verify(pageableCertificateRepository).findSlice(any(Specification.class), eq(pageable));
+        verifyNoMoreInteractions(pageableCertificateRepository);
+        verifyNoInteractions(rowCounter);
+
+        assertThat(actualCertificates).isEqualTo(expectedCertificates);
+    }
+
+    @Test
+    void findCertificateWithSearchParams_whenTotalIsApproximate_thenCachesCountOfFilter() {
+        Pageable pageable = PageRequest.of(0, 5, Sort.by("name"));
+        Slice<GiftCertificate> foundCertificates = new SliceImpl<>(List.of(new GiftCertificate()), pageable, true);
+
+        SearchGiftCertificateRequest searchCertificateRequest = SearchGiftCertificateRequest.builder()
+                .name("name")
+                .total(TotalCount.APPROXIMATE)
+                .build();
+
+        when(pageableCertificateRepository.findSlice(any(Specification.class), any(Pageable.class)))
+                .thenReturn(foundCertificates);
+        when(pageableCertificateRepository.count(any(Specification.class))).thenReturn(7L);
+        when(rowCounter.estimate(any(String.class), any(LongSupplier.class)))
+                .thenAnswer(invocation -> invocation.<LongSupplier>getArgument(1).getAsLong());
+        when(rowCounter.withApproximateTotal(any(Slice.class), any(LongSupplier.class)))
+                .thenAnswer(invocation -> new PageImpl<>(foundCertificates.getContent(), pageable,
+                        invocation.<LongSupplier>getArgument(1).getAsLong()));
+
+        Slice<GiftCertificate> actualCertificates =
+                subject.findCertificateWithSearchParams(pageable, searchCertificateRequest);
+
+        verify(rowCounter).estimate(eq("gift_certificate:[name, null, [], false, [], null, null, null, null]"), any(LongSupplier.class));
+        assertThat(actualCertificates).isInstanceOfSatisfying(Page.class,
+                page -> assertThat(page.getTotalElements()).isEqualTo(7));
+    }
+
+    @Test
+    void findCertificateWithSearchParams_whenCached_thenLoadsCachedIdsOnly() {
+        GiftCertificate first = GiftCertificate.builder().id(2L).build();
+        GiftCertificate second = GiftCertificate.builder().id(1L).build();
+        Pageable pageable = PageRequest.of(0, 2, Sort.by("name"));
+
+        SearchGiftCertificateRequest searchCertificateRequest = SearchGiftCertificateRequest.builder()
+                .name("Spa")
+                .build();
+
+        when(searchCache.get(any(CertificateSearchCache.Key.class)))
+                .thenReturn(Optional.of(new PageImpl<>(List.of(2L, 1L), pageable, 9)));
+        when(certificateRepository.findAllById(any())).thenReturn(List.of(second, first));
+
+        Slice<GiftCertificate> actualCertificates =
+                subject.findCertificateWithSearchParams(pageable, searchCertificateRequest);
+
+        verify(searchCache).get(CertificateSearchCache.Key.of(searchCertificateRequest, pageable));
+        verify(searchCache, never()).put(any(), any(), anyLong());
+        verifyNoInteractions(pageableCertificateRepository);
+
+        assertThat(actualCertificates.getContent()).containsExactly(first, second);
+        assertThat(actualCertificates).isInstanceOfSatisfying(Page.class,
+                page -> assertThat(page.getTotalElements()).isEqualTo(9));
+    }
+
+    @Test
+    void findCertificateWithSearchParams_whenNotCached_thenCachesResultIds() {
+        GiftCertificate certificate = GiftCertificate.builder().id(5L).build();
+        Pageable pageable = PageRequest.of(0, 2, Sort.by("name"));
+        Page<GiftCertificate> foundCertificates = new PageImpl<>(List.of(certificate), pageable, 1);
+
+        SearchGiftCertificateRequest searchCertificateRequest = SearchGiftCertificateRequest.builder()
+                .name("spa")
+                .build();
+
+        when(searchCache.version()).thenReturn(3L);
+        when(pageableCertificateRepository.findAll(any(Specification.class), any(Pageable.class)))
+                .thenReturn(foundCertificates);
+
+        subject.findCertificateWithSearchParams(pageable, searchCertificateRequest);
+
+        verify(searchCache).put(CertificateSearchCache.Key.of(searchCertificateRequest, pageable),
+                new PageImpl<>(List.of(5L), pageable, 1), 3L);
+    }
+
+    @Test
+    void findAll_whenCursor_thenReturnsCursorPage() {
+        Pageable pageable = PageRequest.of(0, 5, Sort.by("name"));
+        CursorPage<GiftCertificate> expectedCertificates = new CursorPage<>(List.of(new GiftCertificate()), "next");
+
+        when(pageableCertificateRepository.findAll(any(String.class), any(Pageable.class)))
+                .thenReturn(expectedCertificates);
+
+        CursorPage<GiftCertificate> actualCertificates = subject.findAll("cursor", pageable);
+
+        verify(pageableCertificateRepository).findAll("cursor", pageable);
+        verifyNoMoreInteractions(pageableCertificateRepository);
+
+        assertThat(actualCertificates).isEqualTo(expectedCertificates);
+    }
+
     @Test
     void create() {
         GiftCertificate newCertificate = new GiftCertificate();
@@ -174,6 +337,7 @@ class GiftCertificateServiceImplTest {
         GiftCertificate actualGiftCertificate = subject.update(updateRequest);
 
         verify(certificateRepository).save(updateCertificate);
+        verify(searchCache).invalidateCertificate(CERTIFICATE_ID, Set.of());
         verifyNoMoreInteractions(certificateRepository);
 
         assertThat(actualGiftCertificate).isEqualTo(expectedCertificate);
@@ -194,6 +358,9 @@ class GiftCertificateServiceImplTest {
         subject.delete(CERTIFICATE_ID);
 
         verify(certificateRepository).delete(deleteGiftCertificate);
+        verify(searchCache).invalidateCertificate(CERTIFICATE_ID, List.of());
+        verify(eventPublisher).publishEvent(argThat((GiftCertificateChangedEvent event) ->
+                event.isDeleted() && CERTIFICATE_ID.equals(event.getCertificateId())));
         verifyNoMoreInteractions(certificateRepository);
     }
 
@@ -215,11 +382,266 @@ class GiftCertificateServiceImplTest {
         when(pageableCertificateRepository.findAll(any(Specification.class), any(Pageable.class)))
                 .thenReturn(pageableExpectedCertificates);
 
-        Page<GiftCertificate> actualGiftCertificates =
+        Slice<GiftCertificate> actualGiftCertificates =
                 subject.findCertificateWithSearchParams(pageable, searchCertificateRequest);
 
         verifyNoMoreInteractions(pageableCertificateRepository);
 
         assertThat(actualGiftCertificates).isEqualTo(pageableExpectedCertificates);
     }
-}
\ No newline at end of file
+
+    @Test
+    void findCertificateWithSearchParams_whenTextGiven_thenReturnsCertificatesInRankOrder() {
+        GiftCertificate first = GiftCertificate.builder().id(2L).build();
+        GiftCertificate second = GiftCertificate.builder().id(1L).build();
+        Pageable pageable = PageRequest.of(0, 2);
+
+        SearchGiftCertificateRequest searchCertificateRequest = SearchGiftCertificateRequest.builder()
+                .text("spa massage")
+                .build();
+
+        when(searchEngine.search(any(String.class), isNull(), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(2L, 1L), pageable, 5));
+        when(certificateRepository.findAllById(any())).thenReturn(List.of(second, first));
+
+        Slice<GiftCertificate> actualGiftCertificates =
+                subject.findCertificateWithSearchParams(pageable, searchCertificateRequest);
+
+        verify(searchEngine).search("spa massage", null, pageable);
+        verifyNoInteractions(pageableCertificateRepository);
+
+        assertThat(actualGiftCertificates.getContent()).containsExactly(first, second);
+        assertThat(actualGiftCertificates).isInstanceOfSatisfying(Page.class,
+                page -> assertThat(page.getTotalElements()).isEqualTo(5));
+    }
+
+    @Test
+    void findCertificateWithSearchParams_whenTextNotNormalized_thenSearchesNormalizedTextAndCachesIt() {
+        Pageable pageable = PageRequest.of(0, 2);
+        SearchGiftCertificateRequest searchCertificateRequest = SearchGiftCertificateRequest.builder()
+                .text("  Spa Massage ")
+                .build();
+
+        when(searchEngine.search(any(String.class), isNull(), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(2L), pageable, 1));
+        when(certificateRepository.findAllById(any())).thenReturn(List.of(GiftCertificate.builder().id(2L).build()));
+
+        subject.findCertificateWithSearchParams(pageable, searchCertificateRequest);
+
+        CertificateSearchCache.Key normalizedKey = CertificateSearchCache.Key.of(
+                SearchGiftCertificateRequest.builder().text("spa massage").build(), pageable);
+
+        verify(searchEngine).search("spa massage", null, pageable);
+        verify(searchCache).get(normalizedKey);
+        verify(searchCache).put(normalizedKey, new PageImpl<>(List.of(2L), pageable, 1), 0L);
+    }
+
+    @Test
+    void findCertificateWithSearchParams_whenOnlyTagsGiven_thenPagesThroughTagIndex() {
+        CompressedBitmap matched = new CompressedBitmap();
+        List.of(3, 5, 8, 13).forEach(matched::add);
+        GiftCertificate five = GiftCertificate.builder().id(5L).build();
+        GiftCertificate three = GiftCertificate.builder().id(3L).build();
+        Pageable pageable = PageRequest.of(1, 2, Sort.by(Sort.Direction.DESC, "id"));
+
+        SearchGiftCertificateRequest searchCertificateRequest = SearchGiftCertificateRequest.builder()
+                .tags(List.of("tag1", "tag2"))
+                .matchAllTags(true)
+                .excludedTags(List.of("tag3"))
+                .build();
+
+        when(tagIndex.match(any(), any(Boolean.class), any())).thenReturn(matched);
+        when(certificateRepository.findAllById(any())).thenReturn(List.of(three, five));
+
+        Slice<GiftCertificate> actualGiftCertificates =
+                subject.findCertificateWithSearchParams(pageable, searchCertificateRequest);
+
+        verify(tagIndex).match(List.of("tag1", "tag2"), true, List.of("tag3"));
+        verify(certificateRepository).findAllById(List.of(5L, 3L));
+        verifyNoInteractions(pageableCertificateRepository);
+
+        assertThat(actualGiftCertificates.getContent()).containsExactly(five, three);
+        assertThat(actualGiftCertificates).isInstanceOfSatisfying(Page.class,
+                page -> assertThat(page.getTotalElements()).isEqualTo(4));
+    }
+
+    @Test
+    void findCertificateWithSearchParams_whenTagsSortedByName_thenUsesSpecification() {
+        Pageable pageable = PageRequest.of(0, 5, Sort.by("name"));
+        Page<GiftCertificate> expectedCertificates = new PageImpl<>(List.of(), pageable, 0);
+
+        SearchGiftCertificateRequest searchCertificateRequest = SearchGiftCertificateRequest.builder()
+                .tags(List.of("tag1"))
+                .build();
+
+        when(pageableCertificateRepository.findAll(any(Specification.class), any(Pageable.class)))
+                .thenReturn(expectedCertificates);
+
+        assertThat(subject.findCertificateWithSearchParams(pageable, searchCertificateRequest))
+                .isEqualTo(expectedCertificates);
+        verifyNoInteractions(tagIndex);
+    }
+
+    @Test
+    void findFacets_whenText_thenAggregatesFullTextMatches() {
+        CertificateFacets expectedFacets = new CertificateFacets(2, List.of(), List.of(), List.of());
+        SearchGiftCertificateRequest searchRequest = SearchGiftCertificateRequest.builder().text("spa").build();
+
+        when(searchEngine.findAllIds(any(String.class))).thenReturn(List.of(4L, 9L));
+        when(facetIndex.aggregate(any(CompressedBitmap.class))).thenReturn(expectedFacets);
+
+        assertThat(subject.findFacets(searchRequest)).isEqualTo(expectedFacets);
+        verify(searchEngine).findAllIds("spa");
+        verify(facetIndex).aggregate(argThat(matches -> matches.getCardinality() == 2 && matches.contains(9)));
+        verifyNoInteractions(pageableCertificateRepository, tagIndex);
+    }
+
+    @Test
+    void findFacets_whenOnlyTags_thenAggregatesTagIndexMatches() {
+        CompressedBitmap matched = new CompressedBitmap();
+        CertificateFacets expectedFacets = new CertificateFacets(0, List.of(), List.of(), List.of());
+        SearchGiftCertificateRequest searchRequest = SearchGiftCertificateRequest.builder()
+                .tags(List.of("tag1"))
+                .build();
+
+        when(tagIndex.match(any(), any(Boolean.class), any())).thenReturn(matched);
+        when(facetIndex.aggregate(any(CompressedBitmap.class))).thenReturn(expectedFacets);
+
+        assertThat(subject.findFacets(searchRequest)).isEqualTo(expectedFacets);
+        verify(tagIndex).match(List.of("tag1"), false, List.of());
+        verify(facetIndex).aggregate(matched);
+        verifyNoInteractions(pageableCertificateRepository, searchEngine);
+    }
+
+    @Test
+    void findFacets_whenName_thenAggregatesIdsOfSpecification() {
+        CertificateFacets expectedFacets = new CertificateFacets(1, List.of(), List.of(), List.of());
+        SearchGiftCertificateRequest searchRequest = SearchGiftCertificateRequest.builder()
+                .name("spa")
+                .tags(List.of("tag1"))
+                .build();
+
+        when(pageableCertificateRepository.findIds(any(Specification.class))).thenReturn(List.of(7L));
+        when(facetIndex.aggregate(any(CompressedBitmap.class))).thenReturn(expectedFacets);
+
+        assertThat(subject.findFacets(searchRequest)).isEqualTo(expectedFacets);
+        verify(facetIndex).aggregate(argThat(matches -> matches.getCardinality() == 1 && matches.contains(7)));
+        verifyNoInteractions(tagIndex, searchEngine);
+    }
+
+    @Test
+    void findCertificateWithSearchParams_whenTextTagsAndRanges_thenRanksWithinIndexedFilters() {
+        CompressedBitmap tagged = CompressedBitmap.of(1, 2, 3, 4);
+        GiftCertificate four = GiftCertificate.builder().id(4L).build();
+        Pageable pageable = PageRequest.of(0, 5);
+
+        SearchGiftCertificateRequest searchCertificateRequest = SearchGiftCertificateRequest.builder()
+                .text("spa")
+                .tags(List.of("tag1"))
+                .minPrice(10.0)
+                .maxPrice(50.0)
+                .minDuration(30)
+                .build();
+
+        when(searchEngine.findAllIds(any(String.class))).thenReturn(List.of(3L, 4L, 6L));
+        when(tagIndex.match(any(), any(Boolean.class), any())).thenReturn(tagged);
+        when(rangeIndex.match(any(CompressedBitmap.class), any(), any(), any(), any()))
+                .thenReturn(CompressedBitmap.of(4));
+        when(searchEngine.search(any(String.class), any(CompressedBitmap.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(4L), pageable, 1));
+        when(certificateRepository.findAllById(any())).thenReturn(List.of(four));
+
+        Slice<GiftCertificate> actualGiftCertificates =
+                subject.findCertificateWithSearchParams(pageable, searchCertificateRequest);
+
+        verify(rangeIndex).match(argThat(candidates -> Arrays.equals(new int[]{3, 4}, candidates.toArray())),
+                eq(10.0), eq(50.0), eq(30), isNull());
+        verify(searchEngine).search(eq("spa"), argThat(filter -> Arrays.equals(new int[]{4}, filter.toArray())),
+                eq(pageable));
+        verifyNoInteractions(pageableCertificateRepository);
+        assertThat(actualGiftCertificates.getContent()).containsExactly(four);
+    }
+
+    @Test
+    void findCertificateWithSearchParams_whenOnlyPriceRange_thenPagesThroughRangeIndex() {
+        GiftCertificate seven = GiftCertificate.builder().id(7L).build();
+        Pageable pageable = PageRequest.of(0, 1);
+
+        SearchGiftCertificateRequest searchCertificateRequest = SearchGiftCertificateRequest.builder()
+                .maxPrice(20.0)
+                .build();
+
+        when(rangeIndex.match(isNull(), any(), any(), any(), any())).thenReturn(CompressedBitmap.of(7, 8));
+        when(certificateRepository.findAllById(any())).thenReturn(List.of(seven));
+
+        Slice<GiftCertificate> actualGiftCertificates =
+                subject.findCertificateWithSearchParams(pageable, searchCertificateRequest);
+
+        verify(rangeIndex).match(null, null, 20.0, null, null);
+        verify(certificateRepository).findAllById(List.of(7L));
+        verifyNoInteractions(pageableCertificateRepository, tagIndex);
+        assertThat(actualGiftCertificates.getContent()).containsExactly(seven);
+        assertThat(actualGiftCertificates).isInstanceOfSatisfying(Page.class,
+                page -> assertThat(page.getTotalElements()).isEqualTo(2));
+    }
+
+    @Test
+    void findFacets_whenTextAndDescription_thenIntersectsTextMatchesWithSpecificationIds() {
+        CertificateFacets expectedFacets = new CertificateFacets(1, List.of(), List.of(), List.of());
+        SearchGiftCertificateRequest searchRequest = SearchGiftCertificateRequest.builder()
+                .text("spa")
+                .description("sauna")
+                .build();
+
+        when(pageableCertificateRepository.findIds(any(Specification.class))).thenReturn(List.of(3L, 5L));
+        when(searchEngine.findAllIds(any(String.class))).thenReturn(List.of(1L, 5L));
+        when(facetIndex.aggregate(any(CompressedBitmap.class))).thenReturn(expectedFacets);
+
+        assertThat(subject.findFacets(searchRequest)).isEqualTo(expectedFacets);
+        verify(facetIndex).aggregate(argThat(matches -> matches.getCardinality() == 1 && matches.contains(5)));
+        verifyNoInteractions(tagIndex, rangeIndex);
+    }
+
+    @Test
+    void findCertificateWithSearchParams_whenFuzzyNameAndTag_thenPagesRankedMatchesOfResolvedTag() {
+        GiftCertificate five = GiftCertificate.builder().id(5L).build();
+
+        SearchGiftCertificateRequest searchCertificateRequest = SearchGiftCertificateRequest.builder()
+                .name("mesage")
+                .tags(List.of("spaa"))
+                .fuzziness(1)
+                .build();
+
+        when(fuzzyMatcher.findTagName("spaa", 1)).thenReturn(Optional.of("spa"));
+        when(fuzzyMatcher.findCertificateIds("mesage", 1)).thenReturn(List.of(5L, 2L, 9L));
+        when(tagIndex.match(List.of("spa"), false, List.of())).thenReturn(CompressedBitmap.of(2, 5, 7));
+        when(certificateRepository.findAllById(any())).thenReturn(List.of(five));
+
+        Slice<GiftCertificate> actualGiftCertificates = subject.findCertificateWithSearchParams(
+                PageRequest.of(0, 1, Sort.by("name")), searchCertificateRequest);
+
+        verify(certificateRepository).findAllById(List.of(5L));
+        verifyNoInteractions(pageableCertificateRepository);
+        assertThat(actualGiftCertificates.getContent()).containsExactly(five);
+        assertThat(actualGiftCertificates).isInstanceOfSatisfying(Page.class,
+                page -> assertThat(page.getTotalElements()).isEqualTo(2));
+    }
+
+    @Test
+    void findFacets_whenFuzzyNameAndDescription_thenIntersectsMatcherIdsWithSpecificationIds() {
+        CertificateFacets expectedFacets = new CertificateFacets(1, List.of(), List.of(), List.of());
+        SearchGiftCertificateRequest searchRequest = SearchGiftCertificateRequest.builder()
+                .name("mesage")
+                .description("sauna")
+                .fuzziness(2)
+                .build();
+
+        when(fuzzyMatcher.findCertificateIds("mesage", 2)).thenReturn(List.of(5L, 2L));
+        when(pageableCertificateRepository.findIds(any(Specification.class))).thenReturn(List.of(3L, 5L));
+        when(facetIndex.aggregate(any(CompressedBitmap.class))).thenReturn(expectedFacets);
+
+        assertThat(subject.findFacets(searchRequest)).isEqualTo(expectedFacets);
+        verify(facetIndex).aggregate(argThat(matches -> matches.getCardinality() == 1 && matches.contains(5)));
+        verifyNoInteractions(searchEngine, tagIndex);
+    }
+}
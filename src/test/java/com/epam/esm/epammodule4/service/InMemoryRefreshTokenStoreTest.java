@@ -0,0 +1,201 @@
+package com.epam.esm.epammodule4.service;
+
+import com.epam.esm.epammodule4.model.entity.RefreshToken;
+import com.epam.esm.epammodule4.model.entity.User;
+import com.epam.esm.epammodule4.repository.RefreshTokenRepository;
+import com.epam.esm.epammodule4.repository.UserRepository;
+import com.epam.esm.epammodule4.service.implementation.InMemoryRefreshTokenStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryRefreshTokenStoreTest {
+
+    private static final Long USER_ID = 1L;
+    private static final String TOKEN_HASH = "hash";
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+    @Mock
+    private UserRepository userRepository;
+
+    @Test
+    void findByToken_whenSaved_thenReturnsTokenWithoutDatabase() {
+        InMemoryRefreshTokenStore subject = store(false);
+        User user = User.builder().id(USER_ID).build();
+        Instant expiryDate = Instant.now().plusSeconds(60);
+
+        when(userRepository.getReferenceById(any(Long.class))).thenReturn(user);
+
+        subject.save(refreshToken(TOKEN_HASH, expiryDate));
+        Optional<RefreshToken> actualRefreshToken = subject.findByTokenHash(TOKEN_HASH);
+
+        assertThat(actualRefreshToken).isPresent();
+        assertThat(actualRefreshToken.get().getTokenHash()).isEqualTo(TOKEN_HASH);
+        assertThat(actualRefreshToken.get().getExpiryDate()).isEqualTo(expiryDate);
+        assertThat(actualRefreshToken.get().getUser()).isEqualTo(user);
+
+        verify(userRepository).getReferenceById(USER_ID);
+        verifyNoInteractions(refreshTokenRepository);
+    }
+
+    @Test
+    void findByToken_whenWriteThroughAndUnknown_thenReadsRepository() {
+        InMemoryRefreshTokenStore subject = store(true);
+        RefreshToken expectedRefreshToken = refreshToken(TOKEN_HASH, Instant.now().plusSeconds(60));
+
+        when(refreshTokenRepository.findByTokenHash(any(String.class))).thenReturn(Optional.of(expectedRefreshToken));
+
+        Optional<RefreshToken> actualRefreshToken = subject.findByTokenHash(TOKEN_HASH);
+
+        assertThat(actualRefreshToken).contains(expectedRefreshToken);
+        assertThat(subject.size()).isEqualTo(1);
+
+        verify(refreshTokenRepository).findByTokenHash(TOKEN_HASH);
+        verifyNoMoreInteractions(refreshTokenRepository);
+    }
+
+    @Test
+    void save_whenWriteThrough_thenSavesToRepository() {
+        InMemoryRefreshTokenStore subject = store(true);
+        RefreshToken refreshToken = refreshToken(TOKEN_HASH, Instant.now().plusSeconds(60));
+
+        when(refreshTokenRepository.save(any(RefreshToken.class))).thenReturn(refreshToken);
+
+        RefreshToken actualRefreshToken = subject.save(refreshToken);
+
+        assertThat(actualRefreshToken).isEqualTo(refreshToken);
+        assertThat(subject.size()).isEqualTo(1);
+
+        verify(refreshTokenRepository).save(refreshToken);
+    }
+
+    @Test
+    void delete_whenWriteThrough_thenRemovesEverywhere() {
+        InMemoryRefreshTokenStore subject = store(true);
+        RefreshToken refreshToken = refreshToken(TOKEN_HASH, Instant.now().plusSeconds(60));
+
+        when(refreshTokenRepository.save(any(RefreshToken.class))).thenReturn(refreshToken);
+
+        subject.save(refreshToken);
+        subject.delete(refreshToken);
+
+        assertThat(subject.size()).isZero();
+
+        verify(refreshTokenRepository).delete(refreshToken);
+    }
+
+    @Test
+    void deleteByUserId_thenRemovesAllTokensOfUser() {
+        InMemoryRefreshTokenStore subject = store(false);
+
+        subject.save(refreshToken("first", Instant.now().plusSeconds(60)));
+        subject.save(refreshToken("second", Instant.now().plusSeconds(60)));
+
+        int actualDeleted = subject.deleteByUserId(USER_ID);
+
+        assertThat(actualDeleted).isEqualTo(2);
+        assertThat(subject.size()).isZero();
+        assertThat(subject.findByTokenHash("first")).isEmpty();
+    }
+
+    @Test
+    void revoke_whenTokenActive_thenRevokesItOnce() {
+        InMemoryRefreshTokenStore subject = store(false);
+        RefreshToken refreshToken = refreshToken(TOKEN_HASH, Instant.now().plusSeconds(60));
+
+        when(userRepository.getReferenceById(any(Long.class))).thenReturn(User.builder().id(USER_ID).build());
+
+        subject.save(refreshToken);
+
+        assertThat(subject.revoke(refreshToken)).isTrue();
+        assertThat(subject.revoke(refreshToken)).isFalse();
+        assertThat(subject.findByTokenHash(TOKEN_HASH)).hasValueSatisfying(found -> assertThat(found.isRevoked()).isTrue());
+    }
+
+    @Test
+    void revoke_whenWriteThrough_thenRevokesInRepository() {
+        InMemoryRefreshTokenStore subject = store(true);
+        RefreshToken refreshToken = refreshToken(TOKEN_HASH, Instant.now().plusSeconds(60));
+        refreshToken.setId(5L);
+
+        when(refreshTokenRepository.save(any(RefreshToken.class))).thenReturn(refreshToken);
+        when(refreshTokenRepository.revokeById(any(Long.class))).thenReturn(1);
+
+        subject.save(refreshToken);
+
+        assertThat(subject.revoke(refreshToken)).isTrue();
+
+        verify(refreshTokenRepository).revokeById(5L);
+    }
+
+    @Test
+    void deleteByFamily_thenRemovesOnlyTokensOfFamily() {
+        InMemoryRefreshTokenStore subject = store(false);
+        RefreshToken otherFamily = refreshToken("other", Instant.now().plusSeconds(60));
+        otherFamily.setFamily("other");
+
+        subject.save(refreshToken("first", Instant.now().plusSeconds(60)));
+        subject.save(refreshToken("second", Instant.now().plusSeconds(60)));
+        subject.save(otherFamily);
+
+        assertThat(subject.deleteByFamily("family")).isEqualTo(2);
+        assertThat(subject.size()).isEqualTo(1);
+    }
+
+    @Test
+    void deleteByFamilyAndUserId_whenWriteThrough_thenUsesRepositoryBulkDeletes() {
+        InMemoryRefreshTokenStore subject = store(true);
+
+        when(refreshTokenRepository.deleteByFamily(any(String.class))).thenReturn(4);
+        when(refreshTokenRepository.deleteByUserId(any(Long.class))).thenReturn(6);
+
+        assertThat(subject.deleteByFamily("family")).isEqualTo(4);
+        assertThat(subject.deleteByUserId(USER_ID)).isEqualTo(6);
+    }
+
+    @Test
+    void expire_whenTokenExpired_thenRemovesIt() throws InterruptedException {
+        InMemoryRefreshTokenStore subject = store(false);
+
+        subject.save(refreshToken("expiring", Instant.now().plusMillis(20)));
+        subject.save(refreshToken("alive", Instant.now().plusSeconds(60)));
+
+        Thread.sleep(50);
+        subject.expire();
+
+        assertThat(subject.size()).isEqualTo(1);
+        assertThat(subject.findByTokenHash("expiring")).isEmpty();
+    }
+
+    @Test
+    void save_whenAlreadyExpired_thenDoesNotKeepIt() {
+        InMemoryRefreshTokenStore subject = store(false);
+
+        subject.save(refreshToken(TOKEN_HASH, Instant.now().minusSeconds(60)));
+
+        assertThat(subject.size()).isZero();
+    }
+
+    private InMemoryRefreshTokenStore store(boolean writeThrough) {
+        return new InMemoryRefreshTokenStore(10, 8, writeThrough, refreshTokenRepository, userRepository);
+    }
+
+    private RefreshToken refreshToken(String tokenHash, Instant expiryDate) {
+        return RefreshToken.builder()
+                .tokenHash(tokenHash)
+                .family("family")
+                .expiryDate(expiryDate)
+                .user(User.builder().id(USER_ID).build())
+                .build();
+    }
+}
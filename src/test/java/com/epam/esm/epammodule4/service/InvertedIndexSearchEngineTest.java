@@ -0,0 +1,162 @@
+package com.epam.esm.epammodule4.service;
+
+import com.epam.esm.epammodule4.model.entity.GiftCertificate;
+import com.epam.esm.epammodule4.repository.PageableGiftCertificateRepository;
+import com.epam.esm.epammodule4.service.event.GiftCertificateChangedEvent;
+import com.epam.esm.epammodule4.service.implementation.InvertedIndexSearchEngine;
+import com.epam.esm.epammodule4.util.CompressedBitmap;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InvertedIndexSearchEngineTest {
+
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 10);
+
+    @Mock
+    private PageableGiftCertificateRepository pageableCertificateRepository;
+
+    private InvertedIndexSearchEngine subject;
+
+    @BeforeEach
+    void setUp() {
+        subject = new InvertedIndexSearchEngine(pageableCertificateRepository, 2);
+    }
+
+    @Test
+    void rebuild_thenIndexesAllBatches() {
+        List<GiftCertificate> certificates = List.of(
+                certificate(1L, "Spa day", "Relaxing massage"),
+                certificate(2L, "Cinema", "Two tickets"),
+                certificate(4L, "Diving", "Open water course"));
+        when(pageableCertificateRepository.findByIdGreaterThanOrderByIdAsc(anyLong(), any(Pageable.class)))
+                .thenAnswer(invocation -> certificates.stream()
+                        .filter(certificate -> certificate.getId() > invocation.<Long>getArgument(0))
+                        .limit(invocation.<Pageable>getArgument(1).getPageSize())
+                        .toList());
+
+        subject.rebuild();
+
+        assertThat(subject.size()).isEqualTo(3);
+        assertThat(subject.search("course", FIRST_PAGE).getContent()).containsExactly(4L);
+        verify(pageableCertificateRepository).findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 2));
+        verify(pageableCertificateRepository).findByIdGreaterThanOrderByIdAsc(2L, PageRequest.of(0, 2));
+        verifyNoMoreInteractions(pageableCertificateRepository);
+    }
+
+    @Test
+    void rebuild_whenCertificateChangedWhileReading_thenKeepsChange() {
+        when(pageableCertificateRepository.findByIdGreaterThanOrderByIdAsc(anyLong(), any(Pageable.class)))
+                .thenAnswer(invocation -> {
+                    subject.onCertificateChanged(new GiftCertificateChangedEvent(1L,
+                            certificate(1L, "Yoga", "Morning class")));
+                    subject.onCertificateChanged(new GiftCertificateChangedEvent(2L, null));
+                    return List.of(certificate(1L, "Spa day", "Relaxing massage"),
+                            certificate(2L, "Cinema", "Two tickets"));
+                })
+                .thenReturn(List.of());
+
+        subject.rebuild();
+
+        assertThat(subject.search("yoga", FIRST_PAGE).getContent()).containsExactly(1L);
+        assertThat(subject.search("spa", FIRST_PAGE).getContent()).isEmpty();
+        assertThat(subject.size()).isEqualTo(1);
+    }
+
+    @Test
+    void search_thenMatchesStemmedTermsRankedByRelevance() {
+        subject.index(certificate(1L, "Cinema", "Popcorn and a massage chair"));
+        subject.index(certificate(2L, "Massages", "Two massages for a couple"));
+        subject.index(certificate(3L, "Spa day", "Sauna and pool"));
+
+        Page<Long> found = subject.search("massage", FIRST_PAGE);
+
+        assertThat(found.getContent()).containsExactly(2L, 1L);
+        assertThat(found.getTotalElements()).isEqualTo(2);
+    }
+
+    @Test
+    void search_thenRequiresEveryTerm() {
+        subject.index(certificate(1L, "Spa massage", "Relax"));
+        subject.index(certificate(2L, "Spa day", "Sauna"));
+        subject.index(certificate(3L, "Massage chair", "Relax"));
+
+        assertThat(subject.search("spa massage", FIRST_PAGE).getContent()).containsExactly(1L);
+        assertThat(subject.search("spa unknown", FIRST_PAGE).getContent()).isEmpty();
+        assertThat(subject.search("the and", FIRST_PAGE).getContent()).isEmpty();
+    }
+
+    @Test
+    void findAllIds_thenReturnsEveryMatchUnranked() {
+        subject.index(certificate(1L, "Spa massage", "Relax"));
+        subject.index(certificate(2L, "Massages", "Two massages at the spa"));
+        subject.index(certificate(3L, "Massage chair", "Relax"));
+
+        assertThat(subject.findAllIds("massage spa")).containsExactly(1L, 2L);
+        assertThat(subject.findAllIds("massage unknown")).isEmpty();
+    }
+
+    @Test
+    void search_thenPagesThroughRankedResults() {
+        for (long id = 1; id <= 5; id++) {
+            subject.index(certificate(id, "Gift " + id, "Gift card"));
+        }
+
+        Page<Long> second = subject.search("gift", PageRequest.of(1, 2));
+
+        assertThat(second.getContent()).containsExactly(3L, 4L);
+        assertThat(second.getTotalElements()).isEqualTo(5);
+        assertThat(subject.search("gift", PageRequest.of(3, 2)).getContent()).isEmpty();
+    }
+
+    @Test
+    void onCertificateChanged_thenReindexesAndRemoves() {
+        subject.index(certificate(1L, "Spa day", "Sauna"));
+
+        subject.onCertificateChanged(new GiftCertificateChangedEvent(1L, certificate(1L, "Karting", "Race")));
+        assertThat(subject.search("spa", FIRST_PAGE).getContent()).isEmpty();
+        assertThat(subject.search("race", FIRST_PAGE).getContent()).containsExactly(1L);
+
+        subject.onCertificateChanged(new GiftCertificateChangedEvent(1L, null));
+        assertThat(subject.search("race", FIRST_PAGE).getContent()).isEmpty();
+        assertThat(subject.size()).isZero();
+    }
+
+    private GiftCertificate certificate(Long id, String name, String description) {
+        return GiftCertificate.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .build();
+    }
+
+    @Test
+    void search_whenFiltered_thenRanksAndCountsOnlyFilteredMatches() {
+        for (long id = 1; id <= 5; id++) {
+            subject.index(certificate(id, "Gift " + id, "Gift card"));
+        }
+        CompressedBitmap filter = new CompressedBitmap();
+        List.of(2, 4, 9).forEach(filter::add);
+
+        Page<Long> found = subject.search("gift", filter, FIRST_PAGE);
+
+        assertThat(found.getContent()).containsExactly(2L, 4L);
+        assertThat(found.getTotalElements()).isEqualTo(2);
+        assertThat(subject.search("gift", new CompressedBitmap(), FIRST_PAGE).getContent()).isEmpty();
+    }
+}
@@ -0,0 +1,69 @@
+package com.epam.esm.epammodule4.service;
+
+import com.epam.esm.epammodule4.model.entity.RefreshToken;
+import com.epam.esm.epammodule4.repository.RefreshTokenRepository;
+import com.epam.esm.epammodule4.service.implementation.JpaRefreshTokenStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JpaRefreshTokenStoreTest {
+
+    private static final Long USER_ID = 1L;
+
+    @InjectMocks
+    private JpaRefreshTokenStore subject;
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Test
+    void saveAndFindAndDelete_thenDelegatesToRepository() {
+        RefreshToken refreshToken = RefreshToken.builder().tokenHash("hash").build();
+
+        when(refreshTokenRepository.save(any(RefreshToken.class))).thenReturn(refreshToken);
+        when(refreshTokenRepository.findByTokenHash(any(String.class))).thenReturn(Optional.of(refreshToken));
+
+        assertThat(subject.save(refreshToken)).isEqualTo(refreshToken);
+        assertThat(subject.findByTokenHash("hash")).contains(refreshToken);
+        subject.delete(refreshToken);
+
+        verify(refreshTokenRepository).save(refreshToken);
+        verify(refreshTokenRepository).findByTokenHash("hash");
+        verify(refreshTokenRepository).delete(refreshToken);
+        verifyNoMoreInteractions(refreshTokenRepository);
+    }
+
+    @Test
+    void revoke_thenRevokesOnlyActiveToken() {
+        RefreshToken refreshToken = RefreshToken.builder().id(5L).build();
+
+        when(refreshTokenRepository.revokeById(any(Long.class))).thenReturn(1, 0);
+
+        assertThat(subject.revoke(refreshToken)).isTrue();
+        assertThat(subject.revoke(refreshToken)).isFalse();
+
+        verify(refreshTokenRepository, times(2)).revokeById(5L);
+    }
+
+    @Test
+    void deleteByFamilyAndUserId_thenUsesBulkDeletes() {
+        when(refreshTokenRepository.deleteByFamily(any(String.class))).thenReturn(2);
+        when(refreshTokenRepository.deleteByUserId(any(Long.class))).thenReturn(3);
+
+        assertThat(subject.deleteByFamily("family")).isEqualTo(2);
+        assertThat(subject.deleteByUserId(USER_ID)).isEqualTo(3);
+
+        verify(refreshTokenRepository).deleteByFamily("family");
+        verify(refreshTokenRepository).deleteByUserId(USER_ID);
+        verifyNoMoreInteractions(refreshTokenRepository);
+    }
+}
\ No newline at end of file
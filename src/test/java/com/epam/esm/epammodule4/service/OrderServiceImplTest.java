@@ -2,15 +2,22 @@ package com.epam.esm.epammodule4.service;
 
 import com.epam.esm.epammodule4.exception.OrderAlreadyExistsException;
 import com.epam.esm.epammodule4.exception.OrderNotFoundException;
+import com.epam.esm.epammodule4.model.ERole;
+import com.epam.esm.epammodule4.model.OrderRow;
+import com.epam.esm.epammodule4.model.TotalCount;
 import com.epam.esm.epammodule4.model.dto.*;
 import com.epam.esm.epammodule4.model.dto.request.CreateOrderRequest;
 import com.epam.esm.epammodule4.model.dto.request.UpdateOrderRequest;
 import com.epam.esm.epammodule4.model.entity.GiftCertificate;
 import com.epam.esm.epammodule4.model.entity.Order;
+import com.epam.esm.epammodule4.model.entity.Role;
 import com.epam.esm.epammodule4.model.entity.User;
 import com.epam.esm.epammodule4.repository.OrderRepository;
+import com.epam.esm.epammodule4.service.event.OrderChangedEvent;
+import com.epam.esm.epammodule4.service.implementation.ApproximateRowCounter;
 import com.epam.esm.epammodule4.service.implementation.GiftCertificateServiceImpl;
 import com.epam.esm.epammodule4.service.implementation.OrderServiceImpl;
+import com.epam.esm.epammodule4.service.implementation.RoleCatalog;
 import com.epam.esm.epammodule4.service.implementation.UserServiceImpl;
 import com.epam.esm.epammodule4.service.mapper.OrderMapper;
 import org.junit.jupiter.api.Test;
@@ -18,11 +25,15 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.LongSupplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -46,6 +57,12 @@ class OrderServiceImplTest {
     @Mock
     private OrderMapper orderMapper;
     @Mock
+    private ApproximateRowCounter rowCounter;
+    @Mock
+    private RoleCatalog roleCatalog;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
     private CreateOrderRequest createRequest;
     @Mock
     private UpdateOrderRequest updateRequest;
@@ -98,6 +115,21 @@ class OrderServiceImplTest {
         assertThat(actualOrders).isEqualTo(allExpectedCertificates);
     }
 
+    @Test
+    void findAll_whenCursor_thenReturnsCursorPage() {
+        Pageable pageable = PageRequest.of(0, 5, Sort.by("createDate"));
+        CursorPage<Order> expectedOrders = new CursorPage<>(List.of(new Order()), "next");
+
+        when(orderRepository.findAll(any(String.class), any(Pageable.class))).thenReturn(expectedOrders);
+
+        CursorPage<Order> actualOrders = subject.findAll("cursor", pageable);
+
+        verify(orderRepository).findAll("cursor", pageable);
+        verifyNoMoreInteractions(orderRepository);
+
+        assertThat(actualOrders).isEqualTo(expectedOrders);
+    }
+
     @Test
     void create() {
         Order newOrder = new Order();
@@ -116,6 +148,8 @@ class OrderServiceImplTest {
         verify(certificateService).findById(0L);
         verify(orderRepository).save(newOrder);
         verify(orderMapper).toOrder(createRequest);
+        verify(eventPublisher).publishEvent(argThat((OrderChangedEvent event) ->
+                event.getPreviousCertificateId() == null && CERTIFICATE_ID.equals(event.getCertificateId())));
         verifyNoMoreInteractions(orderRepository);
 
         assertThat(actualOrder).isEqualTo(expectedOrder);
@@ -158,6 +192,7 @@ class OrderServiceImplTest {
     void delete() {
         Order deleteOrder = Order.builder()
                 .id(ORDER_ID)
+                .giftCertificate(GiftCertificate.builder().id(CERTIFICATE_ID).build())
                 .build();
 
         when(orderRepository.findById(any(Long.class))).thenReturn(Optional.of(deleteOrder));
@@ -165,6 +200,9 @@ class OrderServiceImplTest {
         subject.delete(ORDER_ID);
 
         verify(orderRepository).delete(deleteOrder);
+        verify(eventPublisher).publishEvent(argThat((OrderChangedEvent event) ->
+                ORDER_ID.equals(event.getOrderId()) && CERTIFICATE_ID.equals(event.getPreviousCertificateId())
+                        && event.getCertificateId() == null));
         verifyNoMoreInteractions(orderRepository);
     }
 
@@ -188,6 +226,57 @@ class OrderServiceImplTest {
         assertThat(actualOrders).isEqualTo(allExpectedCertificates);
     }
 
+    @Test
+    void findAllByUserId_whenTotalIsApproximate_thenEstimatesCountOfUser() {
+        Pageable pageable = PageRequest.of(0, 5);
+        Slice<Order> foundOrders = new SliceImpl<>(List.of(new Order()), pageable, true);
+
+        when(orderRepository.findSlice(any(Specification.class), any(Pageable.class))).thenReturn(foundOrders);
+        when(orderRepository.countByUserId(any(Long.class))).thenReturn(42L);
+        when(rowCounter.estimate(any(String.class), any(LongSupplier.class)))
+                .thenAnswer(invocation -> invocation.<LongSupplier>getArgument(1).getAsLong());
+        when(rowCounter.withApproximateTotal(any(Slice.class), any(LongSupplier.class)))
+                .thenAnswer(invocation -> new PageImpl<>(foundOrders.getContent(), pageable,
+                        invocation.<LongSupplier>getArgument(1).getAsLong()));
+
+        Slice<Order> actualOrders = subject.findAllByUserId(USER_ID, pageable, TotalCount.APPROXIMATE);
+
+        verify(rowCounter).estimate(eq("cert_order:user:" + USER_ID), any(LongSupplier.class));
+        verify(orderRepository).countByUserId(USER_ID);
+        assertThat(((Page<Order>) actualOrders).getTotalElements()).isEqualTo(42);
+    }
+
+    @Test
+    void findAll_whenTotalIsNone_thenSkipsCount() {
+        Pageable pageable = PageRequest.of(0, 5);
+        Slice<Order> expectedOrders = new SliceImpl<>(List.of(new Order()), pageable, false);
+
+        when(orderRepository.findSlice(any(Pageable.class))).thenReturn(expectedOrders);
+
+        Slice<Order> actualOrders = subject.findAll(pageable, TotalCount.NONE);
+
+        verify(orderRepository).findSlice(pageable);
+        verifyNoMoreInteractions(orderRepository);
+
+        assertThat(actualOrders).isEqualTo(expectedOrders);
+    }
+
+    @Test
+    void findAllByUserId_whenCursor_thenFiltersByUser() {
+        Pageable pageable = PageRequest.of(0, 5);
+        CursorPage<Order> expectedOrders = new CursorPage<>(List.of(new Order()), null);
+
+        when(orderRepository.findAll(any(Specification.class), any(String.class), any(Pageable.class)))
+                .thenReturn(expectedOrders);
+
+        CursorPage<Order> actualOrders = subject.findAllByUserId(USER_ID, "", pageable);
+
+        verify(orderRepository).findAll(any(Specification.class), eq(""), eq(pageable));
+        verifyNoMoreInteractions(orderRepository);
+
+        assertThat(actualOrders).isEqualTo(expectedOrders);
+    }
+
     @Test
     void findByOrderIdAndUserId() {
         Optional<Order> expectedOrder = Optional.of(new Order());
@@ -306,4 +395,129 @@ class OrderServiceImplTest {
 
         assertThat(actualCost).isEqualTo(expectedCost);
     }
-}
\ No newline at end of file
+
+    @Test
+    void findAllAsDto_whenTotalIsExact_thenLoadsTagsOfWholePageOnceAndRolesFromCatalog() {
+        Pageable pageable = PageRequest.of(0, 5);
+        OrderRow first = row(1L, USER_ID, CERTIFICATE_ID);
+        OrderRow second = row(2L, USER_ID, 7L);
+        Role role = Role.builder().id(1L).name(ERole.ROLE_USER).build();
+        OrderDto firstDto = OrderDto.builder().id(1L).build();
+        OrderDto secondDto = OrderDto.builder().id(2L).build();
+
+        when(orderRepository.findAllRows(any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(first, second), pageable, 2));
+        when(orderRepository.findTagsByCertificateIds(any())).thenReturn(List.<Object[]>of(
+                new Object[]{CERTIFICATE_ID, 3L, "spa"},
+                new Object[]{CERTIFICATE_ID, 4L, "gift"}));
+        when(roleCatalog.rolesOf(any())).thenReturn(Set.of(role));
+        when(orderMapper.toDto(eq(first), any(), any())).thenReturn(firstDto);
+        when(orderMapper.toDto(eq(second), any(), any())).thenReturn(secondDto);
+
+        Slice<OrderDto> actualOrders = subject.findAllAsDto(pageable, TotalCount.EXACT);
+
+        assertThat(actualOrders.getContent()).containsExactly(firstDto, secondDto);
+        assertThat(((Page<OrderDto>) actualOrders).getTotalElements()).isEqualTo(2);
+        verify(orderRepository).findTagsByCertificateIds(Set.of(CERTIFICATE_ID, 7L));
+        verify(roleCatalog, times(2)).rolesOf(ERole.ROLE_USER.bit());
+        verify(orderMapper).toDto(eq(first),
+                argThat(tags -> tags.stream().map(TagDto::getName).toList().equals(List.of("spa", "gift"))),
+                eq(Set.of(role)));
+        verify(orderMapper).toDto(second, List.of(), Set.of(role));
+    }
+
+    @Test
+    void findAllAsDto_whenPageIsEmpty_thenSkipsTagQuery() {
+        Pageable pageable = PageRequest.of(3, 5);
+
+        when(orderRepository.findRowSlice(any(Pageable.class))).thenReturn(new SliceImpl<>(List.of(), pageable, false));
+
+        Slice<OrderDto> actualOrders = subject.findAllAsDto(pageable, TotalCount.NONE);
+
+        assertThat(actualOrders.hasContent()).isFalse();
+        verify(orderRepository).findRowSlice(pageable);
+        verifyNoMoreInteractions(orderRepository);
+        verifyNoInteractions(orderMapper, rowCounter, roleCatalog);
+    }
+
+    @Test
+    void findAllAsDto_whenTotalIsApproximate_thenEstimatesTable() {
+        Pageable pageable = PageRequest.of(3, 5);
+        Slice<OrderRow> rows = new SliceImpl<>(List.of(), pageable, false);
+
+        when(orderRepository.findRowSlice(any(Pageable.class))).thenReturn(rows);
+        when(rowCounter.withApproximateTotal(any(Slice.class), any(LongSupplier.class)))
+                .thenAnswer(invocation -> new PageImpl<>(rows.getContent(), pageable, 16));
+
+        Slice<OrderDto> actualOrders = subject.findAllAsDto(pageable, TotalCount.APPROXIMATE);
+
+        assertThat(((Page<OrderDto>) actualOrders).getTotalElements()).isEqualTo(16);
+    }
+
+    @Test
+    void findAllAsDtoByUserId_thenSelectsRowsOfUserForEachTotal() {
+        Pageable pageable = PageRequest.of(0, 5);
+        Slice<OrderRow> rows = new SliceImpl<>(List.of(), pageable, false);
+
+        when(orderRepository.findAllRowsByUserId(any(Long.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(), pageable, 0));
+        when(orderRepository.findRowSliceByUserId(any(Long.class), any(Pageable.class))).thenReturn(rows);
+        when(orderRepository.countByUserId(any(Long.class))).thenReturn(42L);
+        when(rowCounter.estimate(any(String.class), any(LongSupplier.class)))
+                .thenAnswer(invocation -> invocation.<LongSupplier>getArgument(1).getAsLong());
+        when(rowCounter.withApproximateTotal(any(Slice.class), any(LongSupplier.class)))
+                .thenAnswer(invocation -> new PageImpl<>(List.of(), pageable,
+                        invocation.<LongSupplier>getArgument(1).getAsLong()));
+
+        assertThat(subject.findAllAsDtoByUserId(USER_ID, pageable, TotalCount.EXACT)).isInstanceOf(Page.class);
+        assertThat(subject.findAllAsDtoByUserId(USER_ID, pageable, TotalCount.NONE).hasContent()).isFalse();
+        assertThat(((Page<OrderDto>) subject.findAllAsDtoByUserId(USER_ID, pageable, TotalCount.APPROXIMATE))
+                .getTotalElements()).isEqualTo(42);
+
+        verify(orderRepository).findAllRowsByUserId(USER_ID, pageable);
+        verify(orderRepository, times(2)).findRowSliceByUserId(USER_ID, pageable);
+        verify(rowCounter).estimate(eq("cert_order:user:" + USER_ID), any(LongSupplier.class));
+    }
+
+    @Test
+    void findAllAsDto_whenCursor_thenLoadsTagsOfPageOnceAndKeepsNextCursor() {
+        Pageable pageable = PageRequest.of(0, 1);
+        OrderRow first = row(1L, USER_ID, CERTIFICATE_ID);
+        OrderDto firstDto = OrderDto.builder().id(1L).build();
+
+        when(orderRepository.findAllRows(isNull(), any(String.class), any(Pageable.class)))
+                .thenReturn(new CursorPage<>(List.of(first), "next"));
+        when(orderRepository.findTagsByCertificateIds(any())).thenReturn(List.of());
+        when(roleCatalog.rolesOf(any())).thenReturn(Set.of());
+        when(orderMapper.toDto(any(OrderRow.class), any(), any())).thenReturn(firstDto);
+
+        CursorPage<OrderDto> actualOrders = subject.findAllAsDto("", pageable);
+
+        assertThat(actualOrders.getContent()).containsExactly(firstDto);
+        assertThat(actualOrders.getNextCursor()).isEqualTo("next");
+        verify(orderRepository).findAllRows(null, "", pageable);
+        verify(orderRepository).findTagsByCertificateIds(Set.of(CERTIFICATE_ID));
+        verifyNoMoreInteractions(orderRepository);
+    }
+
+    @Test
+    void findAllAsDtoByUserId_whenCursor_thenFiltersByUserAndSkipsTagQueryOfEmptyPage() {
+        Pageable pageable = PageRequest.of(0, 5);
+
+        when(orderRepository.findAllRows(any(Specification.class), any(String.class), any(Pageable.class)))
+                .thenReturn(new CursorPage<>(List.of(), null));
+
+        CursorPage<OrderDto> actualOrders = subject.findAllAsDtoByUserId(USER_ID, "cursor", pageable);
+
+        assertThat(actualOrders.getContent()).isEmpty();
+        assertThat(actualOrders.isLast()).isTrue();
+        verify(orderRepository).findAllRows(any(Specification.class), eq("cursor"), eq(pageable));
+        verifyNoMoreInteractions(orderRepository);
+        verifyNoInteractions(orderMapper, roleCatalog);
+    }
+
+    private static OrderRow row(Long id, Long userId, Long certificateId) {
+        return new OrderRow(id, 10.0, null, null, userId, null, "user", "user", null, ERole.ROLE_USER.bit(),
+                certificateId, "certificate", null, 10.0, 30, null, null);
+    }
+}
@@ -0,0 +1,99 @@
+package com.epam.esm.epammodule4.service;
+
+import com.epam.esm.epammodule4.service.implementation.PostgresFullTextSearchEngine;
+import com.epam.esm.epammodule4.util.CompressedBitmap;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PostgresFullTextSearchEngineTest {
+
+    @InjectMocks
+    private PostgresFullTextSearchEngine subject;
+    @Mock
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void createSearchIndex_thenAddsColumnAndGinIndex() {
+        when(namedJdbcTemplate.getJdbcTemplate()).thenReturn(jdbcTemplate);
+
+        subject.createSearchIndex();
+
+        verify(jdbcTemplate).execute(contains("ADD COLUMN IF NOT EXISTS search_vector tsvector"));
+        verify(jdbcTemplate).execute(contains("USING gin (search_vector)"));
+    }
+
+    @Test
+    void search_whenPageIsFull_thenCountsMatches() {
+        when(namedJdbcTemplate.queryForList(anyString(), any(SqlParameterSource.class), eq(Long.class)))
+                .thenReturn(List.of(3L, 1L));
+        when(namedJdbcTemplate.queryForObject(anyString(), any(SqlParameterSource.class), eq(Long.class)))
+                .thenReturn(7L);
+
+        Page<Long> found = subject.search("spa", PageRequest.of(1, 2, Sort.by("name")));
+
+        assertThat(found.getContent()).containsExactly(3L, 1L);
+        assertThat(found.getTotalElements()).isEqualTo(7);
+        assertThat(found.getSort().isUnsorted()).isTrue();
+        verify(namedJdbcTemplate).queryForList(contains("websearch_to_tsquery"),
+                argThat((SqlParameterSource parameters) -> "spa".equals(parameters.getValue("text"))
+                        && Long.valueOf(2).equals(parameters.getValue("offset"))),
+                eq(Long.class));
+    }
+
+    @Test
+    void search_whenLastPage_thenSkipsCount() {
+        when(namedJdbcTemplate.queryForList(anyString(), any(SqlParameterSource.class), eq(Long.class)))
+                .thenReturn(List.of(5L));
+
+        Page<Long> found = subject.search("spa", PageRequest.of(0, 10));
+
+        assertThat(found.getTotalElements()).isEqualTo(1);
+        verify(namedJdbcTemplate, never()).queryForObject(anyString(), any(SqlParameterSource.class), eq(Long.class));
+    }
+
+    @Test
+    void findAllIds_thenSelectsMatchingIdsWithoutRanking() {
+        when(namedJdbcTemplate.queryForList(anyString(), any(SqlParameterSource.class), eq(Long.class)))
+                .thenReturn(List.of(1L, 4L));
+
+        assertThat(subject.findAllIds("spa")).containsExactly(1L, 4L);
+        verify(namedJdbcTemplate).queryForList(
+                argThat((String sql) -> sql.contains("@@ websearch_to_tsquery") && !sql.contains("ts_rank")),
+                argThat((SqlParameterSource parameters) -> "spa".equals(parameters.getValue("text"))),
+                eq(Long.class));
+    }
+
+    @Test
+    void search_whenFiltered_thenBindsFilterIdsAsArray() {
+        CompressedBitmap filter = new CompressedBitmap();
+        List.of(4, 9).forEach(filter::add);
+
+        when(namedJdbcTemplate.queryForList(anyString(), any(SqlParameterSource.class), eq(Long.class)))
+                .thenReturn(List.of(9L));
+
+        assertThat(subject.search("spa", filter, PageRequest.of(0, 10)).getContent()).containsExactly(9L);
+        verify(namedJdbcTemplate).queryForList(contains("g.id = ANY(:ids)"),
+                argThat((SqlParameterSource parameters) ->
+                        Arrays.equals(new int[]{4, 9}, (int[]) parameters.getValue("ids"))),
+                eq(Long.class));
+    }
+}
@@ -0,0 +1,98 @@
+package com.epam.esm.epammodule4.service;
+
+import com.epam.esm.epammodule4.service.implementation.PostgresTrigramNameMatcher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PostgresTrigramNameMatcherTest {
+
+    private PostgresTrigramNameMatcher subject;
+    @Mock
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        subject = new PostgresTrigramNameMatcher(namedJdbcTemplate, 2);
+    }
+
+    @Test
+    void createTrigramIndexes_thenCreatesExtensionAndGinIndexes() {
+        when(namedJdbcTemplate.getJdbcTemplate()).thenReturn(jdbcTemplate);
+
+        subject.createTrigramIndexes();
+
+        verify(jdbcTemplate).execute(contains("CREATE EXTENSION IF NOT EXISTS pg_trgm"));
+        verify(jdbcTemplate).execute(contains("ON gift_certificate USING gin (lower(name) gin_trgm_ops)"));
+        verify(jdbcTemplate).execute(contains("ON tag USING gin (lower(name) gin_trgm_ops)"));
+    }
+
+    @Test
+    void findCertificateIds_thenPrunesByThresholdAndChecksWordDistance() throws SQLException {
+        ResultSet massage = row(1L, "Thai Massage");
+        ResultSet passage = row(2L, "Passage rite");
+        ResultSet message = row(3L, "Message in a bottle");
+
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(2);
+            handler.processRow(massage);
+            handler.processRow(passage);
+            handler.processRow(message);
+            return null;
+        }).when(namedJdbcTemplate).query(anyString(), any(SqlParameterSource.class), any(RowCallbackHandler.class));
+
+        assertThat(subject.findCertificateIds("Masage", 5)).containsExactly(1L, 2L, 3L);
+        // "masage" has 7 trigrams; two edits may change 6 of them, so one shared trigram is required.
+        verify(namedJdbcTemplate).queryForObject(contains("word_similarity_threshold"),
+                argThat((SqlParameterSource parameters) -> "0.1428".equals(parameters.getValue("threshold"))),
+                eq(String.class));
+        verify(namedJdbcTemplate).query(contains(":word <% lower(g.name)"),
+                argThat((SqlParameterSource parameters) -> "masage".equals(parameters.getValue("word"))),
+                any(RowCallbackHandler.class));
+    }
+
+    @Test
+    void findCertificateIds_whenDistanceIsZero_thenRequiresAllTrigrams() {
+        assertThat(subject.findCertificateIds("spa", 0)).isEmpty();
+        assertThat(subject.findCertificateIds(" ", 1)).isEmpty();
+
+        verify(namedJdbcTemplate).queryForObject(anyString(),
+                argThat((SqlParameterSource parameters) -> "1.0".equals(parameters.getValue("threshold"))),
+                eq(String.class));
+    }
+
+    @Test
+    void findTagName_thenReturnsClosestCandidate() {
+        when(namedJdbcTemplate.queryForList(anyString(), any(SqlParameterSource.class), eq(String.class)))
+                .thenReturn(List.of("Spa day", "Spas", "spa"));
+
+        assertThat(subject.findTagName(" SPA ", 1)).contains("spa");
+        verify(namedJdbcTemplate).queryForList(contains(":name <% lower(t.name)"),
+                argThat((SqlParameterSource parameters) -> "spa".equals(parameters.getValue("name"))),
+                eq(String.class));
+    }
+
+    private static ResultSet row(long id, String name) throws SQLException {
+        ResultSet row = mock(ResultSet.class);
+        when(row.getLong(1)).thenReturn(id);
+        when(row.getString(2)).thenReturn(name);
+        return row;
+    }
+}
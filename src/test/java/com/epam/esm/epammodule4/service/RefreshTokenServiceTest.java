@@ -3,8 +3,8 @@ package com.epam.esm.epammodule4.service;
 import com.epam.esm.epammodule4.exception.TokenRefreshException;
 import com.epam.esm.epammodule4.model.entity.RefreshToken;
 import com.epam.esm.epammodule4.model.entity.User;
-import com.epam.esm.epammodule4.repository.RefreshTokenRepository;
 import com.epam.esm.epammodule4.repository.UserRepository;
+import com.epam.esm.epammodule4.service.RefreshTokenStore;
 import com.epam.esm.epammodule4.service.implementation.RefreshTokenService;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
@@ -34,7 +34,7 @@ class RefreshTokenServiceTest {
     @Mock
     private UserRepository userRepository;
     @Mock
-    RefreshTokenRepository refreshTokenRepository;
+    RefreshTokenStore refreshTokenStore;
 
     @Test
     void findByToken() {
@@ -44,14 +44,14 @@ class RefreshTokenServiceTest {
                 .user(User.builder().id(USER_ID).name("User").build())
                 .build();
 
-        when(refreshTokenRepository.findByToken(any(String.class))).thenReturn(Optional.of(expectedRefreshToken));
+        when(refreshTokenStore.findByTokenHash(any(String.class))).thenReturn(Optional.of(expectedRefreshToken));
 
         Optional<RefreshToken> actualRefreshToken = subject.findByToken(refreshTokenString);
 
         assertThat(actualRefreshToken).isEqualTo(Optional.of(expectedRefreshToken));
 
-        verify(refreshTokenRepository).findByToken(refreshTokenString);
-        verifyNoMoreInteractions(refreshTokenRepository);
+        verify(refreshTokenStore).findByTokenHash(RefreshTokenService.hashToken(refreshTokenString));
+        verifyNoMoreInteractions(refreshTokenStore);
     }
 
     @Test
@@ -60,22 +60,20 @@ class RefreshTokenServiceTest {
 
         String refreshTokenString = "refreshtoken";
 
-        RefreshToken expectedRefreshToken = RefreshToken.builder()
-                .token(refreshTokenString)
-                .user(user)
-                .build();
-
         ReflectionTestUtils.setField(subject, "refreshTokenDurationMs", 10L);
 
-        when(userRepository.findById(any(Long.class))).thenReturn(Optional.of(user));
-        when(refreshTokenRepository.save(any(RefreshToken.class))).thenReturn(expectedRefreshToken);
+        when(userRepository.getReferenceById(any(Long.class))).thenReturn(user);
+        when(refreshTokenStore.save(any(RefreshToken.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         RefreshToken actualRefreshToken = subject.createRefreshToken(USER_ID);
 
-        assertThat(actualRefreshToken).isEqualTo(expectedRefreshToken);
+        assertThat(actualRefreshToken.getUser()).isEqualTo(user);
+        assertThat(actualRefreshToken.getFamily()).isNotNull();
+        assertThat(actualRefreshToken.getTokenHash()).isEqualTo(RefreshTokenService.hashToken(actualRefreshToken.getToken()));
 
-        verify(userRepository).findById(USER_ID);
-        verifyNoMoreInteractions(userRepository, refreshTokenRepository);
+        verify(userRepository).getReferenceById(USER_ID);
+        verify(refreshTokenStore).save(any(RefreshToken.class));
+        verifyNoMoreInteractions(userRepository, refreshTokenStore);
     }
 
     @Test
@@ -126,14 +124,81 @@ class RefreshTokenServiceTest {
     }
 
     @Test
-    void deleteByUserId() {
+    void rotate_whenTokenActive_thenIssuesSuccessorInSameFamily() {
         User user = User.builder().id(USER_ID).name("User").build();
+        RefreshToken currentRefreshToken = RefreshToken.builder()
+                .id(5L)
+                .tokenHash(RefreshTokenService.hashToken("refreshtoken"))
+                .family("family")
+                .expiryDate(Instant.now().plusSeconds(60))
+                .user(user)
+                .build();
+
+        ReflectionTestUtils.setField(subject, "refreshTokenDurationMs", 10L);
+
+        when(refreshTokenStore.findByTokenHash(any(String.class))).thenReturn(Optional.of(currentRefreshToken));
+        when(refreshTokenStore.revoke(any(RefreshToken.class))).thenReturn(true);
+        when(refreshTokenStore.save(any(RefreshToken.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        RefreshToken actualRefreshToken = subject.rotate("refreshtoken");
+
+        assertThat(actualRefreshToken.getToken()).isNotEqualTo("refreshtoken");
+        assertThat(actualRefreshToken.getFamily()).isEqualTo("family");
+        assertThat(actualRefreshToken.getUser()).isEqualTo(user);
+
+        verify(refreshTokenStore).revoke(currentRefreshToken);
+        verify(refreshTokenStore, never()).deleteByFamily(any(String.class));
+    }
+
+    @Test
+    void rotate_whenTokenAlreadyRotated_thenRevokesFamilyAndThrowsTokenRefreshException() {
+        RefreshToken reusedRefreshToken = RefreshToken.builder()
+                .family("family")
+                .revoked(true)
+                .expiryDate(Instant.now().plusSeconds(60))
+                .build();
+
+        when(refreshTokenStore.findByTokenHash(any(String.class))).thenReturn(Optional.of(reusedRefreshToken));
+
+        TokenRefreshException exception = assertThrows(TokenRefreshException.class,
+                () -> subject.rotate("refreshtoken"));
+
+        String expectedMessage = "Refresh token was already used. Please make a new login request";
+        assertThat(exception.getMessage()).isEqualTo(expectedMessage);
+
+        verify(refreshTokenStore).deleteByFamily("family");
+        verify(refreshTokenStore, never()).save(any(RefreshToken.class));
+    }
+
+    @Test
+    void rotate_whenTokenNotFound_thenThrowsTokenRefreshException() {
+        when(refreshTokenStore.findByTokenHash(any(String.class))).thenReturn(Optional.empty());
+
+        assertThrows(TokenRefreshException.class, () -> subject.rotate("refreshtoken"));
+
+        verify(refreshTokenStore).findByTokenHash(RefreshTokenService.hashToken("refreshtoken"));
+        verifyNoMoreInteractions(refreshTokenStore);
+    }
+
+    @Test
+    void deleteByFamily() {
+        when(refreshTokenStore.deleteByFamily(any(String.class))).thenReturn(3);
+
+        assertThat(subject.deleteByFamily("family")).isEqualTo(3);
+
+        verify(refreshTokenStore).deleteByFamily("family");
+    }
+
+    @Test
+    void deleteByUserId() {
+        when(refreshTokenStore.deleteByUserId(any(Long.class))).thenReturn(2);
 
-        when(userRepository.findById(any(Long.class))).thenReturn(Optional.of(user));
+        int actualDeleted = subject.deleteByUserId(USER_ID);
 
-        subject.deleteByUserId(USER_ID);
+        assertThat(actualDeleted).isEqualTo(2);
 
-        verify(userRepository).findById(USER_ID);
-        verifyNoMoreInteractions(userRepository);
+        verify(refreshTokenStore).deleteByUserId(USER_ID);
+        verifyNoMoreInteractions(refreshTokenStore);
+        verifyNoInteractions(userRepository);
     }
 }
\ No newline at end of file
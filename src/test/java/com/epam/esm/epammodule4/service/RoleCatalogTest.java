@@ -0,0 +1,78 @@
+package com.epam.esm.epammodule4.service;
+
+import com.epam.esm.epammodule4.exception.RoleNotFoundException;
+import com.epam.esm.epammodule4.model.ERole;
+import com.epam.esm.epammodule4.model.entity.Role;
+import com.epam.esm.epammodule4.repository.RoleRepository;
+import com.epam.esm.epammodule4.repository.UserRepository;
+import com.epam.esm.epammodule4.service.implementation.RoleCatalog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RoleCatalogTest {
+
+    private static final Role USER = Role.builder().id(1L).name(ERole.ROLE_USER).build();
+    private static final Role ADMIN = Role.builder().id(2L).name(ERole.ROLE_ADMIN).build();
+
+    @InjectMocks
+    private RoleCatalog subject;
+    @Mock
+    private RoleRepository roleRepository;
+    @Mock
+    private UserRepository userRepository;
+
+    @Test
+    void get_whenNotLoaded_thenThrowsRoleNotFoundException() {
+        RoleNotFoundException exception = assertThrows(RoleNotFoundException.class,
+                () -> subject.get(ERole.ROLE_USER));
+
+        assertThat(exception.getMessage()).isEqualTo("Role ROLE_USER is not found.");
+    }
+
+    @Test
+    void load_whenRoleIsMissing_thenCreatesIt() {
+        when(roleRepository.findAll()).thenReturn(List.of(USER));
+        when(roleRepository.save(any(Role.class))).thenReturn(ADMIN);
+
+        subject.load();
+
+        verify(roleRepository).save(argThat(role -> role.getName() == ERole.ROLE_ADMIN && role.getId() == null));
+        assertThat(subject.get(ERole.ROLE_USER)).isSameAs(USER);
+        assertThat(subject.get(ERole.ROLE_ADMIN)).isSameAs(ADMIN);
+        assertThat(subject.rolesOf(ERole.ROLE_USER.bit() | ERole.ROLE_ADMIN.bit())).containsExactlyInAnyOrder(USER, ADMIN);
+        assertThat(subject.rolesOf(0)).isEmpty();
+        assertThat(subject.rolesOf(null)).isEmpty();
+    }
+
+    @Test
+    void load_whenUsersHaveNoRoleMask_thenUpdatesThemOncePerDistinctMask() {
+        when(roleRepository.findAll()).thenReturn(List.of(USER, ADMIN));
+        when(userRepository.findRolesOfUsersWithoutRoleMask()).thenReturn(List.of(
+                new Object[]{10L, ERole.ROLE_USER},
+                new Object[]{11L, ERole.ROLE_USER},
+                new Object[]{11L, ERole.ROLE_ADMIN},
+                new Object[]{12L, ERole.ROLE_USER},
+                new Object[]{13L, null}));
+
+        subject.load();
+
+        verify(roleRepository, never()).save(any(Role.class));
+        verify(userRepository).updateRoleMask(argThat(ids -> Set.copyOf(ids).equals(Set.of(10L, 12L))),
+                eq(ERole.ROLE_USER.bit()));
+        verify(userRepository).updateRoleMask(List.of(11L), ERole.ROLE_USER.bit() | ERole.ROLE_ADMIN.bit());
+        verify(userRepository).updateRoleMask(List.of(13L), 0);
+        verifyNoMoreInteractions(userRepository);
+    }
+}
@@ -0,0 +1,114 @@
+package com.epam.esm.epammodule4.service;
+
+import com.epam.esm.epammodule4.model.entity.GiftCertificate;
+import com.epam.esm.epammodule4.model.entity.Tag;
+import com.epam.esm.epammodule4.repository.GiftCertificateRepository;
+import com.epam.esm.epammodule4.repository.OrderRepository;
+import com.epam.esm.epammodule4.repository.TagRepository;
+import com.epam.esm.epammodule4.service.event.GiftCertificateChangedEvent;
+import com.epam.esm.epammodule4.service.event.OrderChangedEvent;
+import com.epam.esm.epammodule4.service.event.TagChangedEvent;
+import com.epam.esm.epammodule4.service.implementation.SuggestServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SuggestServiceImplTest {
+
+    private static final Tag SPORT = Tag.builder().id(20L).name("Sport").build();
+
+    @InjectMocks
+    private SuggestServiceImpl subject;
+    @Mock
+    private TagRepository tagRepository;
+    @Mock
+    private GiftCertificateRepository certificateRepository;
+    @Mock
+    private OrderRepository orderRepository;
+
+    @BeforeEach
+    void setUp() {
+        when(tagRepository.findAllNames()).thenReturn(List.of(
+                new Object[]{10L, "spa"}, new Object[]{20L, "Sport"}, new Object[]{30L, "gift"}));
+        when(certificateRepository.findAllNames()).thenReturn(List.of(
+                new Object[]{1L, "Spa day"}, new Object[]{2L, "Sport club"}, new Object[]{3L, "spa day"}));
+        when(certificateRepository.findAllTagLinks()).thenReturn(List.of(
+                new Object[]{1L, 10L}, new Object[]{3L, 10L}, new Object[]{2L, 20L}));
+        when(orderRepository.countByCertificate()).thenReturn(List.of(
+                new Object[]{2L, 3L}, new Object[]{1L, 1L}, new Object[]{3L, 1L}, new Object[]{null, 7L}));
+
+        subject.rebuild();
+    }
+
+    @Test
+    void suggest_thenRanksByPopularityIgnoringCase() {
+        assertThat(subject.suggestTagNames("SP", 10)).containsExactly("spa", "Sport");
+        assertThat(subject.suggestTagNames("", 1)).containsExactly("spa");
+        assertThat(subject.suggestCertificateNames("sp", 10)).containsExactly("Sport club", "Spa day");
+        assertThat(subject.suggestCertificateNames("x", 10)).isEmpty();
+        assertThat(subject.suggestTagNames("s", -1)).isEmpty();
+    }
+
+    @Test
+    void rebuild_whenRunAgain_thenReplacesOrderCounts() {
+        for (long orderId = 100; orderId < 105; orderId++) {
+            subject.onOrderChanged(new OrderChangedEvent(orderId, null, 2L));
+        }
+        when(orderRepository.countByCertificate()).thenReturn(List.of(
+                new Object[]{2L, 3L}, new Object[]{1L, 2L}, new Object[]{3L, 2L}));
+
+        subject.rebuild();
+
+        assertThat(subject.suggestCertificateNames("sp", 10)).containsExactly("Spa day", "Sport club");
+        assertThat(subject.suggestTagNames("SP", 10)).containsExactly("spa", "Sport");
+    }
+
+    @Test
+    void onOrderChanged_thenReranksCertificateNames() {
+        subject.onOrderChanged(new OrderChangedEvent(100L, null, 1L));
+        subject.onOrderChanged(new OrderChangedEvent(101L, 2L, 3L));
+        subject.onOrderChanged(new OrderChangedEvent(102L, 3L, 3L));
+
+        assertThat(subject.suggestCertificateNames("sp", 10)).containsExactly("Spa day", "Sport club");
+
+        subject.onOrderChanged(new OrderChangedEvent(100L, 1L, null));
+        subject.onOrderChanged(new OrderChangedEvent(101L, 3L, null));
+        subject.onOrderChanged(new OrderChangedEvent(103L, null, 2L));
+
+        assertThat(subject.suggestCertificateNames("sp", 10)).containsExactly("Sport club", "Spa day");
+    }
+
+    @Test
+    void onCertificateChanged_thenFollowsNamesAndTags() {
+        Tag yoga = Tag.builder().id(40L).name("yoga").build();
+        GiftCertificate renamed = GiftCertificate.builder().id(2L).name("Yoga club").tags(List.of(yoga)).build();
+        GiftCertificate created = GiftCertificate.builder().id(4L).name("Sport camp").tags(List.of(SPORT)).build();
+
+        subject.onCertificateChanged(new GiftCertificateChangedEvent(2L, renamed));
+        subject.onCertificateChanged(new GiftCertificateChangedEvent(4L, created));
+        subject.onCertificateChanged(new GiftCertificateChangedEvent(1L, null));
+        subject.onCertificateChanged(new GiftCertificateChangedEvent(3L, null));
+
+        assertThat(subject.suggestCertificateNames("", 10)).containsExactly("Yoga club", "Sport camp");
+        assertThat(subject.suggestTagNames("", 10)).containsExactly("Sport", "yoga", "gift", "spa");
+    }
+
+    @Test
+    void onTagChanged_thenRenamesAndRemovesTags() {
+        subject.onTagChanged(new TagChangedEvent(10L, Tag.builder().id(10L).name("wellness").build()));
+        subject.onTagChanged(new TagChangedEvent(20L, null));
+        subject.onTagChanged(new TagChangedEvent(50L, Tag.builder().id(50L).name("SPA").build()));
+
+        assertThat(subject.suggestTagNames("", 10)).containsExactly("wellness", "gift", "SPA");
+        assertThat(subject.suggestTagNames("spa", 10)).containsExactly("SPA");
+    }
+}
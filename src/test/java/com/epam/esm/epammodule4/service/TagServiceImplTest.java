@@ -2,11 +2,16 @@ package com.epam.esm.epammodule4.service;
 
 import com.epam.esm.epammodule4.exception.TagAlreadyExistsException;
 import com.epam.esm.epammodule4.exception.TagNotFoundException;
+import com.epam.esm.epammodule4.model.TotalCount;
+import com.epam.esm.epammodule4.model.dto.CursorPage;
 import com.epam.esm.epammodule4.model.dto.request.CreateTagRequest;
 import com.epam.esm.epammodule4.model.dto.request.UpdateTagRequest;
 import com.epam.esm.epammodule4.model.entity.Tag;
 import com.epam.esm.epammodule4.model.entity.User;
 import com.epam.esm.epammodule4.repository.TagRepository;
+import com.epam.esm.epammodule4.service.event.TagChangedEvent;
+import com.epam.esm.epammodule4.service.implementation.ApproximateRowCounter;
+import com.epam.esm.epammodule4.service.implementation.CertificateSearchCache;
 import com.epam.esm.epammodule4.service.implementation.TagServiceImpl;
 
 import javax.persistence.EntityManager;
@@ -20,11 +25,13 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.*;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.LongSupplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -41,6 +48,12 @@ class TagServiceImplTest {
     @Mock
     private TagRepository tagRepository;
     @Mock
+    private ApproximateRowCounter rowCounter;
+    @Mock
+    private CertificateSearchCache searchCache;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
     private UserServiceImpl userService;
     @Mock
     private ModelMapper modelMapper;
@@ -98,6 +111,52 @@ class TagServiceImplTest {
         assertThat(actualTags).isEqualTo(pageableExpectedTags);
     }
 
+    @Test
+    void findAll_whenTotalIsNone_thenSkipsCount() {
+        Pageable pageable = PageRequest.of(0, 5, Sort.by("name"));
+        Slice<Tag> expectedTags = new SliceImpl<>(List.of(new Tag()), pageable, true);
+
+        when(tagRepository.findSlice(any(Pageable.class))).thenReturn(expectedTags);
+
+        Slice<Tag> actualTags = subject.findAll(pageable, TotalCount.NONE);
+
+        verify(tagRepository).findSlice(pageable);
+        verifyNoMoreInteractions(tagRepository);
+        verifyNoInteractions(rowCounter);
+
+        assertThat(actualTags).isEqualTo(expectedTags);
+    }
+
+    @Test
+    void findAll_whenTotalIsApproximate_thenEstimatesTotal() {
+        Pageable pageable = PageRequest.of(0, 5, Sort.by("name"));
+        Slice<Tag> foundTags = new SliceImpl<>(List.of(new Tag()), pageable, true);
+        Page<Tag> expectedTags = new PageImpl<>(foundTags.getContent(), pageable, 100);
+
+        when(tagRepository.findSlice(any(Pageable.class))).thenReturn(foundTags);
+        when(rowCounter.withApproximateTotal(any(Slice.class), any(LongSupplier.class))).thenReturn(expectedTags);
+
+        Slice<Tag> actualTags = subject.findAll(pageable, TotalCount.APPROXIMATE);
+
+        verify(rowCounter).withApproximateTotal(eq(foundTags), any(LongSupplier.class));
+        assertThat(actualTags).isEqualTo(expectedTags);
+    }
+
+    @Test
+    void findAll_whenCursor_thenReturnsCursorPage() {
+        Pageable pageable = PageRequest.of(0, 5, Sort.by("name"));
+        CursorPage<Tag> expectedTags = new CursorPage<>(List.of(new Tag()), null);
+
+        when(tagRepository.findAll(any(String.class), any(Pageable.class))).thenReturn(expectedTags);
+
+        CursorPage<Tag> actualTags = subject.findAll("cursor", pageable);
+
+        verify(tagRepository).findAll("cursor", pageable);
+        verifyNoMoreInteractions(tagRepository);
+
+        assertThat(actualTags).isEqualTo(expectedTags);
+    }
+
     @Test
     void create() {
         Tag createdTag = Tag.builder().id(TAG_ID).name("myTag").build();
@@ -110,6 +169,8 @@ class TagServiceImplTest {
 
         verify(modelMapper).map(createRequest, Tag.class);
         verify(tagRepository).save(createdTag);
+        verify(eventPublisher).publishEvent(argThat((TagChangedEvent event) ->
+                TAG_ID.equals(event.getTagId()) && event.getTag() == expectedTag));
         verifyNoMoreInteractions(tagRepository, modelMapper);
 
         assertThat(actualTag).isEqualTo(expectedTag);
@@ -146,6 +207,8 @@ class TagServiceImplTest {
         Tag actualTag = subject.update(updateRequest);
 
         verify(tagRepository).save(updateTag);
+        verify(searchCache).invalidateTags(List.of("myTag", "myTag"));
+        verify(eventPublisher).publishEvent(argThat((TagChangedEvent event) -> event.getTag() == expectedTag));
         verifyNoMoreInteractions(tagRepository);
 
         assertThat(actualTag).isEqualTo(expectedTag);
@@ -160,6 +223,9 @@ class TagServiceImplTest {
         subject.delete(TAG_ID);
 
         verify(tagRepository).delete(deleteTag);
+        verify(searchCache).invalidateTags(List.of("myTag"));
+        verify(eventPublisher).publishEvent(argThat((TagChangedEvent event) ->
+                event.isDeleted() && TAG_ID.equals(event.getTagId())));
         verifyNoMoreInteractions(tagRepository);
     }
 
@@ -0,0 +1,83 @@
+package com.epam.esm.epammodule4.service;
+
+import com.epam.esm.epammodule4.model.entity.GiftCertificate;
+import com.epam.esm.epammodule4.model.entity.Tag;
+import com.epam.esm.epammodule4.repository.GiftCertificateRepository;
+import com.epam.esm.epammodule4.repository.TagRepository;
+import com.epam.esm.epammodule4.service.event.GiftCertificateChangedEvent;
+import com.epam.esm.epammodule4.service.event.TagChangedEvent;
+import com.epam.esm.epammodule4.service.implementation.TrigramNameMatcher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TrigramNameMatcherTest {
+
+    private TrigramNameMatcher subject;
+    @Mock
+    private GiftCertificateRepository certificateRepository;
+    @Mock
+    private TagRepository tagRepository;
+
+    @BeforeEach
+    void setUp() {
+        when(certificateRepository.findAllNames()).thenReturn(List.of(
+                new Object[]{1L, "Thai Massage"},
+                new Object[]{2L, "Stone massage evening"},
+                new Object[]{3L, "Message in a bottle"},
+                new Object[]{4L, "Sauna"}));
+        when(tagRepository.findAllNames()).thenReturn(List.of(
+                new Object[]{1L, "relax"},
+                new Object[]{2L, "Spa"},
+                new Object[]{3L, "spa"}));
+
+        subject = new TrigramNameMatcher(certificateRepository, tagRepository, 2);
+        subject.rebuild();
+    }
+
+    @Test
+    void findCertificateIds_thenRequiresEveryWordAndRanksByTotalDistance() {
+        assertThat(subject.findCertificateIds("masage", 1)).containsExactly(1L, 2L);
+        assertThat(subject.findCertificateIds("masage", 2)).containsExactly(1L, 2L, 3L);
+        assertThat(subject.findCertificateIds("stone masage", 1)).containsExactly(2L);
+        assertThat(subject.findCertificateIds("MASSAGE", 0)).containsExactly(1L, 2L);
+        assertThat(subject.findCertificateIds("...", 1)).isEmpty();
+    }
+
+    @Test
+    void findCertificateIds_whenDistanceAboveMaximum_thenCapsIt() {
+        assertThat(subject.findCertificateIds("sa", 5)).isEmpty();
+        assertThat(subject.findCertificateIds("sana", 5)).containsExactly(4L);
+    }
+
+    @Test
+    void findTagName_thenReturnsClosestTagOfLowestId() {
+        assertThat(subject.findTagName("relx", 1)).contains("relax");
+        assertThat(subject.findTagName("SPAA", 1)).contains("Spa");
+        assertThat(subject.findTagName("yoga", 2)).isEmpty();
+    }
+
+    @Test
+    void onChanged_thenFollowsRenamesAndDeletions() {
+        subject.onCertificateChanged(new GiftCertificateChangedEvent(4L,
+                GiftCertificate.builder().id(4L).name("Hot stone massage").build()));
+        subject.onCertificateChanged(new GiftCertificateChangedEvent(1L, null));
+        subject.onTagChanged(new TagChangedEvent(2L, null));
+        subject.onTagChanged(new TagChangedEvent(1L, Tag.builder().id(1L).name("yoga").build()));
+
+        assertThat(subject.findCertificateIds("massage", 0)).containsExactly(2L, 4L);
+        assertThat(subject.findCertificateIds("sauna", 1)).isEmpty();
+        assertThat(subject.findTagName("spa", 0)).contains("spa");
+        assertThat(subject.findTagName("relax", 2)).isEqualTo(Optional.empty());
+        assertThat(subject.findTagName("yogi", 1)).contains("yoga");
+    }
+}
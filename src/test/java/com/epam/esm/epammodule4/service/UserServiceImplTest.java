@@ -1,6 +1,7 @@
 package com.epam.esm.epammodule4.service;
 
 import com.epam.esm.epammodule4.exception.UserCannotDeleteException;
+import com.epam.esm.epammodule4.exception.UserIdIncorrectException;
 import com.epam.esm.epammodule4.exception.UserNotFoundException;
 import com.epam.esm.epammodule4.model.ERole;
 import com.epam.esm.epammodule4.model.dto.request.CreateUserRequest;
@@ -8,19 +9,19 @@ import com.epam.esm.epammodule4.model.dto.request.UpdateUserRequest;
 import com.epam.esm.epammodule4.model.entity.*;
 import com.epam.esm.epammodule4.repository.OrderRepository;
 import com.epam.esm.epammodule4.repository.PageableUserRepository;
-import com.epam.esm.epammodule4.repository.RoleRepository;
 import com.epam.esm.epammodule4.repository.UserRepository;
+import com.epam.esm.epammodule4.security.CurrentUser;
+import com.epam.esm.epammodule4.service.event.UserChangedEvent;
+import com.epam.esm.epammodule4.service.implementation.RoleCatalog;
 import com.epam.esm.epammodule4.service.implementation.UserServiceImpl;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContext;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.*;
@@ -43,30 +44,24 @@ class UserServiceImplTest {
     @Mock
     private OrderRepository orderRepository;
     @Mock
-    Authentication authentication;
-    @Mock
-    SecurityContext securityContext;
-    @Mock
-    UserDetails principal;
+    private CurrentUser currentUser;
     @Mock
     private PageableUserRepository pageableUserRepository;
     @Mock
     private PasswordEncoder passwordEncoder;;
     @Mock
-    private RoleRepository roleRepository;;
+    private RoleCatalog roleCatalog;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @Test
     void findById() {
         User expectedUser = User.builder().id(USER_ID).build();
 
-        when(securityContext.getAuthentication()).thenReturn(authentication);
-        when(authentication.getPrincipal()).thenReturn(principal);
-        when(principal.getUsername()).thenReturn("user1");
-        when(userRepository.findByUsername(any(String.class))).thenReturn(Optional.of(expectedUser));
+        when(currentUser.isAdmin()).thenReturn(false);
+        when(currentUser.getId()).thenReturn(USER_ID);
         when(userRepository.findById(any(Long.class))).thenReturn(Optional.of(expectedUser));
 
-        SecurityContextHolder.setContext(securityContext);
-
         User actualUser = subject.findById(USER_ID);
 
         verify(userRepository).findById(USER_ID);
@@ -77,24 +72,48 @@ class UserServiceImplTest {
 
     @Test
     void findById_whenUserIsNotFoundById_throwsUserNotFoundException() {
-        String username = "user1";
-
-        when(securityContext.getAuthentication()).thenReturn(authentication);
-        when(authentication.getPrincipal()).thenReturn(principal);
-        when(principal.getUsername()).thenReturn(username);
-        when(userRepository.findByUsername(any(String.class))).thenReturn(Optional.empty());
-
-        SecurityContextHolder.setContext(securityContext);
+        when(currentUser.isAdmin()).thenReturn(false);
+        when(currentUser.getId()).thenReturn(USER_ID);
+        when(userRepository.findById(any(Long.class))).thenReturn(Optional.empty());
 
         UserNotFoundException exception = assertThrows(UserNotFoundException.class,
                 () -> subject.findById(USER_ID));
 
+        verify(userRepository).findById(USER_ID);
         verifyNoMoreInteractions(userRepository);
 
-        String expectedMessage = "Requested resource not found (username = user1)";
+        String expectedMessage = "Requested resource not found (id = 1)";
+        assertThat(exception.getMessage()).isEqualTo(expectedMessage);
+    }
+
+    @Test
+    void findById_whenIdBelongsToAnotherUser_throwsUserIdIncorrectException() {
+        when(currentUser.isAdmin()).thenReturn(false);
+        when(currentUser.getId()).thenReturn(2L);
+
+        UserIdIncorrectException exception = assertThrows(UserIdIncorrectException.class,
+                () -> subject.findById(USER_ID));
+
+        verifyNoInteractions(userRepository);
+
+        String expectedMessage = "User id (1) belongs to another user";
         assertThat(exception.getMessage()).isEqualTo(expectedMessage);
     }
 
+    @Test
+    void findById_whenCurrentUserIsAdmin_thenSkipsOwnershipCheck() {
+        User expectedUser = User.builder().id(USER_ID).build();
+
+        when(currentUser.isAdmin()).thenReturn(true);
+        when(userRepository.findById(any(Long.class))).thenReturn(Optional.of(expectedUser));
+
+        User actualUser = subject.findById(USER_ID);
+
+        assertThat(actualUser).isEqualTo(expectedUser);
+
+        verify(currentUser, never()).getId();
+    }
+
     @Test
     void findAll() {
         List<User> expectedUsers = List.of(new User());
@@ -211,7 +230,7 @@ class UserServiceImplTest {
         Role role = Role.builder().name(ERole.ROLE_USER).build();
 
         when(userRepository.save(any(User.class))).thenReturn(expectedUser);
-        when(roleRepository.findByName(any(ERole.class))).thenReturn(Optional.of(role));
+        when(roleCatalog.get(any(ERole.class))).thenReturn(role);
 
         User actualUser = subject.create(createRequest);
 
@@ -234,20 +253,22 @@ class UserServiceImplTest {
 
 
         when(userRepository.save(any(User.class))).thenReturn(expectedUser);
-        when(roleRepository.findByName(any(ERole.class))).thenReturn(Optional.of(role));
-        when(securityContext.getAuthentication()).thenReturn(authentication);
-        when(authentication.getPrincipal()).thenReturn(principal);
-        when(principal.getUsername()).thenReturn("user1");
-        when(userRepository.findByUsername(any(String.class))).thenReturn(Optional.of(expectedUser));
+        when(roleCatalog.get(any(ERole.class))).thenReturn(role);
+        when(currentUser.isAdmin()).thenReturn(false);
+        when(currentUser.getId()).thenReturn(USER_ID);
         when(userRepository.findById(any(Long.class))).thenReturn(Optional.of(expectedUser));
 
-        SecurityContextHolder.setContext(securityContext);
-
         User actualUser = subject.update(updateRequest);
 
+        ArgumentCaptor<UserChangedEvent> eventCaptor = ArgumentCaptor.forClass(UserChangedEvent.class);
+        verify(eventPublisher).publishEvent(eventCaptor.capture());
         verifyNoMoreInteractions(userRepository);
 
         assertThat(actualUser).isEqualTo(expectedUser);
+        assertThat(eventCaptor.getValue().getUserId()).isEqualTo(USER_ID);
+        assertThat(eventCaptor.getValue().isCredentialsChanged()).isTrue();
+        assertThat(expectedUser.getRoles()).containsExactly(role);
+        assertThat(expectedUser.getRoleMask()).isEqualTo(ERole.ROLE_USER.bit());
     }
 
     @Test
@@ -263,12 +284,8 @@ class UserServiceImplTest {
 
 
         when(userRepository.findById(any(Long.class))).thenReturn(Optional.of(deleteUser));
-        when(securityContext.getAuthentication()).thenReturn(authentication);
-        when(authentication.getPrincipal()).thenReturn(principal);
-        when(principal.getUsername()).thenReturn("user1");
-        when(userRepository.findByUsername(any(String.class))).thenReturn(Optional.of(deleteUser));
-
-        SecurityContextHolder.setContext(securityContext);
+        when(currentUser.isAdmin()).thenReturn(false);
+        when(currentUser.getId()).thenReturn(USER_ID);
 
         subject.delete(USER_ID);
 
@@ -300,12 +317,8 @@ class UserServiceImplTest {
         when(orderRepository.findAllByUserId(any(Long.class), any(Pageable.class))).thenReturn(pageableExpectedOrders);
 
         when(userRepository.findById(any(Long.class))).thenReturn(Optional.of(deleteUser));
-        when(securityContext.getAuthentication()).thenReturn(authentication);
-        when(authentication.getPrincipal()).thenReturn(principal);
-        when(principal.getUsername()).thenReturn("user1");
-        when(userRepository.findByUsername(any(String.class))).thenReturn(Optional.of(deleteUser));
-
-        SecurityContextHolder.setContext(securityContext);
+        when(currentUser.isAdmin()).thenReturn(false);
+        when(currentUser.getId()).thenReturn(USER_ID);
 
         UserCannotDeleteException exception = assertThrows(UserCannotDeleteException.class,
                 () -> subject.delete(USER_ID));
@@ -0,0 +1,110 @@
+package com.epam.esm.epammodule4.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CompletionTrieTest {
+
+    @Test
+    void complete_thenReturnsBestScoresFirst() {
+        CompletionTrie subject = new CompletionTrie();
+
+        subject.put("spa", "Spa", 5);
+        subject.put("sport", "Sport", 9);
+        subject.put("spring", "Spring", 9);
+        subject.put("sp", "SP", 1);
+        subject.put("massage", "Massage", 20);
+
+        assertThat(values(subject.complete("sp", 10))).containsExactly("Sport", "Spring", "Spa", "SP");
+        assertThat(values(subject.complete("sp", 2))).containsExactly("Sport", "Spring");
+        assertThat(values(subject.complete("spo", 10))).containsExactly("Sport");
+        assertThat(values(subject.complete("", 1))).containsExactly("Massage");
+        assertThat(subject.complete("spx", 10)).isEmpty();
+        assertThat(subject.complete("sportsman", 10)).isEmpty();
+        assertThat(subject.complete("m", 10)).containsExactly(new CompletionTrie.Completion("Massage", 20));
+        assertThat(subject.size()).isEqualTo(5);
+    }
+
+    @Test
+    void put_whenKeyExists_thenReplacesValueAndScore() {
+        CompletionTrie subject = new CompletionTrie();
+
+        subject.put("spa", "Spa", 5);
+        subject.put("spa", "SPA", 1);
+
+        assertThat(subject.complete("s", 10)).containsExactly(new CompletionTrie.Completion("SPA", 1));
+        assertThat(subject.size()).isEqualTo(1);
+        assertThrows(IllegalArgumentException.class, () -> subject.put("spa", null, 1));
+    }
+
+    @Test
+    void remove_thenKeepsOtherKeysReachable() {
+        CompletionTrie subject = new CompletionTrie();
+
+        subject.put("team", "team", 1);
+        subject.put("tea", "tea", 2);
+        subject.put("ten", "ten", 3);
+
+        assertThat(subject.remove("te")).isFalse();
+        assertThat(subject.remove("teapot")).isFalse();
+        assertThat(subject.remove("tea")).isTrue();
+        assertThat(subject.remove("tea")).isFalse();
+
+        assertThat(values(subject.complete("tea", 10))).containsExactly("team");
+        assertThat(values(subject.complete("t", 10))).containsExactly("ten", "team");
+
+        subject.remove("ten");
+        subject.remove("team");
+
+        assertThat(subject.complete("", 10)).isEmpty();
+        assertThat(subject.size()).isZero();
+    }
+
+    @Test
+    void complete_thenMatchesSortedScan() {
+        Random random = new Random(11);
+        CompletionTrie subject = new CompletionTrie();
+        Map<String, Long> expected = new HashMap<>();
+
+        for (int i = 0; i < 5_000; i++) {
+            String key = randomKey(random);
+            if (random.nextInt(4) == 0) {
+                subject.remove(key);
+                expected.remove(key);
+            } else {
+                long score = random.nextInt(50);
+                subject.put(key, key, score);
+                expected.put(key, score);
+            }
+        }
+
+        for (String prefix : List.of("", "a", "ab", "bca", "ccc", "d")) {
+            List<String> scan = expected.entrySet().stream()
+                    .filter(entry -> entry.getKey().startsWith(prefix))
+                    .sorted(Map.Entry.<String, Long>comparingByValue().reversed()
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .limit(15)
+                    .map(Map.Entry::getKey)
+                    .toList();
+
+            assertThat(values(subject.complete(prefix, 15))).as(prefix).isEqualTo(scan);
+        }
+        assertThat(subject.size()).isEqualTo(expected.size());
+    }
+
+    private static String randomKey(Random random) {
+        char[] key = new char[1 + random.nextInt(6)];
+        for (int i = 0; i < key.length; i++) {
+            key[i] = (char) ('a' + random.nextInt(4));
+        }
+        return new String(key);
+    }
+
+    private static List<String> values(List<CompletionTrie.Completion> completions) {
+        return completions.stream().map(CompletionTrie.Completion::value).toList();
+    }
+}
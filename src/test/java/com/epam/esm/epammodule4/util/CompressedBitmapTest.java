@@ -0,0 +1,150 @@
+package com.epam.esm.epammodule4.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CompressedBitmapTest {
+
+    @Test
+    void add_thenContainsValuesAcrossChunks() {
+        CompressedBitmap subject = new CompressedBitmap();
+
+        subject.add(70_000);
+        subject.add(3);
+        subject.add(3);
+        subject.add(Integer.MAX_VALUE);
+
+        assertThat(subject.contains(3)).isTrue();
+        assertThat(subject.contains(70_000)).isTrue();
+        assertThat(subject.contains(4)).isFalse();
+        assertThat(subject.contains(-1)).isFalse();
+        assertThat(subject.getCardinality()).isEqualTo(3);
+        assertThat(subject.toArray()).containsExactly(3, 70_000, Integer.MAX_VALUE);
+    }
+
+    @Test
+    void of_whenUnordered_thenBuildsSparseAndDenseChunks() {
+        // 7919 is coprime to 10000, so the stride visits the dense chunk once per value, out of order.
+        int[] values = IntStream.concat(
+                IntStream.of(200_000, 3, 7, 3),
+                IntStream.range(0, 10_000).map(i -> 65_536 + i * 7_919 % 10_000)
+        ).toArray();
+
+        CompressedBitmap bitmap = CompressedBitmap.of(values);
+
+        assertThat(bitmap.getCardinality()).isEqualTo(10_003);
+        assertThat(bitmap.range(0, 3)).containsExactly(3, 7, 65_536);
+        assertThat(bitmap.contains(75_535)).isTrue();
+        assertThat(bitmap.contains(75_536)).isFalse();
+        assertThat(bitmap.range(10_002, 1)).containsExactly(200_000);
+        assertThat(CompressedBitmap.of().isEmpty()).isTrue();
+    }
+
+    @Test
+    void add_whenNegative_thenThrowsIllegalArgumentException() {
+        CompressedBitmap subject = new CompressedBitmap();
+
+        assertThrows(IllegalArgumentException.class, () -> subject.add(-1));
+    }
+
+    @Test
+    void remove_whenChunkTurnsSparse_thenKeepsRemainingValues() {
+        CompressedBitmap subject = new CompressedBitmap();
+        int dense = CompressedBitmap.ARRAY_MAX_SIZE + 10;
+
+        for (int i = 0; i < dense; i++) {
+            subject.add(i * 2);
+        }
+        for (int i = 0; i < dense - 1; i++) {
+            subject.remove(i * 2);
+        }
+        subject.remove(-5);
+        subject.remove(1_000_000);
+
+        assertThat(subject.toArray()).containsExactly((dense - 1) * 2);
+
+        subject.remove((dense - 1) * 2);
+        assertThat(subject.isEmpty()).isTrue();
+    }
+
+    @Test
+    void setOperations_thenMatchBitSet() {
+        Random random = new Random(7);
+
+        for (int round = 0; round < 20; round++) {
+            BitSet leftBits = new BitSet();
+            BitSet rightBits = new BitSet();
+            CompressedBitmap left = randomBitmap(random, leftBits);
+            CompressedBitmap right = randomBitmap(random, rightBits);
+
+            BitSet and = (BitSet) leftBits.clone();
+            and.and(rightBits);
+            BitSet or = (BitSet) leftBits.clone();
+            or.or(rightBits);
+            BitSet andNot = (BitSet) leftBits.clone();
+            andNot.andNot(rightBits);
+
+            assertThat(CompressedBitmap.and(left, right).toArray()).containsExactly(and.stream().toArray());
+            assertThat(CompressedBitmap.or(left, right).toArray()).containsExactly(or.stream().toArray());
+            assertThat(CompressedBitmap.andNot(left, right).toArray()).containsExactly(andNot.stream().toArray());
+        }
+    }
+
+    @Test
+    void range_thenSkipsByRank() {
+        CompressedBitmap subject = new CompressedBitmap();
+        BitSet expected = new BitSet();
+
+        for (int i = 0; i < 200_000; i += 3) {
+            subject.add(i);
+            expected.set(i);
+        }
+
+        int[] all = expected.stream().toArray();
+
+        assertThat(subject.range(0, 5)).containsExactly(0, 3, 6, 9, 12);
+        assertThat(subject.range(30_000, 4)).containsExactly(all[30_000], all[30_001], all[30_002], all[30_003]);
+        assertThat(subject.range(all.length - 2, 10)).containsExactly(all[all.length - 2], all[all.length - 1]);
+        assertThat(subject.range(all.length + 1, 10)).isEmpty();
+    }
+
+    @Test
+    void forEach_thenVisitsValuesInOrder() {
+        CompressedBitmap subject = new CompressedBitmap();
+        BitSet visited = new BitSet();
+
+        for (int i = 0; i < 10_000; i++) {
+            subject.add(i * 7);
+        }
+        subject.add(200_000);
+
+        subject.forEach(visited::set);
+
+        assertThat(visited.cardinality()).isEqualTo(10_001);
+        assertThat(visited.get(69_993)).isTrue();
+        assertThat(visited.get(200_000)).isTrue();
+    }
+
+    private CompressedBitmap randomBitmap(Random random, BitSet bits) {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        int chunks = 1 + random.nextInt(4);
+
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            int base = random.nextInt(6) << 16;
+            int count = random.nextBoolean() ? random.nextInt(100) : 5_000 + random.nextInt(20_000);
+
+            for (int i = 0; i < count; i++) {
+                int value = base + random.nextInt(1 << 16);
+                bitmap.add(value);
+                bits.set(value);
+            }
+        }
+        return bitmap;
+    }
+}
@@ -0,0 +1,75 @@
+package com.epam.esm.epammodule4.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ConcurrentBloomFilterTest {
+
+    @Test
+    void mightContain_whenPut_thenAlwaysTrue() {
+        ConcurrentBloomFilter subject = new ConcurrentBloomFilter(1_000, 0.01);
+
+        for (int i = 0; i < 1_000; i++) {
+            subject.put("jti-" + i);
+        }
+
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(subject.mightContain("jti-" + i)).isTrue();
+        }
+    }
+
+    @Test
+    void mightContain_whenNotPut_thenFalsePositiveRateIsBounded() {
+        ConcurrentBloomFilter subject = new ConcurrentBloomFilter(1_000, 0.01);
+        int falsePositives = 0;
+
+        for (int i = 0; i < 1_000; i++) {
+            subject.put("jti-" + i);
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            if (subject.mightContain("other-" + i)) {
+                falsePositives++;
+            }
+        }
+
+        assertThat(falsePositives).isLessThan(300);
+    }
+
+    @Test
+    void readFrom_whenWritten_thenRestoresBits() throws IOException {
+        ConcurrentBloomFilter subject = new ConcurrentBloomFilter(100, 0.01);
+        subject.put("revoked");
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        subject.writeTo(new DataOutputStream(bytes));
+
+        ConcurrentBloomFilter restored = ConcurrentBloomFilter.readFrom(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertThat(restored.getBitSize()).isEqualTo(subject.getBitSize());
+        assertThat(restored.getHashCount()).isEqualTo(subject.getHashCount());
+        assertThat(restored.mightContain("revoked")).isTrue();
+    }
+
+    @Test
+    void readFrom_whenHeaderCorrupted_thenThrowsIOException() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        output.writeInt(128);
+        output.writeInt(3);
+        output.writeInt(5);
+
+        assertThrows(IOException.class, () -> ConcurrentBloomFilter.readFrom(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))));
+    }
+
+    @Test
+    void constructor_whenRateInvalid_thenThrowsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentBloomFilter(100, 1.5));
+    }
+}
@@ -0,0 +1,126 @@
+package com.epam.esm.epammodule4.util;
+
+import com.epam.esm.epammodule4.EpamModule4Application;
+import com.epam.esm.epammodule4.model.entity.SeedChunk;
+import com.epam.esm.epammodule4.service.SuggestService;
+import com.epam.esm.epammodule4.service.event.GiftCertificateChangedEvent;
+import com.epam.esm.epammodule4.service.event.TagChangedEvent;
+import com.epam.esm.epammodule4.service.implementation.CertificateTagIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = EpamModule4Application.class)
+class GenerateInitialDataImplTest {
+
+    private static final String SEEDED_CERTIFICATES = "SELECT id FROM gift_certificate WHERE name LIKE '[GiftCertificate] %'";
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private CertificateTagIndex tagIndex;
+    @Autowired
+    private SuggestService suggestService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private GenerateInitialDataImpl subject;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        subject = new GenerateInitialDataImpl(entityManagerFactory, eventPublisher, meterRegistry, 2, 50, 30, 2, 1.0, 1.0, 7);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.queryForList(SEEDED_CERTIFICATES, Long.class)
+                .forEach(id -> eventPublisher.publishEvent(new GiftCertificateChangedEvent(id, null)));
+        jdbcTemplate.queryForList("SELECT id FROM tag WHERE name LIKE '[Tag] %'", Long.class)
+                .forEach(id -> eventPublisher.publishEvent(new TagChangedEvent(id, null)));
+        jdbcTemplate.update("DELETE FROM cert_order WHERE cert_id IN (" + SEEDED_CERTIFICATES + ")");
+        jdbcTemplate.update("DELETE FROM certificate_tag WHERE cert_id IN (" + SEEDED_CERTIFICATES + ")");
+        jdbcTemplate.update("DELETE FROM gift_certificate WHERE name LIKE '[GiftCertificate] %'");
+        jdbcTemplate.update("DELETE FROM customer WHERE name LIKE '[User] %'");
+        jdbcTemplate.update("DELETE FROM tag WHERE name LIKE '[Tag] %'");
+        jdbcTemplate.update("DELETE FROM seed_chunk");
+    }
+
+    @Test
+    void generate_thenWritesEveryPhaseInChunksAndSkewsTags() {
+        subject.generate(120);
+
+        assertThat(count("SELECT COUNT(*) FROM tag WHERE name LIKE '[Tag] %'")).isEqualTo(30);
+        assertThat(count("SELECT COUNT(*) FROM customer WHERE name LIKE '[User] %' AND role_mask = 0")).isEqualTo(120);
+        assertThat(count("SELECT COUNT(*) FROM (" + SEEDED_CERTIFICATES + ") c")).isEqualTo(120);
+        assertThat(count("SELECT COUNT(*) FROM certificate_tag WHERE cert_id IN (" + SEEDED_CERTIFICATES + ")"))
+                .isEqualTo(240);
+        assertThat(count("SELECT COUNT(*) FROM cert_order WHERE created_date IS NOT NULL AND cert_id IN ("
+                + SEEDED_CERTIFICATES + ")")).isEqualTo(120);
+        assertThat(count("SELECT COUNT(*) FROM seed_chunk WHERE run = '120-30-50-7'")).isEqualTo(10);
+        assertThat(findChunk("120-30-50-7/orders/2")).satisfies(chunk -> {
+            assertThat(chunk.getRun()).isEqualTo("120-30-50-7");
+            assertThat(chunk.getRows()).isEqualTo(20);
+            assertThat(chunk.getCompletedAt()).isNotNull();
+        });
+        assertThat(meterRegistry.get("initial-data.rows").tag("entity", "orders").counter().count()).isEqualTo(120);
+
+        List<Long> tagUses = jdbcTemplate.queryForList("""
+                SELECT COUNT(*) FROM certificate_tag GROUP BY tag_id ORDER BY COUNT(*) DESC""", Long.class);
+        assertThat(tagUses.get(0)).isGreaterThan(tagUses.get(tagUses.size() - 1));
+    }
+
+    @Test
+    void generate_thenIndexesSeededRows() {
+        subject.generate(120);
+
+        CompressedBitmap indexed = tagIndex.match(null, false, null);
+        assertThat(jdbcTemplate.queryForList(SEEDED_CERTIFICATES, Long.class))
+                .allMatch(id -> indexed.contains(id.intValue()));
+        assertThat(suggestService.suggestTagNames("[tag]", 50)).hasSize(30);
+    }
+
+    @Test
+    void generate_whenRunAgain_thenSkipsCompletedChunks() throws Exception {
+        subject.generate(120);
+        jdbcTemplate.update("DELETE FROM seed_chunk WHERE id = '120-30-50-7/orders/2'");
+
+        subject.generateAsync(120).get(30, TimeUnit.SECONDS);
+
+        assertThat(count("SELECT COUNT(*) FROM (" + SEEDED_CERTIFICATES + ") c")).isEqualTo(120);
+        assertThat(count("SELECT COUNT(*) FROM cert_order WHERE cert_id IN (" + SEEDED_CERTIFICATES + ")"))
+                .isEqualTo(140);
+        assertThat(meterRegistry.get("initial-data.rows").tag("entity", "orders").counter().count()).isEqualTo(140);
+    }
+
+    private SeedChunk findChunk(String id) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            return entityManager.find(SeedChunk.class, id);
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}
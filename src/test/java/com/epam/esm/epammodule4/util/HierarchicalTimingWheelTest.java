@@ -0,0 +1,60 @@
+package com.epam.esm.epammodule4.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HierarchicalTimingWheelTest {
+
+    private static final long START = 1_000_000L;
+
+    @Test
+    void advance_whenItemsExpire_thenReturnsOnlyDueItems() {
+        HierarchicalTimingWheel<String> subject = new HierarchicalTimingWheel<>(10, 4, START);
+
+        subject.add("first", START + 15);
+        subject.add("second", START + 35);
+
+        assertThat(subject.advance(START + 10)).isEmpty();
+        assertThat(subject.advance(START + 20)).containsExactly("first");
+        assertThat(subject.advance(START + 40)).containsExactly("second");
+        assertThat(subject.size()).isZero();
+    }
+
+    @Test
+    void advance_whenExpirationBeyondFirstLevel_thenCascadesThroughLevels() {
+        HierarchicalTimingWheel<Integer> subject = new HierarchicalTimingWheel<>(10, 4, START);
+
+        for (int i = 0; i < 200; i++) {
+            subject.add(i, START + i * 7L);
+        }
+
+        assertThat(subject.size()).isEqualTo(200);
+
+        for (long now = START; now <= START + 1_400; now += 10) {
+            List<Integer> expired = subject.advance(now);
+
+            for (Integer item : expired) {
+                assertThat(START + item * 7L).isBetween(now - 10, now - 1);
+            }
+        }
+
+        assertThat(subject.size()).isZero();
+    }
+
+    @Test
+    void add_whenAlreadyExpired_thenReturnsFalse() {
+        HierarchicalTimingWheel<String> subject = new HierarchicalTimingWheel<>(10, 4, START);
+
+        assertThat(subject.add("old", START - 1)).isFalse();
+        assertThat(subject.size()).isZero();
+    }
+
+    @Test
+    void constructor_whenWheelSizeTooSmall_thenThrowsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new HierarchicalTimingWheel<>(10, 1, START));
+    }
+}
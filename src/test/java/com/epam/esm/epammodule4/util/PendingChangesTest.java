@@ -0,0 +1,56 @@
+package com.epam.esm.epammodule4.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PendingChangesTest {
+
+    private final Map<Integer, String> index = new HashMap<>();
+    private final PendingChanges subject = new PendingChanges(new ReentrantLock());
+
+    @Test
+    void apply_whenNoRebuild_thenAppliesOnce() {
+        List<String> applied = new ArrayList<>();
+
+        subject.apply(() -> applied.add("change"));
+
+        assertThat(applied).containsExactly("change");
+    }
+
+    @Test
+    void rebuild_whenChangedWhileReading_thenReplaysChangeOverSnapshot() {
+        subject.rebuild(() -> {
+            Map<Integer, String> snapshot = Map.of(1, "stale", 2, "kept");
+            subject.apply(() -> index.put(1, "changed"));
+            subject.apply(() -> index.put(3, "created"));
+            return () -> {
+                index.clear();
+                index.putAll(snapshot);
+            };
+        });
+        subject.apply(() -> index.remove(2));
+
+        assertThat(index).containsExactlyInAnyOrderEntriesOf(Map.of(1, "changed", 3, "created"));
+    }
+
+    @Test
+    void rebuild_whenLoadFails_thenStopsKeepingChanges() {
+        List<String> applied = new ArrayList<>();
+
+        assertThrows(IllegalStateException.class, () -> subject.rebuild(() -> {
+            throw new IllegalStateException("database down");
+        }));
+        subject.apply(() -> applied.add("change"));
+        subject.rebuild(() -> () -> applied.add("install"));
+
+        assertThat(applied).containsExactly("change", "install");
+    }
+}
@@ -0,0 +1,44 @@
+package com.epam.esm.epammodule4.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TextAnalyzerTest {
+
+    @Test
+    void analyze_thenLowerCasesSplitsAndDropsStopWords() {
+        assertThat(TextAnalyzer.analyze("The Spa-Day, for 2 PERSONS!"))
+                .containsExactly("spa", "day", "2", "person");
+    }
+
+    @Test
+    void analyze_whenNull_thenReturnsNoTerms() {
+        assertThat(TextAnalyzer.analyze(null)).isEmpty();
+    }
+
+    @Test
+    void words_thenKeepsStopWordsAndInflections() {
+        assertThat(TextAnalyzer.words("The Spa-Day, for 2 PERSONS!"))
+                .containsExactly("the", "spa", "day", "for", "2", "persons");
+        assertThat(TextAnalyzer.words(null)).isEmpty();
+    }
+
+    @Test
+    void stem_thenStripsInflectionalSuffixes() {
+        assertThat(TextAnalyzer.stem("massages")).isEqualTo("massage");
+        assertThat(TextAnalyzer.stem("activities")).isEqualTo("activity");
+        assertThat(TextAnalyzer.stem("classes")).isEqualTo("class");
+        assertThat(TextAnalyzer.stem("running")).isEqualTo("run");
+        assertThat(TextAnalyzer.stem("booked")).isEqualTo("book");
+        assertThat(TextAnalyzer.stem("quickly")).isEqualTo("quick");
+        assertThat(TextAnalyzer.stem("falling")).isEqualTo("fall");
+    }
+
+    @Test
+    void stem_whenWordIsShortOrUninflected_thenKeepsIt() {
+        assertThat(TextAnalyzer.stem("bed")).isEqualTo("bed");
+        assertThat(TextAnalyzer.stem("glass")).isEqualTo("glass");
+        assertThat(TextAnalyzer.stem("bonus")).isEqualTo("bonus");
+    }
+}
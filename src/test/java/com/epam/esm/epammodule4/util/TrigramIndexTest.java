@@ -0,0 +1,65 @@
+package com.epam.esm.epammodule4.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrigramIndexTest {
+
+    @Test
+    void search_thenReturnsValuesWithinDistanceClosestFirst() {
+        TrigramIndex subject = new TrigramIndex();
+        List.of("massage", "message", "passage", "massive", "sauna").forEach(subject::add);
+
+        assertThat(subject.search("masage", 1))
+                .containsExactly(new TrigramIndex.Match("massage", 1));
+        assertThat(subject.search("massage", 2)).containsExactly(
+                new TrigramIndex.Match("massage", 0),
+                new TrigramIndex.Match("message", 1),
+                new TrigramIndex.Match("passage", 1),
+                new TrigramIndex.Match("massive", 2));
+        assertThat(subject.search("sauna", 0)).containsExactly(new TrigramIndex.Match("sauna", 0));
+    }
+
+    @Test
+    void search_whenNoTrigramIsShared_thenFindsNothing() {
+        TrigramIndex subject = new TrigramIndex();
+        subject.add("ab");
+
+        assertThat(TrigramIndex.distance("ba", "ab", 2)).isEqualTo(2);
+        assertThat(subject.search("ba", 2)).isEmpty();
+    }
+
+    @Test
+    void remove_thenValueIsNoLongerFoundAndOrdinalIsReused() {
+        TrigramIndex subject = new TrigramIndex();
+        subject.add("spa");
+        subject.add("spas");
+
+        assertThat(subject.add("spa")).isFalse();
+        assertThat(subject.remove("spa")).isTrue();
+        assertThat(subject.remove("spa")).isFalse();
+        assertThat(subject.search("spa", 1)).containsExactly(new TrigramIndex.Match("spas", 1));
+
+        subject.add("sap");
+        assertThat(subject.size()).isEqualTo(2);
+        assertThat(subject.search("spa", 2)).containsExactly(
+                new TrigramIndex.Match("spas", 1),
+                new TrigramIndex.Match("sap", 2));
+    }
+
+    @Test
+    void distance_thenStopsAtLimit() {
+        assertThat(TrigramIndex.distance("kitten", "sitting", 5)).isEqualTo(3);
+        assertThat(TrigramIndex.distance("kitten", "sitting", 2)).isEqualTo(3);
+        assertThat(TrigramIndex.distance("spa", "spa day", 1)).isEqualTo(2);
+        assertThat(TrigramIndex.distance("", "ab", 2)).isEqualTo(2);
+    }
+
+    @Test
+    void trigrams_thenPadsLikePgTrgm() {
+        assertThat(TrigramIndex.trigrams("spa")).containsExactlyInAnyOrder("  s", " sp", "spa", "pa ");
+    }
+}
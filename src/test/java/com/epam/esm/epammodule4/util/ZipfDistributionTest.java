@@ -0,0 +1,63 @@
+package com.epam.esm.epammodule4.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ZipfDistributionTest {
+
+    private static final int DRAWS = 100_000;
+
+    @Test
+    void sample_thenFavoursLowRanksByTheirWeight() {
+        int[] counts = draw(new ZipfDistribution(10, 1.0));
+        double total = 0;
+        for (int rank = 1; rank <= 10; rank++) {
+            total += 1.0 / rank;
+        }
+
+        assertThat(counts[0] / (double) DRAWS).isCloseTo(1 / total, within(0.01));
+        assertThat(counts[1] / (double) DRAWS).isCloseTo(0.5 / total, within(0.01));
+        assertThat(counts[9] / (double) DRAWS).isCloseTo(0.1 / total, within(0.01));
+        assertThat(counts[0]).isGreaterThan(counts[4]).isGreaterThan(counts[9]);
+    }
+
+    @Test
+    void sample_whenExponentIsZero_thenDrawsUniformly() {
+        int[] counts = draw(new ZipfDistribution(4, 0.0));
+
+        for (int count : counts) {
+            assertThat(count / (double) DRAWS).isCloseTo(0.25, within(0.01));
+        }
+    }
+
+    @Test
+    void sample_whenSingleRank_thenAlwaysDrawsIt() {
+        ZipfDistribution distribution = new ZipfDistribution(1, 2.0);
+
+        assertThat(distribution.size()).isEqualTo(1);
+        assertThat(draw(distribution)[0]).isEqualTo(DRAWS);
+    }
+
+    @Test
+    void constructor_whenNoRanks_thenThrowsIllegalArgumentException() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> new ZipfDistribution(0, 1.0));
+
+        assertThat(exception.getMessage()).isEqualTo("At least one rank is needed, got 0");
+    }
+
+    private static int[] draw(ZipfDistribution distribution) {
+        SplittableRandom random = new SplittableRandom(7);
+        int[] counts = new int[distribution.size()];
+
+        for (int i = 0; i < DRAWS; i++) {
+            counts[distribution.sample(random)]++;
+        }
+        return counts;
+    }
+}